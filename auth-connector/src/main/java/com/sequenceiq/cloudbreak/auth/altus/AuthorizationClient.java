@@ -2,6 +2,8 @@ package com.sequenceiq.cloudbreak.auth.altus;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.List;
+
 import org.springframework.util.StringUtils;
 
 import com.cloudera.thunderhead.service.authorization.AuthorizationGrpc;
@@ -48,6 +50,26 @@ public class AuthorizationClient {
         );
     }
 
+    /**
+     * Performs all the given right checks of the user in one call.
+     *
+     * @param requestId   the request ID
+     * @param userCrn     the CRN of the user to check
+     * @param rightChecks the rights and resources to check
+     * @return the results of the checks, in the order of the checks
+     */
+    public List<Boolean> hasRights(String requestId, String userCrn, List<AuthorizationProto.RightCheck> rightChecks) {
+        checkNotNull(requestId);
+        checkNotNull(userCrn);
+        checkNotNull(rightChecks);
+        return newStub(requestId).hasRights(
+                AuthorizationProto.HasRightsRequest.newBuilder()
+                        .setActorCrn(userCrn)
+                        .addAllCheck(rightChecks)
+                        .build()
+        ).getResultList();
+    }
+
     /**
      * Creates a new stub with the appropriate metadata injecting interceptors.
      *
@@ -2,7 +2,11 @@ package com.sequenceiq.cloudbreak.auth.altus;
 
 import static io.grpc.internal.GrpcUtil.DEFAULT_MAX_MESSAGE_SIZE;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,6 +20,7 @@ import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 
+import com.cloudera.thunderhead.service.authorization.AuthorizationProto.RightCheck;
 import com.cloudera.thunderhead.service.usermanagement.UserManagementProto;
 import com.cloudera.thunderhead.service.usermanagement.UserManagementProto.Account;
 import com.cloudera.thunderhead.service.usermanagement.UserManagementProto.CreateAccessKeyResponse;
@@ -25,6 +30,7 @@ import com.cloudera.thunderhead.service.usermanagement.UserManagementProto.GetRi
 import com.cloudera.thunderhead.service.usermanagement.UserManagementProto.Group;
 import com.cloudera.thunderhead.service.usermanagement.UserManagementProto.MachineUser;
 import com.cloudera.thunderhead.service.usermanagement.UserManagementProto.User;
+import com.sequenceiq.cloudbreak.auth.altus.cache.UmsUserRightsCacheAccessor;
 import com.sequenceiq.cloudbreak.auth.altus.config.UmsClientConfig;
 import com.sequenceiq.cloudbreak.auth.altus.config.UmsConfig;
 import com.sequenceiq.cloudbreak.auth.altus.exception.UmsOperationException;
@@ -49,6 +55,9 @@ public class GrpcUmsClient {
     @Inject
     private UmsClientConfig umsClientConfig;
 
+    @Inject
+    private UmsUserRightsCacheAccessor umsUserRightsCacheAccessor;
+
     /**
      * Retrieves list of all groups from UMS.
      *
@@ -327,6 +336,71 @@ public class GrpcUmsClient {
         return checkRight(actorCrn, userCrn, right, null, requestId);
     }
 
+    /**
+     * Checks all the given rights of the user with at most one UMS call. Only the checks without a decision in the rights cache of
+     * {@link #checkRight(String, String, String, String, Optional)} are sent to UMS, and the same check is sent only once.
+     *
+     * @param actorCrn    the CRN of the caller
+     * @param userCrn     the CRN of the user whose rights are checked
+     * @param rightChecks the rights and resources to check
+     * @param requestId   an optional request Id
+     * @return the results of the checks, in the order of the checks
+     */
+    public List<Boolean> hasRights(String actorCrn, String userCrn, List<RightCheck> rightChecks, Optional<String> requestId) {
+        Boolean[] results = new Boolean[rightChecks.size()];
+        if (InternalCrnBuilder.isInternalCrn(actorCrn)) {
+            LOGGER.info("InternalCrn, allow {} rights for user {}!", rightChecks.size(), userCrn);
+            Arrays.fill(results, Boolean.TRUE);
+            return Arrays.asList(results);
+        }
+        Map<RightCheck, List<Integer>> indexesOfUncachedChecks = new LinkedHashMap<>();
+        for (int i = 0; i < rightChecks.size(); i++) {
+            RightCheck rightCheck = rightChecks.get(i);
+            Boolean cachedDecision = isReadRight(rightCheck.getRight())
+                    ? Boolean.TRUE
+                    : umsUserRightsCacheAccessor.getIfPresent(actorCrn, userCrn, rightCheck.getRight(), getResource(rightCheck));
+            if (cachedDecision != null) {
+                results[i] = cachedDecision;
+            } else {
+                indexesOfUncachedChecks.computeIfAbsent(rightCheck, check -> new ArrayList<>()).add(i);
+            }
+        }
+        if (!indexesOfUncachedChecks.isEmpty()) {
+            List<RightCheck> uncachedChecks = new ArrayList<>(indexesOfUncachedChecks.keySet());
+            List<Boolean> decisions = fetchRights(actorCrn, userCrn, uncachedChecks, requestId);
+            for (int i = 0; i < uncachedChecks.size(); i++) {
+                Boolean decision = decisions.get(i);
+                indexesOfUncachedChecks.get(uncachedChecks.get(i)).forEach(index -> results[index] = decision);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private List<Boolean> fetchRights(String actorCrn, String userCrn, List<RightCheck> rightChecks, Optional<String> requestId) {
+        try (ManagedChannelWrapper channelWrapper = makeWrapper()) {
+            AuthorizationClient client = new AuthorizationClient(channelWrapper.getChannel(), actorCrn);
+            LOGGER.info("Checking {} rights for user {}!", rightChecks.size(), userCrn);
+            List<Boolean> decisions = client.hasRights(requestId.orElse(UUID.randomUUID().toString()), userCrn, rightChecks);
+            if (decisions.size() != rightChecks.size()) {
+                throw new UmsOperationException(String.format("UMS returned %d results for %d right checks", decisions.size(), rightChecks.size()));
+            }
+            for (int i = 0; i < rightChecks.size(); i++) {
+                RightCheck rightCheck = rightChecks.get(i);
+                umsUserRightsCacheAccessor.put(actorCrn, userCrn, rightCheck.getRight(), getResource(rightCheck), decisions.get(i));
+            }
+            return decisions;
+        } catch (RuntimeException e) {
+            LOGGER.error("Checking {} rights failed for user {}, thus access is denied! Cause: {}", rightChecks.size(), userCrn, e.getMessage());
+            Boolean[] denied = new Boolean[rightChecks.size()];
+            Arrays.fill(denied, Boolean.FALSE);
+            return Arrays.asList(denied);
+        }
+    }
+
+    private String getResource(RightCheck rightCheck) {
+        return rightCheck.getResource().isEmpty() ? null : rightCheck.getResource();
+    }
+
     @Cacheable(cacheNames = "umsResourceAssigneesCache", key = "{ #actorCrn, #userCrn, #resourceCrn }")
     public List<UserManagementProto.ResourceAssignee> listAssigneesOfResource(String actorCrn, String userCrn,
             String resourceCrn, Optional<String> requestId) {
@@ -480,35 +554,38 @@ public class GrpcUmsClient {
         }
     }
 
-    // Cache evict does not work with this key, we need to wait 60s
-    // @CacheEvict(cacheNames = {"umsUserRightsCache", "umsUserRoleAssigmentsCache", "umsResourceAssigneesCache"}, key = "#userCrn")
+    // Cache evict does not work with this key, we need to wait 60s for the role assignments and the assignees
+    // @CacheEvict(cacheNames = {"umsUserRoleAssigmentsCache", "umsResourceAssigneesCache"}, key = "#userCrn")
     public void assignResourceRole(String userCrn, String resourceCrn, String resourceRoleCrn, Optional<String> requestId) {
         try (ManagedChannelWrapper channelWrapper = makeWrapper()) {
             UmsClient client = makeClient(channelWrapper.getChannel(), userCrn);
             LOGGER.info("Assigning {} role for resource {} to user {}", resourceRoleCrn, resourceCrn, userCrn);
             client.assignResourceRole(requestId.orElse(UUID.randomUUID().toString()), userCrn, resourceCrn, resourceRoleCrn);
+            umsUserRightsCacheAccessor.evictUser(userCrn);
             LOGGER.info("Assigned {} role for resource {} to user {}", resourceRoleCrn, resourceCrn, userCrn);
         }
     }
 
-    // Cache evict does not work with this key, we need to wait 60s
-    // @CacheEvict(cacheNames = {"umsUserRightsCache", "umsUserRoleAssigmentsCache", "umsResourceAssigneesCache"}, key = "#userCrn")
+    // Cache evict does not work with this key, we need to wait 60s for the role assignments and the assignees
+    // @CacheEvict(cacheNames = {"umsUserRoleAssigmentsCache", "umsResourceAssigneesCache"}, key = "#userCrn")
     public void unassignResourceRole(String userCrn, String resourceCrn, String resourceRoleCrn, Optional<String> requestId) {
         try (ManagedChannelWrapper channelWrapper = makeWrapper()) {
             UmsClient client = makeClient(channelWrapper.getChannel(), userCrn);
             LOGGER.info("Unassigning {} role for resource {} from user {}", resourceRoleCrn, resourceCrn, userCrn);
             client.unassignResourceRole(requestId.orElse(UUID.randomUUID().toString()), userCrn, resourceCrn, resourceRoleCrn);
+            umsUserRightsCacheAccessor.evictUser(userCrn);
             LOGGER.info("Unassigned {} role for resource {} from user {}", resourceRoleCrn, resourceCrn, userCrn);
         }
     }
 
-    // Cache evict does not work with this key, we need to wait 60s
-    // @CacheEvict(cacheNames = {"umsUserRightsCache", "umsUserRoleAssigmentsCache", "umsResourceAssigneesCache"}, key = "#userCrn")
+    // Cache evict does not work with this key, we need to wait 60s for the role assignments and the assignees
+    // @CacheEvict(cacheNames = {"umsUserRoleAssigmentsCache", "umsResourceAssigneesCache"}, key = "#userCrn")
     public void notifyResourceDeleted(String userCrn, String resourceCrn, Optional<String> requestId) {
         try (ManagedChannelWrapper channelWrapper = makeWrapper()) {
             LOGGER.debug("Notify UMS about resource ('{}') was deleted", resourceCrn);
             UmsClient client = makeClient(channelWrapper.getChannel(), userCrn);
             client.notifyResourceDeleted(requestId.orElse(UUID.randomUUID().toString()), resourceCrn);
+            umsUserRightsCacheAccessor.evictResource(resourceCrn);
             LOGGER.debug("Notify resource delete UMS call has been finished for resource crn: {} (by {})", resourceCrn, userCrn);
         }
     }
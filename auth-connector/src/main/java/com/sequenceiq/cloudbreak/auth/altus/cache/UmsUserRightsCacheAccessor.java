@@ -0,0 +1,78 @@
+package com.sequenceiq.cloudbreak.auth.altus.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads, writes and evicts the right decisions of the umsUserRightsCache outside of the caching annotations. The keys are the keys of
+ * {@code GrpcUmsClient.checkRight}, {@code { #actorCrn, #userCrn, #right, #resource }}, so the bulk right checks and the single right checks
+ * share their decisions. Spring evicts an entry only by its full key, so the decisions of a user or of a resource are evicted through the
+ * Caffeine cache behind it.
+ */
+@Component
+public class UmsUserRightsCacheAccessor {
+
+    static final String CACHE_NAME = "umsUserRightsCache";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UmsUserRightsCacheAccessor.class);
+
+    private static final int USER_CRN_INDEX = 1;
+
+    private static final int RESOURCE_INDEX = 3;
+
+    private final Optional<CacheManager> cacheManager;
+
+    @Inject
+    public UmsUserRightsCacheAccessor(Optional<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public Boolean getIfPresent(String actorCrn, String userCrn, String right, String resource) {
+        return getCache().map(cache -> cache.get(key(actorCrn, userCrn, right, resource), Boolean.class)).orElse(null);
+    }
+
+    public void put(String actorCrn, String userCrn, String right, String resource, boolean decision) {
+        getCache().ifPresent(cache -> cache.put(key(actorCrn, userCrn, right, resource), decision));
+    }
+
+    public void evictUser(String userCrn) {
+        LOGGER.debug("Evicting the cached rights of {}", userCrn);
+        evictIf(key -> Objects.equals(key.get(USER_CRN_INDEX), userCrn));
+    }
+
+    public void evictResource(String resource) {
+        LOGGER.debug("Evicting the cached rights on {}", resource);
+        evictIf(key -> Objects.equals(key.get(RESOURCE_INDEX), resource));
+    }
+
+    private void evictIf(Predicate<List<?>> predicate) {
+        getCache().ifPresent(cache -> {
+            Object nativeCache = cache.getNativeCache();
+            if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+                ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).asMap().keySet()
+                        .removeIf(key -> key instanceof List && ((List<?>) key).size() > RESOURCE_INDEX && predicate.test((List<?>) key));
+            } else {
+                cache.clear();
+            }
+        });
+    }
+
+    private Optional<Cache> getCache() {
+        return cacheManager.map(manager -> manager.getCache(CACHE_NAME));
+    }
+
+    private static List<Object> key(String actorCrn, String userCrn, String right, String resource) {
+        return Arrays.asList(actorCrn, userCrn, right, resource);
+    }
+}
@@ -0,0 +1,95 @@
+package com.sequenceiq.cloudbreak.auth.altus.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+public class UmsUserRightsCacheAccessorTest {
+
+    private static final String USER_CRN = "crn:cdp:iam:us-west-1:1234:user:user";
+
+    private static final String OTHER_USER_CRN = "crn:cdp:iam:us-west-1:1234:user:other";
+
+    private static final String RESOURCE_CRN = "crn:cdp:datalake:us-west-1:1234:datalake:dl";
+
+    private static final String RIGHT = "datalake/write";
+
+    private UmsUserRightsCacheAccessor underTest;
+
+    private Cache cache;
+
+    @Before
+    public void setUp() {
+        cache = new CaffeineCache(UmsUserRightsCacheAccessor.CACHE_NAME, Caffeine.newBuilder().build());
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(cache));
+        cacheManager.afterPropertiesSet();
+        underTest = new UmsUserRightsCacheAccessor(Optional.of(cacheManager));
+    }
+
+    @Test
+    public void testDecisionIsSharedWithTheRightCheckOfTheUser() {
+        cache.put(checkRightKey(USER_CRN, OTHER_USER_CRN, RIGHT, null), true);
+        underTest.put(USER_CRN, USER_CRN, RIGHT, RESOURCE_CRN, false);
+
+        assertEquals(Boolean.TRUE, underTest.getIfPresent(USER_CRN, OTHER_USER_CRN, RIGHT, null));
+        assertEquals(Boolean.FALSE, cache.get(checkRightKey(USER_CRN, USER_CRN, RIGHT, RESOURCE_CRN), Boolean.class));
+        assertNull(underTest.getIfPresent(USER_CRN, USER_CRN, RIGHT, null));
+        assertNull(underTest.getIfPresent(OTHER_USER_CRN, USER_CRN, RIGHT, RESOURCE_CRN));
+    }
+
+    @Test
+    public void testEvictUserEvictsOnlyTheRightsOfTheUser() {
+        cache.put(checkRightKey(USER_CRN, USER_CRN, RIGHT, null), true);
+        underTest.put(OTHER_USER_CRN, OTHER_USER_CRN, RIGHT, RESOURCE_CRN, true);
+
+        underTest.evictUser(USER_CRN);
+
+        assertNull(underTest.getIfPresent(USER_CRN, USER_CRN, RIGHT, null));
+        assertEquals(Boolean.TRUE, underTest.getIfPresent(OTHER_USER_CRN, OTHER_USER_CRN, RIGHT, RESOURCE_CRN));
+    }
+
+    @Test
+    public void testEvictResourceEvictsTheRightsOnTheResource() {
+        underTest.put(USER_CRN, USER_CRN, RIGHT, RESOURCE_CRN, true);
+        underTest.put(OTHER_USER_CRN, OTHER_USER_CRN, RIGHT, RESOURCE_CRN, false);
+        underTest.put(USER_CRN, USER_CRN, RIGHT, null, true);
+
+        underTest.evictResource(RESOURCE_CRN);
+
+        assertNull(underTest.getIfPresent(USER_CRN, USER_CRN, RIGHT, RESOURCE_CRN));
+        assertNull(underTest.getIfPresent(OTHER_USER_CRN, OTHER_USER_CRN, RIGHT, RESOURCE_CRN));
+        assertEquals(Boolean.TRUE, underTest.getIfPresent(USER_CRN, USER_CRN, RIGHT, null));
+    }
+
+    @Test
+    public void testNothingIsCachedWithoutCacheManager() {
+        underTest = new UmsUserRightsCacheAccessor(Optional.empty());
+
+        underTest.put(USER_CRN, USER_CRN, RIGHT, null, true);
+        underTest.evictUser(USER_CRN);
+
+        assertNull(underTest.getIfPresent(USER_CRN, USER_CRN, RIGHT, null));
+    }
+
+    private Object checkRightKey(String actorCrn, String userCrn, String right, String resource) {
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        context.setVariable("actorCrn", actorCrn);
+        context.setVariable("userCrn", userCrn);
+        context.setVariable("right", right);
+        context.setVariable("resource", resource);
+        return new SpelExpressionParser().parseExpression("{ #actorCrn, #userCrn, #right, #resource }").getValue(context);
+    }
+}
@@ -1,16 +1,20 @@
 package com.sequenceiq.authorization.service;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.ws.rs.BadRequestException;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import com.cloudera.thunderhead.service.authorization.AuthorizationProto.RightCheck;
 import com.sequenceiq.authorization.resource.AuthorizationResource;
 import com.sequenceiq.authorization.resource.ResourceAction;
 import com.sequenceiq.authorization.resource.RightUtils;
@@ -37,6 +41,21 @@ public class UmsAuthorizationService {
         return umsClient.checkRight(userCrn, userCrn, RightUtils.getRight(resource, action), getRequestId());
     }
 
+    /**
+     * Checks the rights of the user given by resource and action names with at most one UMS call, see
+     * {@link #hasRightOfUserForResource(String, String, String)}.
+     *
+     * @param userCrn                the CRN of the user
+     * @param resourceAndActionNames the names of the resources and of the actions to perform on them
+     * @return the decisions, in the order of the resource and action names
+     */
+    public List<Boolean> hasRightsOfUser(String userCrn, List<Pair<String, String>> resourceAndActionNames) {
+        List<RightCheck> rightChecks = resourceAndActionNames.stream()
+                .map(names -> RightCheck.newBuilder().setRight(getRight(names.getLeft(), names.getRight())).build())
+                .collect(Collectors.toList());
+        return umsClient.hasRights(userCrn, userCrn, rightChecks, getRequestId());
+    }
+
     public void checkRightOfUserForResource(String userCrn, AuthorizationResource resource, ResourceAction action) {
         String right = RightUtils.getRight(resource, action);
         String unauthorizedMessage = String.format("You have no right to perform %s. This requires one of these roles: %s. "
@@ -46,15 +65,19 @@ public class UmsAuthorizationService {
     }
 
     public Boolean hasRightOfUserForResource(String userCrn, String resource, String action) {
+        if (!umsClient.checkRight(userCrn, userCrn, getRight(resource, action), getRequestId())) {
+            return Boolean.FALSE;
+        }
+        return Boolean.TRUE;
+    }
+
+    private String getRight(String resource, String action) {
         Optional<AuthorizationResource> resourceEnum = AuthorizationResource.getByName(resource);
         Optional<ResourceAction> actionEnum = ResourceAction.getByName(action);
         if (!resourceEnum.isPresent() || !actionEnum.isPresent()) {
             throw new BadRequestException("Resource or action cannot be found by request!");
         }
-        if (!hasRightOfUserForResource(userCrn, resourceEnum.get(), actionEnum.get())) {
-            return Boolean.FALSE;
-        }
-        return Boolean.TRUE;
+        return RightUtils.getRight(resourceEnum.get(), actionEnum.get());
     }
 
     protected Optional<String> getRequestId() {
@@ -1,9 +1,11 @@
 package com.sequenceiq.authorization.service;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
@@ -14,6 +16,7 @@ import java.util.stream.Collectors;
 
 import javax.ws.rs.BadRequestException;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -23,6 +26,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.security.access.AccessDeniedException;
 
+import com.cloudera.thunderhead.service.authorization.AuthorizationProto.RightCheck;
 import com.cloudera.thunderhead.service.usermanagement.UserManagementProto;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -48,6 +52,28 @@ public class UmsAuthorizationServiceTest {
     @InjectMocks
     private UmsAuthorizationService underTest;
 
+    @Test
+    public void testHasRightsOfUserChecksAllTheRightsInOneCall() {
+        List<RightCheck> expectedChecks = List.of(
+                RightCheck.newBuilder().setRight(RightUtils.getRight(AuthorizationResource.DATALAKE, ResourceAction.WRITE)).build(),
+                RightCheck.newBuilder().setRight(RightUtils.getRight(AuthorizationResource.ENVIRONMENT, ResourceAction.READ)).build());
+        when(umsClient.hasRights(eq(USER_CRN), eq(USER_CRN), eq(expectedChecks), any())).thenReturn(List.of(false, true));
+
+        List<Boolean> result = underTest.hasRightsOfUser(USER_CRN, List.of(Pair.of("datalake", "write"), Pair.of("environment", "read")));
+
+        assertEquals(List.of(false, true), result);
+    }
+
+    @Test
+    public void testHasRightsOfUserWithInvalidResource() {
+        thrown.expect(BadRequestException.class);
+        thrown.expectMessage("Resource or action cannot be found by request!");
+
+        underTest.hasRightsOfUser(USER_CRN, List.of(Pair.of("datalake", "write"), Pair.of("invalid", "write")));
+
+        verifyZeroInteractions(umsClient);
+    }
+
     @Test
     public void testCheckReadRight() {
         when(umsClient.checkRight(anyString(), anyString(), anyString(), any())).thenReturn(false);
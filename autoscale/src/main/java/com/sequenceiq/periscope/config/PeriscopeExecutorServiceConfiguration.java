@@ -10,6 +10,7 @@ import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerScheduledExecutor;
+import com.sequenceiq.cloudbreak.logger.concurrent.VirtualThreads;
 import com.sequenceiq.periscope.utils.MetricUtils;
 
 @Configuration
@@ -18,11 +19,21 @@ public class PeriscopeExecutorServiceConfiguration {
     @Value("${periscope.executorservice.pool.size:40}")
     private int executorServicePoolSize;
 
+    @Value("${cb.virtualthreads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${cb.virtualthreads.pool.size:10000}")
+    private int virtualThreadPoolSize;
+
     @Inject
     private MetricUtils metricUtils;
 
     @Bean
     ListeningScheduledExecutorService periscopeListeningScheduledExecutorService() {
+        if (VirtualThreads.isUsable(virtualThreadsEnabled)) {
+            return MoreExecutors.listeningDecorator(new MDCCleanerScheduledExecutor(virtualThreadPoolSize, VirtualThreads.newThreadFactory("autoscale-"),
+                    metricUtils::submitThreadPoolExecutorParameters));
+        }
         return MoreExecutors
                 .listeningDecorator(new MDCCleanerScheduledExecutor(executorServicePoolSize,
                         new ThreadFactoryBuilder().setNameFormat("autoscale-%d").build(), metricUtils::submitThreadPoolExecutorParameters));
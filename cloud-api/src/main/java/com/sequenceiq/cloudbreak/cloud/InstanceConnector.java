@@ -47,6 +47,28 @@ public interface InstanceConnector {
      */
     List<CloudVmInstanceStatus> check(AuthenticatedContext authenticatedContext, List<CloudInstance> vms);
 
+    /**
+     * Whether {@link #checkBatch(AuthenticatedContext, List)} can check the instances of several stacks in one go.
+     *
+     * @return true if the provider implements the batch check
+     */
+    default boolean isBatchCheckSupported() {
+        return false;
+    }
+
+    /**
+     * Checks the status of the VM instances of several stacks that share the credential and the region of the authenticated context, with as
+     * few provider calls as possible. Unlike {@link #check(AuthenticatedContext, List)}, an instance that is not known by the provider does not
+     * fail the check, it is left out of the result. Only invoked if {@link #isBatchCheckSupported()} returns true.
+     *
+     * @param authenticatedContext the authenticated context which holds the client object
+     * @param vms                  the VM instances for which the status needs to be checked
+     * @return status of the instances known by the provider
+     */
+    default List<CloudVmInstanceStatus> checkBatch(AuthenticatedContext authenticatedContext, List<CloudInstance> vms) {
+        return check(authenticatedContext, vms);
+    }
+
     /**
      * Gets the Consol output of a particular VM, useful for debugging and also required for setting up a secure connection between Cloudbreak and VM instances
      * since the SSH fingerprint is written into the console output.
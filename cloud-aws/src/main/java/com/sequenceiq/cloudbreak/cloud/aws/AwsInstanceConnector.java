@@ -4,9 +4,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -26,12 +28,14 @@ import com.amazonaws.services.ec2.AmazonEC2Client;
 import com.amazonaws.services.ec2.model.AmazonEC2Exception;
 import com.amazonaws.services.ec2.model.DescribeInstancesRequest;
 import com.amazonaws.services.ec2.model.DescribeInstancesResult;
+import com.amazonaws.services.ec2.model.Filter;
 import com.amazonaws.services.ec2.model.GetConsoleOutputRequest;
 import com.amazonaws.services.ec2.model.GetConsoleOutputResult;
 import com.amazonaws.services.ec2.model.Instance;
 import com.amazonaws.services.ec2.model.Reservation;
 import com.amazonaws.services.ec2.model.StartInstancesRequest;
 import com.amazonaws.services.ec2.model.StopInstancesRequest;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import com.sequenceiq.cloudbreak.cloud.InstanceConnector;
 import com.sequenceiq.cloudbreak.cloud.aws.poller.PollerUtil;
@@ -50,6 +54,12 @@ public class AwsInstanceConnector implements InstanceConnector {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AwsInstanceConnector.class);
 
+    private static final String INSTANCE_ID_FILTER = "instance-id";
+
+    private static final int MAX_FILTER_VALUES = 200;
+
+    private static final int MAX_RESULTS = 1000;
+
     @Inject
     private AwsClient awsClient;
 
@@ -158,7 +168,7 @@ public class AwsInstanceConnector implements InstanceConnector {
                     ac.getCloudContext().getLocation().getRegion().value())
                     .describeInstances(new DescribeInstancesRequest().withInstanceIds(instanceIds));
             LOGGER.debug("Result from AWS: {}", result);
-            return fillCloudVmInstanceStatuses(ac, cloudIntancesWithInstanceId, region, result);
+            return fillCloudVmInstanceStatuses(ac, byInstanceId(cloudIntancesWithInstanceId), region, result.getReservations());
         } catch (AmazonEC2Exception e) {
             handleEC2Exception(vms, e);
         } catch (SdkClientException e) {
@@ -168,39 +178,80 @@ public class AwsInstanceConnector implements InstanceConnector {
         return Collections.emptyList();
     }
 
-    private List<CloudVmInstanceStatus> fillCloudVmInstanceStatuses(AuthenticatedContext ac, List<CloudInstance> cloudIntancesWithInstanceId, String region,
-            DescribeInstancesResult result) {
+    @Override
+    public boolean isBatchCheckSupported() {
+        return true;
+    }
+
+    /**
+     * Describes the instances with instance id filters instead of instance ids, so the instances that do not exist anymore do not fail the
+     * request, and pages through the results, so the instances of every stack of a credential and region can be checked at once.
+     */
+    @Retryable(
+            value = SdkClientException.class,
+            maxAttempts = 15,
+            backoff = @Backoff(delay = 1000, multiplier = 2, maxDelay = 10000)
+    )
+    @Override
+    public List<CloudVmInstanceStatus> checkBatch(AuthenticatedContext ac, List<CloudInstance> vms) {
+        Map<String, CloudInstance> cloudInstancesByInstanceId = byInstanceId(vms);
+        String region = ac.getCloudContext().getLocation().getRegion().value();
+        AmazonEC2Client amazonEC2Client = awsClient.createAccess(new AwsCredentialView(ac.getCloudCredential()), region);
+        List<CloudVmInstanceStatus> cloudVmInstanceStatuses = new ArrayList<>();
+        int requests = 0;
+        for (List<String> instanceIds : Iterables.partition(cloudInstancesByInstanceId.keySet(), MAX_FILTER_VALUES)) {
+            DescribeInstancesRequest request = new DescribeInstancesRequest()
+                    .withFilters(new Filter(INSTANCE_ID_FILTER, instanceIds))
+                    .withMaxResults(MAX_RESULTS);
+            String nextToken;
+            do {
+                DescribeInstancesResult result = amazonEC2Client.describeInstances(request);
+                requests++;
+                cloudVmInstanceStatuses.addAll(fillCloudVmInstanceStatuses(ac, cloudInstancesByInstanceId, region, result.getReservations()));
+                nextToken = result.getNextToken();
+                request.setNextToken(nextToken);
+            } while (nextToken != null);
+        }
+        LOGGER.debug("{} of {} instances are found on aws side in region {} with {} requests", cloudVmInstanceStatuses.size(),
+                cloudInstancesByInstanceId.size(), region, requests);
+        return cloudVmInstanceStatuses;
+    }
+
+    private Map<String, CloudInstance> byInstanceId(List<CloudInstance> vms) {
+        return vms.stream()
+                .filter(cloudInstance -> cloudInstance.getInstanceId() != null)
+                .collect(Collectors.toMap(CloudInstance::getInstanceId, Function.identity(), (first, second) -> first, LinkedHashMap::new));
+    }
+
+    private List<CloudVmInstanceStatus> fillCloudVmInstanceStatuses(AuthenticatedContext ac, Map<String, CloudInstance> cloudInstancesByInstanceId,
+            String region, List<Reservation> reservations) {
         List<CloudVmInstanceStatus> cloudVmInstanceStatuses = new ArrayList<>();
-        for (Reservation reservation : result.getReservations()) {
+        for (Reservation reservation : reservations) {
             for (Instance instance : reservation.getInstances()) {
-                Optional<CloudInstance> cloudInstanceForInstanceId = cloudIntancesWithInstanceId.stream()
-                        .filter(cloudInstance -> cloudInstance.getInstanceId().equals(instance.getInstanceId()))
-                        .findFirst();
-                if (cloudInstanceForInstanceId.isPresent()) {
-                    CloudInstance cloudInstance = cloudInstanceForInstanceId.get();
-                    if ("Stopped".equalsIgnoreCase(instance.getState().getName())) {
-                        LOGGER.debug("AWS instance [{}] is in {} state, region: {}, stack: {}",
-                                instance.getInstanceId(), instance.getState().getName(), region, ac.getCloudContext().getId());
-                        cloudVmInstanceStatuses.add(new CloudVmInstanceStatus(cloudInstance, InstanceStatus.STOPPED));
-                    } else if ("Running".equalsIgnoreCase(instance.getState().getName())) {
-                        LOGGER.debug("AWS instance [{}] is in {} state, region: {}, stack: {}",
-                                instance.getInstanceId(), instance.getState().getName(), region, ac.getCloudContext().getId());
-                        cloudVmInstanceStatuses.add(new CloudVmInstanceStatus(cloudInstance, InstanceStatus.STARTED));
-                    } else if ("Terminated".equalsIgnoreCase(instance.getState().getName())) {
-                        LOGGER.debug("AWS instance [{}] is in {} state, region: {}, stack: {}",
-                                instance.getInstanceId(), instance.getState().getName(), region, ac.getCloudContext().getId());
-                        cloudVmInstanceStatuses.add(new CloudVmInstanceStatus(cloudInstance, InstanceStatus.TERMINATED));
-                    } else {
-                        LOGGER.debug("AWS instance [{}] is in {} state, region: {}, stack: {}",
-                                instance.getInstanceId(), instance.getState().getName(), region, ac.getCloudContext().getId());
-                        cloudVmInstanceStatuses.add(new CloudVmInstanceStatus(cloudInstance, InstanceStatus.IN_PROGRESS));
-                    }
+                CloudInstance cloudInstance = cloudInstancesByInstanceId.get(instance.getInstanceId());
+                if (cloudInstance != null) {
+                    LOGGER.debug("AWS instance [{}] is in {} state, region: {}, stack: {}",
+                            instance.getInstanceId(), instance.getState().getName(), region, ac.getCloudContext().getId());
+                    cloudVmInstanceStatuses.add(new CloudVmInstanceStatus(cloudInstance, getInstanceStatus(instance)));
                 }
             }
         }
         return cloudVmInstanceStatuses;
     }
 
+    private InstanceStatus getInstanceStatus(Instance instance) {
+        String state = instance.getState().getName();
+        if ("Stopped".equalsIgnoreCase(state)) {
+            return InstanceStatus.STOPPED;
+        } else if ("Running".equalsIgnoreCase(state)) {
+            return InstanceStatus.STARTED;
+        } else if ("Terminated".equalsIgnoreCase(state)) {
+            return InstanceStatus.TERMINATED;
+        } else {
+            return InstanceStatus.IN_PROGRESS;
+        }
+    }
+
     private Collection<String> instanceIdsWhichAreNotInCorrectState(List<CloudInstance> vms, AmazonEC2 amazonEC2Client, String state) {
         Set<String> instances = vms.stream().map(CloudInstance::getInstanceId).collect(Collectors.toCollection(HashSet::new));
         DescribeInstancesResult describeInstances = amazonEC2Client.describeInstances(
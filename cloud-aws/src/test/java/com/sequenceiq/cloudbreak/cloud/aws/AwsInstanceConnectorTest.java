@@ -0,0 +1,114 @@
+package com.sequenceiq.cloudbreak.cloud.aws;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.amazonaws.services.ec2.AmazonEC2Client;
+import com.amazonaws.services.ec2.model.DescribeInstancesRequest;
+import com.amazonaws.services.ec2.model.DescribeInstancesResult;
+import com.amazonaws.services.ec2.model.Instance;
+import com.amazonaws.services.ec2.model.InstanceState;
+import com.amazonaws.services.ec2.model.Reservation;
+import com.sequenceiq.cloudbreak.cloud.aws.view.AwsCredentialView;
+import com.sequenceiq.cloudbreak.cloud.context.AuthenticatedContext;
+import com.sequenceiq.cloudbreak.cloud.context.CloudContext;
+import com.sequenceiq.cloudbreak.cloud.model.AvailabilityZone;
+import com.sequenceiq.cloudbreak.cloud.model.CloudCredential;
+import com.sequenceiq.cloudbreak.cloud.model.CloudInstance;
+import com.sequenceiq.cloudbreak.cloud.model.CloudVmInstanceStatus;
+import com.sequenceiq.cloudbreak.cloud.model.InstanceStatus;
+import com.sequenceiq.cloudbreak.cloud.model.Location;
+import com.sequenceiq.cloudbreak.cloud.model.Region;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AwsInstanceConnectorTest {
+
+    private static final String USER_ID = "horton@hortonworks.com";
+
+    private static final Long WORKSPACE_ID = 1L;
+
+    private static final String NEXT_TOKEN = "next";
+
+    @Mock
+    private AwsClient awsClient;
+
+    @Mock
+    private AmazonEC2Client amazonEC2Client;
+
+    @InjectMocks
+    private AwsInstanceConnector underTest;
+
+    @Test
+    public void testCheckBatchPagesThroughTheChunksOfInstanceIds() {
+        List<CloudInstance> vms = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            vms.add(new CloudInstance("i-" + i, null, null));
+        }
+        vms.add(new CloudInstance(null, null, null));
+        when(awsClient.createAccess(any(AwsCredentialView.class), eq("region"))).thenReturn(amazonEC2Client);
+        when(amazonEC2Client.describeInstances(any(DescribeInstancesRequest.class))).thenAnswer(invocation -> {
+            DescribeInstancesRequest request = invocation.getArgument(0);
+            List<String> instanceIds = request.getFilters().get(0).getValues();
+            if (instanceIds.size() > 100 && request.getNextToken() == null) {
+                return new DescribeInstancesResult().withReservations(reservation(instanceIds.subList(0, 100), "running")).withNextToken(NEXT_TOKEN);
+            } else if (instanceIds.size() > 100) {
+                return new DescribeInstancesResult().withReservations(reservation(instanceIds.subList(100, instanceIds.size()), "stopped"));
+            }
+            return new DescribeInstancesResult().withReservations(reservation(instanceIds.subList(1, instanceIds.size()), "terminated"));
+        });
+
+        List<CloudVmInstanceStatus> statuses = underTest.checkBatch(authenticatedContext(), vms);
+
+        verify(amazonEC2Client, times(3)).describeInstances(any(DescribeInstancesRequest.class));
+        Map<String, InstanceStatus> statusesByInstanceId = statuses.stream()
+                .collect(Collectors.toMap(s -> s.getCloudInstance().getInstanceId(), CloudVmInstanceStatus::getStatus));
+        Assert.assertEquals(249, statusesByInstanceId.size());
+        Assert.assertEquals(InstanceStatus.STARTED, statusesByInstanceId.get("i-0"));
+        Assert.assertEquals(InstanceStatus.STOPPED, statusesByInstanceId.get("i-199"));
+        Assert.assertFalse(statusesByInstanceId.containsKey("i-200"));
+        Assert.assertEquals(InstanceStatus.TERMINATED, statusesByInstanceId.get("i-249"));
+    }
+
+    @Test
+    public void testCheckBatchIgnoresTheInstancesItDidNotAskFor() {
+        when(awsClient.createAccess(any(AwsCredentialView.class), eq("region"))).thenReturn(amazonEC2Client);
+        when(amazonEC2Client.describeInstances(any(DescribeInstancesRequest.class)))
+                .thenReturn(new DescribeInstancesResult().withReservations(reservation(List.of("i-1", "i-2"), "pending")));
+
+        List<CloudVmInstanceStatus> statuses = underTest.checkBatch(authenticatedContext(), List.of(new CloudInstance("i-1", null, null)));
+
+        Assert.assertEquals(1, statuses.size());
+        Assert.assertEquals("i-1", statuses.get(0).getCloudInstance().getInstanceId());
+        Assert.assertEquals(InstanceStatus.IN_PROGRESS, statuses.get(0).getStatus());
+    }
+
+    private Reservation reservation(List<String> instanceIds, String state) {
+        List<Instance> instances = instanceIds.stream()
+                .map(instanceId -> new Instance().withInstanceId(instanceId).withState(new InstanceState().withName(state)))
+                .collect(Collectors.toList());
+        return new Reservation().withInstances(instances);
+    }
+
+    private AuthenticatedContext authenticatedContext() {
+        Location location = Location.location(Region.region("region"), AvailabilityZone.availabilityZone("az"));
+        CloudContext cloudContext = new CloudContext(5L, "name", "platform", "variant",
+                location, USER_ID, WORKSPACE_ID);
+        CloudCredential credential = new CloudCredential("crn", null, null);
+        return new AuthenticatedContext(cloudContext, credential);
+    }
+}
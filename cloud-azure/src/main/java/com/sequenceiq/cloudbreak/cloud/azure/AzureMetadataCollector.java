@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -16,8 +17,11 @@ import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 
+import com.google.common.base.Suppliers;
 import com.microsoft.azure.management.compute.VirtualMachine;
+import com.microsoft.azure.management.compute.VirtualMachineInstanceView;
 import com.microsoft.azure.management.network.NetworkInterface;
+import com.microsoft.azure.management.network.PublicIPAddress;
 import com.sequenceiq.cloudbreak.cloud.MetadataCollector;
 import com.sequenceiq.cloudbreak.cloud.azure.client.AzureClient;
 import com.sequenceiq.cloudbreak.cloud.context.AuthenticatedContext;
@@ -61,16 +65,22 @@ public class AzureMetadataCollector implements MetadataCollector {
                 templateMap.keySet());
         azureVirtualMachineService.refreshInstanceViews(virtualMachinesByName);
         try {
+            Map<String, NetworkInterface> networkInterfacesByVmName = azureVirtualMachineService.getPrimaryNetworkInterfacesByVmName(azureClient,
+                    resourceGroup, virtualMachinesByName);
+            Map<String, PublicIPAddress> publicIpAddressesById = azureVmPublicIpProvider.getPublicIpAddressesById(azureClient, resourceGroup,
+                    networkInterfacesByVmName.values());
+            Supplier<String> loadBalancerIp = Suppliers.memoize(() ->
+                    azureClient.getLoadBalancerIps(resourceGroup, azureUtils.getLoadBalancerId(resourceGroup)).get(0));
             for (Entry<String, InstanceTemplate> instance : templateMap.entrySet()) {
                 VirtualMachine vm = virtualMachinesByName.get(instance.getKey());
-                //TODO: network interface is lazy, so we will fetch it for every instances
                 if (vm != null) {
-                    NetworkInterface networkInterface = vm.getPrimaryNetworkInterface();
+                    NetworkInterface networkInterface = Optional.ofNullable(networkInterfacesByVmName.get(instance.getKey()))
+                            .orElseGet(vm::getPrimaryNetworkInterface);
                     String subnetId = networkInterface.primaryIPConfiguration().subnetName();
 
-                    Integer faultDomainCount = azureClient.getFaultDomainNumber(resourceGroup, vm.name());
+                    Integer faultDomainCount = getFaultDomainNumber(azureClient, resourceGroup, vm);
 
-                    String publicIp = azureVmPublicIpProvider.getPublicIp(azureClient, azureUtils, networkInterface, resourceGroup);
+                    String publicIp = azureVmPublicIpProvider.getPublicIp(networkInterface, publicIpAddressesById, loadBalancerIp);
 
                     String instanceId = instance.getKey();
                     String localityIndicator = Optional.ofNullable(faultDomainCount)
@@ -97,6 +107,11 @@ public class AzureMetadataCollector implements MetadataCollector {
         return results;
     }
 
+    private Integer getFaultDomainNumber(AzureClient azureClient, String resourceGroup, VirtualMachine vm) {
+        VirtualMachineInstanceView instanceView = vm.instanceView();
+        return instanceView != null ? instanceView.platformFaultDomain() : azureClient.getFaultDomainNumber(resourceGroup, vm.name());
+    }
+
     private String getLocalityIndicator(Integer faultDomainCount, CloudContext cloudContext, InstanceTemplate instanceTemplate, String resourceGroup) {
         String platform = cloudContext.getPlatform().value();
         String location = cloudContext.getLocation().getRegion().value();
@@ -6,8 +6,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -24,6 +28,7 @@ import com.microsoft.azure.CloudException;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.compute.PowerState;
 import com.microsoft.azure.management.compute.VirtualMachine;
+import com.microsoft.azure.management.network.NetworkInterface;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.HasName;
 import com.sequenceiq.cloudbreak.cloud.azure.client.AzureClient;
 import com.sequenceiq.cloudbreak.cloud.azure.status.AzureInstanceStatus;
@@ -75,6 +80,42 @@ public class AzureVirtualMachineService {
         Completable.merge(refreshInstanceViewCompletables).await();
     }
 
+    /**
+     * Returns the primary network interface of the virtual machines by the name of the machines. The network interfaces of the resource group are
+     * listed at once, the ones outside of the resource group are fetched in parallel.
+     */
+    @Retryable(backoff = @Backoff(delay = 1000, multiplier = 2, maxDelay = 10000), maxAttempts = 5)
+    public Map<String, NetworkInterface> getPrimaryNetworkInterfacesByVmName(AzureClient azureClient, String resourceGroup,
+            Map<String, VirtualMachine> virtualMachines) {
+        Map<String, NetworkInterface> networkInterfacesById = new ConcurrentHashMap<>();
+        azureClient.getNetworkInterfaceList(resourceGroup).forEach(networkInterface -> networkInterfacesById.put(normalizeId(networkInterface.id()),
+                networkInterface));
+        Set<String> missingNetworkInterfaceIds = virtualMachines.values().stream()
+                .map(VirtualMachine::primaryNetworkInterfaceId)
+                .filter(Objects::nonNull)
+                .filter(networkInterfaceId -> !networkInterfacesById.containsKey(normalizeId(networkInterfaceId)))
+                .collect(Collectors.toSet());
+        if (!missingNetworkInterfaceIds.isEmpty()) {
+            LOGGER.info("Parallel fetch of the network interfaces outside of resource group {}: {}", resourceGroup, missingNetworkInterfaceIds);
+            List<Completable> networkInterfaceCompletables = new ArrayList<>();
+            for (String networkInterfaceId : missingNetworkInterfaceIds) {
+                networkInterfaceCompletables.add(Completable.fromObservable(azureClient.getNetworkInterfaceByIdAsync(networkInterfaceId)
+                        .doOnNext(networkInterface -> networkInterfacesById.put(normalizeId(networkInterfaceId), networkInterface)))
+                        .subscribeOn(Schedulers.io()));
+            }
+            Completable.merge(networkInterfaceCompletables).await();
+        }
+        Map<String, NetworkInterface> networkInterfacesByVmName = new HashMap<>();
+        virtualMachines.forEach((name, virtualMachine) -> Optional.ofNullable(virtualMachine.primaryNetworkInterfaceId())
+                .map(networkInterfaceId -> networkInterfacesById.get(normalizeId(networkInterfaceId)))
+                .ifPresent(networkInterface -> networkInterfacesByVmName.put(name, networkInterface)));
+        return networkInterfacesByVmName;
+    }
+
+    static String normalizeId(String resourceId) {
+        return resourceId.toLowerCase(Locale.ROOT);
+    }
+
     private boolean hasMissingVm(PagedList<VirtualMachine> virtualMachines, Collection<String> privateInstanceIds) {
         Set<String> virtualMachineNames = virtualMachines.stream().map(VirtualMachine::name).collect(Collectors.toSet());
         return !virtualMachineNames.containsAll(privateInstanceIds);
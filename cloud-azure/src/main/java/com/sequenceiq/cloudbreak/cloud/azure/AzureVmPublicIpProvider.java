@@ -1,32 +1,88 @@
 package com.sequenceiq.cloudbreak.cloud.azure;
 
+import static com.sequenceiq.cloudbreak.cloud.azure.AzureVirtualMachineService.normalizeId;
+
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import com.microsoft.azure.management.network.LoadBalancerBackend;
-import com.microsoft.azure.management.network.LoadBalancerInboundNatRule;
 import com.microsoft.azure.management.network.NetworkInterface;
+import com.microsoft.azure.management.network.NicIPConfiguration;
 import com.microsoft.azure.management.network.PublicIPAddress;
+import com.microsoft.azure.management.network.implementation.NetworkInterfaceIPConfigurationInner;
 import com.sequenceiq.cloudbreak.cloud.azure.client.AzureClient;
 
+import rx.Completable;
+import rx.schedulers.Schedulers;
+
 @Component
 class AzureVmPublicIpProvider {
 
-    String getPublicIp(AzureClient azureClient, AzureUtils azureUtils, NetworkInterface networkInterface, String resourceGroup) {
-        PublicIPAddress publicIpAddress = networkInterface.primaryIPConfiguration().getPublicIPAddress();
+    private static final Logger LOGGER = LoggerFactory.getLogger(AzureVmPublicIpProvider.class);
+
+    /**
+     * Returns the public IP addresses of the network interfaces by their id. The public IP addresses of the resource group are listed at once,
+     * the ones outside of the resource group are fetched in parallel.
+     */
+    Map<String, PublicIPAddress> getPublicIpAddressesById(AzureClient azureClient, String resourceGroup, Collection<NetworkInterface> networkInterfaces) {
+        Map<String, PublicIPAddress> publicIpAddressesById = new ConcurrentHashMap<>();
+        azureClient.getPublicIpAddresses(resourceGroup).forEach(publicIpAddress -> publicIpAddressesById.put(normalizeId(publicIpAddress.id()),
+                publicIpAddress));
+        Set<String> missingPublicIpAddressIds = networkInterfaces.stream()
+                .map(networkInterface -> networkInterface.primaryIPConfiguration().publicIPAddressId())
+                .filter(Objects::nonNull)
+                .filter(publicIpAddressId -> !publicIpAddressesById.containsKey(normalizeId(publicIpAddressId)))
+                .collect(Collectors.toSet());
+        if (!missingPublicIpAddressIds.isEmpty()) {
+            LOGGER.info("Parallel fetch of the public IP addresses outside of resource group {}: {}", resourceGroup, missingPublicIpAddressIds);
+            List<Completable> publicIpAddressCompletables = new ArrayList<>();
+            for (String publicIpAddressId : missingPublicIpAddressIds) {
+                publicIpAddressCompletables.add(Completable.fromObservable(azureClient.getPublicIpAddressByIdAsync(publicIpAddressId)
+                        .doOnNext(publicIpAddress -> publicIpAddressesById.put(normalizeId(publicIpAddressId), publicIpAddress)))
+                        .subscribeOn(Schedulers.io()));
+            }
+            Completable.merge(publicIpAddressCompletables).await();
+        }
+        return publicIpAddressesById;
+    }
 
-        List<LoadBalancerBackend> backends = networkInterface.primaryIPConfiguration().listAssociatedLoadBalancerBackends();
-        List<LoadBalancerInboundNatRule> inboundNatRules = networkInterface.primaryIPConfiguration().listAssociatedLoadBalancerInboundNatRules();
+    /**
+     * @param publicIpAddressesById the public IP addresses returned by {@link #getPublicIpAddressesById}
+     * @param loadBalancerIp        supplies the public IP of the load balancer of the resource group, only called if the network interface is
+     *                              behind the load balancer
+     */
+    String getPublicIp(NetworkInterface networkInterface, Map<String, PublicIPAddress> publicIpAddressesById, Supplier<String> loadBalancerIp) {
+        NicIPConfiguration ipConfiguration = networkInterface.primaryIPConfiguration();
         String publicIp = null;
-        if (!backends.isEmpty() || !inboundNatRules.isEmpty()) {
-            publicIp = azureClient.getLoadBalancerIps(resourceGroup, azureUtils.getLoadBalancerId(resourceGroup)).get(0);
+        if (isBehindLoadBalancer(ipConfiguration)) {
+            publicIp = loadBalancerIp.get();
         }
 
+        String publicIpAddressId = ipConfiguration.publicIPAddressId();
+        PublicIPAddress publicIpAddress = publicIpAddressId == null ? null : publicIpAddressesById.get(normalizeId(publicIpAddressId));
         if (publicIpAddress != null && publicIpAddress.ipAddress() != null) {
             publicIp = publicIpAddress.ipAddress();
         }
 
         return publicIp;
     }
+
+    private boolean isBehindLoadBalancer(NicIPConfiguration ipConfiguration) {
+        NetworkInterfaceIPConfigurationInner inner = ipConfiguration.inner();
+        return inner != null && (isNotEmpty(inner.loadBalancerBackendAddressPools()) || isNotEmpty(inner.loadBalancerInboundNatRules()));
+    }
+
+    private boolean isNotEmpty(List<?> references) {
+        return references != null && !references.isEmpty();
+    }
 }
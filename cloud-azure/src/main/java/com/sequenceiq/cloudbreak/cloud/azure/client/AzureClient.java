@@ -535,6 +535,10 @@ public class AzureClient {
         return handleAuthException(() -> azure.publicIPAddresses().getById(ipId));
     }
 
+    public Observable<PublicIPAddress> getPublicIpAddressByIdAsync(String ipId) {
+        return handleAuthException(() -> azure.publicIPAddresses().getByIdAsync(ipId));
+    }
+
     public Completable deleteNetworkInterfaceAsync(String resourceGroup, String networkInterfaceName) {
         return handleAuthException(() -> azure.networkInterfaces().deleteByResourceGroupAsync(resourceGroup, networkInterfaceName));
     }
@@ -547,6 +551,14 @@ public class AzureClient {
         return handleAuthException(() -> azure.networkInterfaces().getById(networkInterfaceId));
     }
 
+    public Observable<NetworkInterface> getNetworkInterfaceByIdAsync(String networkInterfaceId) {
+        return handleAuthException(() -> azure.networkInterfaces().getByIdAsync(networkInterfaceId));
+    }
+
+    public PagedList<NetworkInterface> getNetworkInterfaceList(String resourceGroup) {
+        return handleAuthException(() -> azure.networkInterfaces().listByResourceGroup(resourceGroup));
+    }
+
     public NetworkInterfaces getNetworkInterfaces() {
         return handleAuthException(azure::networkInterfaces);
     }
@@ -1,10 +1,13 @@
 package com.sequenceiq.cloudbreak.cloud.azure;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
@@ -18,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import com.microsoft.azure.management.compute.VirtualMachine;
+import com.microsoft.azure.management.compute.VirtualMachineInstanceView;
 import com.microsoft.azure.management.network.NetworkInterface;
 import com.microsoft.azure.management.network.NicIPConfiguration;
 import com.sequenceiq.cloudbreak.cloud.azure.client.AzureClient;
@@ -106,10 +110,11 @@ public class AzureMetadataCollectorTest {
                 .thenReturn(INSTANCE_2)
                 .thenReturn(INSTANCE_3);
         when(azureVirtualMachineService.getVirtualMachinesByName(eq(azureClient), eq(RESOURCE_GROUP_NAME), anySet())).thenReturn(machines);
-        when(azureClient.getFaultDomainNumber(RESOURCE_GROUP_NAME, INSTANCE_1)).thenReturn(FAULT_DOMAIN_COUNT);
-        when(azureClient.getFaultDomainNumber(RESOURCE_GROUP_NAME, INSTANCE_2)).thenReturn(FAULT_DOMAIN_COUNT);
+        Map<String, NetworkInterface> networkInterfaces = Map.of(INSTANCE_1, createNetworkInterface(), INSTANCE_2, createNetworkInterface());
+        when(azureVirtualMachineService.getPrimaryNetworkInterfacesByVmName(azureClient, RESOURCE_GROUP_NAME, machines)).thenReturn(networkInterfaces);
+        when(azureVmPublicIpProvider.getPublicIpAddressesById(eq(azureClient), eq(RESOURCE_GROUP_NAME), anyCollection())).thenReturn(Map.of());
         when(azureClient.getFaultDomainNumber(RESOURCE_GROUP_NAME, INSTANCE_3)).thenReturn(FAULT_DOMAIN_COUNT);
-        when(azureVmPublicIpProvider.getPublicIp(eq(azureClient), eq(azureUtils), any(), eq(RESOURCE_GROUP_NAME))).thenReturn(PUBLIC_IP);
+        when(azureVmPublicIpProvider.getPublicIp(any(), eq(Map.of()), any())).thenReturn(PUBLIC_IP);
         when(cloudContext.getPlatform()).thenReturn(Platform.platform(PLATFORM));
         when(cloudContext.getLocation()).thenReturn(Location.location(Region.region(REGION), null));
 
@@ -130,25 +135,38 @@ public class AzureMetadataCollectorTest {
         assertEquals(PRIVATE_IP, actual.get(2).getMetaData().getPrivateIp());
         assertEquals(PUBLIC_IP, actual.get(2).getMetaData().getPublicIp());
         assertEquals(LOCALITY_INDICATOR, actual.get(2).getMetaData().getLocalityIndicator());
+        verify(azureClient, never()).getFaultDomainNumber(RESOURCE_GROUP_NAME, INSTANCE_1);
     }
 
     private Map<String, VirtualMachine> getMachines() {
+        VirtualMachine virtualMachine1 = createVirtualMachine(INSTANCE_1);
+        VirtualMachineInstanceView instanceView = mock(VirtualMachineInstanceView.class);
+        when(instanceView.platformFaultDomain()).thenReturn(FAULT_DOMAIN_COUNT);
+        when(virtualMachine1.instanceView()).thenReturn(instanceView);
+        VirtualMachine virtualMachine2 = createVirtualMachine(INSTANCE_2);
+        when(virtualMachine2.instanceView()).thenReturn(instanceView);
+        VirtualMachine virtualMachine3 = createVirtualMachine(INSTANCE_3);
+        NetworkInterface networkInterface = createNetworkInterface();
+        when(virtualMachine3.getPrimaryNetworkInterface()).thenReturn(networkInterface);
         return Map.of(
-                INSTANCE_1, createVirtualMachine(INSTANCE_1),
-                INSTANCE_2, createVirtualMachine(INSTANCE_2),
-                INSTANCE_3, createVirtualMachine(INSTANCE_3));
+                INSTANCE_1, virtualMachine1,
+                INSTANCE_2, virtualMachine2,
+                INSTANCE_3, virtualMachine3);
     }
 
     private VirtualMachine createVirtualMachine(String name) {
         VirtualMachine virtualMachine = mock(VirtualMachine.class);
+        when(virtualMachine.name()).thenReturn(name);
+        return virtualMachine;
+    }
+
+    private NetworkInterface createNetworkInterface() {
         NetworkInterface networkInterface = mock(NetworkInterface.class);
         NicIPConfiguration nicIPConfiguration = mock(NicIPConfiguration.class);
-        when(virtualMachine.name()).thenReturn(name);
-        when(virtualMachine.getPrimaryNetworkInterface()).thenReturn(networkInterface);
         when(networkInterface.primaryIPConfiguration()).thenReturn(nicIPConfiguration);
         when(networkInterface.primaryPrivateIP()).thenReturn(PRIVATE_IP);
         when(nicIPConfiguration.subnetName()).thenReturn(SUBNET_NAME);
-        return virtualMachine;
+        return networkInterface;
     }
 
     private List<CloudInstance> createVms() {
@@ -2,6 +2,8 @@ package com.sequenceiq.cloudbreak.cloud.azure;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Map;
@@ -16,9 +18,12 @@ import org.mockito.junit.MockitoJUnitRunner;
 import com.microsoft.azure.Page;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.compute.VirtualMachine;
+import com.microsoft.azure.management.network.NetworkInterface;
 import com.microsoft.rest.RestException;
 import com.sequenceiq.cloudbreak.cloud.azure.client.AzureClient;
 
+import rx.Observable;
+
 @RunWith(MockitoJUnitRunner.class)
 public class AzureVirtualMachineServiceTest {
 
@@ -63,6 +68,35 @@ public class AzureVirtualMachineServiceTest {
         assertEquals(1, actual.size());
     }
 
+    @Test
+    public void testGetPrimaryNetworkInterfacesByVmNameShouldListTheResourceGroupAndFetchTheRest() {
+        String networkInterfaceId1 = "/subscriptions/sub/resourceGroups/resource-group/providers/Microsoft.Network/networkInterfaces/nic-1";
+        String networkInterfaceId2 = "/subscriptions/sub/resourceGroups/network/providers/Microsoft.Network/networkInterfaces/nic-2";
+        VirtualMachine virtualMachine1 = createVirtualMachine(INSTANCE_1);
+        VirtualMachine virtualMachine2 = createVirtualMachine(INSTANCE_2);
+        when(virtualMachine1.primaryNetworkInterfaceId()).thenReturn(networkInterfaceId1);
+        when(virtualMachine2.primaryNetworkInterfaceId()).thenReturn(networkInterfaceId2);
+        NetworkInterface networkInterface1 = mock(NetworkInterface.class);
+        NetworkInterface networkInterface2 = mock(NetworkInterface.class);
+        when(networkInterface1.id()).thenReturn(networkInterfaceId1.toUpperCase());
+        PagedList<NetworkInterface> networkInterfaces = new PagedList<>() {
+            @Override
+            public Page<NetworkInterface> nextPage(String nextPageLink) throws RestException {
+                return null;
+            }
+        };
+        networkInterfaces.add(networkInterface1);
+
+        when(azureClient.getNetworkInterfaceList(RESOURCE_GROUP)).thenReturn(networkInterfaces);
+        when(azureClient.getNetworkInterfaceByIdAsync(networkInterfaceId2)).thenReturn(Observable.just(networkInterface2));
+
+        Map<String, NetworkInterface> actual = underTest.getPrimaryNetworkInterfacesByVmName(azureClient, RESOURCE_GROUP,
+                Map.of(INSTANCE_1, virtualMachine1, INSTANCE_2, virtualMachine2));
+
+        assertEquals(Map.of(INSTANCE_1, networkInterface1, INSTANCE_2, networkInterface2), actual);
+        verify(azureClient, never()).getNetworkInterfaceByIdAsync(networkInterfaceId1);
+    }
+
     private PagedList<VirtualMachine> createPagedList() {
         PagedList<VirtualMachine> pagedList = new PagedList<>() {
             @Override
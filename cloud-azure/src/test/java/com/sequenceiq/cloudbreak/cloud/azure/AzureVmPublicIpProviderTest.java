@@ -0,0 +1,130 @@
+package com.sequenceiq.cloudbreak.cloud.azure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.management.network.NetworkInterface;
+import com.microsoft.azure.management.network.NicIPConfiguration;
+import com.microsoft.azure.management.network.PublicIPAddress;
+import com.microsoft.azure.management.network.implementation.BackendAddressPoolInner;
+import com.microsoft.azure.management.network.implementation.NetworkInterfaceIPConfigurationInner;
+import com.microsoft.rest.RestException;
+import com.sequenceiq.cloudbreak.cloud.azure.client.AzureClient;
+
+import rx.Observable;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AzureVmPublicIpProviderTest {
+
+    private static final String RESOURCE_GROUP = "resource-group";
+
+    private static final String PUBLIC_IP_ID_1 = "/subscriptions/sub/resourceGroups/resource-group/providers/Microsoft.Network/publicIPAddresses/ip-1";
+
+    private static final String PUBLIC_IP_ID_2 = "/subscriptions/sub/resourceGroups/network/providers/Microsoft.Network/publicIPAddresses/ip-2";
+
+    private static final String LOAD_BALANCER_IP = "10.0.0.100";
+
+    private static final Supplier<String> NO_LOAD_BALANCER = () -> {
+        throw new IllegalStateException("The network interface is not behind a load balancer");
+    };
+
+    @InjectMocks
+    private AzureVmPublicIpProvider underTest;
+
+    @Mock
+    private AzureClient azureClient;
+
+    @Test
+    public void testGetPublicIpAddressesByIdShouldListTheResourceGroupAndFetchTheRest() {
+        PublicIPAddress publicIpAddress1 = mock(PublicIPAddress.class);
+        PublicIPAddress publicIpAddress2 = mock(PublicIPAddress.class);
+        when(publicIpAddress1.id()).thenReturn(PUBLIC_IP_ID_1.toUpperCase());
+        PagedList<PublicIPAddress> publicIpAddresses = new PagedList<>() {
+            @Override
+            public Page<PublicIPAddress> nextPage(String nextPageLink) throws RestException {
+                return null;
+            }
+        };
+        publicIpAddresses.add(publicIpAddress1);
+        when(azureClient.getPublicIpAddresses(RESOURCE_GROUP)).thenReturn(publicIpAddresses);
+        when(azureClient.getPublicIpAddressByIdAsync(PUBLIC_IP_ID_2)).thenReturn(Observable.just(publicIpAddress2));
+
+        Map<String, PublicIPAddress> actual = underTest.getPublicIpAddressesById(azureClient, RESOURCE_GROUP,
+                List.of(networkInterface(PUBLIC_IP_ID_1, null), networkInterface(PUBLIC_IP_ID_2, null), networkInterface(null, null)));
+
+        assertEquals(Map.of(PUBLIC_IP_ID_1.toLowerCase(), publicIpAddress1, PUBLIC_IP_ID_2.toLowerCase(), publicIpAddress2), actual);
+        verify(azureClient, never()).getPublicIpAddressByIdAsync(PUBLIC_IP_ID_1);
+    }
+
+    @Test
+    public void testGetPublicIpShouldReturnTheIpOfTheNetworkInterface() {
+        PublicIPAddress publicIpAddress = publicIpAddress("1.1.1.1");
+
+        String actual = underTest.getPublicIp(networkInterface(PUBLIC_IP_ID_1.toUpperCase(), null), Map.of(PUBLIC_IP_ID_1.toLowerCase(), publicIpAddress),
+                NO_LOAD_BALANCER);
+
+        assertEquals("1.1.1.1", actual);
+    }
+
+    @Test
+    public void testGetPublicIpShouldReturnTheLoadBalancerIpWhenTheNetworkInterfaceHasNoPublicIp() {
+        NetworkInterfaceIPConfigurationInner inner = mock(NetworkInterfaceIPConfigurationInner.class);
+        when(inner.loadBalancerBackendAddressPools()).thenReturn(List.of(mock(BackendAddressPoolInner.class)));
+
+        String actual = underTest.getPublicIp(networkInterface(null, inner), Map.of(), () -> LOAD_BALANCER_IP);
+
+        assertEquals(LOAD_BALANCER_IP, actual);
+    }
+
+    @Test
+    public void testGetPublicIpShouldPreferTheOwnIpOfANetworkInterfaceBehindTheLoadBalancer() {
+        NetworkInterfaceIPConfigurationInner inner = mock(NetworkInterfaceIPConfigurationInner.class);
+        when(inner.loadBalancerBackendAddressPools()).thenReturn(List.of(mock(BackendAddressPoolInner.class)));
+        PublicIPAddress publicIpAddress = publicIpAddress("1.1.1.1");
+
+        String actual = underTest.getPublicIp(networkInterface(PUBLIC_IP_ID_1, inner), Map.of(PUBLIC_IP_ID_1.toLowerCase(), publicIpAddress),
+                () -> LOAD_BALANCER_IP);
+
+        assertEquals("1.1.1.1", actual);
+    }
+
+    @Test
+    public void testGetPublicIpShouldReturnNullWhenThePublicIpIsMissing() {
+        assertNull(underTest.getPublicIp(networkInterface(PUBLIC_IP_ID_2, null), Map.of(), NO_LOAD_BALANCER));
+        assertNull(underTest.getPublicIp(networkInterface(PUBLIC_IP_ID_1, null), Map.of(PUBLIC_IP_ID_1.toLowerCase(), publicIpAddress(null)),
+                NO_LOAD_BALANCER));
+    }
+
+    private NetworkInterface networkInterface(String publicIpAddressId, NetworkInterfaceIPConfigurationInner inner) {
+        NicIPConfiguration ipConfiguration = mock(NicIPConfiguration.class);
+        when(ipConfiguration.publicIPAddressId()).thenReturn(publicIpAddressId);
+        if (inner != null) {
+            when(ipConfiguration.inner()).thenReturn(inner);
+        }
+        NetworkInterface networkInterface = mock(NetworkInterface.class);
+        when(networkInterface.primaryIPConfiguration()).thenReturn(ipConfiguration);
+        return networkInterface;
+    }
+
+    private PublicIPAddress publicIpAddress(String ipAddress) {
+        PublicIPAddress publicIpAddress = mock(PublicIPAddress.class);
+        when(publicIpAddress.ipAddress()).thenReturn(ipAddress);
+        return publicIpAddress;
+    }
+}
@@ -0,0 +1,65 @@
+package com.sequenceiq.cloudbreak.cache.common;
+
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+/**
+ * A parsed document together with the validators its server sent, so the document can be revalidated with a conditional request.
+ */
+public class CachedDocument<T> {
+
+    private final T value;
+
+    private final String entityTag;
+
+    private final String lastModified;
+
+    public CachedDocument(T value, String entityTag, String lastModified) {
+        this.value = value;
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+    }
+
+    public static <T> CachedDocument<T> of(T value) {
+        return new CachedDocument<>(value, null, null);
+    }
+
+    public static <T> CachedDocument<T> of(T value, Response response) {
+        return new CachedDocument<>(value, response.getHeaderString(HttpHeaders.ETAG), response.getHeaderString(HttpHeaders.LAST_MODIFIED));
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public Invocation.Builder withValidators(Invocation.Builder request) {
+        if (entityTag != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, entityTag);
+        }
+        if (lastModified != null) {
+            request.header(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+        return request;
+    }
+
+    public boolean isNotModified(Response response) {
+        return (entityTag != null || lastModified != null) && response.getStatus() == Status.NOT_MODIFIED.getStatusCode();
+    }
+
+    /**
+     * Returns a copy of this document, which the cache treats as freshly loaded.
+     */
+    public CachedDocument<T> revalidated() {
+        return new CachedDocument<>(value, entityTag, lastModified);
+    }
+}
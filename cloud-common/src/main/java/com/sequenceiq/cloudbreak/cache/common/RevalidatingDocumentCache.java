@@ -0,0 +1,79 @@
+package com.sequenceiq.cloudbreak.cache.common;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Caches documents, such as image catalogs, by their location with stale-while-revalidate semantics. The first request for a location loads
+ * the document, and concurrent requests for the same location wait for that single load. A document older than the refresh interval is still
+ * returned, while it is reloaded in the background with the previous version passed to the loader, so the loader can send a conditional request.
+ * If the background reload fails, the previous version is kept until it gets older than the maximum staleness.
+ */
+public class RevalidatingDocumentCache<T> {
+
+    private static final long MAX_ENTRIES = 1000L;
+
+    private final LoadingCache<String, CachedDocument<T>> cache;
+
+    /**
+     * @param refreshAfter the age after which a cached document is revalidated in the background
+     * @param maxStaleness how long a cached document may be served after its revalidation became due, if the revalidation keeps failing
+     * @param loader       loads and revalidates the documents
+     */
+    public RevalidatingDocumentCache(Duration refreshAfter, Duration maxStaleness, DocumentLoader<T> loader) {
+        this(refreshAfter, maxStaleness, loader, ForkJoinPool.commonPool(), Ticker.systemTicker());
+    }
+
+    RevalidatingDocumentCache(Duration refreshAfter, Duration maxStaleness, DocumentLoader<T> loader, Executor refreshExecutor, Ticker ticker) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(refreshAfter.plus(maxStaleness))
+                .executor(refreshExecutor)
+                .ticker(ticker)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public CachedDocument<T> load(String location) throws Exception {
+                        return loader.load(location, null);
+                    }
+
+                    @Override
+                    public CachedDocument<T> reload(String location, CachedDocument<T> cached) throws Exception {
+                        return loader.load(location, cached);
+                    }
+                });
+    }
+
+    /**
+     * Returns the cached document of the location, loading it if it is not cached yet.
+     *
+     * @throws CompletionException wrapping the checked exception thrown by the loader
+     */
+    public T get(String location) {
+        return cache.get(location).getValue();
+    }
+
+    public void invalidate(String location) {
+        cache.invalidate(location);
+    }
+
+    @FunctionalInterface
+    public interface DocumentLoader<T> {
+
+        /**
+         * Loads the document from the location.
+         *
+         * @param location the location of the document
+         * @param cached   the cached version of the document on reload, {@code null} on the first load
+         * @return the loaded document, or {@link CachedDocument#revalidated()} of the cached one if it has not changed
+         */
+        CachedDocument<T> load(String location, CachedDocument<T> cached) throws Exception;
+    }
+}
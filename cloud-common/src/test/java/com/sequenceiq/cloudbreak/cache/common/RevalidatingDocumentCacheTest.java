@@ -0,0 +1,117 @@
+package com.sequenceiq.cloudbreak.cache.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RevalidatingDocumentCacheTest {
+
+    private static final String LOCATION = "http://catalog";
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final List<CachedDocument<String>> reloads = new ArrayList<>();
+
+    private String content;
+
+    private boolean failing;
+
+    private RevalidatingDocumentCache<String> underTest;
+
+    @BeforeEach
+    void setUp() {
+        content = "v1";
+        underTest = new RevalidatingDocumentCache<>(Duration.ofMinutes(15L), Duration.ofMinutes(60L), this::load, Runnable::run, nanos::get);
+    }
+
+    @Test
+    void testDocumentIsLoadedOnce() {
+        assertEquals("v1", underTest.get(LOCATION));
+        content = "v2";
+        advanceMinutes(1L);
+
+        assertEquals("v1", underTest.get(LOCATION));
+        assertEquals(List.of(), reloads);
+    }
+
+    @Test
+    void testStaleDocumentIsServedWhileItIsRevalidated() {
+        underTest.get(LOCATION);
+        content = "v2";
+        advanceMinutes(16L);
+
+        assertEquals("v1", underTest.get(LOCATION));
+        assertEquals(1, reloads.size());
+        assertEquals("v1", reloads.get(0).getValue());
+        assertEquals("v2", underTest.get(LOCATION));
+    }
+
+    @Test
+    void testStaleDocumentIsKeptIfTheRevalidationFails() {
+        underTest.get(LOCATION);
+        failing = true;
+        advanceMinutes(16L);
+
+        assertEquals("v1", underTest.get(LOCATION));
+        assertEquals("v1", underTest.get(LOCATION));
+    }
+
+    @Test
+    void testStaleDocumentExpiresAfterTheMaximumStaleness() {
+        underTest.get(LOCATION);
+        failing = true;
+        advanceMinutes(76L);
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> underTest.get(LOCATION));
+        assertEquals(IOException.class, exception.getCause().getClass());
+    }
+
+    @Test
+    void testInvalidateForcesALoad() {
+        underTest.get(LOCATION);
+        content = "v2";
+
+        underTest.invalidate(LOCATION);
+
+        assertEquals("v2", underTest.get(LOCATION));
+        assertEquals(List.of(), reloads);
+    }
+
+    @Test
+    void testRevalidatedDocumentKeepsTheValidators() {
+        CachedDocument<String> document = new CachedDocument<>("v1", "\"etag\"", "Mon, 16 Dec 2019 09:30:12 GMT");
+
+        CachedDocument<String> revalidated = document.revalidated();
+
+        assertSame(document.getValue(), revalidated.getValue());
+        assertEquals("\"etag\"", revalidated.getEntityTag());
+        assertEquals("Mon, 16 Dec 2019 09:30:12 GMT", revalidated.getLastModified());
+        assertNull(CachedDocument.of("v1").getEntityTag());
+    }
+
+    private CachedDocument<String> load(String location, CachedDocument<String> cached) throws IOException {
+        if (cached != null) {
+            reloads.add(cached);
+        }
+        if (failing) {
+            throw new IOException("unavailable");
+        }
+        return CachedDocument.of(content);
+    }
+
+    private void advanceMinutes(long minutes) {
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+    }
+}
@@ -8,6 +8,7 @@ import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerScheduledExecutor;
+import com.sequenceiq.cloudbreak.logger.concurrent.VirtualThreads;
 
 @Configuration
 public class CloudReactorConfiguration {
@@ -15,8 +16,17 @@ public class CloudReactorConfiguration {
     @Value("${cb.reactor.executorservice.pool.size:40}")
     private int executorServicePoolSize;
 
+    @Value("${cb.virtualthreads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${cb.virtualthreads.pool.size:10000}")
+    private int virtualThreadPoolSize;
+
     @Bean
     ListeningScheduledExecutorService reactorListeningScheduledExecutorService() {
+        if (VirtualThreads.isUsable(virtualThreadsEnabled)) {
+            return MoreExecutors.listeningDecorator(new MDCCleanerScheduledExecutor(virtualThreadPoolSize, VirtualThreads.newThreadFactory("cloud-reactor-")));
+        }
         return MoreExecutors
                 .listeningDecorator(new MDCCleanerScheduledExecutor(executorServicePoolSize,
                         new ThreadFactoryBuilder().setNameFormat("cloud-reactor-%d").build()));
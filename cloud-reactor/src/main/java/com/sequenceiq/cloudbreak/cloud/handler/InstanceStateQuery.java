@@ -27,4 +27,19 @@ public class InstanceStateQuery {
         return connector.instances().check(auth, instances);
     }
 
+    public boolean isBatchCheckSupported(CloudContext cloudContext) {
+        return cloudPlatformConnectors.get(cloudContext.getPlatformVariant()).instances().isBatchCheckSupported();
+    }
+
+    /**
+     * Checks the instances of several stacks sharing the credential and the region of the cloud context at once, the instances unknown by the
+     * provider are left out of the result.
+     */
+    public List<CloudVmInstanceStatus> getCloudVmInstanceStatusesInBatch(
+            CloudCredential cloudCredential, CloudContext cloudContext, List<CloudInstance> instances) {
+        CloudConnector<Object> connector = cloudPlatformConnectors.get(cloudContext.getPlatformVariant());
+        AuthenticatedContext auth = connector.authentication().authenticate(cloudContext, cloudCredential);
+        return connector.instances().checkBatch(auth, instances);
+    }
+
 }
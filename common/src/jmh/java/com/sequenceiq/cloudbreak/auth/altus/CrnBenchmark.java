@@ -0,0 +1,101 @@
+package com.sequenceiq.cloudbreak.auth.altus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link Crn} parsing, which happens on every authorized request and for every resource returned in a list, on the kinds of CRNs the
+ * services see: users and machine users of the current and the legacy partition, internal service CRNs and resource CRNs.
+ * {@link #fromStringWithPattern} is the regular expression based parser {@link Crn#fromString} replaced, as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrnBenchmark {
+
+    private static final String ACCOUNT_ID = "9d74eee4-1cad-45d7-b645-7ccf9edbb73d";
+
+    private static final String[] CRNS = {
+            "crn:cdp:iam:us-west-1:" + ACCOUNT_ID + ":user:f3b8ed82-e712-4f89-bda7-be07183720d3",
+            "crn:altus:iam:us-west-1:" + ACCOUNT_ID + ":machineUser:datahub/0a8d6ba5-6b3c-4f32-9f02-b2a4fb0e4c7b",
+            "crn:cdp:environments:us-west-1:" + ACCOUNT_ID + ":environment:c8d1f4a2-07b0-4f4b-9a46-1fa0f0cd0f5f",
+            "crn:cdp:datalake:us-west-1:" + ACCOUNT_ID + ":datalake:b5e7c1f2-48a4-4c73-8f0f-67f4b1c0e6d9",
+            "crn:cdp:freeipa:us-west-1:" + ACCOUNT_ID + ":freeipa:3f6b1a52-8d0e-4e4b-a0a8-5cd0d9b3c7b1",
+            "crn:cdp:datahub:us-west-1:" + ACCOUNT_ID + ":cluster:e2a4d9f3-61a8-4b2f-9c34-0c1c1e6b5d2a",
+            "crn:altus:iam:us-west-1:altus:user:__internal__actor__",
+    };
+
+    private static final Pattern CRN_PATTERN = Pattern.compile("^crn:(\\w+):(\\w+):(\\S+):(\\S+):(\\w+):(\\S+)$");
+
+    private static final String NOT_A_CRN = "cluster-name-with:colons:but-not-a-crn";
+
+    @Benchmark
+    public void fromString(Blackhole blackhole) {
+        for (String crn : CRNS) {
+            blackhole.consume(Crn.fromString(crn));
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + Crn.CACHE_SIZE_PROPERTY + "=0")
+    public void fromStringWithoutCache(Blackhole blackhole) {
+        for (String crn : CRNS) {
+            blackhole.consume(Crn.fromString(crn));
+        }
+    }
+
+    @Benchmark
+    public void fromStringWithPattern(Blackhole blackhole) {
+        for (String crn : CRNS) {
+            blackhole.consume(parseWithPattern(crn));
+        }
+    }
+
+    @Benchmark
+    public void isCrn(Blackhole blackhole) {
+        for (String crn : CRNS) {
+            blackhole.consume(Crn.isCrn(crn));
+        }
+        blackhole.consume(Crn.isCrn(NOT_A_CRN));
+    }
+
+    @Benchmark
+    public void fromStringAndToString(Blackhole blackhole) {
+        for (String crn : CRNS) {
+            blackhole.consume(Crn.fromString(crn).toString());
+        }
+    }
+
+    private static Crn parseWithPattern(String input) {
+        Matcher matcher = CRN_PATTERN.matcher(input);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String region = matcher.group(3);
+        if (!Crn.Region.US_WEST_1.getName().equals(region)) {
+            throw new CrnParseException(String.format("%s is not a supported region", region));
+        }
+        return new Crn.Builder()
+                .setPartition(Crn.Partition.safeFromString(matcher.group(1)))
+                .setService(Crn.Service.safeFromString(matcher.group(2)))
+                .setAccountId(matcher.group(4))
+                .setResourceType(Crn.ResourceType.fromString(matcher.group(5)))
+                .setResource(matcher.group(6))
+                .build();
+    }
+}
@@ -4,11 +4,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import java.util.Arrays;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 import javax.annotation.Nullable;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableMap;
 
@@ -30,13 +31,27 @@ import com.google.common.collect.ImmutableMap;
  */
 public class Crn {
 
-    private static final Pattern CRN_PATTERN =
-            Pattern.compile("^crn:(\\w+):(\\w+):(\\S+):(\\S+):(\\w+):(\\S+)$");
+    /**
+     * The maximum number of parsed IAM CRNs that are cached, 0 turns the cache off.
+     */
+    public static final String CACHE_SIZE_PROPERTY = "cb.crn.cache.size";
+
+    private static final String PREFIX = "crn:";
+
+    private static final int DEFAULT_CACHE_SIZE = 10000;
 
     private static final boolean ADMIN_SERVICE = true;
 
     private static final boolean NON_ADMIN_SERVICE = false;
 
+    private static final Cache<String, Crn> CACHE = createCache(Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE));
+
+    private static final Lookup<Partition> PARTITIONS = new Lookup<>(Partition.FROM_STRING);
+
+    private static final Lookup<Service> SERVICES = new Lookup<>(Service.FROM_STRING);
+
+    private static final Lookup<ResourceType> RESOURCE_TYPES = new Lookup<>(ResourceType.FROM_STRING);
+
     /**
      * The CDP partition in which the resource resides. A CDP partition is a
      * namespace for sets of CDP services.
@@ -473,33 +488,119 @@ public class Crn {
      * Creates a CRN from the input string. This will return null if the input
      * string does not match the CRN pattern and throw if the input string does
      * match, but cannot be parsed into a CRN for some reason.
+     * <p>
+     * The CRN pattern is {@code ^crn:(\w+):(\w+):(\S+):(\S+):(\w+):(\S+)$}. The input is matched by a single pass parser
+     * instead of the regular expression, splitting the components exactly like the greedy groups of the pattern would. The IAM CRNs (users,
+     * machine users and the internal actor), which are parsed on every request, are kept in a bounded cache, see {@value #CACHE_SIZE_PROPERTY}.
      *
      * @param input the input string
      * @return the CRN
      * @throws NullPointerException if the input string is null
      * @throws CrnParseException    if the input string matches the CRN pattern but cannot be parsed
      */
-    //CHECKSTYLE:OFF: checkstyle:magicnumber
     @Nullable
     public static Crn fromString(String input) {
         checkNotNull(input);
-        Matcher matcher = CRN_PATTERN.matcher(input);
-        if (!matcher.matches()) {
+        Crn crn = CACHE == null ? null : CACHE.getIfPresent(input);
+        if (crn == null) {
+            crn = parse(input);
+            if (CACHE != null && crn != null && crn.service == Service.IAM) {
+                CACHE.put(input, crn);
+            }
+        }
+        return crn;
+    }
+
+    @Nullable
+    private static Crn parse(String input) {
+        if (!input.startsWith(PREFIX)) {
             return null;
         }
-        String region = matcher.group(3);
-        if (!Region.US_WEST_1.name.equals(region)) {
-            throw new CrnParseException(String.format("%s is not a supported region", region));
-        }
-        return new Crn.Builder()
-                .setPartition(Partition.safeFromString(matcher.group(1)))
-                .setService(Service.safeFromString(matcher.group(2)))
-                .setAccountId(matcher.group(4))
-                .setResourceType(ResourceType.fromString(matcher.group(5)))
-                .setResource(matcher.group(6))
-                .build();
+        int partitionStart = PREFIX.length();
+        int partitionEnd = endOfWord(input, partitionStart);
+        int serviceStart = partitionEnd + 1;
+        int serviceEnd = endOfWord(input, serviceStart);
+        if (!isSeparator(input, partitionStart, partitionEnd) || !isSeparator(input, serviceStart, serviceEnd)) {
+            return null;
+        }
+
+        // The region, the account id and the resource may contain colons, the resource type may not. Like the greedy groups of the pattern,
+        // the resource type is the right most word between two colons that is followed by a resource, and the region is the longest one
+        // that still leaves an account id before the resource type.
+        int regionStart = serviceEnd + 1;
+        int length = input.length();
+        int regionEnd = -1;
+        int accountIdEnd = -1;
+        int resourceTypeEnd = -1;
+        int nextColon = -1;
+        boolean wordSinceNextColon = true;
+        for (int i = length - 1; i >= regionStart; i--) {
+            char c = input.charAt(i);
+            if (c == ':') {
+                if (accountIdEnd == -1) {
+                    if (nextColon > i + 1 && nextColon < length - 1 && wordSinceNextColon) {
+                        accountIdEnd = i;
+                        resourceTypeEnd = nextColon;
+                    }
+                } else if (regionEnd == -1 && i > regionStart && i < accountIdEnd - 1) {
+                    regionEnd = i;
+                }
+                nextColon = i;
+                wordSinceNextColon = true;
+            } else if (isWhitespace(c)) {
+                return null;
+            } else if (!isWordCharacter(c)) {
+                wordSinceNextColon = false;
+            }
+        }
+        if (regionEnd == -1) {
+            return null;
+        }
+
+        if (regionEnd - regionStart != Region.US_WEST_1.name.length() || !input.startsWith(Region.US_WEST_1.name, regionStart)) {
+            throw new CrnParseException(String.format("%s is not a supported region", input.substring(regionStart, regionEnd)));
+        }
+        Partition partition = PARTITIONS.find(input, partitionStart, partitionEnd);
+        if (partition == null) {
+            throw new CrnParseException(String.format("%s is not a valid partition value", input.substring(partitionStart, partitionEnd)));
+        }
+        Service service = SERVICES.find(input, serviceStart, serviceEnd);
+        if (service == null) {
+            throw new CrnParseException(String.format("%s is not a valid service value", input.substring(serviceStart, serviceEnd)));
+        }
+        ResourceType resourceType = RESOURCE_TYPES.find(input, accountIdEnd + 1, resourceTypeEnd);
+        if (resourceType == null) {
+            throw new CrnParseException(String.format("%s is not a valid resource type value", input.substring(accountIdEnd + 1, resourceTypeEnd)));
+        }
+        return new Crn(partition, service, Region.US_WEST_1, input.substring(regionEnd + 1, accountIdEnd), resourceType,
+                input.substring(resourceTypeEnd + 1));
+    }
+
+    private static int endOfWord(String input, int start) {
+        int end = start;
+        while (end < input.length() && isWordCharacter(input.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isSeparator(String input, int wordStart, int wordEnd) {
+        return wordEnd > wordStart && wordEnd < input.length() && input.charAt(wordEnd) == ':';
+    }
+
+    /**
+     * The {@code \w} character class of {@link java.util.regex.Pattern}.
+     */
+    private static boolean isWordCharacter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * The {@code \s} character class of {@link java.util.regex.Pattern}.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
-    //CHECKSTYLE:ON: checkstyle:magicnumber
 
     /**
      * Creates a CRN from the input string. This will explode instead of
@@ -564,6 +665,44 @@ public class Crn {
         return new Builder();
     }
 
+    @Nullable
+    private static Cache<String, Crn> createCache(int size) {
+        return size > 0 ? Caffeine.newBuilder().maximumSize(size).build() : null;
+    }
+
+    /**
+     * Finds the enum constant of a component of a CRN without taking the component out of the input string.
+     */
+    private static class Lookup<T> {
+
+        private final String[] names;
+
+        private final Object[] values;
+
+        Lookup(ImmutableMap<String, T> valuesByName) {
+            names = new String[valuesByName.size()];
+            values = new Object[valuesByName.size()];
+            int i = 0;
+            for (Map.Entry<String, T> entry : valuesByName.entrySet()) {
+                names[i] = entry.getKey();
+                values[i] = entry.getValue();
+                i++;
+            }
+        }
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        T find(String input, int start, int end) {
+            int length = end - start;
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].length() == length && input.startsWith(names[i], start)) {
+                    return (T) values[i];
+                }
+            }
+            return null;
+        }
+    }
+
     public static class Builder {
         private Partition partition = Partition.CDP;
 
@@ -0,0 +1,46 @@
+package com.sequenceiq.cloudbreak.common.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.persistence.AttributeConverter;
+
+/**
+ * Stores the JSON value gzipped in a binary column. Large, rarely read documents (like the structured events) take a fraction of the space
+ * of their text form this way.
+ */
+public class JsonToCompressedBytes implements AttributeConverter<Json, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(Json attribute) {
+        if (attribute == null || attribute.getValue() == null) {
+            return null;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(attribute.getValue().getBytes(UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot compress json value", e);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Override
+    public Json convertToEntityAttribute(byte[] dbData) {
+        if (dbData == null) {
+            return null;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(dbData))) {
+            return new Json(new String(in.readAllBytes(), UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot decompress json value", e);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -33,11 +34,14 @@ public class JsonUtil {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
+    private static final ObjectReader DUPLICATE_KEY_TOLERANT_READER;
+
     static {
         MAPPER.enable(Feature.ALLOW_UNQUOTED_CONTROL_CHARS);
         MAPPER.enable(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY);
         MAPPER.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, false);
         MAPPER.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        DUPLICATE_KEY_TOLERANT_READER = MAPPER.reader().without(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY);
     }
 
     private JsonUtil() {
@@ -105,6 +109,13 @@ public class JsonUtil {
         return MAPPER.readTree(content);
     }
 
+    /**
+     * Reads the tree like binding to a bean does: the last value of a duplicate key wins instead of failing.
+     */
+    public static JsonNode readTreeAllowingDuplicateKeys(String content) throws IOException {
+        return DUPLICATE_KEY_TOLERANT_READER.readTree(content);
+    }
+
     public static JsonNode readTreeByArray(String content) throws IOException {
         JSONObject jsonObject;
         try {
@@ -6,6 +6,8 @@ public enum MetricType implements Metric {
     VAULT_WRITE("vault.write"),
     VAULT_WRITE_FAILED("vault.write.failed"),
     VAULT_DELETE("vault.delete"),
+    SECRET_CACHE_HIT("secret.cache.hit"),
+    SECRET_CACHE_MISS("secret.cache.miss"),
     HEARTBEAT_UPDATE_FAILED("heartbeat.update.failed");
 
     private final String metricName;
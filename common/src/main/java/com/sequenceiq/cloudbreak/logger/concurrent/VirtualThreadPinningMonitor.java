@@ -0,0 +1,88 @@
+package com.sequenceiq.cloudbreak.logger.concurrent;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Metrics;
+import jdk.jfr.EventSettings;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+
+/**
+ * Logs and counts the virtual threads that block while pinned to their carrier thread, for example in a synchronized block or a native call,
+ * because such a thread holds a carrier the other virtual threads cannot use. The pins are read from the jdk.VirtualThreadPinned JFR event
+ * with a recording stream, which is looked up reflectively as the services are built for Java 11.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_COUNTER = "virtualthreads.pinned";
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final int LOGGED_FRAMES = 8;
+
+    @Value("${cb.virtualthreads.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cb.virtualthreads.pinned.threshold.millis:20}")
+    private long pinnedThresholdMillis;
+
+    private AutoCloseable recordingStream;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!VirtualThreads.isSupported()) {
+            LOGGER.warn("Virtual threads are enabled but not supported by Java {}, the executors use platform threads", Runtime.version());
+            return;
+        }
+        try {
+            Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+            Object stream = streamClass.getConstructor().newInstance();
+            EventSettings settings = (EventSettings) streamClass.getMethod("enable", String.class).invoke(stream, PINNED_EVENT);
+            settings.withThreshold(Duration.ofMillis(pinnedThresholdMillis)).withStackTrace();
+            Consumer<RecordedEvent> onPinned = this::onPinned;
+            streamClass.getMethod("onEvent", String.class, Consumer.class).invoke(stream, PINNED_EVENT, onPinned);
+            streamClass.getMethod("startAsync").invoke(stream);
+            recordingStream = (AutoCloseable) stream;
+            LOGGER.info("Virtual thread pins longer than {} ms are logged", pinnedThresholdMillis);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("Failed to start the recording of the pinned virtual threads", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        Metrics.counter(PINNED_COUNTER).increment();
+        String thread = event.getThread() == null ? "unknown" : event.getThread().getJavaName();
+        String frames = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::toString)
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        LOGGER.warn("Virtual thread {} was pinned to its carrier thread for {} ms{}", thread, event.getDuration().toMillis(), frames);
+    }
+
+    private static String toString(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + '.' + frame.getMethod().getName() + ':' + frame.getLineNumber();
+    }
+}
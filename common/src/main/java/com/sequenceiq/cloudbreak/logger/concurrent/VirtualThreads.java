@@ -0,0 +1,52 @@
+package com.sequenceiq.cloudbreak.logger.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads (JDK 21+) for the executors that park their threads on I/O and sleeps. The services are built for Java 11, so the
+ * virtual thread builder is looked up reflectively and the executors fall back to platform threads when the runtime does not support it.
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = findOfVirtual();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Whether the executors have to use virtual threads, that is they are enabled by the configuration and supported by the runtime.
+     */
+    public static boolean isUsable(boolean enabled) {
+        return enabled && isSupported();
+    }
+
+    /**
+     * A factory of virtual threads named with the prefix and a counter, like the platform thread factories of the executors.
+     */
+    public static ThreadFactory newThreadFactory(String namePrefix) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by Java " + Runtime.version());
+        }
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create the virtual thread factory of " + namePrefix, e);
+        }
+    }
+
+    private static Method findOfVirtual() {
+        try {
+            return Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.sequenceiq.cloudbreak.auth.altus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Checks on generated inputs that {@link Crn#fromString(String)} parses, rejects and fails exactly like the regular expression based parser it
+ * replaced.
+ */
+public class CrnParityTest {
+
+    private static final Pattern CRN_PATTERN = Pattern.compile("^crn:(\\w+):(\\w+):(\\S+):(\\S+):(\\w+):(\\S+)$");
+
+    private static final String ACCOUNT_ID = "9d74eee4-1cad-45d7-b645-7ccf9edbb73d";
+
+    private static final String[] VALID_CRNS = {
+            "crn:cdp:iam:us-west-1:" + ACCOUNT_ID + ":user:f3b8ed82-e712-4f89-bda7-be07183720d3",
+            "crn:altus:iam:us-west-1:" + ACCOUNT_ID + ":machineUser:qaas/b8a64902-7765-4ddd-a4f3-df81ae585e10",
+            "crn:cdp:datalake:us-west-1:" + ACCOUNT_ID + ":datalake:b5e7c1f2-48a4-4c73-8f0f-67f4b1c0e6d9",
+            "crn:ccs:vault:us-west-1:default:environment:env:with:colons",
+            "crn:altus:iam:us-west-1:altus:user:__internal__actor__",
+    };
+
+    private static final String[] TOKENS = {
+            "crn", ":", ":", ":", "::", "cdp", "altus", "ccs", "iam", "datalake", "vault", "us-west-1", "us-west-2", "user", "machineUser",
+            "cookie", ACCOUNT_ID, "a", "_", "-", "/", "@", "1", " ", "\t", "\n", "\u000B", "\u00e9", "\u00a0", "",
+    };
+
+    private static final String ALPHABET = "crn:cdpiamuser-_/@1 \t\n\u00e9";
+
+    private static final int RANDOM_INPUTS = 200_000;
+
+    private static final int MAX_TOKENS = 14;
+
+    private static final int MAX_MUTATIONS = 3;
+
+    private final Random random = new Random(0L);
+
+    @Test
+    public void testParityOnGeneratedInputs() {
+        for (int i = 0; i < RANDOM_INPUTS; i++) {
+            assertParity(randomInput());
+        }
+    }
+
+    @Test
+    public void testParityOnMutatedCrns() {
+        for (int i = 0; i < RANDOM_INPUTS; i++) {
+            assertParity(mutate(VALID_CRNS[random.nextInt(VALID_CRNS.length)]));
+        }
+    }
+
+    @Test
+    public void testParityOnEdgeCases() {
+        String[] inputs = {
+                "", "crn", "crn:", "crn:cdp:iam:us-west-1::user:a", "crn:cdp:iam::acc:user:a", "crn:cdp:iam:us-west-1:acc:user:",
+                "crn:cdp:iam:us-west-1:acc::a", "crn:cdp:iam:us-west-1:acc:user:a\n", "crn:cdp:iam:us-west-1:acc:user:a:b",
+                "crn:cdp:iam:us-west-1:acc:user:a:user:b", "crn:cdp:iam:us-west-1:acc:user::", "crn:cdp:iam:us-west-1:a:b:c:user:d",
+                "crn:cdp:iam:us-west-1:acc:us-er:a", "crn:cdp:iam:us-west-1:acc:user:a b", "crn::iam:us-west-1:acc:user:a",
+                "crn:cdp:iam:us-west-1:acc:\u00e9:a", "CRN:cdp:iam:us-west-1:acc:user:a", "crn:cdp:iam:us-west-1:::user:a",
+        };
+        for (String input : inputs) {
+            assertParity(input);
+        }
+    }
+
+    @Test
+    public void testIamCrnsAreCached() {
+        String crn = new String(VALID_CRNS[0]);
+
+        assertSame(Crn.fromString(crn), Crn.fromString(new String(crn)));
+    }
+
+    private void assertParity(String input) {
+        assertEquals(input, outcome(() -> fromStringWithPattern(input)), outcome(() -> Crn.fromString(input)));
+    }
+
+    private String outcome(Supplier<Crn> parser) {
+        try {
+            Crn crn = parser.get();
+            return crn == null ? "null" : crn.getPartition() + "|" + crn.getService() + "|" + crn.getRegion() + "|" + crn.getAccountId() + "|"
+                    + crn.getResourceType() + "|" + crn.getResource();
+        } catch (CrnParseException e) {
+            return "exception: " + e.getMessage();
+        }
+    }
+
+    private String randomInput() {
+        StringBuilder input = new StringBuilder(random.nextBoolean() ? "crn:" : "");
+        int tokens = random.nextInt(MAX_TOKENS);
+        for (int i = 0; i < tokens; i++) {
+            input.append(TOKENS[random.nextInt(TOKENS.length)]);
+        }
+        return input.toString();
+    }
+
+    private String mutate(String crn) {
+        StringBuilder input = new StringBuilder(crn);
+        int mutations = 1 + random.nextInt(MAX_MUTATIONS);
+        for (int i = 0; i < mutations && input.length() > 0; i++) {
+            int position = random.nextInt(input.length());
+            char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    input.insert(position, c);
+                    break;
+                case 1:
+                    input.deleteCharAt(position);
+                    break;
+                default:
+                    input.setCharAt(position, c);
+            }
+        }
+        return input.toString();
+    }
+
+    private static Crn fromStringWithPattern(String input) {
+        Matcher matcher = CRN_PATTERN.matcher(input);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String region = matcher.group(3);
+        if (!Crn.Region.US_WEST_1.getName().equals(region)) {
+            throw new CrnParseException(String.format("%s is not a supported region", region));
+        }
+        return new Crn.Builder()
+                .setPartition(Crn.Partition.safeFromString(matcher.group(1)))
+                .setService(Crn.Service.safeFromString(matcher.group(2)))
+                .setAccountId(matcher.group(4))
+                .setResourceType(Crn.ResourceType.fromString(matcher.group(5)))
+                .setResource(matcher.group(6))
+                .build();
+    }
+}
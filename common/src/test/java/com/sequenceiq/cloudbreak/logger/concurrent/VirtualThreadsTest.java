@@ -0,0 +1,54 @@
+package com.sequenceiq.cloudbreak.logger.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import com.sequenceiq.cloudbreak.logger.LoggerContextKey;
+
+class VirtualThreadsTest {
+
+    @Test
+    void testVirtualThreadsAreNotUsedWhenDisabled() {
+        assertFalse(VirtualThreads.isUsable(false));
+    }
+
+    @Test
+    void testFactoryIsNotAvailableWithoutVirtualThreadSupport() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        assertFalse(VirtualThreads.isUsable(true));
+        assertThrows(UnsupportedOperationException.class, () -> VirtualThreads.newThreadFactory("test-"));
+    }
+
+    @Test
+    void testPoolOfVirtualThreadsCleansUpTheMdcOfTheTasks() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        MDCCleanerThreadPoolExecutor executor = new MDCCleanerThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                VirtualThreads.newThreadFactory("test-"), new ThreadPoolExecutor.AbortPolicy());
+        try {
+            String threadName = executor.submit(() -> {
+                MDC.put(LoggerContextKey.RESOURCE_ID.toString(), "1");
+                return Thread.currentThread().getName();
+            }).get();
+            String resourceId = executor.submit(() -> MDC.get(LoggerContextKey.RESOURCE_ID.toString())).get();
+
+            assertTrue(VirtualThreads.isUsable(true));
+            assertEquals("test-0", threadName);
+            assertNull(resourceId);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -44,7 +44,8 @@ public interface EventV4Endpoint {
     Page<CloudbreakEventV4Response> getCloudbreakEventsByStack(
             @PathParam("name") String name,
             @QueryParam("page") @DefaultValue("0") Integer page,
-            @QueryParam("size") @DefaultValue("100") Integer size);
+            @QueryParam("size") @DefaultValue("100") Integer size,
+            @QueryParam("before") Long before);
 
     @GET
     @Path("{name}/structured")
@@ -114,7 +114,8 @@ public class OperationDescriptions {
 
     public static class EventOpDescription {
         public static final String GET_BY_TIMESTAMP = "retrieve events by timestamp (long)";
-        public static final String GET_BY_NAME = "retrieve events by name";
+        public static final String GET_BY_NAME = "retrieve events by name, newest first. The next page is the events before the timestamp "
+                + "of the last event of the page";
         public static final String GET_EVENTS_BY_NAME = "retrieve events by name";
         public static final String GET_EVENTS_ZIP_BY_NAME = "retrieve events in zip by name";
     }
@@ -11,6 +11,7 @@ import javax.ws.rs.core.MediaType;
 
 import com.sequenceiq.cloudbreak.jerseyclient.retry.RetryingRestClient;
 import com.sequenceiq.flow.api.model.FlowLogResponse;
+import com.sequenceiq.flow.api.model.QueuedFlowResponse;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -70,4 +71,11 @@ public interface FlowEndpoint {
     @ApiOperation(value = "Get flow logs for resource name and chain id", produces = "application/json", notes = "Flow log operations",
             nickname = "getFlowLogsByResourceNameAndChainId")
     List<FlowLogResponse> getFlowLogsByResourceNameAndChainId(@PathParam("resourceName") String resourceName, @PathParam("chainId") String chainId);
+
+    @GET
+    @Path("/queue")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get the flows waiting for admission with their position in the queue of their node", produces = "application/json",
+            notes = "Flow log operations", nickname = "getQueuedFlows")
+    List<QueuedFlowResponse> getQueuedFlows();
 }
@@ -0,0 +1,107 @@
+package com.sequenceiq.flow.api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class QueuedFlowResponse {
+
+    private Long resourceId;
+
+    private Long created;
+
+    private String flowTriggerKey;
+
+    private String flowType;
+
+    private String flowChainId;
+
+    private String accountId;
+
+    private String region;
+
+    private String nodeId;
+
+    private Integer position;
+
+    private Long waitingMillis;
+
+    public Long getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(Long resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public void setCreated(Long created) {
+        this.created = created;
+    }
+
+    public String getFlowTriggerKey() {
+        return flowTriggerKey;
+    }
+
+    public void setFlowTriggerKey(String flowTriggerKey) {
+        this.flowTriggerKey = flowTriggerKey;
+    }
+
+    public String getFlowType() {
+        return flowType;
+    }
+
+    public void setFlowType(String flowType) {
+        this.flowType = flowType;
+    }
+
+    public String getFlowChainId() {
+        return flowChainId;
+    }
+
+    public void setFlowChainId(String flowChainId) {
+        this.flowChainId = flowChainId;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+
+    public Long getWaitingMillis() {
+        return waitingMillis;
+    }
+
+    public void setWaitingMillis(Long waitingMillis) {
+        this.waitingMillis = waitingMillis;
+    }
+}
@@ -14,6 +14,7 @@ import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 import com.sequenceiq.cloudbreak.common.json.Json;
+import com.sequenceiq.cloudbreak.common.json.JsonToCompressedBytes;
 import com.sequenceiq.cloudbreak.common.json.JsonToString;
 import com.sequenceiq.cloudbreak.structuredevent.event.StructuredEventType;
 import com.sequenceiq.cloudbreak.workspace.model.User;
@@ -49,6 +50,10 @@ public class StructuredEventEntity implements WorkspaceAwareResource {
     @Column(columnDefinition = "TEXT")
     private Json structuredEventJson;
 
+    @Convert(converter = JsonToCompressedBytes.class)
+    @Column(name = "structuredeventjsongz")
+    private Json compressedStructuredEventJson;
+
     @ManyToOne
     private Workspace workspace;
 
@@ -96,12 +101,16 @@ public class StructuredEventEntity implements WorkspaceAwareResource {
         this.timestamp = timestamp;
     }
 
+    /**
+     * Events are stored compressed, the text column is only read for the events stored before the compression was introduced.
+     */
     public Json getStructuredEventJson() {
-        return structuredEventJson;
+        return compressedStructuredEventJson != null ? compressedStructuredEventJson : structuredEventJson;
     }
 
     public void setStructuredEventJson(Json structuredEventJson) {
-        this.structuredEventJson = structuredEventJson;
+        compressedStructuredEventJson = structuredEventJson;
+        this.structuredEventJson = null;
     }
 
     @Override
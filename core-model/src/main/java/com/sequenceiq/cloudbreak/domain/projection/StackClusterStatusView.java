@@ -0,0 +1,19 @@
+package com.sequenceiq.cloudbreak.domain.projection;
+
+import com.sequenceiq.cloudbreak.api.endpoint.v4.common.Status;
+import com.sequenceiq.cloudbreak.workspace.model.WorkspaceIdAwareResource;
+
+public interface StackClusterStatusView extends WorkspaceIdAwareResource {
+
+    Long getId();
+
+    String getCrn();
+
+    Status getStatus();
+
+    String getStatusReason();
+
+    Status getClusterStatus();
+
+    String getClusterStatusReason();
+}
@@ -0,0 +1,8 @@
+package com.sequenceiq.cloudbreak.domain.projection;
+
+import com.sequenceiq.cloudbreak.workspace.model.WorkspaceIdAwareResource;
+
+public interface StackWorkspaceIdView extends WorkspaceIdAwareResource {
+
+    Long getId();
+}
@@ -2,6 +2,7 @@ package com.sequenceiq.cloudbreak.domain.stack.cluster;
 
 import java.io.Serializable;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -24,6 +25,7 @@ import com.sequenceiq.cloudbreak.workspace.model.Workspace;
 import com.sequenceiq.cloudbreak.workspace.model.WorkspaceAwareResource;
 
 @Entity
+@Cacheable
 @Table(uniqueConstraints = @UniqueConstraint(columnNames = {"workspace_id", "name"}))
 public class ClusterTemplate implements WorkspaceAwareResource, Serializable {
 
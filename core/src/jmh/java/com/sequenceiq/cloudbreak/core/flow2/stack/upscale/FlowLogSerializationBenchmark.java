@@ -0,0 +1,113 @@
+package com.sequenceiq.cloudbreak.core.flow2.stack.upscale;
+
+import static com.sequenceiq.cloudbreak.core.flow2.cluster.upscale.ClusterUpscaleEvent.CLUSTER_UPSCALE_TRIGGER_EVENT;
+import static com.sequenceiq.cloudbreak.core.flow2.stack.sync.StackSyncEvent.STACK_SYNC_EVENT;
+import static com.sequenceiq.cloudbreak.core.flow2.stack.upscale.StackUpscaleEvent.ADD_INSTANCES_EVENT;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cedarsoftware.util.io.JsonReader;
+import com.cedarsoftware.util.io.JsonWriter;
+import com.sequenceiq.cloudbreak.common.event.Selectable;
+import com.sequenceiq.cloudbreak.common.type.ClusterManagerType;
+import com.sequenceiq.cloudbreak.core.flow2.event.ClusterScaleTriggerEvent;
+import com.sequenceiq.cloudbreak.core.flow2.event.StackScaleTriggerEvent;
+import com.sequenceiq.cloudbreak.core.flow2.event.StackSyncTriggerEvent;
+import com.sequenceiq.flow.conf.JsonIoConfig;
+import com.sequenceiq.flow.service.flowlog.FlowLogDBService;
+
+/**
+ * Measures the serialization done by {@link FlowLogDBService} on every state transition of an upscale: the payload and the flow variables are
+ * written to the flow log, the flow chain to the flow chain log, and the payload is read back when a flow is restarted on another node.
+ * The payloads carry the host names of {@code hostCount} new instances, like the upscale chain does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlowLogSerializationBenchmark {
+
+    private static final long STACK_ID = 1L;
+
+    private static final String HOST_GROUP = "worker";
+
+    @Param({"3", "500"})
+    private int hostCount;
+
+    private FlowLogDBService flowLogDBService;
+
+    private ClusterScaleTriggerEvent payload;
+
+    private Map<Object, Object> variables;
+
+    private Queue<Selectable> flowChain;
+
+    private String payloadJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JsonIoConfig jsonIoConfig = new JsonIoConfig();
+        jsonIoConfig.setupJsonReader();
+        flowLogDBService = new FlowLogDBService();
+        ReflectionTestUtils.setField(flowLogDBService, "writeOptions", jsonIoConfig.getCustomWriteOptions());
+
+        Set<String> hostNames = IntStream.range(0, hostCount)
+                .mapToObj(i -> HOST_GROUP + i + ".benchmark.cloudera.site")
+                .collect(Collectors.toSet());
+        payload = new ClusterScaleTriggerEvent(CLUSTER_UPSCALE_TRIGGER_EVENT.event(), STACK_ID, HOST_GROUP, hostCount, hostNames, false, true, false,
+                ClusterManagerType.CLOUDERA_MANAGER);
+        variables = new HashMap<>();
+        variables.put(AbstractStackUpscaleAction.INSTANCEGROUPNAME, HOST_GROUP);
+        variables.put(AbstractStackUpscaleAction.ADJUSTMENT, hostCount);
+        variables.put(AbstractStackUpscaleAction.HOSTNAMES, hostNames);
+        variables.put(AbstractStackUpscaleAction.UPSCALE_CANDIDATE_ADDRESSES, hostNames);
+        flowChain = new ConcurrentLinkedQueue<>();
+        flowChain.add(new StackSyncTriggerEvent(STACK_SYNC_EVENT.event(), STACK_ID, false));
+        flowChain.add(new StackScaleTriggerEvent(ADD_INSTANCES_EVENT.event(), STACK_ID, HOST_GROUP, hostCount, hostNames));
+        flowChain.add(payload);
+        payloadJson = flowLogDBService.getSerializedString(payload);
+    }
+
+    @Benchmark
+    public String serializePayload() {
+        return flowLogDBService.getSerializedString(payload);
+    }
+
+    @Benchmark
+    public String serializeVariables() {
+        return flowLogDBService.getSerializedString(variables);
+    }
+
+    @Benchmark
+    public String serializeFlowChain() {
+        return JsonWriter.objectToJson(flowChain);
+    }
+
+    @Benchmark
+    public Object deserializePayload() {
+        return JsonReader.jsonToJava(payloadJson);
+    }
+}
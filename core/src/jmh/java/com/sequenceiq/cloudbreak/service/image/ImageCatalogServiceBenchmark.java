@@ -0,0 +1,140 @@
+package com.sequenceiq.cloudbreak.service.image;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakImageCatalogV2;
+import com.sequenceiq.cloudbreak.core.CloudbreakImageCatalogException;
+import com.sequenceiq.cloudbreak.core.CloudbreakImageNotFoundException;
+import com.sequenceiq.cloudbreak.domain.ImageCatalog;
+import com.sequenceiq.cloudbreak.service.account.PreferencesService;
+import com.sequenceiq.cloudbreak.util.FileReaderUtils;
+
+/**
+ * Measures image selection on the production image catalog used by the tests, replicated {@code catalogScale} times, so the larger case is as big
+ * as the catalogs served today. The copies are referenced by their own, older Cloudbreak versions, so every lookup selects the same images
+ * whatever the scale is. The {@code 2.6.3} version is not in the catalog and exercises the fallback to the previous released version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageCatalogServiceBenchmark {
+
+    private static final String CATALOG_FILE = "com/sequenceiq/cloudbreak/service/image/cb-prod-image-catalog.json";
+
+    private static final String CATALOG_URL = "http://image-catalog";
+
+    private static final String CATALOG_NAME = "benchmark";
+
+    private static final String[] IMAGE_TYPES = {"base-images", "hdp-images", "hdf-images", "cdh-images"};
+
+    @Param({"1", "30"})
+    private int catalogScale;
+
+    @Param({"2.6.0", "2.6.3"})
+    private String cbVersion;
+
+    private ImageCatalogService underTest;
+
+    private ImageFilter imageFilter;
+
+    private String lastImageId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, CloudbreakImageCatalogException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode catalogJson = (ObjectNode) objectMapper.readTree(FileReaderUtils.readFileFromClasspath(CATALOG_FILE));
+        replicate(catalogJson);
+        CloudbreakImageCatalogV2 catalog = objectMapper.treeToValue(catalogJson, CloudbreakImageCatalogV2.class);
+        lastImageId = catalog.getImages().getHdfImages().get(catalog.getImages().getHdfImages().size() - 1).getUuid();
+
+        ImageCatalogProvider imageCatalogProvider = mock(ImageCatalogProvider.class, withSettings().stubOnly());
+        when(imageCatalogProvider.getImageCatalogV2(CATALOG_URL)).thenReturn(catalog);
+        PreferencesService preferencesService = mock(PreferencesService.class, withSettings().stubOnly());
+        when(preferencesService.enabledPlatforms()).thenReturn(Set.of("AWS", "AZURE", "GCP", "OPENSTACK"));
+
+        underTest = new ImageCatalogService();
+        ReflectionTestUtils.setField(underTest, "imageCatalogProvider", imageCatalogProvider);
+        ReflectionTestUtils.setField(underTest, "preferencesService", preferencesService);
+        ReflectionTestUtils.setField(underTest, "versionFilter", new ImageCatalogVersionFilter());
+
+        ImageCatalog imageCatalog = new ImageCatalog();
+        imageCatalog.setName(CATALOG_NAME);
+        imageCatalog.setImageCatalogUrl(CATALOG_URL);
+        imageFilter = new ImageFilter(imageCatalog, Set.of("AWS"), cbVersion);
+    }
+
+    @Benchmark
+    public StatedImages getImages() throws CloudbreakImageCatalogException {
+        return underTest.getImages(imageFilter);
+    }
+
+    @Benchmark
+    public StatedImage getImageById() throws CloudbreakImageCatalogException, CloudbreakImageNotFoundException {
+        return underTest.getImage(CATALOG_URL, CATALOG_NAME, lastImageId);
+    }
+
+    private void replicate(ObjectNode catalogJson) {
+        ObjectNode original = catalogJson.deepCopy();
+        for (int copy = 1; copy < catalogScale; copy++) {
+            addCopy(catalogJson, original, "-" + copy, "0." + copy + '.');
+        }
+    }
+
+    private void addCopy(ObjectNode catalogJson, ObjectNode original, String imageIdSuffix, String versionPrefix) {
+        for (String imageType : IMAGE_TYPES) {
+            JsonNode originalImages = original.get("images").get(imageType);
+            if (originalImages != null) {
+                ArrayNode images = (ArrayNode) catalogJson.get("images").get(imageType);
+                for (JsonNode originalImage : originalImages) {
+                    ObjectNode image = originalImage.deepCopy();
+                    image.put("uuid", image.get("uuid").asText() + imageIdSuffix);
+                    images.add(image);
+                }
+            }
+        }
+        ArrayNode cloudbreakVersions = (ArrayNode) catalogJson.get("versions").get("cloudbreak");
+        for (JsonNode originalVersion : original.get("versions").get("cloudbreak")) {
+            ObjectNode cloudbreakVersion = originalVersion.deepCopy();
+            renameElements(cloudbreakVersion, "versions", version -> versionPrefix + version);
+            renameElements(cloudbreakVersion, "images", imageId -> imageId + imageIdSuffix);
+            renameElements(cloudbreakVersion, "defaults", imageId -> imageId + imageIdSuffix);
+            cloudbreakVersions.add(cloudbreakVersion);
+        }
+    }
+
+    private void renameElements(ObjectNode node, String field, Function<String, String> rename) {
+        JsonNode elements = node.get(field);
+        if (elements != null) {
+            ArrayNode renamed = node.putArray(field);
+            elements.forEach(element -> renamed.add(rename.apply(element.asText())));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.sequenceiq.cloudbreak.structuredevent.rest;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.auth.security.authentication.AuthenticatedUserService;
+import com.sequenceiq.cloudbreak.service.CloudbreakRestRequestThreadLocalService;
+import com.sequenceiq.cloudbreak.structuredevent.StructuredEventClient;
+import com.sequenceiq.flow.ha.NodeConfig;
+
+/**
+ * Measures the per request overhead of {@link StructuredEventFilter} for a modifying REST call: the request filter, reading the request entity,
+ * the response filter, writing the response entity and the writer interceptor that creates the structured event. The collaborators are stub-only
+ * mocks, so their cost is the same for every parameter combination.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StructuredEventFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean contentLogging;
+
+    @Param({"256", "65536"})
+    private int entitySize;
+
+    private StructuredEventFilter underTest;
+
+    private WriterInterceptorContext writerContext;
+
+    private ContainerRequest currentRequest;
+
+    private byte[] requestEntity;
+
+    private byte[] responseEntity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        requestEntity = entity('q');
+        responseEntity = entity('s');
+        underTest = new StructuredEventFilter();
+        ReflectionTestUtils.setField(underTest, "restUrlParsers", new ArrayList<>());
+        ReflectionTestUtils.setField(underTest, "contentLogging", contentLogging);
+        ReflectionTestUtils.setField(underTest, "nodeConfig", mock(NodeConfig.class, withSettings().stubOnly()));
+        ReflectionTestUtils.setField(underTest, "restRequestThreadLocalService",
+                mock(CloudbreakRestRequestThreadLocalService.class, withSettings().stubOnly()));
+        ReflectionTestUtils.setField(underTest, "authenticatedUserService", mock(AuthenticatedUserService.class, withSettings().stubOnly()));
+        ReflectionTestUtils.setField(underTest, "structuredEventClient", (StructuredEventClient) event -> { });
+        writerContext = mock(WriterInterceptorContext.class, withSettings().stubOnly());
+        when(writerContext.getProperty(anyString())).thenAnswer(invocation -> currentRequest.getProperty(invocation.getArgument(0)));
+        when(writerContext.getMediaType()).thenReturn(MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    @Benchmark
+    public void filterModifyingRequest(Blackhole blackhole) throws IOException {
+        currentRequest = new ContainerRequest(URI.create("http://localhost"), URI.create("/v4/1/stacks"), "POST",
+                mock(SecurityContext.class, withSettings().stubOnly()), new MapPropertiesDelegate());
+        currentRequest.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        currentRequest.setEntityStream(new ByteArrayInputStream(requestEntity));
+        underTest.filter(currentRequest);
+        blackhole.consume(currentRequest.getEntityStream().readAllBytes());
+
+        ContainerResponse response = new ContainerResponse(currentRequest, Response.ok(responseEntity, MediaType.APPLICATION_JSON_TYPE).build());
+        response.setEntityStream(OutputStream.nullOutputStream());
+        underTest.filter(currentRequest, response);
+        response.getEntityStream().write(responseEntity);
+        underTest.aroundWriteTo(writerContext);
+    }
+
+    private byte[] entity(char fill) {
+        byte[] entity = new byte[entitySize];
+        Arrays.fill(entity, (byte) fill);
+        byte[] prefix = "{\"id\":1,\"name\":\"".getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(prefix, 0, entity, 0, prefix.length);
+        return entity;
+    }
+}
@@ -1,8 +1,6 @@
 package com.sequenceiq.cloudbreak.aspect;
 
-import java.lang.reflect.Field;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,14 +14,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import com.sequenceiq.cloudbreak.service.secret.SecretValue;
 import com.sequenceiq.cloudbreak.common.service.Clock;
-import com.sequenceiq.cloudbreak.service.secret.domain.Secret;
-import com.sequenceiq.cloudbreak.service.secret.domain.SecretProxy;
 import com.sequenceiq.cloudbreak.common.exception.CloudbreakServiceException;
 import com.sequenceiq.cloudbreak.workspace.model.Tenant;
 import com.sequenceiq.cloudbreak.workspace.model.TenantAwareResource;
-import com.sequenceiq.cloudbreak.service.secret.service.SecretService;
+import com.sequenceiq.cloudbreak.service.secret.service.SecretAspectService;
 
 @Component
 @Aspect
@@ -32,7 +27,7 @@ public class SecretAspects {
     private static final Logger LOGGER = LoggerFactory.getLogger(SecretAspects.class);
 
     @Inject
-    private SecretService secretService;
+    private SecretAspectService secretAspectService;
 
     @Inject
     private Clock clock;
@@ -74,33 +69,17 @@ public class SecretAspects {
     }
 
     private Object proceedSave(ProceedingJoinPoint proceedingJoinPoint) {
-        Collection<Object> entities = convertFirstArgToCollection(proceedingJoinPoint);
-        for (Object entity : entities) {
-            String tenant = null;
-            try {
-                for (Field field : entity.getClass().getDeclaredFields()) {
-                    if (field.isAnnotationPresent(SecretValue.class)) {
-                        LOGGER.debug("Found SecretValue annotation on {}", field);
-                        field.setAccessible(true);
-                        Secret value = (Secret) field.get(entity);
-                        if (value != null && value.getRaw() != null && value.getSecret() == null) {
-                            tenant = Optional.ofNullable(tenant).orElseGet(() -> findTenant(entity));
-                            String path = String.format("%s/%s/%s/%s-%s", tenant,
-                                    entity.getClass().getSimpleName().toLowerCase(), field.getName().toLowerCase(),
-                                    UUID.randomUUID().toString(), Long.toHexString(clock.getCurrentTimeMillis()));
-                            String secret = secretService.put(path, value.getRaw());
-                            LOGGER.debug("Field: '{}' is saved at path: {}", field.getName(), path);
-                            field.set(entity, new SecretProxy(secretService, secret));
-                        }
-                    }
-                }
-            } catch (IllegalArgumentException e) {
-                LOGGER.error("Given entity isn't instance of TenantAwareResource. Secret is not deleted!", e);
-                throw new CloudbreakServiceException(e);
-            } catch (Exception e) {
-                LOGGER.warn("Looks like something went wrong with Secret store. Secret is not deleted!", e);
-                throw new CloudbreakServiceException(e);
-            }
+        Collection<Object> entities = secretAspectService.convertFirstArgToCollection(proceedingJoinPoint);
+        try {
+            secretAspectService.saveSecrets(entities, (entity, field) -> String.format("%s/%s/%s/%s-%s", findTenant(entity),
+                    entity.getClass().getSimpleName().toLowerCase(), field.getName().toLowerCase(),
+                    UUID.randomUUID().toString(), Long.toHexString(clock.getCurrentTimeMillis())));
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Given entity isn't instance of TenantAwareResource. Secret is not deleted!", e);
+            throw new CloudbreakServiceException(e);
+        } catch (Exception e) {
+            LOGGER.warn("Looks like something went wrong with Secret store. Secret is not deleted!", e);
+            throw new CloudbreakServiceException(e);
         }
 
         Object proceed;
@@ -118,29 +97,15 @@ public class SecretAspects {
     }
 
     private Object proceedDelete(ProceedingJoinPoint proceedingJoinPoint) {
-        Collection<Object> entities = convertFirstArgToCollection(proceedingJoinPoint);
-        for (Object entity : entities) {
-            try {
-                for (Field field : entity.getClass().getDeclaredFields()) {
-                    if (field.isAnnotationPresent(SecretValue.class)) {
-                        LOGGER.debug("Found SecretValue annotation on {}", field);
-                        field.setAccessible(true);
-                        Secret path = (Secret) field.get(entity);
-                        if (path != null && path.getSecret() != null) {
-                            secretService.delete(path.getSecret());
-                            LOGGER.debug("Secret deleted at path: {}", path);
-                        } else {
-                            LOGGER.debug("Secret is null for field: {}.{}", field.getDeclaringClass(), field.getName());
-                        }
-                    }
-                }
-            } catch (IllegalArgumentException e) {
-                LOGGER.error("Given entity isn't instance of TenantAwareResource. Secret is not deleted!", e);
-                throw new CloudbreakServiceException(e);
-            } catch (Exception e) {
-                LOGGER.warn("Looks like something went wrong with Secret store. Secret is not deleted!", e);
-                throw new CloudbreakServiceException(e);
-            }
+        Collection<Object> entities = secretAspectService.convertFirstArgToCollection(proceedingJoinPoint);
+        try {
+            secretAspectService.deleteSecrets(entities);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Given entity isn't instance of TenantAwareResource. Secret is not deleted!", e);
+            throw new CloudbreakServiceException(e);
+        } catch (Exception e) {
+            LOGGER.warn("Looks like something went wrong with Secret store. Secret is not deleted!", e);
+            throw new CloudbreakServiceException(e);
         }
 
         Object proceed;
@@ -156,11 +121,6 @@ public class SecretAspects {
         return proceed;
     }
 
-    private Collection<Object> convertFirstArgToCollection(ProceedingJoinPoint proceedingJoinPoint) {
-        Object arg = proceedingJoinPoint.getArgs()[0];
-        return arg instanceof Collection ? (Collection<Object>) arg : Collections.singleton(arg);
-    }
-
     private String findTenant(Object entity) {
         return Optional.ofNullable(entity)
                 .filter(e -> e instanceof TenantAwareResource)
@@ -0,0 +1,126 @@
+package com.sequenceiq.cloudbreak.cache.entity;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sequenceiq.cloudbreak.service.metrics.CloudbreakMetricService;
+import com.sequenceiq.cloudbreak.service.metrics.MetricType;
+
+/**
+ * Keeps the entity cache regions of the HA nodes consistent. Regions evicted on this node are recorded and their version is increased in the
+ * {@code entitycacheregion} table on the next tick; every node drops the regions whose version changed since its previous tick. An update made on
+ * one node is therefore visible on the others after at most two ticks of {@code cb.db.cache.invalidation.intervalMs}.
+ * <p>
+ * A native DML statement has to be synchronized with the entities it changes, otherwise Hibernate evicts, and this service bumps, every region.
+ */
+@Service
+public class EntityCacheInvalidationService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntityCacheInvalidationService.class);
+
+    private static final String BUMP_REGION_VERSION = "INSERT INTO entitycacheregion (region, version) VALUES (?, 1) "
+            + "ON CONFLICT (region) DO UPDATE SET version = entitycacheregion.version + 1";
+
+    private static final String SELECT_REGION_VERSIONS = "SELECT region, version FROM entitycacheregion";
+
+    private final Set<String> pendingInvalidations = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Long> seenVersions = new HashMap<>();
+
+    @Value("${cb.db.cache.enabled:false}")
+    private boolean enabled;
+
+    @Inject
+    private EntityCacheRegionFactory entityCacheRegionFactory;
+
+    @Inject
+    private DataSource dataSource;
+
+    @Inject
+    private CloudbreakMetricService metricService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            entityCacheRegionFactory.setInvalidationListener(pendingInvalidations::add);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cb.db.cache.invalidation.intervalMs:5000}")
+    public void synchronizeRegions() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            publishPendingInvalidations();
+            evictChangedRegions();
+        } catch (DataAccessException e) {
+            LOGGER.warn("Can not synchronize the entity cache regions with the other nodes", e);
+        }
+        submitStatistics();
+    }
+
+    private void publishPendingInvalidations() {
+        Iterator<String> regions = pendingInvalidations.iterator();
+        while (regions.hasNext()) {
+            String region = regions.next();
+            regions.remove();
+            try {
+                jdbcTemplate.update(BUMP_REGION_VERSION, region);
+            } catch (DataAccessException e) {
+                pendingInvalidations.add(region);
+                throw e;
+            }
+        }
+    }
+
+    private void evictChangedRegions() {
+        jdbcTemplate.query(SELECT_REGION_VERSIONS, resultSet -> {
+            String region = resultSet.getString("region");
+            Long version = resultSet.getLong("version");
+            if (!version.equals(seenVersions.put(region, version))) {
+                LOGGER.debug("Entity cache region {} changed to version {}, evicting it", region, version);
+                entityCacheRegionFactory.evictLocally(region);
+                metricService.incrementMetricCounter(MetricType.ENTITY_CACHE_INVALIDATION);
+            }
+        });
+    }
+
+    private void submitStatistics() {
+        long hits = 0L;
+        long misses = 0L;
+        long evictions = 0L;
+        long size = 0L;
+        for (Cache<Object, Object> cache : entityCacheRegionFactory.getRegions().values()) {
+            CacheStats stats = cache.stats();
+            hits += stats.hitCount();
+            misses += stats.missCount();
+            evictions += stats.evictionCount();
+            size += cache.estimatedSize();
+        }
+        metricService.submit(MetricType.ENTITY_CACHE_HIT, hits);
+        metricService.submit(MetricType.ENTITY_CACHE_MISS, misses);
+        metricService.submit(MetricType.ENTITY_CACHE_EVICTION, evictions);
+        metricService.submit(MetricType.ENTITY_CACHE_SIZE, size);
+    }
+}
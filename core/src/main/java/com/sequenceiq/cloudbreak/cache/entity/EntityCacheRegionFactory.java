@@ -0,0 +1,90 @@
+package com.sequenceiq.cloudbreak.cache.entity;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Hibernate second level cache regions backed by node local Caffeine caches. Every eviction Hibernate makes in a domain data region, for example
+ * after an entity is updated or deleted, is reported to the invalidation listener, so the other nodes can drop the same region.
+ */
+public class EntityCacheRegionFactory extends RegionFactoryTemplate {
+
+    private final Map<String, Cache<Object, Object>> regions = new ConcurrentHashMap<>();
+
+    private final long maxEntries;
+
+    private final long timeToLiveSeconds;
+
+    private volatile Consumer<String> invalidationListener = region -> { };
+
+    public EntityCacheRegionFactory(long maxEntries, long timeToLiveSeconds) {
+        this.maxEntries = maxEntries;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+    }
+
+    public void setInvalidationListener(Consumer<String> invalidationListener) {
+        this.invalidationListener = invalidationListener;
+    }
+
+    /**
+     * Drops every entry of the region on this node without reporting it to the invalidation listener.
+     */
+    public void evictLocally(String regionName) {
+        Cache<Object, Object> cache = regions.get(regionName);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public Map<String, Cache<Object, Object>> getRegions() {
+        return regions;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+            DomainDataRegionBuildingContext buildingContext) {
+        String regionName = regionConfig.getRegionName();
+        return new EntityCacheStorageAccess(createCache(regionName), () -> invalidationListener.accept(regionName));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new EntityCacheStorageAccess(createCache(regionName), () -> { });
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new EntityCacheStorageAccess(createCache(regionName), () -> { });
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map configValues) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(Cache::invalidateAll);
+        regions.clear();
+    }
+
+    private Cache<Object, Object> createCache(String regionName) {
+        return regions.computeIfAbsent(regionName, name -> Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(timeToLiveSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build());
+    }
+}
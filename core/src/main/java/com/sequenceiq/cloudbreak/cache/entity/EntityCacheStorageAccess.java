@@ -0,0 +1,50 @@
+package com.sequenceiq.cloudbreak.cache.entity;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+class EntityCacheStorageAccess implements DomainDataStorageAccess {
+
+    private final Cache<Object, Object> cache;
+
+    private final Runnable onEviction;
+
+    EntityCacheStorageAccess(Cache<Object, Object> cache, Runnable onEviction) {
+        this.cache = cache;
+        this.onEviction = onEviction;
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return cache.getIfPresent(key) != null;
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public void evictData() {
+        cache.invalidateAll();
+        onEviction.run();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        cache.invalidate(key);
+        onEviction.run();
+    }
+
+    @Override
+    public void release() {
+        cache.invalidateAll();
+    }
+}
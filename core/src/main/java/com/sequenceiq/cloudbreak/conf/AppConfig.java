@@ -48,6 +48,7 @@ import com.sequenceiq.cloudbreak.common.mappable.CloudPlatform;
 import com.sequenceiq.cloudbreak.concurrent.MDCCleanerTaskDecorator;
 import com.sequenceiq.cloudbreak.converter.v4.environment.network.EnvironmentNetworkConverter;
 import com.sequenceiq.cloudbreak.core.bootstrap.service.ClusterDeletionBasedExitCriteria;
+import com.sequenceiq.cloudbreak.logger.concurrent.VirtualThreads;
 import com.sequenceiq.cloudbreak.orchestrator.host.HostOrchestrator;
 import com.sequenceiq.cloudbreak.orchestrator.state.ExitCriteria;
 import com.sequenceiq.cloudbreak.service.StackUnderOperationService;
@@ -76,6 +77,12 @@ public class AppConfig implements ResourceLoaderAware {
     @Value("${cb.threadpool.capacity.size:}")
     private int queueCapacity;
 
+    @Value("${cb.virtualthreads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${cb.virtualthreads.pool.size:10000}")
+    private int virtualThreadPoolSize;
+
     @Value("${cb.intermediate.threadpool.core.size:}")
     private int intermediateCorePoolSize;
 
@@ -216,6 +223,10 @@ public class AppConfig implements ResourceLoaderAware {
         executor.setCorePoolSize(corePoolSize);
         executor.setQueueCapacity(queueCapacity);
         executor.setThreadNamePrefix("resourceBuilderExecutor-");
+        if (VirtualThreads.isUsable(virtualThreadsEnabled)) {
+            executor.setCorePoolSize(virtualThreadPoolSize);
+            executor.setThreadFactory(VirtualThreads.newThreadFactory("resourceBuilderExecutor-"));
+        }
         executor.setTaskDecorator(new MDCCleanerTaskDecorator());
         executor.initialize();
         return executor;
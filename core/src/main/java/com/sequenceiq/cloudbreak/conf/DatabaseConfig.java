@@ -12,8 +12,10 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.SharedCacheMode;
 import javax.sql.DataSource;
 
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -26,6 +28,7 @@ import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import com.sequenceiq.cloudbreak.cache.entity.EntityCacheRegionFactory;
 import com.sequenceiq.flow.ha.NodeConfig;
 import com.sequenceiq.cloudbreak.util.DatabaseUtil;
 import com.zaxxer.hikari.HikariConfig;
@@ -71,6 +74,18 @@ public class DatabaseConfig {
     @Value("${cb.hibernate.debug:false}")
     private boolean debug;
 
+    @Value("${cb.hibernate.statistics:false}")
+    private boolean statistics;
+
+    @Value("${cb.db.cache.enabled:false}")
+    private boolean entityCacheEnabled;
+
+    @Value("${cb.db.cache.maxEntries:10000}")
+    private long entityCacheMaxEntries;
+
+    @Value("${cb.db.cache.ttlSeconds:600}")
+    private long entityCacheTtlSeconds;
+
     @Inject
     @Named("databaseAddress")
     private String databaseAddress;
@@ -124,10 +139,18 @@ public class DatabaseConfig {
 
         entityManagerFactory.setJpaVendorAdapter(jpaVendorAdapter());
         entityManagerFactory.setJpaProperties(jpaProperties());
+        if (entityCacheEnabled) {
+            entityManagerFactory.getJpaPropertyMap().put(AvailableSettings.CACHE_REGION_FACTORY, entityCacheRegionFactory());
+        }
         entityManagerFactory.afterPropertiesSet();
         return entityManagerFactory;
     }
 
+    @Bean
+    public EntityCacheRegionFactory entityCacheRegionFactory() {
+        return new EntityCacheRegionFactory(entityCacheMaxEntries, entityCacheTtlSeconds);
+    }
+
     @Bean
     public JpaVendorAdapter jpaVendorAdapter() {
         HibernateJpaVendorAdapter hibernateJpaVendorAdapter = new HibernateJpaVendorAdapter();
@@ -142,10 +165,15 @@ public class DatabaseConfig {
         properties.setProperty("hibernate.show_sql", Boolean.toString(debug));
         properties.setProperty("hibernate.format_sql", Boolean.toString(debug));
         properties.setProperty("hibernate.use_sql_comments", Boolean.toString(debug));
-        properties.setProperty("hibernate.generate_statistics", Boolean.toString(debug));
+        properties.setProperty("hibernate.generate_statistics", Boolean.toString(debug || statistics));
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
         properties.setProperty("hibernate.default_schema", dbSchemaName);
         properties.setProperty("hibernate.jdbc.lob.non_contextual_creation", Boolean.toString(true));
+        properties.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, Boolean.toString(entityCacheEnabled));
+        if (entityCacheEnabled) {
+            properties.setProperty(AvailableSettings.JPA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE.name());
+            properties.setProperty(AvailableSettings.DEFAULT_CACHE_CONCURRENCY_STRATEGY, "nonstrict-read-write");
+        }
         return properties;
     }
 }
@@ -25,6 +25,18 @@ public class StructuredEventSenderConfig {
     @Value("${cb.kafka.structured.events.topic:StructuredEvents}")
     private String structuredEventsTopic;
 
+    @Value("${cb.kafka.producer.lingerMs:50}")
+    private int producerLingerMs;
+
+    @Value("${cb.kafka.producer.batchSize:65536}")
+    private int producerBatchSize;
+
+    @Value("${cb.kafka.producer.compressionType:lz4}")
+    private String producerCompressionType;
+
+    @Value("${cb.kafka.producer.maxBlockMs:5000}")
+    private long producerMaxBlockMs;
+
     public boolean isKafkaConfigured() {
         return StringUtils.isNotEmpty(bootstrapServers);
     }
@@ -51,6 +63,12 @@ public class StructuredEventSenderConfig {
                 StringSerializer.class);
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
                 StringSerializer.class);
+        // events are sent without waiting for each other, so let the producer batch and compress them
+        props.put(ProducerConfig.LINGER_MS_CONFIG, producerLingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producerCompressionType);
+        // do not block the sender thread for long if the brokers are unreachable, the events are spilled to disk instead
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, producerMaxBlockMs);
 
         return props;
     }
@@ -52,9 +52,13 @@ public class EventV4Controller implements EventV4Endpoint {
     }
 
     @Override
-    public Page<CloudbreakEventV4Response> getCloudbreakEventsByStack(String name, Integer page, Integer size) {
-        PageRequest pageable = PageRequest.of(page, size, Sort.by("timestamp").descending());
-        return cloudbreakEventsFacade.retrieveEventsByStack(getStackIdIfAvailable(name), pageable);
+    public Page<CloudbreakEventV4Response> getCloudbreakEventsByStack(String name, Integer page, Integer size, Long before) {
+        if (before == null && page > 0) {
+            // clients paging by number keep the offset paging, the pages of the rest start before the last event of the previous page
+            PageRequest pageable = PageRequest.of(page, size, Sort.by("timestamp").descending());
+            return cloudbreakEventsFacade.retrieveEventsByStack(getStackIdIfAvailable(name), pageable);
+        }
+        return cloudbreakEventsFacade.retrieveEventsByStackBefore(getStackIdIfAvailable(name), before, size);
     }
 
     private Long getStackIdIfAvailable(String name) {
@@ -1,15 +1,19 @@
 package com.sequenceiq.cloudbreak.controller.v4;
 
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.inject.Inject;
 import javax.ws.rs.core.Response;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 
 import com.sequenceiq.cloudbreak.api.endpoint.v4.util.UtilV4Endpoint;
+import com.sequenceiq.cloudbreak.api.endpoint.v4.util.base.RightV4;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.util.requests.CheckRightV4Request;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.util.requests.RenewCertificateV4Request;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.util.requests.RepoConfigValidationV4Request;
@@ -123,9 +127,12 @@ public class UtilV4Controller extends NotificationController implements UtilV4En
     @Override
     public CheckRightV4Response checkRight(CheckRightV4Request checkRightV4Request) {
         String userCrn = restRequestThreadLocalService.getCloudbreakUser().getUserCrn();
-        return new CheckRightV4Response(checkRightV4Request.getRights().stream()
-                .map(rightReq -> new CheckRightV4SingleResponse(rightReq,
-                        umsAuthorizationService.hasRightOfUserForResource(userCrn, rightReq.getResource(), rightReq.getAction())))
+        List<RightV4> rights = checkRightV4Request.getRights();
+        List<Boolean> results = umsAuthorizationService.hasRightsOfUser(userCrn, rights.stream()
+                .map(rightReq -> Pair.of(rightReq.getResource(), rightReq.getAction()))
+                .collect(Collectors.toList()));
+        return new CheckRightV4Response(IntStream.range(0, rights.size())
+                .mapToObj(i -> new CheckRightV4SingleResponse(rights.get(i), results.get(i)))
                 .collect(Collectors.toList()));
     }
 
@@ -32,6 +32,7 @@ import com.sequenceiq.cloudbreak.core.CloudbreakImageNotFoundException;
 import com.sequenceiq.cloudbreak.core.bootstrap.service.host.HostBootstrapApiCheckerTask;
 import com.sequenceiq.cloudbreak.core.bootstrap.service.host.HostClusterAvailabilityCheckerTask;
 import com.sequenceiq.cloudbreak.core.bootstrap.service.host.HostOrchestratorResolver;
+import com.sequenceiq.cloudbreak.core.bootstrap.service.host.SaltPillarHashService;
 import com.sequenceiq.cloudbreak.core.bootstrap.service.host.context.HostBootstrapApiContext;
 import com.sequenceiq.cloudbreak.core.bootstrap.service.host.context.HostOrchestratorClusterContext;
 import com.sequenceiq.cloudbreak.domain.Orchestrator;
@@ -104,6 +105,9 @@ public class ClusterBootstrapper {
     @Inject
     private ComponentConfigProviderService componentConfigProviderService;
 
+    @Inject
+    private SaltPillarHashService saltPillarHashService;
+
     public void bootstrapMachines(Long stackId) throws CloudbreakException {
         Stack stack = stackService.getByIdWithListsInTransaction(stackId);
         String stackOrchestratorType = stack.getOrchestrator().getType();
@@ -160,6 +164,7 @@ public class ClusterBootstrapper {
             params.setOs(image.getOs());
 
             hostOrchestrator.bootstrap(allGatewayConfig, nodes, params, clusterDeletionBasedModel(stack.getId(), null));
+            saltPillarHashService.invalidate(stack.getCluster());
 
             InstanceMetaData primaryGateway = stack.getPrimaryGatewayInstance();
             GatewayConfig gatewayConfig = gatewayConfigService.getGatewayConfig(stack, primaryGateway, enableKnox);
@@ -265,6 +270,10 @@ public class ClusterBootstrapper {
         }
 
         hostOrchestrator.bootstrapNewNodes(allGatewayConfigs, nodes, allNodes, stateZip, params, clusterDeletionBasedModel(stack.getId(), null));
+        if (hasNewGateway(allGatewayConfigs, nodes)) {
+            // the salt config is uploaded again only to a new gateway, an upscale of the other hosts keeps the pillars
+            saltPillarHashService.invalidate(cluster);
+        }
 
         InstanceMetaData primaryGateway = stack.getPrimaryGatewayInstance();
         GatewayConfig gatewayConfig = gatewayConfigService.getGatewayConfig(stack, primaryGateway, enableKnox);
@@ -276,6 +285,10 @@ public class ClusterBootstrapper {
         }
     }
 
+    private boolean hasNewGateway(Collection<GatewayConfig> allGatewayConfigs, Collection<Node> nodes) {
+        return allGatewayConfigs.stream().anyMatch(gatewayConfig -> nodes.stream().anyMatch(node -> gatewayConfig.getPrivateAddress().equals(node.getPrivateIp())));
+    }
+
     private List<Set<Node>> prepareBootstrapSegments(Iterable<Node> nodes, int maxBootstrapNodes, String gatewayIp) {
         List<Set<Node>> result = new ArrayList<>();
         Set<Node> newNodes = new HashSet<>();
@@ -178,6 +178,9 @@ public class ClusterHostServiceRunner {
     @Inject
     private VirtualGroupService virtualGroupService;
 
+    @Inject
+    private SaltPillarHashService saltPillarHashService;
+
     public void runClusterServices(@Nonnull Stack stack, @Nonnull Cluster cluster, List<String> candidateAddresses) {
         try {
             Set<Node> nodes = stackUtil.collectNodes(stack);
@@ -187,7 +190,10 @@ public class ClusterHostServiceRunner {
             SaltConfig saltConfig = createSaltConfig(stack, cluster, primaryGatewayConfig, gatewayConfigs);
             ExitCriteriaModel exitCriteriaModel = clusterDeletionBasedModel(stack.getId(), cluster.getId());
             boolean clouderaManager = blueprintService.isClouderaManagerTemplate(cluster.getBlueprint());
+            Map<String, String> pillarHashes = saltPillarHashService.computeHashes(saltConfig.getServicePillarConfig(), gatewayConfigs);
+            saltConfig.setUnchangedServicePillars(saltPillarHashService.getUnchangedPillars(cluster.getId(), pillarHashes));
             hostOrchestrator.initServiceRun(gatewayConfigs, nodes, saltConfig, exitCriteriaModel, clouderaManager);
+            saltPillarHashService.storeHashes(cluster, pillarHashes);
             if (CollectionUtils.isEmpty(candidateAddresses)) {
                 mountDisks.mountAllDisks(stack.getId());
             } else {
@@ -0,0 +1,129 @@
+package com.sequenceiq.cloudbreak.core.bootstrap.service.host;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.hash.Hashing;
+import com.sequenceiq.cloudbreak.cluster.service.ClusterComponentConfigProvider;
+import com.sequenceiq.cloudbreak.common.json.Json;
+import com.sequenceiq.cloudbreak.common.type.ComponentType;
+import com.sequenceiq.cloudbreak.domain.stack.cluster.Cluster;
+import com.sequenceiq.cloudbreak.domain.stack.cluster.ClusterComponent;
+import com.sequenceiq.cloudbreak.orchestrator.model.GatewayConfig;
+import com.sequenceiq.cloudbreak.orchestrator.model.SaltPillarProperties;
+
+/**
+ * Keeps track of the content of the service pillars saved on the gateways of a cluster, so a service run only has to save the pillars that changed.
+ * The hashes of the pillars are stored as a cluster component after a successful save. The stored hashes are dropped whenever the pillars
+ * on the gateways may have been overwritten outside of the service run, and all pillars are treated as changed if the gateways changed.
+ */
+@Service
+public class SaltPillarHashService {
+
+    static final String GATEWAYS_KEY = "#gateways";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaltPillarHashService.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    @Inject
+    private ClusterComponentConfigProvider clusterComponentConfigProvider;
+
+    @Value("${cb.salt.pillar.differential.enabled:true}")
+    private boolean enabled;
+
+    public Map<String, String> computeHashes(Map<String, SaltPillarProperties> servicePillar, Collection<GatewayConfig> gatewayConfigs) {
+        if (!enabled) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> hashes = new HashMap<>();
+        try {
+            for (Entry<String, SaltPillarProperties> pillar : servicePillar.entrySet()) {
+                hashes.put(pillar.getKey(), hash(pillar.getValue().getPath() + '\n' + objectMapper.writeValueAsString(pillar.getValue().getProperties())));
+            }
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("Can not compute the hashes of the salt pillars, every pillar is saved", e);
+            return Collections.emptyMap();
+        }
+        String gateways = gatewayConfigs.stream()
+                .map(GatewayConfig::getPrivateAddress)
+                .sorted()
+                .collect(Collectors.joining(","));
+        hashes.put(GATEWAYS_KEY, hash(gateways));
+        return hashes;
+    }
+
+    public Set<String> getUnchangedPillars(Long clusterId, Map<String, String> hashes) {
+        if (hashes.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Map<String, String> storedHashes = getStoredHashes(clusterId);
+        if (!hashes.get(GATEWAYS_KEY).equals(storedHashes.get(GATEWAYS_KEY))) {
+            LOGGER.debug("The gateways of cluster {} changed since the last pillar save, every pillar is saved", clusterId);
+            return Collections.emptySet();
+        }
+        return hashes.entrySet().stream()
+                .filter(hash -> !GATEWAYS_KEY.equals(hash.getKey()))
+                .filter(hash -> hash.getValue().equals(storedHashes.get(hash.getKey())))
+                .map(Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    public void storeHashes(Cluster cluster, Map<String, String> hashes) {
+        if (!hashes.isEmpty()) {
+            store(cluster, hashes);
+        }
+    }
+
+    public void invalidate(Cluster cluster) {
+        if (clusterComponentConfigProvider.getComponent(cluster.getId(), ComponentType.SALT_PILLAR_HASHES) != null) {
+            LOGGER.debug("Dropping the salt pillar hashes of cluster {}", cluster.getId());
+            store(cluster, Collections.emptyMap());
+        }
+    }
+
+    private Map<String, String> getStoredHashes(Long clusterId) {
+        ClusterComponent component = clusterComponentConfigProvider.getComponent(clusterId, ComponentType.SALT_PILLAR_HASHES);
+        if (component == null || component.getAttributes() == null) {
+            return Collections.emptyMap();
+        }
+        try {
+            return component.getAttributes().get(new TypeReference<Map<String, String>>() { });
+        } catch (IOException e) {
+            LOGGER.warn("Can not read the salt pillar hashes of cluster {}, every pillar is saved", clusterId, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private void store(Cluster cluster, Map<String, String> hashes) {
+        ClusterComponent component = clusterComponentConfigProvider.getComponent(cluster.getId(), ComponentType.SALT_PILLAR_HASHES);
+        if (component == null) {
+            component = new ClusterComponent(ComponentType.SALT_PILLAR_HASHES, new Json(hashes), cluster);
+        } else {
+            component.setAttributes(new Json(hashes));
+        }
+        clusterComponentConfigProvider.store(component);
+    }
+
+    private String hash(String content) {
+        return Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString();
+    }
+}
@@ -17,6 +17,7 @@ import com.sequenceiq.cloudbreak.cluster.service.ClusterComponentConfigProvider;
 import com.sequenceiq.cloudbreak.common.model.OrchestratorType;
 import com.sequenceiq.cloudbreak.core.bootstrap.service.OrchestratorTypeResolver;
 import com.sequenceiq.cloudbreak.core.bootstrap.service.host.HostOrchestratorResolver;
+import com.sequenceiq.cloudbreak.core.bootstrap.service.host.SaltPillarHashService;
 import com.sequenceiq.cloudbreak.domain.stack.Stack;
 import com.sequenceiq.cloudbreak.domain.stack.cluster.Cluster;
 import com.sequenceiq.cloudbreak.domain.stack.instance.InstanceMetaData;
@@ -57,6 +58,9 @@ public class ClusterManagerUpgradeService {
     @Inject
     private StackUtil stackUtil;
 
+    @Inject
+    private SaltPillarHashService saltPillarHashService;
+
     public void upgradeCluster(Long stackId) throws CloudbreakOrchestratorException {
         Stack stack = stackService.getByIdWithListsInTransaction(stackId);
         Cluster cluster = stack.getCluster();
@@ -76,6 +80,7 @@ public class ClusterManagerUpgradeService {
                 servicePillar.put("ambari-credentials", new SaltPillarProperties("/ambari/credentials.sls", singletonMap("ambari", credentials)));
                 SaltConfig pillar = new SaltConfig(servicePillar);
                 hostOrchestrator.upgradeAmbari(gatewayConfig, gatewayFQDN, stackUtil.collectNodes(stack), pillar, exitCriteriaModel);
+                saltPillarHashService.invalidate(cluster);
             } else {
                 throw new UnsupportedOperationException("Ambari upgrade works only with host orchestrator");
             }
@@ -0,0 +1,22 @@
+package com.sequenceiq.cloudbreak.core.flow2;
+
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.service.stack.StackService;
+import com.sequenceiq.flow.core.admission.FlowAdmissionRegionProvider;
+
+@Component
+public class CloudbreakFlowAdmissionRegionProvider implements FlowAdmissionRegionProvider {
+
+    @Inject
+    private StackService stackService;
+
+    @Override
+    public Optional<String> getRegion(Long resourceId) {
+        return stackService.findRegionById(resourceId);
+    }
+}
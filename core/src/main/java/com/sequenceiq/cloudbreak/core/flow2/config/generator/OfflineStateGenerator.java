@@ -57,10 +57,12 @@ import com.sequenceiq.cloudbreak.core.flow2.stack.termination.StackTerminationFl
 import com.sequenceiq.cloudbreak.core.flow2.stack.upscale.StackUpscaleConfig;
 import com.sequenceiq.cloudbreak.domain.Network;
 import com.sequenceiq.cloudbreak.domain.projection.AutoscaleStack;
+import com.sequenceiq.cloudbreak.domain.projection.StackClusterStatusView;
 import com.sequenceiq.cloudbreak.domain.projection.StackIdView;
 import com.sequenceiq.cloudbreak.domain.projection.StackListItem;
 import com.sequenceiq.cloudbreak.domain.projection.StackStatusView;
 import com.sequenceiq.cloudbreak.domain.projection.StackTtlView;
+import com.sequenceiq.cloudbreak.domain.projection.StackWorkspaceIdView;
 import com.sequenceiq.cloudbreak.domain.stack.Stack;
 import com.sequenceiq.cloudbreak.repository.StackRepository;
 import com.sequenceiq.cloudbreak.service.stack.StackService;
@@ -407,6 +409,21 @@ public class OfflineStateGenerator {
             return Optional.empty();
         }
 
+        @Override
+        public Optional<StackWorkspaceIdView> findWorkspaceIdViewByResourceCrn(String crn) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<StackClusterStatusView> findStatusViewByResourceCrn(String crn) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<StackClusterStatusView> findStatusViewByCrnAndWorkspaceId(String crn, Long workspaceId) {
+            return Optional.empty();
+        }
+
         @Override
         public String findTimeToLiveValueForSTack(Long stackId, String ttl) {
             return null;
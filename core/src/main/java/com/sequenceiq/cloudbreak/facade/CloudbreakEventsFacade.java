@@ -13,6 +13,8 @@ public interface CloudbreakEventsFacade {
 
     Page<CloudbreakEventV4Response> retrieveEventsByStack(Long stackId, Pageable pageable);
 
+    Page<CloudbreakEventV4Response> retrieveEventsByStackBefore(Long stackId, Long before, int pageSize);
+
     List<CloudbreakEventV4Response> retrieveEventsForWorkspaceByStack(Long workspaceId, String stackName);
 
 }
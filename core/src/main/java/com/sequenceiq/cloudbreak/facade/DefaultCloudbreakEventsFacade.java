@@ -50,6 +50,13 @@ public class DefaultCloudbreakEventsFacade implements CloudbreakEventsFacade {
         return cloudbreakEventsJsons;
     }
 
+    @Override
+    public Page<CloudbreakEventV4Response> retrieveEventsByStackBefore(Long stackId, Long before, int pageSize) {
+        Page<StructuredNotificationEvent> cloudbreakEvents = cloudbreakEventService.cloudbreakEventsForStackBefore(stackId, before, pageSize);
+        LOGGER.debug("Convert notification events for stack [{}] before [{}]", stackId, before);
+        return cloudbreakEvents.map(eventConverter::convert);
+    }
+
     @Override
     public List<CloudbreakEventV4Response> retrieveEventsForWorkspaceByStack(Long workspaceId, String stackName) {
         Stack stack = stackService.getByNameInWorkspace(stackName, workspaceId);
@@ -19,7 +19,7 @@ public interface CloudbreakFlowLogRepository extends Repository<FlowLog, Long> {
     int purgeTerminatedStackLogs();
 
     @Query("SELECT DISTINCT fl.resourceId FROM FlowLog fl "
-            + "WHERE fl.stateStatus = 'PENDING' "
+            + "WHERE fl.finalized = false AND fl.stateStatus = 'PENDING' "
             + "AND fl.cloudbreakNodeId = :cloudbreakNodeId "
             + "AND fl.flowType = 'com.sequenceiq.flow.core.stack.termination.StackTerminationFlowConfig'")
     Set<Long> findTerminatingStacksByCloudbreakNodeId(@Param("cloudbreakNodeId") String cloudbreakNodeId);
@@ -21,10 +21,12 @@ import com.sequenceiq.cloudbreak.api.endpoint.v4.common.StackType;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.common.Status;
 import com.sequenceiq.cloudbreak.domain.Network;
 import com.sequenceiq.cloudbreak.domain.projection.AutoscaleStack;
+import com.sequenceiq.cloudbreak.domain.projection.StackClusterStatusView;
 import com.sequenceiq.cloudbreak.domain.projection.StackIdView;
 import com.sequenceiq.cloudbreak.domain.projection.StackListItem;
 import com.sequenceiq.cloudbreak.domain.projection.StackStatusView;
 import com.sequenceiq.cloudbreak.domain.projection.StackTtlView;
+import com.sequenceiq.cloudbreak.domain.projection.StackWorkspaceIdView;
 import com.sequenceiq.cloudbreak.domain.stack.Stack;
 import com.sequenceiq.cloudbreak.workspace.model.Workspace;
 import com.sequenceiq.cloudbreak.workspace.repository.DisableHasPermission;
@@ -180,6 +182,10 @@ public interface StackRepository extends WorkspaceResourceRepository<Stack, Long
     @Query("SELECT s.workspace FROM Stack s where s.resourceCrn = :crn")
     Optional<Workspace> findWorkspaceByCrn(@Param("crn") String crn);
 
+    @DisableCheckPermissions
+    @Query("SELECT s.region FROM Stack s WHERE s.id = :id")
+    Optional<String> findRegionById(@Param("id") Long id);
+
     @CheckPermissionsByReturnValue
     @Query("SELECT s FROM Stack s LEFT JOIN FETCH s.instanceGroups ig LEFT JOIN FETCH ig.instanceMetaData WHERE s.id= :id "
             + "AND s.type is 'TEMPLATE'")
@@ -189,6 +195,27 @@ public interface StackRepository extends WorkspaceResourceRepository<Stack, Long
     @Query("SELECT s FROM Stack s WHERE s.resourceCrn = :crn")
     Optional<Stack> findByResourceCrn(@Param("crn") String crn);
 
+    @CheckPermissionsByReturnValue
+    @Query("SELECT s.id as id, s.workspace.id as workspaceId FROM Stack s WHERE s.resourceCrn = :crn")
+    Optional<StackWorkspaceIdView> findWorkspaceIdViewByResourceCrn(@Param("crn") String crn);
+
+    @CheckPermissionsByReturnValue
+    @Query("SELECT s.id as id, s.resourceCrn as crn, s.workspace.id as workspaceId, ss.status as status, ss.statusReason as statusReason, "
+            + "c.status as clusterStatus, c.statusReason as clusterStatusReason FROM Stack s "
+            + "LEFT JOIN s.stackStatus ss "
+            + "LEFT JOIN s.cluster c "
+            + "WHERE s.resourceCrn = :crn")
+    Optional<StackClusterStatusView> findStatusViewByResourceCrn(@Param("crn") String crn);
+
+    @CheckPermissionsByReturnValue
+    @Query("SELECT s.id as id, s.resourceCrn as crn, s.workspace.id as workspaceId, ss.status as status, ss.statusReason as statusReason, "
+            + "c.status as clusterStatus, c.statusReason as clusterStatusReason FROM Stack s "
+            + "LEFT JOIN s.stackStatus ss "
+            + "LEFT JOIN s.cluster c "
+            + "WHERE s.resourceCrn= :crn AND s.workspace.id= :workspaceId AND s.terminated = null "
+            + "AND (s.type is not 'TEMPLATE' OR s.type is null)")
+    Optional<StackClusterStatusView> findStatusViewByCrnAndWorkspaceId(@Param("crn") String crn, @Param("workspaceId") Long workspaceId);
+
     @CheckPermissionsByReturnValue
     @Query("SELECT VALUE(s.parameters) FROM Stack s WHERE s.id = :stackId AND KEY(s.parameters) = :ttlKey")
     String findTimeToLiveValueForSTack(@Param("stackId") Long stackId, @Param("ttlKey") String ttl);
@@ -1,13 +1,19 @@
 package com.sequenceiq.cloudbreak.service.blueprint;
 
+import javax.inject.Inject;
+
 import org.springframework.stereotype.Component;
 
-import com.sequenceiq.cloudbreak.cmtemplate.CmTemplateProcessor;
+import com.sequenceiq.cloudbreak.cmtemplate.CmTemplateProcessorFactory;
 import com.sequenceiq.cloudbreak.template.processor.BlueprintTextProcessor;
 
 @Component
 public class BlueprintTextProcessorFactory {
+
+    @Inject
+    private CmTemplateProcessorFactory cmTemplateProcessorFactory;
+
     public BlueprintTextProcessor createBlueprintTextProcessor(String blueprintText) {
-        return new CmTemplateProcessor(blueprintText);
+        return cmTemplateProcessorFactory.get(blueprintText);
     }
 }
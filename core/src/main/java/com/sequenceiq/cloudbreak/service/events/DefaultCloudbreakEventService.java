@@ -133,6 +133,14 @@ public class DefaultCloudbreakEventService implements CloudbreakEventService {
                 .orElse(Page.empty());
     }
 
+    @Override
+    public Page<StructuredNotificationEvent> cloudbreakEventsForStackBefore(Long stackId, Long before, int pageSize) {
+        return Optional.ofNullable(stackId)
+                .map(id -> structuredEventService.getEventsLimitedWithTypeAndResourceIdBefore(StructuredNotificationEvent.class, "stacks", id, before,
+                        pageSize))
+                .orElse(Page.empty());
+    }
+
     private String getMessage(ResourceEvent resourceEvent, Collection<String> eventMessageArgs) {
         return CollectionUtils.isEmpty(eventMessageArgs)
                 ? messagesService.getMessage(resourceEvent.getMessage())
@@ -2,15 +2,18 @@ package com.sequenceiq.cloudbreak.service.image;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
@@ -22,13 +25,13 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sequenceiq.cloudbreak.cache.common.CachedDocument;
+import com.sequenceiq.cloudbreak.cache.common.RevalidatingDocumentCache;
 import com.sequenceiq.cloudbreak.client.RestClientUtil;
 import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakImageCatalogV2;
 import com.sequenceiq.cloudbreak.cloud.model.catalog.Image;
@@ -49,30 +52,60 @@ public class CachedImageCatalogProvider {
     @Inject
     private ObjectMapper objectMapper;
 
-    @Cacheable(cacheNames = "imageCatalogCache", key = "#catalogUrl")
+    @Value("${cb.image.catalog.cache.ttl:15}")
+    private long ttlMinutes;
+
+    @Value("${cb.image.catalog.cache.maxStale:60}")
+    private long maxStaleMinutes;
+
+    private RevalidatingDocumentCache<CloudbreakImageCatalogV2> imageCatalogCache;
+
+    @PostConstruct
+    public void init() {
+        Duration refreshAfter = ttlMinutes == 0L ? Duration.ofSeconds(1L) : Duration.ofMinutes(ttlMinutes);
+        imageCatalogCache = new RevalidatingDocumentCache<>(refreshAfter, Duration.ofMinutes(maxStaleMinutes), this::loadImageCatalogV2);
+    }
+
     public CloudbreakImageCatalogV2 getImageCatalogV2(String catalogUrl) throws CloudbreakImageCatalogException {
-        CloudbreakImageCatalogV2 catalog;
         if (catalogUrl == null) {
             LOGGER.info("No image catalog was defined!");
             return null;
         }
+        try {
+            return imageCatalogCache.get(catalogUrl);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CloudbreakImageCatalogException) {
+                throw (CloudbreakImageCatalogException) e.getCause();
+            }
+            throw new CloudbreakImageCatalogException(String.format("Failed to get image catalog: %s from %s", e.getMessage(), catalogUrl), e);
+        }
+    }
 
+    public void evictImageCatalogCache(String catalogUrl) {
+        imageCatalogCache.invalidate(catalogUrl);
+    }
+
+    /**
+     * Loads the image catalog, or revalidates the cached one with a conditional request if the catalog is served over http.
+     */
+    CachedDocument<CloudbreakImageCatalogV2> loadImageCatalogV2(String catalogUrl, CachedDocument<CloudbreakImageCatalogV2> cached)
+            throws CloudbreakImageCatalogException {
+        CachedDocument<CloudbreakImageCatalogV2> document;
         try {
             long started = System.currentTimeMillis();
-            String content;
             if (catalogUrl.startsWith("http")) {
                 Client client = RestClientUtil.get();
                 WebTarget target = client.target(catalogUrl);
-                Response response = target.request().get();
-                content = readResponse(target, response);
+                Response response = cached == null ? target.request().get() : cached.withValidators(target.request()).get();
+                if (cached != null && cached.isNotModified(response)) {
+                    response.close();
+                    LOGGER.debug("ImageCatalog has not been modified at '{}' since it has been cached.", catalogUrl);
+                    return cached.revalidated();
+                }
+                document = CachedDocument.of(parseImageCatalog(readResponse(target, response)), response);
             } else {
-                content = readCatalogFromFile(catalogUrl);
+                document = CachedDocument.of(parseImageCatalog(readCatalogFromFile(catalogUrl)));
             }
-            catalog = objectMapper.readValue(content, CloudbreakImageCatalogV2.class);
-            validateImageCatalogUuids(catalog);
-            validateCloudBreakVersions(catalog);
-            cleanAndValidateMaps(catalog);
-            catalog = filterImagesByOsType(catalog);
             long timeOfParse = System.currentTimeMillis() - started;
             LOGGER.debug("ImageCatalog has been get and parsed from '{}' and took '{}' ms.", catalogUrl, timeOfParse);
         } catch (RuntimeException e) {
@@ -82,7 +115,15 @@ public class CachedImageCatalogProvider {
         } catch (IOException e) {
             throw new CloudbreakImageCatalogException(String.format("Failed to read image catalog from file: '%s'", catalogUrl), e);
         }
-        return catalog;
+        return document;
+    }
+
+    private CloudbreakImageCatalogV2 parseImageCatalog(String content) throws IOException, CloudbreakImageCatalogException {
+        CloudbreakImageCatalogV2 catalog = objectMapper.readValue(content, CloudbreakImageCatalogV2.class);
+        validateImageCatalogUuids(catalog);
+        validateCloudBreakVersions(catalog);
+        cleanAndValidateMaps(catalog);
+        return filterImagesByOsType(catalog);
     }
 
     private CloudbreakImageCatalogV2 filterImagesByOsType(CloudbreakImageCatalogV2 catalog) {
@@ -139,10 +180,6 @@ public class CachedImageCatalogProvider {
         }
     }
 
-    @CacheEvict(value = "imageCatalogCache", key = "#catalogUrl")
-    public void evictImageCatalogCache(String catalogUrl) {
-    }
-
     private void validateImageCatalogUuids(CloudbreakImageCatalogV2 imageCatalog) throws CloudbreakImageCatalogException {
         Stream<String> baseUuids = imageCatalog.getImages().getBaseImages().stream().map(Image::getUuid);
         Stream<String> hdpUuids = imageCatalog.getImages().getHdpImages().stream().map(Image::getUuid);
@@ -0,0 +1,143 @@
+package com.sequenceiq.cloudbreak.service.image;
+
+import static java.util.Collections.emptyList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.sequenceiq.cloudbreak.cloud.VersionComparator;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakImageCatalogV2;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakVersion;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.Image;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.Images;
+
+/**
+ * Immutable lookup structures of a loaded image catalog, so selecting images does not have to scan every image and Cloudbreak version of the
+ * catalog and sort the versions again on every request. An index belongs to one catalog instance; a reloaded catalog gets a new index.
+ */
+public class ImageCatalogIndex {
+
+    public enum ImageType {
+        BASE, HDP, HDF, CDH
+    }
+
+    private final ImmutableListMultimap<String, CloudbreakVersion> cloudbreakVersionsByVersion;
+
+    private final ImmutableList<String> versionsDescending;
+
+    private final Optional<String> latestCloudbreakVersion;
+
+    private final Map<ImageType, ImmutableListMultimap<String, IndexedImage>> imagesByUuid = new EnumMap<>(ImageType.class);
+
+    public ImageCatalogIndex(CloudbreakImageCatalogV2 catalog) {
+        List<CloudbreakVersion> cloudbreakVersions = catalog.getVersions().getCloudbreakVersions();
+        ImmutableListMultimap.Builder<String, CloudbreakVersion> versions = ImmutableListMultimap.builder();
+        for (CloudbreakVersion cloudbreakVersion : cloudbreakVersions) {
+            cloudbreakVersion.getVersions().stream().filter(Objects::nonNull).distinct().forEach(version -> versions.put(version, cloudbreakVersion));
+        }
+        cloudbreakVersionsByVersion = versions.build();
+        versionsDescending = cloudbreakVersionsByVersion.keySet().stream()
+                .sorted((o1, o2) -> new VersionComparator().compare(() -> o2, () -> o1))
+                .collect(ImmutableList.toImmutableList());
+        latestCloudbreakVersion = versionsDescending.stream().findFirst();
+
+        Images images = catalog.getImages();
+        indexImages(ImageType.BASE, images.getBaseImages());
+        indexImages(ImageType.HDP, images.getHdpImages());
+        indexImages(ImageType.HDF, images.getHdfImages());
+        indexImages(ImageType.CDH, images.getCdhImages());
+    }
+
+    /**
+     * Returns the Cloudbreak versions of the catalog that list exactly the given version.
+     */
+    public List<CloudbreakVersion> getCloudbreakVersions(String version) {
+        return cloudbreakVersionsByVersion.get(version);
+    }
+
+    /**
+     * Returns every version listed in the catalog, the latest first.
+     */
+    public List<String> getVersionsDescending() {
+        return versionsDescending;
+    }
+
+    public String getLatestCloudbreakVersion() {
+        return latestCloudbreakVersion.orElseThrow(() -> new NoSuchElementException("The image catalog does not contain any Cloudbreak version"));
+    }
+
+    /**
+     * Returns the first image with the given id, looking at the base, HDP, HDF and CDH images in this order.
+     */
+    public Optional<Image> findImage(String imageId) {
+        for (ImageType imageType : ImageType.values()) {
+            List<IndexedImage> images = imagesByUuid.get(imageType).get(imageId);
+            if (!images.isEmpty()) {
+                return Optional.of(images.get(0).image);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the images of the given type that have one of the ids and are available on one of the platforms, in the order of the catalog.
+     */
+    public List<Image> getImages(ImageType imageType, Collection<String> platforms, Collection<String> imageIds) {
+        if (imageIds.isEmpty()) {
+            return emptyList();
+        }
+        Set<String> lowerCasePlatforms = platforms.stream().map(platform -> platform.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        ImmutableListMultimap<String, IndexedImage> images = imagesByUuid.get(imageType);
+        List<IndexedImage> matchingImages = new ArrayList<>();
+        for (String imageId : imageIds) {
+            for (IndexedImage image : images.get(imageId)) {
+                if (image.providers.stream().anyMatch(lowerCasePlatforms::contains)) {
+                    matchingImages.add(image);
+                }
+            }
+        }
+        matchingImages.sort(Comparator.comparingInt(image -> image.position));
+        return matchingImages.stream().map(image -> image.image).collect(Collectors.toList());
+    }
+
+    private void indexImages(ImageType imageType, List<Image> images) {
+        ImmutableListMultimap.Builder<String, IndexedImage> imagesOfType = ImmutableListMultimap.builder();
+        for (int i = 0; i < images.size(); i++) {
+            Image image = images.get(i);
+            if (image.getUuid() != null) {
+                imagesOfType.put(image.getUuid(), new IndexedImage(i, image));
+            }
+        }
+        imagesByUuid.put(imageType, imagesOfType.build());
+    }
+
+    private static class IndexedImage {
+
+        private final int position;
+
+        private final Image image;
+
+        private final Set<String> providers;
+
+        IndexedImage(int position, Image image) {
+            this.position = position;
+            this.image = image;
+            providers = image.getImageSetsByProvider() == null ? ImmutableSet.of() : image.getImageSetsByProvider().keySet().stream()
+                    .map(provider -> provider.toLowerCase(Locale.ROOT))
+                    .collect(ImmutableSet.toImmutableSet());
+        }
+    }
+}
@@ -35,6 +35,8 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.ImmutableSet;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.imagecatalog.dto.ImageCatalogAccessDto;
 import com.sequenceiq.cloudbreak.auth.altus.Crn;
@@ -45,6 +47,7 @@ import com.sequenceiq.cloudbreak.cloud.model.catalog.Image;
 import com.sequenceiq.cloudbreak.cloud.model.catalog.Images;
 import com.sequenceiq.cloudbreak.core.CloudbreakImageCatalogException;
 import com.sequenceiq.cloudbreak.core.CloudbreakImageNotFoundException;
+import com.sequenceiq.cloudbreak.service.image.ImageCatalogIndex.ImageType;
 import com.sequenceiq.cloudbreak.domain.ImageCatalog;
 import com.sequenceiq.cloudbreak.domain.UserProfile;
 import com.sequenceiq.cloudbreak.exception.BadRequestException;
@@ -71,6 +74,8 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ImageCatalogService.class);
 
+    private final Cache<CloudbreakImageCatalogV2, ImageCatalogIndex> catalogIndexes = Caffeine.newBuilder().weakKeys().build();
+
     @Value("${info.app.version:}")
     private String cbVersion;
 
@@ -250,11 +255,9 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
 
     public StatedImage getImage(String catalogUrl, String catalogName, String imageId) throws CloudbreakImageNotFoundException,
             CloudbreakImageCatalogException {
-        Images images = imageCatalogProvider.getImageCatalogV2(catalogUrl).getImages();
-        Optional<? extends Image> image = getImage(imageId, images);
+        Optional<Image> image = getIndex(imageCatalogProvider.getImageCatalogV2(catalogUrl)).findImage(imageId);
         if (image.isEmpty()) {
-            images = imageCatalogProvider.getImageCatalogV2(catalogUrl, true).getImages();
-            image = getImage(imageId, images);
+            image = getIndex(imageCatalogProvider.getImageCatalogV2(catalogUrl, true)).findImage(imageId);
         }
         if (image.isEmpty()) {
             throw new CloudbreakImageNotFoundException(String.format("Could not find any image with id: '%s'.", imageId));
@@ -371,20 +374,6 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
         return new Images(emptyList(), emptyList(), emptyList(), emptyList(), emptySet());
     }
 
-    private Optional<? extends Image> getImage(String imageId, Images images) {
-        Optional<? extends Image> image = findFirstWithImageId(imageId, images.getBaseImages());
-        if (image.isEmpty()) {
-            image = findFirstWithImageId(imageId, images.getHdpImages());
-        }
-        if (image.isEmpty()) {
-            image = findFirstWithImageId(imageId, images.getHdfImages());
-        }
-        if (image.isEmpty()) {
-            image = findFirstWithImageId(imageId, images.getCdhImages());
-        }
-        return image;
-    }
-
     public StatedImages getImages(ImageFilter imageFilter) throws CloudbreakImageCatalogException {
         LOGGER.info("Determine images for imageCatalogUrl: '{}', platforms: '{}' and Cloudbreak version: '{}'.",
                 imageFilter.getImageCatalog().getImageCatalogUrl(), imageFilter.getPlatforms(), imageFilter.getCbVersion());
@@ -395,11 +384,10 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
         if (imageCatalogV2 != null) {
             Set<String> vMImageUUIDs = new HashSet<>();
             Set<String> defaultVMImageUUIDs = new HashSet<>();
-            List<CloudbreakVersion> cloudbreakVersions = imageCatalogV2.getVersions().getCloudbreakVersions();
+            ImageCatalogIndex index = getIndex(imageCatalogV2);
             String cbv = versionFilter.isVersionUnspecified(imageFilter.getCbVersion())
-                    ? versionFilter.latestCloudbreakVersion(cloudbreakVersions) : imageFilter.getCbVersion();
-            List<CloudbreakVersion> exactMatchedImgs = cloudbreakVersions.stream()
-                    .filter(cloudbreakVersion -> cloudbreakVersion.getVersions().contains(cbv)).collect(Collectors.toList());
+                    ? index.getLatestCloudbreakVersion() : imageFilter.getCbVersion();
+            List<CloudbreakVersion> exactMatchedImgs = index.getCloudbreakVersions(cbv);
 
             if (!exactMatchedImgs.isEmpty()) {
                 for (CloudbreakVersion exactMatchedImg : exactMatchedImgs) {
@@ -409,16 +397,16 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
                 suppertedVersions = Collections.singleton(cbv);
             } else {
                 LOGGER.debug("No image found with exact match for version {} Trying prefix matching", cbv);
-                PrefixMatchImages prefixMatchImages = prefixMatchForCBVersion(imageFilter.getCbVersion(), cloudbreakVersions);
+                PrefixMatchImages prefixMatchImages = prefixMatchForCBVersion(imageFilter.getCbVersion(), imageCatalogV2, index);
                 vMImageUUIDs.addAll(prefixMatchImages.vMImageUUIDs);
                 defaultVMImageUUIDs.addAll(prefixMatchImages.defaultVMImageUUIDs);
                 suppertedVersions = prefixMatchImages.supportedVersions;
             }
 
-            List<Image> baseImages = filterImagesByPlatforms(imageFilter.getPlatforms(), imageCatalogV2.getImages().getBaseImages(), vMImageUUIDs);
-            List<Image> hdpImages = filterImagesByPlatforms(imageFilter.getPlatforms(), imageCatalogV2.getImages().getHdpImages(), vMImageUUIDs);
-            List<Image> hdfImages = filterImagesByPlatforms(imageFilter.getPlatforms(), imageCatalogV2.getImages().getHdfImages(), vMImageUUIDs);
-            List<Image> cdhImages = filterImagesByPlatforms(imageFilter.getPlatforms(), imageCatalogV2.getImages().getCdhImages(), vMImageUUIDs);
+            List<Image> baseImages = index.getImages(ImageType.BASE, imageFilter.getPlatforms(), vMImageUUIDs);
+            List<Image> hdpImages = index.getImages(ImageType.HDP, imageFilter.getPlatforms(), vMImageUUIDs);
+            List<Image> hdfImages = index.getImages(ImageType.HDF, imageFilter.getPlatforms(), vMImageUUIDs);
+            List<Image> cdhImages = index.getImages(ImageType.CDH, imageFilter.getPlatforms(), vMImageUUIDs);
 
             Stream.of(baseImages.stream(), hdpImages.stream(), hdfImages.stream(), cdhImages.stream())
                     .reduce(Stream::concat)
@@ -460,21 +448,8 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
         return null;
     }
 
-    private Optional<? extends Image> findFirstWithImageId(String imageId, Collection<? extends Image> images) {
-        return images.stream()
-                .filter(img -> img.getUuid().equals(imageId))
-                .findFirst();
-    }
-
-    private List<Image> filterImagesByPlatforms(Collection<String> platforms, Collection<Image> images, Collection<String> vMImageUUIDs) {
-        return images.stream()
-                .filter(isPlatformMatching(platforms, vMImageUUIDs))
-                .collect(Collectors.toList());
-    }
-
-    private static Predicate<Image> isPlatformMatching(Collection<String> platforms, Collection<String> vMImageUUIDs) {
-        return img -> vMImageUUIDs.contains(img.getUuid())
-                && img.getImageSetsByProvider().keySet().stream().anyMatch(p -> platforms.stream().anyMatch(platform -> platform.equalsIgnoreCase(p)));
+    ImageCatalogIndex getIndex(CloudbreakImageCatalogV2 imageCatalogV2) {
+        return catalogIndexes.get(imageCatalogV2, ImageCatalogIndex::new);
     }
 
     private List<Image> filterImagesByOperatingSystemsAndPackageVersion(List<Image> images, Set<String> operatingSystems,
@@ -490,7 +465,8 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
         return partitionedImages.get(true);
     }
 
-    private PrefixMatchImages prefixMatchForCBVersion(String cbVersion, Collection<CloudbreakVersion> cloudbreakVersions) {
+    private PrefixMatchImages prefixMatchForCBVersion(String cbVersion, CloudbreakImageCatalogV2 imageCatalogV2, ImageCatalogIndex index) {
+        List<CloudbreakVersion> cloudbreakVersions = imageCatalogV2.getVersions().getCloudbreakVersions();
         Set<String> supportedVersions = new HashSet<>();
         Set<String> vMImageUUIDs = new HashSet<>();
         Set<String> defaultVMImageUUIDs = new HashSet<>();
@@ -504,11 +480,11 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
 
         if (versionIsReleased || vMImageUUIDs.isEmpty()) {
             String releasedVersion = versionFilter.extractReleasedVersion(cbVersion);
-            Set<CloudbreakVersion> releasedCbVersions = versionFilter.filterReleasedVersions(cloudbreakVersions, releasedVersion);
+            Set<CloudbreakVersion> releasedCbVersions = new HashSet<>(index.getCloudbreakVersions(releasedVersion));
 
             Integer accumulatedImageCount = accumulateImageCount(releasedCbVersions);
             if (releasedCbVersions.isEmpty() || accumulatedImageCount == 0) {
-                releasedCbVersions = previousCbVersion(releasedVersion, cloudbreakVersions);
+                releasedCbVersions = previousCbVersion(releasedVersion, cloudbreakVersions, index);
             }
             supportedVersions = getSupportedVersions(vMImageUUIDs, defaultVMImageUUIDs, releasedCbVersions);
         }
@@ -523,15 +499,8 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
         return unReleasedCbVersions.stream().map(CloudbreakVersion::getVersions).flatMap(List::stream).collect(Collectors.toSet());
     }
 
-    private Set<CloudbreakVersion> previousCbVersion(String releasedVersion, Collection<CloudbreakVersion> cloudbreakVersions) {
-        List<String> versions = cloudbreakVersions.stream()
-                .map(CloudbreakVersion::getVersions)
-                .flatMap(List::stream)
-                .distinct()
-                .collect(Collectors.toList());
-
-        versions = versions.stream().sorted((o1, o2) -> new VersionComparator().compare(() -> o2, () -> o1)).collect(Collectors.toList());
-
+    private Set<CloudbreakVersion> previousCbVersion(String releasedVersion, Collection<CloudbreakVersion> cloudbreakVersions, ImageCatalogIndex index) {
+        List<String> versions = index.getVersionsDescending();
         Predicate<String> ealierVersionPredicate = ver -> new VersionComparator().compare(() -> ver, () -> releasedVersion) < 0;
         Predicate<String> releaseVersionPredicate = ver -> versionFilter.extractExtendedUnreleasedVersion(ver).equals(ver);
         Predicate<String> versionHasImagesPredicate = ver -> accumulateImageCount(cloudbreakVersions) > 0;
@@ -542,7 +511,7 @@ public class ImageCatalogService extends AbstractWorkspaceAwareResourceService<I
                 .findAny();
 
         return applicableVersion
-                .map(ver -> cloudbreakVersions.stream().filter(cbVer -> cbVer.getVersions().contains(ver)).collect(Collectors.toSet()))
+                .<Set<CloudbreakVersion>>map(ver -> new HashSet<>(index.getCloudbreakVersions(ver)))
                 .orElse(emptySet());
     }
 
@@ -6,8 +6,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -17,8 +15,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import com.sequenceiq.cloudbreak.cloud.VersionComparator;
-import com.sequenceiq.cloudbreak.common.type.Versioned;
 import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakVersion;
 
 @Component
@@ -34,19 +30,6 @@ public class ImageCatalogVersionFilter {
 
     private static final String UNSPECIFIED_VERSION = "unspecified";
 
-    public Set<CloudbreakVersion> filterReleasedVersions(Collection<CloudbreakVersion> cloudbreakVersions, String releasedVersion) {
-        Map<Boolean, List<CloudbreakVersion>> partitionedVersions = cloudbreakVersions.stream()
-                .collect(Collectors.partitioningBy(containsReleaseVersion(releasedVersion)));
-        if (hasFiltered(partitionedVersions)) {
-            LOGGER.debug("Used filter releaseVersion: | {} | Versions filtered: {}",
-                    releasedVersion,
-                    partitionedVersions.get(false).stream()
-                            .map(CloudbreakVersion::getVersions).flatMap(List::stream)
-                            .collect(Collectors.joining(", ")));
-        }
-        return new HashSet<>(partitionedVersions.get(true));
-    }
-
     public Set<CloudbreakVersion> filterUnreleasedVersions(Collection<CloudbreakVersion> cloudbreakVersions, String unReleasedVersion) {
         Map<Boolean, List<CloudbreakVersion>> partitionedVersions = cloudbreakVersions.stream()
                 .collect(Collectors.partitioningBy(containsNonReleaseVersion(unReleasedVersion)));
@@ -64,14 +47,6 @@ public class ImageCatalogVersionFilter {
         return !partitionedVersions.get(false).isEmpty();
     }
 
-    public String latestCloudbreakVersion(Iterable<CloudbreakVersion> cloudbreakVersions) {
-        SortedMap<Versioned, CloudbreakVersion> sortedCloudbreakVersions = new TreeMap<>(new VersionComparator());
-        for (CloudbreakVersion cbv : cloudbreakVersions) {
-            cbv.getVersions().forEach(cbvs -> sortedCloudbreakVersions.put(() -> cbvs, cbv));
-        }
-        return sortedCloudbreakVersions.lastKey().getVersion();
-    }
-
     public boolean isVersionUnspecified(String cbVersion) {
         return UNSPECIFIED_VERSION.equals(cbVersion);
     }
@@ -92,10 +67,6 @@ public class ImageCatalogVersionFilter {
         return cloudbreakVersion -> cloudbreakVersion.getVersions().contains(cbv);
     }
 
-    private static Predicate<CloudbreakVersion> containsReleaseVersion(String releasedVersion) {
-        return cloudbreakVersion -> cloudbreakVersion.getVersions().contains(releasedVersion);
-    }
-
     private static Predicate<CloudbreakVersion> containsNonReleaseVersion(String unReleasedVersion) {
         return cbVersion -> cbVersion.getVersions().stream().anyMatch(aVersion -> aVersion.startsWith(unReleasedVersion));
     }
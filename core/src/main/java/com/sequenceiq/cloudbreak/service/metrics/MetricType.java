@@ -23,7 +23,13 @@ public enum MetricType implements Metric {
     CLUSTER_START_SUCCESSFUL("cluster.start.successful"),
     CLUSTER_START_FAILED("cluster.start.failed"),
 
-    STACK_PREPARATION("stack.preparation.duration");
+    STACK_PREPARATION("stack.preparation.duration"),
+
+    ENTITY_CACHE_HIT("entitycache.hit"),
+    ENTITY_CACHE_MISS("entitycache.miss"),
+    ENTITY_CACHE_EVICTION("entitycache.eviction"),
+    ENTITY_CACHE_SIZE("entitycache.size"),
+    ENTITY_CACHE_INVALIDATION("entitycache.invalidation");
 
     private final String metricName;
 
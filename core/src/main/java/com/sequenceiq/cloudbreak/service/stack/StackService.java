@@ -70,6 +70,7 @@ import com.sequenceiq.cloudbreak.domain.Network;
 import com.sequenceiq.cloudbreak.domain.Orchestrator;
 import com.sequenceiq.cloudbreak.domain.StopRestrictionReason;
 import com.sequenceiq.cloudbreak.domain.projection.AutoscaleStack;
+import com.sequenceiq.cloudbreak.domain.projection.StackClusterStatusView;
 import com.sequenceiq.cloudbreak.domain.projection.StackIdView;
 import com.sequenceiq.cloudbreak.domain.projection.StackListItem;
 import com.sequenceiq.cloudbreak.domain.projection.StackStatusView;
@@ -372,6 +373,10 @@ public class StackService implements ResourceIdProvider {
         }
     }
 
+    public Optional<String> findRegionById(Long id) {
+        return stackRepository.findRegionById(id);
+    }
+
     public StackStatus getCurrentStatusByStackId(long stackId) {
         return stackStatusService.findFirstByStackIdOrderByCreatedDesc(stackId).orElseThrow(notFound("stackStatus", stackId));
     }
@@ -470,6 +475,15 @@ public class StackService implements ResourceIdProvider {
                 .orElseThrow(() -> new NotFoundException(String.format(STACK_NOT_FOUND_BY_CRN_EXCEPTION_MESSAGE, crn)));
     }
 
+    public StackClusterStatusView getStatusViewByCrnInWorkspace(String crn, Long workspaceId) {
+        return stackRepository.findStatusViewByCrnAndWorkspaceId(crn, workspaceId)
+                .orElseThrow(() -> new NotFoundException(String.format(STACK_NOT_FOUND_BY_CRN_EXCEPTION_MESSAGE, crn)));
+    }
+
+    public StackClusterStatusView getStatusViewByCrn(String crn) {
+        return stackRepository.findStatusViewByResourceCrn(crn).orElseThrow(notFound("Stack", crn));
+    }
+
     public Optional<Stack> getByNameInWorkspaceWithLists(String name, Long workspaceId) {
         return findByNameAndWorkspaceIdWithLists(name, workspaceId);
     }
@@ -666,7 +680,7 @@ public class StackService implements ResourceIdProvider {
 
     @Override
     public Long getResourceIdByResourceCrn(String resourceCrn) {
-        return getByCrn(resourceCrn).getId();
+        return stackRepository.findWorkspaceIdViewByResourceCrn(resourceCrn).orElseThrow(notFound("Stack", resourceCrn)).getId();
     }
 
     @Override
@@ -19,6 +19,9 @@ public interface StructuredEventService extends StructuredEventSenderService {
 
     <T extends StructuredEvent> Page<T> getEventsLimitedWithTypeAndResourceId(Class<T> eventClass, String resourceType, Long resourceId, Pageable pageable);
 
+    <T extends StructuredEvent> Page<T> getEventsLimitedWithTypeAndResourceIdBefore(Class<T> eventClass, String resourceType, Long resourceId, Long before,
+            int pageSize);
+
     StructuredEventContainer getEventsForUserWithResourceId(String resourceType, Long resourceId);
 
     StructuredEventContainer getStructuredEventsForStack(String name, Long workspaceId);
@@ -2,9 +2,11 @@ package com.sequenceiq.cloudbreak.structuredevent.db;
 
 import static com.sequenceiq.cloudbreak.exception.NotFoundException.notFound;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
@@ -12,7 +14,9 @@ import javax.inject.Inject;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Component;
 
 import com.sequenceiq.cloudbreak.domain.StructuredEventEntity;
@@ -101,6 +105,30 @@ public class StructuredEventDBService extends AbstractWorkspaceAwareResourceServ
         return (Page<T>) Optional.ofNullable(events).orElse(Page.empty()).map(event -> conversionService.convert(event, StructuredEvent.class));
     }
 
+    /**
+     * Keyset pagination over the events of a resource, newest first: the page is the events before the timestamp of the last event of the
+     * previous page, so the cost of a page does not grow with its position like with offset based paging. A full page is completed with the
+     * rest of the events of the millisecond of its last event, so the timestamp of its last event is the exact start of the next page.
+     *
+     * @param before timestamp of the last event of the previous page, or null for the first page
+     */
+    @Override
+    public <T extends StructuredEvent> Page<T> getEventsLimitedWithTypeAndResourceIdBefore(Class<T> eventClass, String resourceType, Long resourceId,
+            Long before, int pageSize) {
+        StructuredEventType eventType = StructuredEventType.getByClass(eventClass);
+        long beforeTimestamp = Optional.ofNullable(before).orElse(Long.MAX_VALUE);
+        List<StructuredEventEntity> events = new ArrayList<>(structuredEventRepository
+                .findByEventTypeAndResourceTypeAndResourceIdBefore(eventType, resourceType, resourceId, beforeTimestamp, PageRequest.of(0, pageSize)));
+        if (events.size() == pageSize) {
+            StructuredEventEntity last = events.get(events.size() - 1);
+            events.addAll(structuredEventRepository.findByEventTypeAndResourceTypeAndResourceIdAndTimestampAndIdLessThanOrderByIdDesc(eventType,
+                    resourceType, resourceId, last.getTimestamp(), last.getId()));
+        }
+        List<T> content = events.stream().map(event -> (T) conversionService.convert(event, StructuredEvent.class)).collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(content, PageRequest.of(0, pageSize), () -> structuredEventRepository
+                .countByEventTypeAndResourceTypeAndResourceIdAndTimestampLessThan(eventType, resourceType, resourceId, beforeTimestamp));
+    }
+
     @Override
     public StructuredEventContainer getEventsForUserWithResourceId(String resourceType, Long resourceId) {
         List<StructuredRestCallEvent> rest = getEventsWithTypeAndResourceId(StructuredRestCallEvent.class, resourceType, resourceId);
@@ -7,6 +7,7 @@ import java.util.Set;
 import javax.transaction.Transactional;
 import javax.transaction.Transactional.TxType;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -27,7 +28,7 @@ import com.sequenceiq.authorization.resource.AuthorizationResource;
 @Transactional(TxType.REQUIRED)
 @DisableHasPermission
 @AuthorizationResourceType(resource = AuthorizationResource.DATAHUB)
-public interface StructuredEventRepository extends WorkspaceResourceRepository<StructuredEventEntity, Long> {
+public interface StructuredEventRepository extends WorkspaceResourceRepository<StructuredEventEntity, Long>, StructuredEventRetentionRepository {
 
     @Override
     @DisableCheckPermissions
@@ -54,6 +55,24 @@ public interface StructuredEventRepository extends WorkspaceResourceRepository<S
     @CheckPermissionsByReturnValue
     List<StructuredEventEntity> findByEventTypeAndResourceTypeAndResourceId(StructuredEventType eventType, String resourceType, Long resourceId);
 
+    @CheckPermissionsByReturnValue
+    @Query("SELECT se from StructuredEventEntity se WHERE se.eventType = :eventType AND se.resourceType = :resourceType AND se.resourceId = :resourceId "
+            + "AND se.timestamp < :before ORDER BY se.timestamp DESC, se.id DESC")
+    List<StructuredEventEntity> findByEventTypeAndResourceTypeAndResourceIdBefore(@Param("eventType") StructuredEventType eventType,
+            @Param("resourceType") String resourceType, @Param("resourceId") Long resourceId, @Param("before") Long before, Pageable pageable);
+
+    @CheckPermissionsByReturnValue
+    List<StructuredEventEntity> findByEventTypeAndResourceTypeAndResourceIdAndTimestampAndIdLessThanOrderByIdDesc(StructuredEventType eventType,
+            String resourceType, Long resourceId, Long timestamp, Long id);
+
+    @DisableCheckPermissions
+    long countByEventTypeAndResourceTypeAndResourceIdAndTimestampLessThan(StructuredEventType eventType, String resourceType, Long resourceId,
+            Long before);
+
+    @Override
+    @DisableCheckPermissions
+    int deleteBatchOlderThan(Long before, int batchSize);
+
     @DisableCheckPermissions
     @Query("SELECT se from StructuredEventEntity se WHERE se.workspace = null OR se.user = null")
     List<StructuredEventEntity> findAllWithoutWorkspaceOrUser();
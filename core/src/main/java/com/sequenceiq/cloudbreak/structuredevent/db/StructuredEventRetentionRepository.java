@@ -0,0 +1,12 @@
+package com.sequenceiq.cloudbreak.structuredevent.db;
+
+import com.sequenceiq.authorization.repository.DisableCheckPermissions;
+
+public interface StructuredEventRetentionRepository {
+
+    /**
+     * Deletes at most {@code batchSize} structured events older than {@code before} and returns the number of the deleted events.
+     */
+    @DisableCheckPermissions
+    int deleteBatchOlderThan(Long before, int batchSize);
+}
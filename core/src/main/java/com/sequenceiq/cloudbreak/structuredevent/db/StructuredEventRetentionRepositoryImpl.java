@@ -0,0 +1,35 @@
+package com.sequenceiq.cloudbreak.structuredevent.db;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+import org.hibernate.query.NativeQuery;
+
+import com.sequenceiq.cloudbreak.domain.StructuredEventEntity;
+
+/**
+ * The batch delete needs a native query for its {@code LIMIT}. Hibernate does not know which tables a native statement changes, so it would evict
+ * every second level cache region after it, and the entity cache would invalidate all of them on every HA node. The query is therefore
+ * synchronized with {@link StructuredEventEntity} only, which is not cached.
+ */
+@Transactional(TxType.REQUIRED)
+public class StructuredEventRetentionRepositoryImpl implements StructuredEventRetentionRepository {
+
+    private static final String DELETE_BATCH_OLDER_THAN =
+            "DELETE FROM structuredevent WHERE id IN (SELECT id FROM structuredevent WHERE timestamp < :before LIMIT :batchSize)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int deleteBatchOlderThan(Long before, int batchSize) {
+        return entityManager.createNativeQuery(DELETE_BATCH_OLDER_THAN)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(StructuredEventEntity.class)
+                .setParameter("before", before)
+                .setParameter("batchSize", batchSize)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,72 @@
+package com.sequenceiq.cloudbreak.structuredevent.db;
+
+import java.time.Duration;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.ha.service.NodeService;
+import com.sequenceiq.flow.ha.NodeConfig;
+
+/**
+ * Deletes the structured events older than {@code cb.structuredevent.retention.days}. The events are deleted in batches of
+ * {@code cb.structuredevent.retention.batchSize}, each in its own transaction, so pruning a large backlog does not hold long locks.
+ * Retention is disabled if the number of days is not positive. In a HA deployment only the leader node of {@link NodeService#findLeaderId} prunes.
+ */
+@Service
+public class StructuredEventRetentionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StructuredEventRetentionService.class);
+
+    @Inject
+    private StructuredEventRepository structuredEventRepository;
+
+    @Inject
+    private Clock clock;
+
+    @Inject
+    private NodeConfig nodeConfig;
+
+    @Inject
+    private NodeService nodeService;
+
+    @Value("${cb.ha.heartbeat.threshold:60000}")
+    private long heartbeatThreshold;
+
+    @Value("${cb.structuredevent.retention.days:0}")
+    private int retentionDays;
+
+    @Value("${cb.structuredevent.retention.batchSize:5000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${cb.structuredevent.retention.cron:0 30 2 * * *}")
+    public void pruneExpiredEvents() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        long now = clock.getCurrentTimeMillis();
+        if (!isLeader(now)) {
+            LOGGER.debug("Structured events are pruned by the leader node");
+            return;
+        }
+        long before = now - Duration.ofDays(retentionDays).toMillis();
+        LOGGER.info("Pruning structured events older than {} days", retentionDays);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = structuredEventRepository.deleteBatchOlderThan(before, batchSize);
+            total += deleted;
+        } while (deleted >= batchSize);
+        LOGGER.info("{} structured events have been pruned", total);
+    }
+
+    private boolean isLeader(long now) {
+        return !nodeConfig.isNodeIdSpecified() || nodeService.findLeaderId(now - heartbeatThreshold).map(nodeConfig.getId()::equals).orElse(false);
+    }
+}
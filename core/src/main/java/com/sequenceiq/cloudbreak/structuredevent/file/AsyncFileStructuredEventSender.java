@@ -9,14 +9,9 @@ import com.sequenceiq.cloudbreak.conf.StructuredEventSenderConfig;
 import com.sequenceiq.cloudbreak.structuredevent.StructuredEventSenderService;
 import com.sequenceiq.cloudbreak.structuredevent.event.StructuredEvent;
 
-import reactor.bus.Event;
-import reactor.bus.EventBus;
-
 @Component
 public class AsyncFileStructuredEventSender implements StructuredEventSenderService {
 
-    public static final String SAVE_STRUCTURED_EVENT_TO_FILE = "SAVE_STRUCTURED_EVENT_TO_FILE";
-
     @Inject
     private StructuredEventSenderConfig structuredEventSenderConfig;
 
@@ -24,7 +19,7 @@ public class AsyncFileStructuredEventSender implements StructuredEventSenderServ
     private ErrorHandlerAwareReactorEventFactory eventFactory;
 
     @Inject
-    private EventBus eventBus;
+    private StructuredEventFileAppender structuredEventFileAppender;
 
     @Override
     public boolean isEnabled() {
@@ -33,11 +28,7 @@ public class AsyncFileStructuredEventSender implements StructuredEventSenderServ
 
     @Override
     public void storeStructuredEvent(StructuredEvent structuredEvent) {
-        sendAsyncEvent(SAVE_STRUCTURED_EVENT_TO_FILE, eventFactory.createEvent(structuredEvent));
-    }
-
-    private void sendAsyncEvent(String selector, Event<?> event) {
-        eventBus.notify(selector, event);
+        structuredEventFileAppender.append(eventFactory.createEvent(structuredEvent));
     }
 
 }
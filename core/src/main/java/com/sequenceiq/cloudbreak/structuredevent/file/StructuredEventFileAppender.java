@@ -0,0 +1,287 @@
+package com.sequenceiq.cloudbreak.structuredevent.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sequenceiq.cloudbreak.conf.StructuredEventSenderConfig;
+
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Appends structured events to the audit file from a single writer thread. The events are queued by the callers and written in groups:
+ * a group is written with one write call as soon as {@code cb.audit.file.flushEvents} events are collected or {@code cb.audit.file.flushIntervalMs}
+ * passed since its first event. The audit file is rotated when it grows over {@code cb.audit.file.maxSizeMb} or gets older than
+ * {@code cb.audit.file.rotationIntervalMinutes}, and the rotated segments are gzipped if {@code cb.audit.file.compressRotated} is set.
+ */
+@Component
+public class StructuredEventFileAppender {
+
+    static final String QUEUE_DEPTH_GAUGE = "structuredevent.file.queue.depth";
+
+    static final String FLUSH_TIMER = "structuredevent.file.flush";
+
+    static final String DROPPED_COUNTER = "structuredevent.file.dropped";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StructuredEventFileAppender.class);
+
+    private static final DateTimeFormatter SEGMENT_SUFFIX_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private static final String GZIP_EXTENSION = ".gz";
+
+    private static final long BYTES_IN_MB = 1024L * 1024L;
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+    @Inject
+    private StructuredEventSenderConfig structuredEventSenderConfig;
+
+    @Value("${cb.audit.file.queueCapacity:10000}")
+    private int queueCapacity;
+
+    @Value("${cb.audit.file.enqueueTimeoutMs:1000}")
+    private long enqueueTimeoutMs;
+
+    @Value("${cb.audit.file.flushEvents:200}")
+    private int flushEvents;
+
+    @Value("${cb.audit.file.flushIntervalMs:1000}")
+    private long flushIntervalMs;
+
+    @Value("${cb.audit.file.sync:false}")
+    private boolean syncOnFlush;
+
+    @Value("${cb.audit.file.maxSizeMb:100}")
+    private long maxSizeMb;
+
+    @Value("${cb.audit.file.rotationIntervalMinutes:1440}")
+    private long rotationIntervalMinutes;
+
+    @Value("${cb.audit.file.compressRotated:false}")
+    private boolean compressRotated;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Clock clock = Clock.systemUTC();
+
+    private BlockingQueue<Object> queue;
+
+    private ExecutorService writerExecutor;
+
+    private volatile boolean running;
+
+    private Path auditFile;
+
+    private FileChannel channel;
+
+    private long segmentSize;
+
+    private long segmentOpenedAt;
+
+    @PostConstruct
+    public void init() {
+        if (!structuredEventSenderConfig.isFilePathConfigured()) {
+            return;
+        }
+        auditFile = Paths.get(structuredEventSenderConfig.getAuditFilePath());
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Metrics.gauge(QUEUE_DEPTH_GAUGE, queue, BlockingQueue::size);
+        running = true;
+        writerExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("structured-event-file-writer-%d").setDaemon(true).build());
+        writerExecutor.submit(this::writeLoop);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writerExecutor == null) {
+            return;
+        }
+        running = false;
+        writerExecutor.shutdown();
+        try {
+            if (!writerExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Structured event file writer did not finish in {} seconds, {} events are lost", SHUTDOWN_TIMEOUT_SECONDS, queue.size());
+                writerExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writerExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues the event to be written to the audit file. Blocks for at most {@code cb.audit.file.enqueueTimeoutMs} if the queue is full,
+     * and drops the event after that.
+     *
+     * @param event the event to write, serialized to a single JSON line
+     */
+    public void append(Object event) {
+        if (queue == null) {
+            LOGGER.debug("Audit file path is not configured, structured event is not written to file");
+            return;
+        }
+        try {
+            if (!queue.offer(event, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                Metrics.counter(DROPPED_COUNTER).increment();
+                LOGGER.error("Structured event queue of the audit file is full, the event is dropped");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Metrics.counter(DROPPED_COUNTER).increment();
+            LOGGER.error("Interrupted while queuing structured event for the audit file, the event is dropped");
+        }
+    }
+
+    private void writeLoop() {
+        List<Object> group = new ArrayList<>(flushEvents);
+        try {
+            while (running || !queue.isEmpty()) {
+                collectGroup(group);
+                if (!group.isEmpty()) {
+                    writeGroup(group);
+                    group.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Structured event file writer is interrupted, {} events are not written", group.size() + queue.size());
+        } finally {
+            closeSegment();
+        }
+    }
+
+    private void collectGroup(List<Object> group) throws InterruptedException {
+        Object first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        group.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (group.size() < flushEvents && running) {
+            queue.drainTo(group, flushEvents - group.size());
+            long remaining = deadline - System.nanoTime();
+            if (group.size() >= flushEvents || remaining <= 0) {
+                break;
+            }
+            Object next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next != null) {
+                group.add(next);
+            }
+        }
+    }
+
+    private void writeGroup(List<Object> group) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (Object event : group) {
+            try {
+                content.writeBytes(objectMapper.writeValueAsBytes(event));
+                content.write('\n');
+            } catch (JsonProcessingException e) {
+                LOGGER.error("Can not serialize structured event for the audit file", e);
+            }
+        }
+        try {
+            rotateIfNeeded();
+            ByteBuffer buffer = ByteBuffer.wrap(content.toByteArray());
+            while (buffer.hasRemaining()) {
+                segmentSize += channel.write(buffer);
+            }
+            if (syncOnFlush) {
+                channel.force(false);
+            }
+            LOGGER.trace("{} structured events have been written to file: {}", group.size(), auditFile);
+        } catch (IOException e) {
+            LOGGER.error("Can not write {} structured events to file {}", group.size(), auditFile, e);
+            closeSegment();
+        } finally {
+            Metrics.timer(FLUSH_TIMER).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void rotateIfNeeded() throws IOException {
+        long now = clock.millis();
+        if (channel != null && segmentSize > 0
+                && (segmentSize >= maxSizeMb * BYTES_IN_MB || now - segmentOpenedAt >= Duration.ofMinutes(rotationIntervalMinutes).toMillis())) {
+            closeSegment();
+            Path rotated = nextSegmentPath();
+            Files.move(auditFile, rotated);
+            LOGGER.info("Audit file {} has been rotated to {}", auditFile, rotated);
+            if (compressRotated) {
+                compress(rotated);
+            }
+        }
+        if (channel == null) {
+            channel = FileChannel.open(auditFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segmentSize = channel.size();
+            segmentOpenedAt = now;
+        }
+    }
+
+    private Path nextSegmentPath() {
+        String segmentName = auditFile.getFileName() + "." + SEGMENT_SUFFIX_FORMATTER.format(clock.instant());
+        Path segment = auditFile.resolveSibling(segmentName);
+        for (int index = 1; Files.exists(segment) || Files.exists(segment.resolveSibling(segment.getFileName() + GZIP_EXTENSION)); index++) {
+            segment = auditFile.resolveSibling(segmentName + "-" + index);
+        }
+        return segment;
+    }
+
+    private void compress(Path rotated) {
+        Path compressed = rotated.resolveSibling(rotated.getFileName() + GZIP_EXTENSION);
+        try (InputStream in = Files.newInputStream(rotated);
+                OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            LOGGER.error("Can not compress rotated audit file {}, it is kept uncompressed", rotated, e);
+            return;
+        }
+        try {
+            Files.delete(rotated);
+        } catch (IOException e) {
+            LOGGER.warn("Can not delete the uncompressed rotated audit file {}", rotated, e);
+        }
+    }
+
+    private void closeSegment() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warn("Can not close audit file {}", auditFile, e);
+            }
+            channel = null;
+        }
+    }
+}
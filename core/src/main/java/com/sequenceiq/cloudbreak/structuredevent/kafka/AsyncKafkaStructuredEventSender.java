@@ -4,27 +4,18 @@ import javax.inject.Inject;
 
 import org.springframework.stereotype.Component;
 
-import com.sequenceiq.flow.reactor.ErrorHandlerAwareReactorEventFactory;
 import com.sequenceiq.cloudbreak.conf.StructuredEventSenderConfig;
 import com.sequenceiq.cloudbreak.structuredevent.StructuredEventSenderService;
 import com.sequenceiq.cloudbreak.structuredevent.event.StructuredEvent;
 
-import reactor.bus.Event;
-import reactor.bus.EventBus;
-
 @Component
 public class AsyncKafkaStructuredEventSender implements StructuredEventSenderService {
 
-    public static final String KAFKA_EVENT_LOG_MESSAGE = "KAFKA_EVENT_LOG_MESSAGE";
-
     @Inject
     private StructuredEventSenderConfig structuredEventSenderConfig;
 
     @Inject
-    private ErrorHandlerAwareReactorEventFactory eventFactory;
-
-    @Inject
-    private EventBus eventBus;
+    private KafkaStructuredEventPipeline kafkaStructuredEventPipeline;
 
     @Override
     public boolean isEnabled() {
@@ -33,10 +24,6 @@ public class AsyncKafkaStructuredEventSender implements StructuredEventSenderSer
 
     @Override
     public void storeStructuredEvent(StructuredEvent structuredEvent) {
-        sendAsyncEvent(KAFKA_EVENT_LOG_MESSAGE, eventFactory.createEvent(structuredEvent));
-    }
-
-    private void sendAsyncEvent(String selector, Event<?> event) {
-        eventBus.notify(selector, event);
+        kafkaStructuredEventPipeline.publish(structuredEvent);
     }
 }
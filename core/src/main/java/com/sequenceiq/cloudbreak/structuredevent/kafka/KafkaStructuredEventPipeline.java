@@ -0,0 +1,372 @@
+package com.sequenceiq.cloudbreak.structuredevent.kafka;
+
+import static com.sequenceiq.cloudbreak.common.anonymizer.AnonymizerUtil.REPLACEMENT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sequenceiq.cloudbreak.common.json.JsonUtil;
+import com.sequenceiq.cloudbreak.conf.StructuredEventSenderConfig;
+import com.sequenceiq.cloudbreak.structuredevent.event.StructuredEvent;
+import com.sequenceiq.cloudbreak.structuredevent.event.StructuredRestCallEvent;
+import com.sequenceiq.cloudbreak.structuredevent.event.rest.RestRequestDetails;
+import com.sequenceiq.cloudbreak.structuredevent.event.rest.RestResponseDetails;
+
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Sends the structured events to Kafka on its own thread, so neither the reactor dispatchers nor the flows wait for Kafka.
+ * The events are queued in a bounded buffer and serialized and sent by the pipeline thread without waiting for the acknowledgements,
+ * which lets the producer batch and compress them. Events that do not fit into the buffer or could not be sent are handed back to the
+ * pipeline thread, which appends them to a spill file and replays the spill file every {@code cb.kafka.structured.events.spillReplayIntervalMs}.
+ * The spill files are bounded by {@code cb.kafka.structured.events.spillMaxBytes}, the oldest spilled events are dropped above it.
+ */
+@Component
+public class KafkaStructuredEventPipeline {
+
+    static final String QUEUE_DEPTH_GAUGE = "structuredevent.kafka.queue.depth";
+
+    static final String SPILLED_COUNTER = "structuredevent.kafka.spilled";
+
+    static final String DROPPED_COUNTER = "structuredevent.kafka.dropped";
+
+    static final String SPILL_EVICTED_COUNTER = "structuredevent.kafka.spill.evicted";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaStructuredEventPipeline.class);
+
+    private static final String SPILL_FILE_NAME = "cb-structured-events.spill";
+
+    private static final String REPLAY_FILE_EXTENSION = ".replay";
+
+    private static final String REMAINING_FILE_EXTENSION = ".remaining";
+
+    private static final char TOPIC_SEPARATOR = '\t';
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+    private static final long SPILL_FLUSH_INTERVAL_MS = 1000L;
+
+    @Inject
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Inject
+    private StructuredEventSenderConfig structuredEventSenderConfig;
+
+    @Value("${cb.kafka.structured.events.queueCapacity:10000}")
+    private int queueCapacity;
+
+    @Value("${cb.kafka.structured.events.spillPath:}")
+    private String spillPath;
+
+    @Value("${cb.kafka.structured.events.spillReplayIntervalMs:30000}")
+    private long spillReplayIntervalMs;
+
+    @Value("${cb.kafka.structured.events.spillMaxBytes:104857600}")
+    private long spillMaxBytes;
+
+    private BlockingQueue<StructuredEvent> queue;
+
+    private BlockingQueue<SpilledEvent> spillQueue;
+
+    private ExecutorService pipelineExecutor;
+
+    private volatile boolean running;
+
+    private volatile boolean sendFailed;
+
+    private Path spillFile;
+
+    private Path replayFile;
+
+    private long lastReplay;
+
+    @PostConstruct
+    public void init() {
+        if (!structuredEventSenderConfig.isKafkaConfigured()) {
+            return;
+        }
+        spillFile = StringUtils.isEmpty(spillPath) ? Paths.get(System.getProperty("java.io.tmpdir"), SPILL_FILE_NAME) : Paths.get(spillPath);
+        replayFile = spillFile.resolveSibling(spillFile.getFileName() + REPLAY_FILE_EXTENSION);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        spillQueue = new ArrayBlockingQueue<>(queueCapacity);
+        Metrics.gauge(QUEUE_DEPTH_GAUGE, queue, BlockingQueue::size);
+        lastReplay = System.currentTimeMillis();
+        running = true;
+        pipelineExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("structured-event-kafka-%d").setDaemon(true).build());
+        pipelineExecutor.submit(this::sendLoop);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pipelineExecutor == null) {
+            return;
+        }
+        running = false;
+        pipelineExecutor.shutdown();
+        try {
+            if (!pipelineExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                pipelineExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pipelineExecutor.shutdownNow();
+        }
+        List<SpilledEvent> spills = new ArrayList<>();
+        spillQueue.drainTo(spills);
+        StructuredEvent event;
+        while ((event = queue.poll()) != null) {
+            spills.add(new SpilledEvent(event));
+        }
+        writeSpills(spills);
+    }
+
+    /**
+     * Queues the event for sending without blocking. If the queue is full, the event is handed to the pipeline thread to be spilled to disk.
+     *
+     * @param event the structured event to send
+     */
+    public void publish(StructuredEvent event) {
+        if (queue == null) {
+            LOGGER.debug("Kafka is not configured, structured event is not sent");
+            return;
+        }
+        if (!queue.offer(event)) {
+            LOGGER.debug("Kafka structured event queue is full, spilling the event to {}", spillFile);
+            spillLater(new SpilledEvent(event));
+        }
+    }
+
+    protected void sanitizeSensitiveRestData(StructuredEvent event) {
+        if ("StructuredRestCallEvent".equals(event.getType())) {
+            StructuredRestCallEvent restEvent = (StructuredRestCallEvent) event;
+            RestRequestDetails restRequestDetails = restEvent.getRestCall().getRestRequest();
+            restRequestDetails.setBody(REPLACEMENT);
+            restRequestDetails.setHeaders(new HashMap());
+            RestResponseDetails restResponseDetails = restEvent.getRestCall().getRestResponse();
+            restResponseDetails.setBody(REPLACEMENT);
+            restResponseDetails.setHeaders(new HashMap<>());
+        }
+    }
+
+    private void sendLoop() {
+        while (running) {
+            try {
+                StructuredEvent event = queue.poll(Math.min(spillReplayIntervalMs, SPILL_FLUSH_INTERVAL_MS), TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    send(event);
+                }
+                List<SpilledEvent> spills = new ArrayList<>();
+                spillQueue.drainTo(spills);
+                writeSpills(spills);
+                replaySpilledEvents();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Unexpected error in the Kafka structured event pipeline", e);
+            }
+        }
+    }
+
+    private void send(StructuredEvent event) {
+        String topic = getTopicNameForEvent(event);
+        try {
+            sanitizeSensitiveRestData(event);
+            String payload = JsonUtil.writeValueAsString(event);
+            if (!trySend(topic, payload)) {
+                spillLater(new SpilledEvent(topic, payload));
+            }
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Structured event json processing error", e);
+        }
+    }
+
+    /**
+     * Hands the event to the producer. A failed acknowledgement spills the event later, a failure to hand it over is returned to the caller.
+     */
+    private boolean trySend(String topic, String payload) {
+        try {
+            kafkaTemplate.send(topic, payload).addCallback(
+                    result -> LOGGER.trace("Structured event sent to kafka with topic {}: {}", topic, result.getProducerRecord()),
+                    failure -> {
+                        LOGGER.warn("Error happened in message sending to kafka, spilling the event to {}", spillFile, failure);
+                        sendFailed = true;
+                        spillLater(new SpilledEvent(topic, payload));
+                    });
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error happened in message sending to kafka, spilling the event to {}", spillFile, e);
+            sendFailed = true;
+            return false;
+        }
+    }
+
+    private void spillLater(SpilledEvent spilledEvent) {
+        if (!spillQueue.offer(spilledEvent)) {
+            Metrics.counter(DROPPED_COUNTER).increment();
+            LOGGER.error("The structured events waiting to be spilled fill their queue, the event is dropped");
+        }
+    }
+
+    /**
+     * Replays the oldest spill file until a send fails, in which case the events not sent yet are kept for the next replay, so a Kafka outage
+     * costs one blocked send per replay interval instead of one per spilled event.
+     */
+    private void replaySpilledEvents() {
+        long now = System.currentTimeMillis();
+        if (now - lastReplay < spillReplayIntervalMs) {
+            return;
+        }
+        lastReplay = now;
+        try {
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(spillFile)) {
+                    return;
+                }
+                Files.move(spillFile, replayFile);
+            }
+            sendFailed = false;
+            Path remainingFile = replayFile.resolveSibling(replayFile.getFileName() + REMAINING_FILE_EXTENSION);
+            boolean stopped = false;
+            int replayed = 0;
+            try (BufferedReader reader = Files.newBufferedReader(replayFile, UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (sendFailed || !replay(line)) {
+                        try (BufferedWriter writer = Files.newBufferedWriter(remainingFile, UTF_8)) {
+                            writer.write(line);
+                            writer.write('\n');
+                            reader.transferTo(writer);
+                        }
+                        stopped = true;
+                        break;
+                    }
+                    replayed++;
+                }
+            }
+            if (stopped) {
+                Files.move(remainingFile, replayFile, StandardCopyOption.REPLACE_EXISTING);
+                LOGGER.info("Replay of the spilled structured events is stopped after {} events, kafka is not available", replayed);
+            } else {
+                Files.delete(replayFile);
+                LOGGER.info("{} spilled structured events have been resent to kafka", replayed);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Can not replay the spilled structured events from {}", replayFile, e);
+        }
+    }
+
+    private boolean replay(String line) {
+        int separator = line.indexOf(TOPIC_SEPARATOR);
+        return separator <= 0 || trySend(line.substring(0, separator), line.substring(separator + 1));
+    }
+
+    private void writeSpills(List<SpilledEvent> spills) {
+        if (spills.isEmpty()) {
+            return;
+        }
+        int written = 0;
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (SpilledEvent spill : spills) {
+                    String line;
+                    try {
+                        line = spill.toLine();
+                    } catch (JsonProcessingException e) {
+                        LOGGER.error("Structured event json processing error", e);
+                        continue;
+                    }
+                    writer.write(line);
+                    writer.write('\n');
+                    written++;
+                }
+            }
+            Metrics.counter(SPILLED_COUNTER).increment(written);
+            if (Files.size(spillFile) > spillMaxBytes / 2) {
+                rotateSpillFile();
+            }
+        } catch (IOException e) {
+            Metrics.counter(DROPPED_COUNTER).increment(spills.size() - written);
+            LOGGER.error("Can not spill {} structured events to {}, the events are dropped", spills.size() - written, spillFile, e);
+        }
+    }
+
+    /**
+     * The spilled events are kept in two halves of the size limit: the spill file being appended and the replay file holding the older events.
+     * When the spill file is full, the replay file is dropped if it still exists and the spill file takes its place.
+     */
+    private void rotateSpillFile() throws IOException {
+        if (Files.exists(replayFile)) {
+            long evicted;
+            try (Stream<String> lines = Files.lines(replayFile, UTF_8)) {
+                evicted = lines.count();
+            }
+            Files.delete(replayFile);
+            Metrics.counter(SPILL_EVICTED_COUNTER).increment(evicted);
+            LOGGER.warn("The spilled structured events reached {} bytes, the {} oldest events are dropped", spillMaxBytes, evicted);
+        }
+        Files.move(spillFile, replayFile);
+    }
+
+    private String getTopicNameForEvent(StructuredEvent event) {
+        return "cb" + event.getType();
+    }
+
+    private class SpilledEvent {
+
+        private final StructuredEvent event;
+
+        private final String topic;
+
+        private final String payload;
+
+        SpilledEvent(StructuredEvent event) {
+            this.event = event;
+            topic = null;
+            payload = null;
+        }
+
+        SpilledEvent(String topic, String payload) {
+            event = null;
+            this.topic = topic;
+            this.payload = payload;
+        }
+
+        String toLine() throws JsonProcessingException {
+            if (event == null) {
+                return topic + TOPIC_SEPARATOR + payload;
+            }
+            sanitizeSensitiveRestData(event);
+            return getTopicNameForEvent(event) + TOPIC_SEPARATOR + JsonUtil.writeValueAsString(event);
+        }
+    }
+}
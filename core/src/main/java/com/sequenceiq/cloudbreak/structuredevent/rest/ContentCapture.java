@@ -0,0 +1,154 @@
+package com.sequenceiq.cloudbreak.structuredevent.rest;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the first {@link #MAX_CONTENT_LENGTH} bytes of a request or response entity for the structured events, while the entity is read or written
+ * by Jersey. The bytes are copied into a buffer taken from a small shared pool when the first byte arrives, so empty entities do not allocate,
+ * and they are only decoded to a String when the event is created.
+ */
+final class ContentCapture {
+
+    static final int MAX_CONTENT_LENGTH = 65535;
+
+    private static final String MORE_CONTENT_MARKER = "...more...";
+
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    private static final Queue<byte[]> BUFFER_POOL = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger POOLED_BUFFERS = new AtomicInteger();
+
+    private byte[] buffer;
+
+    private int size;
+
+    private boolean truncated;
+
+    InputStream capture(InputStream stream) {
+        return new CapturingInputStream(stream);
+    }
+
+    OutputStream capture(OutputStream stream) {
+        return new CapturingOutputStream(stream);
+    }
+
+    /**
+     * Decodes the captured content, appending a marker if the entity was longer than the limit, and returns the buffer to the pool.
+     */
+    String decodeAndRelease(Charset charset) {
+        StringBuilder content = new StringBuilder(size + MORE_CONTENT_MARKER.length() + 1);
+        if (size > 0) {
+            content.append(new String(buffer, 0, size, charset));
+        }
+        if (truncated) {
+            content.append(MORE_CONTENT_MARKER);
+        }
+        content.append('\n');
+        release();
+        return content.toString();
+    }
+
+    void release() {
+        if (buffer != null) {
+            if (POOLED_BUFFERS.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+                BUFFER_POOL.offer(buffer);
+            } else {
+                POOLED_BUFFERS.decrementAndGet();
+            }
+            buffer = null;
+            size = 0;
+        }
+    }
+
+    private void append(byte[] bytes, int offset, int length) {
+        int captured = Math.min(length, MAX_CONTENT_LENGTH - size);
+        if (captured > 0) {
+            if (buffer == null) {
+                buffer = acquire();
+            }
+            System.arraycopy(bytes, offset, buffer, size, captured);
+            size += captured;
+        }
+        if (captured < length) {
+            truncated = true;
+        }
+    }
+
+    private void append(int b) {
+        if (size < MAX_CONTENT_LENGTH) {
+            if (buffer == null) {
+                buffer = acquire();
+            }
+            buffer[size++] = (byte) b;
+        } else {
+            truncated = true;
+        }
+    }
+
+    private static byte[] acquire() {
+        byte[] pooled = BUFFER_POOL.poll();
+        if (pooled != null) {
+            POOLED_BUFFERS.decrementAndGet();
+            return pooled;
+        }
+        return new byte[MAX_CONTENT_LENGTH];
+    }
+
+    private class CapturingInputStream extends FilterInputStream {
+
+        CapturingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                append(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                append(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    private class CapturingOutputStream extends FilterOutputStream {
+
+        CapturingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            append(b);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            append(b, off, len);
+            out.write(b, off, len);
+        }
+    }
+}
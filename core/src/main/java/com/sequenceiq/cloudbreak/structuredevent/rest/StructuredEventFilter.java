@@ -7,12 +7,7 @@ import static com.sequenceiq.cloudbreak.structuredevent.rest.urlparsers.RestUrlP
 import static com.sequenceiq.cloudbreak.structuredevent.rest.urlparsers.RestUrlParser.RESOURCE_TYPE;
 import static com.sequenceiq.cloudbreak.structuredevent.rest.urlparsers.RestUrlParser.WORKSPACE_ID;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -76,7 +71,11 @@ public class StructuredEventFilter implements WriterInterceptor, ContainerReques
 
     private static final String LOGGING_ENABLED_PROPERTY = "structuredevent.loggingEnabled";
 
-    private static final String LOGGINGSTREAM_PROPERTY = "structuredevent.entityLogger";
+    private static final String REQUEST_CONTENT_PROPERTY = "structuredevent.requestContent";
+
+    private static final String REQUEST_CHARSET_PROPERTY = "structuredevent.requestCharset";
+
+    private static final String RESPONSE_CONTENT_PROPERTY = "structuredevent.responseContent";
 
     private static final String REST_PARAMS = "REST_PARAMS";
 
@@ -86,8 +85,6 @@ public class StructuredEventFilter implements WriterInterceptor, ContainerReques
 
     private static final String RESPONSE_DETAILS = "RESPONSE_DETAIS";
 
-    private static final int MAX_CONTENT_LENGTH = 65535;
-
     private static final String ID = "id";
 
     private static final String CRN = "crn";
@@ -152,10 +149,14 @@ public class StructuredEventFilter implements WriterInterceptor, ContainerReques
         requestContext.setProperty(LOGGING_ENABLED_PROPERTY, loggingEnabled);
         if (loggingEnabled) {
             requestContext.setProperty(REQUEST_TIME, System.currentTimeMillis());
-            StringBuilder body = new StringBuilder();
-            requestContext.setEntityStream(logInboundEntity(body, requestContext.getEntityStream(), MessageUtils.getCharset(requestContext.getMediaType())));
+            if (contentLogging) {
+                ContentCapture requestContent = new ContentCapture();
+                requestContext.setEntityStream(requestContent.capture(requestContext.getEntityStream()));
+                requestContext.setProperty(REQUEST_CONTENT_PROPERTY, requestContent);
+                requestContext.setProperty(REQUEST_CHARSET_PROPERTY, MessageUtils.getCharset(requestContext.getMediaType()));
+            }
             requestContext.setProperty(REST_PARAMS, getRequestUrlParameters(requestContext));
-            requestContext.setProperty(REQUEST_DETAILS, createRequestDetails(requestContext, body.toString()));
+            requestContext.setProperty(REQUEST_DETAILS, createRequestDetails(requestContext));
         }
     }
 
@@ -164,13 +165,17 @@ public class StructuredEventFilter implements WriterInterceptor, ContainerReques
         if (BooleanUtils.isTrue((Boolean) requestContext.getProperty(LOGGING_ENABLED_PROPERTY))) {
             RestResponseDetails restResponse = createResponseDetails(responseContext);
             if (responseContext.hasEntity()) {
-                OutputStream stream = new LoggingStream(responseContext.getEntityStream());
-                responseContext.setEntityStream(stream);
-                requestContext.setProperty(LOGGINGSTREAM_PROPERTY, stream);
+                if (contentLogging) {
+                    ContentCapture responseContent = new ContentCapture();
+                    responseContext.setEntityStream(responseContent.capture(responseContext.getEntityStream()));
+                    requestContext.setProperty(RESPONSE_CONTENT_PROPERTY, responseContent);
+                }
                 requestContext.setProperty(RESPONSE_DETAILS, restResponse);
             } else {
                 Long requestTime = (Long) requestContext.getProperty(REQUEST_TIME);
                 RestRequestDetails restRequest = (RestRequestDetails) requestContext.getProperty(REQUEST_DETAILS);
+                restRequest.setBody(decodeContent(requestContext.getProperty(REQUEST_CONTENT_PROPERTY),
+                        (Charset) requestContext.getProperty(REQUEST_CHARSET_PROPERTY)));
                 Map<String, String> restParams = (Map<String, String>) requestContext.getProperty(REST_PARAMS);
                 sendStructuredEvent(restRequest, restResponse, restParams, requestTime, "");
             }
@@ -183,9 +188,9 @@ public class StructuredEventFilter implements WriterInterceptor, ContainerReques
         if (BooleanUtils.isTrue((Boolean) context.getProperty(LOGGING_ENABLED_PROPERTY))) {
             Long requestTime = (Long) context.getProperty(REQUEST_TIME);
             RestRequestDetails restRequest = (RestRequestDetails) context.getProperty(REQUEST_DETAILS);
+            restRequest.setBody(decodeContent(context.getProperty(REQUEST_CONTENT_PROPERTY), (Charset) context.getProperty(REQUEST_CHARSET_PROPERTY)));
             RestResponseDetails restResponse = (RestResponseDetails) context.getProperty(RESPONSE_DETAILS);
-            String responseBody = ((LoggingStream) context.getProperty(LOGGINGSTREAM_PROPERTY)).getStringBuilder(
-                    MessageUtils.getCharset(context.getMediaType())).toString();
+            String responseBody = decodeContent(context.getProperty(RESPONSE_CONTENT_PROPERTY), MessageUtils.getCharset(context.getMediaType()));
             Map<String, String> restParams = (Map<String, String>) context.getProperty(REST_PARAMS);
             if (restParams == null) {
                 restParams = new HashMap<>();
@@ -195,6 +200,10 @@ public class StructuredEventFilter implements WriterInterceptor, ContainerReques
         }
     }
 
+    private String decodeContent(Object content, Charset charset) {
+        return content != null ? ((ContentCapture) content).decodeAndRelease(charset) : "";
+    }
+
     private void sendStructuredEvent(RestRequestDetails restRequest, RestResponseDetails restResponse, Map<String, String> restParams, Long requestTime,
             String responseBody) {
         restResponse.setBody(responseBody);
@@ -333,10 +342,9 @@ public class StructuredEventFilter implements WriterInterceptor, ContainerReques
                 cloudbreakUser.getTenant(), resourceCrn);
     }
 
-    private RestRequestDetails createRequestDetails(ContainerRequestContext requestContext, String body) {
+    private RestRequestDetails createRequestDetails(ContainerRequestContext requestContext) {
         RestRequestDetails restRequest = new RestRequestDetails();
         restRequest.setRequestUri(requestContext.getUriInfo().getRequestUri().toString());
-        restRequest.setBody(body);
         restRequest.setCookies(requestContext.getCookies().entrySet().stream().collect(Collectors.toMap(Entry::getKey, e -> e.getValue().toString())));
         restRequest.setHeaders(requestContext.getHeaders().entrySet().stream().filter(e -> !skippedHeadersList.contains(e.getKey())).collect(
                 Collectors.toMap(Entry::getKey, e -> StringUtils.join(e.getValue(), ","))));
@@ -357,53 +365,4 @@ public class StructuredEventFilter implements WriterInterceptor, ContainerReques
         restResponse.setMediaType(mediaType != null ? mediaType.toString() : "");
         return restResponse;
     }
-
-    private InputStream logInboundEntity(StringBuilder content, InputStream stream, Charset charset) throws IOException {
-        if (contentLogging) {
-            if (!stream.markSupported()) {
-                stream = new BufferedInputStream(stream);
-            }
-            stream.mark(MAX_CONTENT_LENGTH + 1);
-            byte[] entity = new byte[MAX_CONTENT_LENGTH + 1];
-            int entitySize = stream.read(entity);
-            if (entitySize != -1) {
-                content.append(new String(entity, 0, Math.min(entitySize, MAX_CONTENT_LENGTH), charset));
-                if (entitySize > MAX_CONTENT_LENGTH) {
-                    content.append("...more...");
-                }
-            }
-            content.append('\n');
-            stream.reset();
-        }
-        return stream;
-    }
-
-    private class LoggingStream extends FilterOutputStream {
-        private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        LoggingStream(OutputStream inner) {
-            super(inner);
-        }
-
-        StringBuffer getStringBuilder(Charset charset) {
-            StringBuffer b = new StringBuffer();
-            if (contentLogging) {
-                byte[] entity = baos.toByteArray();
-                b.append(new String(entity, 0, Math.min(entity.length, MAX_CONTENT_LENGTH), charset));
-                if (entity.length > MAX_CONTENT_LENGTH) {
-                    b.append("...more...");
-                }
-                b.append('\n');
-            }
-            return b;
-        }
-
-        @Override
-        public void write(int i) throws IOException {
-            if (contentLogging && baos.size() <= MAX_CONTENT_LENGTH) {
-                baos.write(i);
-            }
-            out.write(i);
-        }
-    }
 }
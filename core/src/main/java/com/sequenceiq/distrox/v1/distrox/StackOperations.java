@@ -32,6 +32,7 @@ import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackViewV4Resp
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.UpgradeOptionV4Response;
 import com.sequenceiq.cloudbreak.api.util.ConverterUtil;
 import com.sequenceiq.cloudbreak.common.user.CloudbreakUser;
+import com.sequenceiq.cloudbreak.domain.projection.StackClusterStatusView;
 import com.sequenceiq.cloudbreak.domain.stack.Stack;
 import com.sequenceiq.cloudbreak.domain.view.StackApiView;
 import com.sequenceiq.cloudbreak.retry.RetryableFlow;
@@ -269,28 +270,21 @@ public class StackOperations {
     }
 
     public StackStatusV4Response getStatus(@NotNull StackAccessDto stackAccessDto, Long workspaceId) {
-        Stack stack;
         if (isNotEmpty(stackAccessDto.getName())) {
-            stack = stackService.getByNameInWorkspace(stackAccessDto.getName(), workspaceId);
-        } else {
-            stack = stackService.getByCrnInWorkspace(stackAccessDto.getCrn(), workspaceId);
+            Stack stack = stackService.getByNameInWorkspace(stackAccessDto.getName(), workspaceId);
+            return converterUtil.convert(stack, StackStatusV4Response.class);
         }
-        return converterUtil.convert(stack, StackStatusV4Response.class);
+        StackClusterStatusView statusView = stackService.getStatusViewByCrnInWorkspace(stackAccessDto.getCrn(), workspaceId);
+        return converterUtil.convert(statusView, StackStatusV4Response.class);
     }
 
     public StackStatusV4Response getStatusByCrn(@NotNull StackAccessDto stackAccessDto, Long workspaceId) {
-        Stack stack;
-        if (isNotEmpty(stackAccessDto.getName())) {
-            stack = stackService.getByNameInWorkspace(stackAccessDto.getName(), workspaceId);
-        } else {
-            stack = stackService.getByCrnInWorkspace(stackAccessDto.getCrn(), workspaceId);
-        }
-        return converterUtil.convert(stack, StackStatusV4Response.class);
+        return getStatus(stackAccessDto, workspaceId);
     }
 
     public StackStatusV4Response getStatus(@NotNull String crn) {
-        Stack stack = stackService.getByCrn(crn);
-        return converterUtil.convert(stack, StackStatusV4Response.class);
+        StackClusterStatusView statusView = stackService.getStatusViewByCrn(crn);
+        return converterUtil.convert(statusView, StackStatusV4Response.class);
     }
 
     public void putPassword(@NotNull StackAccessDto stackAccessDto, Long workspaceId, @Valid UserNamePasswordV4Request userNamePasswordJson) {
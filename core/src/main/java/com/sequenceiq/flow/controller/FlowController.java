@@ -19,6 +19,8 @@ import com.google.api.client.util.Lists;
 import com.sequenceiq.cloudbreak.auth.altus.Crn;
 import com.sequenceiq.flow.api.FlowEndpoint;
 import com.sequenceiq.flow.api.model.FlowLogResponse;
+import com.sequenceiq.flow.api.model.QueuedFlowResponse;
+import com.sequenceiq.flow.core.admission.FlowAdmissionService;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.service.flowlog.FlowChainLogService;
 import com.sequenceiq.flow.service.flowlog.FlowLogDBService;
@@ -34,6 +36,9 @@ public class FlowController implements FlowEndpoint {
     @Inject
     private FlowChainLogService flowChainLogService;
 
+    @Inject
+    private FlowAdmissionService flowAdmissionService;
+
     @Inject
     @Named("conversionService")
     private ConversionService conversionService;
@@ -85,4 +90,11 @@ public class FlowController implements FlowEndpoint {
         List<FlowLog> flowLogs = flowLogDBService.getFlowLogsByResourceAndChainId(resourceName, relatedChainIds);
         return flowLogs.stream().map(flowLog -> conversionService.convert(flowLog, FlowLogResponse.class)).collect(Collectors.toList());
     }
+
+    @Override
+    public List<QueuedFlowResponse> getQueuedFlows() {
+        return flowAdmissionService.getQueuedFlows().stream()
+                .map(queuedFlow -> conversionService.convert(queuedFlow, QueuedFlowResponse.class))
+                .collect(Collectors.toList());
+    }
 }
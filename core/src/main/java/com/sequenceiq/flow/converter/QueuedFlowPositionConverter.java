@@ -0,0 +1,35 @@
+package com.sequenceiq.flow.converter;
+
+import javax.inject.Inject;
+
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.converter.AbstractConversionServiceAwareConverter;
+import com.sequenceiq.flow.api.model.QueuedFlowResponse;
+import com.sequenceiq.flow.core.admission.QueuedFlowPosition;
+import com.sequenceiq.flow.domain.QueuedFlow;
+
+@Component
+public class QueuedFlowPositionConverter extends AbstractConversionServiceAwareConverter<QueuedFlowPosition, QueuedFlowResponse> {
+
+    @Inject
+    private Clock clock;
+
+    @Override
+    public QueuedFlowResponse convert(QueuedFlowPosition source) {
+        QueuedFlow queuedFlow = source.getQueuedFlow();
+        QueuedFlowResponse queuedFlowResponse = new QueuedFlowResponse();
+        queuedFlowResponse.setResourceId(queuedFlow.getResourceId());
+        queuedFlowResponse.setCreated(queuedFlow.getCreated());
+        queuedFlowResponse.setFlowTriggerKey(queuedFlow.getFlowTriggerKey());
+        queuedFlowResponse.setFlowType(queuedFlow.getFlowType());
+        queuedFlowResponse.setFlowChainId(queuedFlow.getFlowChainId());
+        queuedFlowResponse.setAccountId(queuedFlow.getAccountId());
+        queuedFlowResponse.setRegion(queuedFlow.getRegion());
+        queuedFlowResponse.setNodeId(queuedFlow.getCloudbreakNodeId());
+        queuedFlowResponse.setPosition(source.getPosition());
+        queuedFlowResponse.setWaitingMillis(clock.getCurrentTimeMillis() - queuedFlow.getCreated());
+        return queuedFlowResponse;
+    }
+}
@@ -0,0 +1,17 @@
+-- // structured event compressed payload, keyset and retention indexes
+-- Migration SQL that makes the change goes here.
+
+ALTER TABLE structuredevent ADD COLUMN IF NOT EXISTS structuredeventjsongz BYTEA;
+
+CREATE INDEX IF NOT EXISTS idx_structuredevent_type_resource_timestamp_id ON structuredevent (eventtype, resourcetype, resourceid, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_structuredevent_workspace_eventtype_timestamp ON structuredevent (workspace_id, eventtype, timestamp);
+CREATE INDEX IF NOT EXISTS idx_structuredevent_timestamp_brin ON structuredevent USING BRIN (timestamp);
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+DROP INDEX IF EXISTS idx_structuredevent_timestamp_brin;
+DROP INDEX IF EXISTS idx_structuredevent_workspace_eventtype_timestamp;
+DROP INDEX IF EXISTS idx_structuredevent_type_resource_timestamp_id;
+
+ALTER TABLE structuredevent DROP COLUMN IF EXISTS structuredeventjsongz;
@@ -0,0 +1,13 @@
+-- // entity cache region versions
+-- Migration SQL that makes the change goes here.
+
+CREATE TABLE IF NOT EXISTS entitycacheregion (
+    region      VARCHAR(255) NOT NULL,
+    version     BIGINT NOT NULL,
+    CONSTRAINT  pk_entitycacheregion PRIMARY KEY (region)
+);
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+DROP TABLE IF EXISTS entitycacheregion;
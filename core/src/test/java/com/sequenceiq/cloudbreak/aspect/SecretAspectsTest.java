@@ -3,6 +3,7 @@ package com.sequenceiq.cloudbreak.aspect;
 import static org.hamcrest.Matchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -10,6 +11,7 @@ import static org.mockito.Mockito.when;
 import java.util.List;
 
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -19,6 +21,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.sequenceiq.cloudbreak.service.secret.SecretValue;
 import com.sequenceiq.cloudbreak.common.service.Clock;
@@ -27,6 +30,7 @@ import com.sequenceiq.cloudbreak.service.secret.domain.SecretProxy;
 import com.sequenceiq.cloudbreak.common.exception.CloudbreakServiceException;
 import com.sequenceiq.cloudbreak.workspace.model.Tenant;
 import com.sequenceiq.cloudbreak.workspace.model.TenantAwareResource;
+import com.sequenceiq.cloudbreak.service.secret.service.SecretAspectService;
 import com.sequenceiq.cloudbreak.service.secret.service.SecretService;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -50,9 +54,18 @@ public class SecretAspectsTest {
     @Mock
     private Tenant tenant;
 
+    private SecretAspectService secretAspectService;
+
     @Before
     public void setup() {
+        secretAspectService = new SecretAspectService(secretService, 2);
+        secretAspectService.init();
+        ReflectionTestUtils.setField(underTest, "secretAspectService", secretAspectService);
+    }
 
+    @After
+    public void tearDown() {
+        secretAspectService.shutdown();
     }
 
     @Test
@@ -131,6 +144,48 @@ public class SecretAspectsTest {
         Assert.assertTrue(dummyEntity.secret instanceof SecretProxy);
     }
 
+    @Test
+    public void testproceedSaveAllEntitiesStoresEverySecretUnderTheTenant() throws Throwable {
+        DummyTenantAwareResourceEntity first = new DummyTenantAwareResourceEntity(new Secret("first"));
+        DummyTenantAwareResourceEntity second = new DummyTenantAwareResourceEntity(new Secret("second"));
+        when(proceedingJoinPoint.getArgs()).thenReturn(new Object[] { List.of(first, second) });
+        when(tenant.getName()).thenReturn("tenant");
+        when(secretService.put(startsWith("tenant/dummytenantawareresourceentity/secret/"), anyString())).thenAnswer(i -> "stored-" + i.getArgument(1));
+
+        underTest.proceedOnRepositorySaveAll(proceedingJoinPoint);
+
+        Assert.assertTrue(first.secret instanceof SecretProxy);
+        Assert.assertEquals("stored-first", first.secret.getSecret());
+        Assert.assertTrue(second.secret instanceof SecretProxy);
+        Assert.assertEquals("stored-second", second.secret.getSecret());
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    @Test
+    public void testproceedSaveAllEntitiesDeletesStoredSecretsWhenAWriteFails() throws Throwable {
+        Secret firstSecret = new Secret("first");
+        Secret secondSecret = new Secret("second");
+        DummyTenantAwareResourceEntity first = new DummyTenantAwareResourceEntity(firstSecret);
+        DummyTenantAwareResourceEntity second = new DummyTenantAwareResourceEntity(secondSecret);
+        when(proceedingJoinPoint.getArgs()).thenReturn(new Object[] { List.of(first, second) });
+        when(tenant.getName()).thenReturn("tenant");
+        when(secretService.put(anyString(), eq("first"))).thenReturn("stored-first");
+        when(secretService.put(anyString(), eq("second"))).thenThrow(new IllegalStateException("vault is sealed"));
+        ReflectionTestUtils.setField(underTest, "secretAspectService", new SecretAspectService(secretService, 1));
+
+        try {
+            underTest.proceedOnRepositorySaveAll(proceedingJoinPoint);
+            Assert.fail("CloudbreakServiceException is expected");
+        } catch (CloudbreakServiceException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        verify(secretService, times(1)).delete(eq("stored-first"));
+        verify(proceedingJoinPoint, times(0)).proceed();
+        Assert.assertSame(firstSecret, first.secret);
+        Assert.assertSame(secondSecret, second.secret);
+    }
+
     @Test
     public void testproceedDeleteEntityNotContainsSecret() {
         when(proceedingJoinPoint.getArgs()).thenReturn(new String[] { "test" });
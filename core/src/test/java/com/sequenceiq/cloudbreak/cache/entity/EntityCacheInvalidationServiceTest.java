@@ -0,0 +1,135 @@
+package com.sequenceiq.cloudbreak.cache.entity;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.service.metrics.CloudbreakMetricService;
+import com.sequenceiq.cloudbreak.service.metrics.MetricType;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EntityCacheInvalidationServiceTest {
+
+    private static final String BLUEPRINT = "blueprint";
+
+    private static final String WORKSPACE = "workspace";
+
+    @InjectMocks
+    private EntityCacheInvalidationService underTest;
+
+    @Mock
+    private EntityCacheRegionFactory entityCacheRegionFactory;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private CloudbreakMetricService metricService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private Consumer<String> invalidationListener;
+
+    private Map<String, Long> regionVersions;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        underTest.init();
+        ArgumentCaptor<Consumer<String>> listenerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(entityCacheRegionFactory).setInvalidationListener(listenerCaptor.capture());
+        invalidationListener = listenerCaptor.getValue();
+        ReflectionTestUtils.setField(underTest, "jdbcTemplate", jdbcTemplate);
+        regionVersions = Map.of(BLUEPRINT, 1L, WORKSPACE, 1L);
+        doAnswer(invocation -> {
+            RowCallbackHandler rowCallbackHandler = invocation.getArgument(1);
+            for (Map.Entry<String, Long> regionVersion : regionVersions.entrySet()) {
+                rowCallbackHandler.processRow(row(regionVersion.getKey(), regionVersion.getValue()));
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq("SELECT region, version FROM entitycacheregion"), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    public void testLocalEvictionBumpsTheRegionVersionBeforeTheVersionsArePolled() {
+        underTest.synchronizeRegions();
+        invalidationListener.accept(BLUEPRINT);
+        regionVersions = Map.of(BLUEPRINT, 2L, WORKSPACE, 1L);
+
+        underTest.synchronizeRegions();
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(argThat((String sql) -> sql.contains("ON CONFLICT (region) DO UPDATE")), eq(BLUEPRINT));
+        inOrder.verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        verify(jdbcTemplate, times(1)).update(anyString(), eq(BLUEPRINT));
+        verify(jdbcTemplate, never()).update(anyString(), eq(WORKSPACE));
+    }
+
+    @Test
+    public void testOnlyTheRegionWhoseVersionMovedIsEvicted() {
+        underTest.synchronizeRegions();
+        verify(entityCacheRegionFactory).evictLocally(BLUEPRINT);
+        verify(entityCacheRegionFactory).evictLocally(WORKSPACE);
+
+        regionVersions = Map.of(BLUEPRINT, 2L, WORKSPACE, 1L);
+        underTest.synchronizeRegions();
+        underTest.synchronizeRegions();
+
+        verify(entityCacheRegionFactory, times(2)).evictLocally(BLUEPRINT);
+        verify(entityCacheRegionFactory, times(1)).evictLocally(WORKSPACE);
+        verify(metricService, times(3)).incrementMetricCounter(MetricType.ENTITY_CACHE_INVALIDATION);
+    }
+
+    @Test
+    public void testFailedBumpIsRetriedOnTheNextTick() {
+        doThrow(new DataAccessResourceFailureException("connection lost")).doReturn(1).when(jdbcTemplate).update(anyString(), eq(BLUEPRINT));
+        invalidationListener.accept(BLUEPRINT);
+
+        underTest.synchronizeRegions();
+        verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class));
+        underTest.synchronizeRegions();
+
+        verify(jdbcTemplate, times(2)).update(anyString(), eq(BLUEPRINT));
+        verify(entityCacheRegionFactory).evictLocally(BLUEPRINT);
+        assertTrue(((Set<?>) ReflectionTestUtils.getField(underTest, "pendingInvalidations")).isEmpty());
+    }
+
+    private ResultSet row(String region, Long version) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("region")).thenReturn(region);
+        when(resultSet.getLong("version")).thenReturn(version);
+        return resultSet;
+    }
+}
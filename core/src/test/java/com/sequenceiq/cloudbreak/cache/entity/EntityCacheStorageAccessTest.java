@@ -0,0 +1,65 @@
+package com.sequenceiq.cloudbreak.cache.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+public class EntityCacheStorageAccessTest {
+
+    private final AtomicInteger evictions = new AtomicInteger();
+
+    private Cache<Object, Object> cache;
+
+    private EntityCacheStorageAccess underTest;
+
+    @Before
+    public void setUp() {
+        cache = Caffeine.newBuilder().build();
+        underTest = new EntityCacheStorageAccess(cache, evictions::incrementAndGet);
+    }
+
+    @Test
+    public void testLoadsAreNotReportedAsEvictions() {
+        underTest.putFromLoad("key", "value", null);
+        underTest.putIntoCache("other", "value", null);
+
+        assertEquals("value", underTest.getFromCache("key", null));
+        assertTrue(underTest.contains("other"));
+        assertEquals(0, evictions.get());
+    }
+
+    @Test
+    public void testRemovalsAreReported() {
+        underTest.putIntoCache("key", "value", null);
+        underTest.putIntoCache("other", "value", null);
+
+        underTest.removeFromCache("key", null);
+        assertNull(underTest.getFromCache("key", null));
+        underTest.clearCache(null);
+
+        assertFalse(underTest.contains("other"));
+        assertEquals(2, evictions.get());
+    }
+
+    @Test
+    public void testLocalEvictionOfTheRegionFactoryIsNotReported() {
+        EntityCacheRegionFactory regionFactory = new EntityCacheRegionFactory(10L, 60L);
+        regionFactory.setInvalidationListener(region -> evictions.incrementAndGet());
+        EntityCacheStorageAccess storageAccess = (EntityCacheStorageAccess) regionFactory.createQueryResultsRegionStorageAccess("region", null);
+        storageAccess.putIntoCache("key", "value", null);
+
+        regionFactory.evictLocally("region");
+
+        assertFalse(storageAccess.contains("key"));
+        assertEquals(0, evictions.get());
+    }
+}
@@ -0,0 +1,44 @@
+package com.sequenceiq.cloudbreak.converter.stack;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sequenceiq.cloudbreak.api.endpoint.v4.common.Status;
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
+import com.sequenceiq.cloudbreak.converter.v4.stacks.StackClusterStatusViewToStatusConverter;
+import com.sequenceiq.cloudbreak.domain.projection.StackClusterStatusView;
+
+public class StackClusterStatusViewToStatusConverterTest {
+
+    private StackClusterStatusViewToStatusConverter underTest;
+
+    @Before
+    public void setUp() {
+        underTest = new StackClusterStatusViewToStatusConverter();
+    }
+
+    @Test
+    public void testConvert() {
+        // GIVEN
+        StackClusterStatusView source = mock(StackClusterStatusView.class);
+        when(source.getId()).thenReturn(1L);
+        when(source.getCrn()).thenReturn("crn:cdp:datahub:us-west-1:tenant:cluster:1");
+        when(source.getStatus()).thenReturn(Status.AVAILABLE);
+        when(source.getStatusReason()).thenReturn("stack reason");
+        when(source.getClusterStatus()).thenReturn(Status.UPDATE_IN_PROGRESS);
+        when(source.getClusterStatusReason()).thenReturn("cluster reason");
+        // WHEN
+        StackStatusV4Response result = underTest.convert(source);
+        // THEN
+        assertEquals(Long.valueOf(1L), result.getId());
+        assertEquals("crn:cdp:datahub:us-west-1:tenant:cluster:1", result.getCrn());
+        assertEquals(Status.AVAILABLE, result.getStatus());
+        assertEquals("stack reason", result.getStatusReason());
+        assertEquals(Status.UPDATE_IN_PROGRESS, result.getClusterStatus());
+        assertEquals("cluster reason", result.getClusterStatusReason());
+    }
+}
@@ -0,0 +1,137 @@
+package com.sequenceiq.cloudbreak.core.bootstrap.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.sequenceiq.cloudbreak.common.model.OrchestratorType;
+import com.sequenceiq.cloudbreak.core.CloudbreakImageNotFoundException;
+import com.sequenceiq.cloudbreak.core.bootstrap.service.host.HostOrchestratorResolver;
+import com.sequenceiq.cloudbreak.core.bootstrap.service.host.SaltPillarHashService;
+import com.sequenceiq.cloudbreak.domain.Orchestrator;
+import com.sequenceiq.cloudbreak.domain.Template;
+import com.sequenceiq.cloudbreak.domain.stack.Stack;
+import com.sequenceiq.cloudbreak.domain.stack.cluster.Cluster;
+import com.sequenceiq.cloudbreak.domain.stack.instance.InstanceGroup;
+import com.sequenceiq.cloudbreak.domain.stack.instance.InstanceMetaData;
+import com.sequenceiq.cloudbreak.orchestrator.host.HostOrchestrator;
+import com.sequenceiq.cloudbreak.orchestrator.model.GatewayConfig;
+import com.sequenceiq.cloudbreak.service.ComponentConfigProviderService;
+import com.sequenceiq.cloudbreak.service.GatewayConfigService;
+import com.sequenceiq.cloudbreak.service.stack.StackService;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClusterBootstrapperTest {
+
+    private static final Long STACK_ID = 1L;
+
+    private static final String SALT = "SALT";
+
+    private static final String GATEWAY_IP = "10.0.0.1";
+
+    private static final String WORKER_IP = "10.0.0.2";
+
+    private static final String NEW_GATEWAY_IP = "10.0.0.3";
+
+    @InjectMocks
+    private ClusterBootstrapper underTest;
+
+    @Mock
+    private StackService stackService;
+
+    @Mock
+    private OrchestratorTypeResolver orchestratorTypeResolver;
+
+    @Mock
+    private HostOrchestratorResolver hostOrchestratorResolver;
+
+    @Mock
+    private GatewayConfigService gatewayConfigService;
+
+    @Mock
+    private ComponentConfigProviderService componentConfigProviderService;
+
+    @Mock
+    private SaltPillarHashService saltPillarHashService;
+
+    @Mock
+    private HostOrchestrator hostOrchestrator;
+
+    @Mock
+    private Stack stack;
+
+    @Mock
+    private Cluster cluster;
+
+    @Before
+    public void setUp() throws Exception {
+        Orchestrator orchestrator = new Orchestrator();
+        orchestrator.setType(SALT);
+        when(stackService.getByIdWithListsInTransaction(STACK_ID)).thenReturn(stack);
+        when(stack.getId()).thenReturn(STACK_ID);
+        when(stack.getOrchestrator()).thenReturn(orchestrator);
+        when(stack.getCluster()).thenReturn(cluster);
+        when(orchestratorTypeResolver.resolveType(SALT)).thenReturn(OrchestratorType.HOST);
+        when(hostOrchestratorResolver.get(SALT)).thenReturn(hostOrchestrator);
+        when(componentConfigProviderService.getImage(STACK_ID)).thenThrow(new CloudbreakImageNotFoundException("image not found"));
+    }
+
+    @Test
+    public void testBootstrapNewNodesKeepsThePillarHashesWhenNoGatewayIsAdded() throws Exception {
+        when(stack.getNotDeletedInstanceMetaDataSet()).thenReturn(Set.of(instanceMetaData(GATEWAY_IP, "gateway"), instanceMetaData(WORKER_IP, "worker")));
+        List<GatewayConfig> gatewayConfigs = List.of(gatewayConfig(GATEWAY_IP));
+        when(gatewayConfigService.getAllGatewayConfigs(stack)).thenReturn(gatewayConfigs);
+
+        underTest.bootstrapNewNodes(STACK_ID, Set.of(WORKER_IP), Set.of());
+
+        verify(hostOrchestrator, times(1)).bootstrapNewNodes(any(), anySet(), anySet(), any(), any(), any());
+        verify(saltPillarHashService, never()).invalidate(any());
+    }
+
+    @Test
+    public void testBootstrapNewNodesInvalidatesThePillarHashesWhenAGatewayIsAdded() throws Exception {
+        when(stack.getNotDeletedInstanceMetaDataSet()).thenReturn(Set.of(instanceMetaData(GATEWAY_IP, "gateway"), instanceMetaData(NEW_GATEWAY_IP, "gateway")));
+        List<GatewayConfig> gatewayConfigs = List.of(gatewayConfig(GATEWAY_IP), gatewayConfig(NEW_GATEWAY_IP));
+        when(gatewayConfigService.getAllGatewayConfigs(stack)).thenReturn(gatewayConfigs);
+
+        underTest.bootstrapNewNodes(STACK_ID, Set.of(NEW_GATEWAY_IP), Set.of());
+
+        verify(hostOrchestrator, times(1)).bootstrapNewNodes(any(), anySet(), anySet(), any(), any(), any());
+        verify(saltPillarHashService, times(1)).invalidate(eq(cluster));
+    }
+
+    private InstanceMetaData instanceMetaData(String privateIp, String groupName) {
+        Template template = new Template();
+        template.setInstanceType("large");
+        InstanceGroup instanceGroup = new InstanceGroup();
+        instanceGroup.setGroupName(groupName);
+        instanceGroup.setTemplate(template);
+        InstanceMetaData instanceMetaData = new InstanceMetaData();
+        instanceMetaData.setPrivateIp(privateIp);
+        instanceMetaData.setInstanceId("i-" + privateIp);
+        instanceMetaData.setDiscoveryFQDN("host-" + privateIp.replace('.', '-') + ".example.com");
+        instanceMetaData.setInstanceGroup(instanceGroup);
+        return instanceMetaData;
+    }
+
+    private GatewayConfig gatewayConfig(String privateAddress) {
+        GatewayConfig gatewayConfig = mock(GatewayConfig.class);
+        when(gatewayConfig.getPrivateAddress()).thenReturn(privateAddress);
+        return gatewayConfig;
+    }
+}
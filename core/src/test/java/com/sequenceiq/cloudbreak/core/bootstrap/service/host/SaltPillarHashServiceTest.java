@@ -0,0 +1,139 @@
+package com.sequenceiq.cloudbreak.core.bootstrap.service.host;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.cluster.service.ClusterComponentConfigProvider;
+import com.sequenceiq.cloudbreak.common.json.Json;
+import com.sequenceiq.cloudbreak.common.type.ComponentType;
+import com.sequenceiq.cloudbreak.domain.stack.cluster.Cluster;
+import com.sequenceiq.cloudbreak.domain.stack.cluster.ClusterComponent;
+import com.sequenceiq.cloudbreak.orchestrator.model.GatewayConfig;
+import com.sequenceiq.cloudbreak.orchestrator.model.SaltPillarProperties;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SaltPillarHashServiceTest {
+
+    private static final Long CLUSTER_ID = 1L;
+
+    @InjectMocks
+    private SaltPillarHashService underTest;
+
+    @Mock
+    private ClusterComponentConfigProvider clusterComponentConfigProvider;
+
+    private Cluster cluster;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        cluster = new Cluster();
+        cluster.setId(CLUSTER_ID);
+    }
+
+    @Test
+    public void testHashesDoNotDependOnMapOrder() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("b", "2");
+        properties.put("a", "1");
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("a", "1");
+        reordered.put("b", "2");
+
+        Map<String, String> hashes = underTest.computeHashes(Map.of("metadata", new SaltPillarProperties("/metadata/init.sls", properties)),
+                List.of(gateway("10.0.0.1")));
+        Map<String, String> otherHashes = underTest.computeHashes(Map.of("metadata", new SaltPillarProperties("/metadata/init.sls", reordered)),
+                List.of(gateway("10.0.0.1")));
+
+        assertEquals(hashes, otherHashes);
+    }
+
+    @Test
+    public void testOnlyPillarsWithTheSameHashAreUnchanged() {
+        Map<String, String> stored = underTest.computeHashes(Map.of(
+                "discovery", new SaltPillarProperties("/discovery/init.sls", Map.of("platform", "AWS")),
+                "metadata", new SaltPillarProperties("/metadata/init.sls", Map.of("cluster", "old"))), List.of(gateway("10.0.0.1")));
+        storedComponent(stored);
+
+        Map<String, String> hashes = underTest.computeHashes(Map.of(
+                "discovery", new SaltPillarProperties("/discovery/init.sls", Map.of("platform", "AWS")),
+                "metadata", new SaltPillarProperties("/metadata/init.sls", Map.of("cluster", "new")),
+                "docker", new SaltPillarProperties("/docker/init.sls", Map.of("enabled", false))), List.of(gateway("10.0.0.1")));
+
+        assertEquals(Set.of("discovery"), underTest.getUnchangedPillars(CLUSTER_ID, hashes));
+    }
+
+    @Test
+    public void testEveryPillarIsChangedIfTheGatewaysChanged() {
+        Map<String, SaltPillarProperties> servicePillar = Map.of("discovery", new SaltPillarProperties("/discovery/init.sls", Map.of("platform", "AWS")));
+        storedComponent(underTest.computeHashes(servicePillar, List.of(gateway("10.0.0.1"))));
+
+        Map<String, String> hashes = underTest.computeHashes(servicePillar, List.of(gateway("10.0.0.1"), gateway("10.0.0.2")));
+
+        assertTrue(underTest.getUnchangedPillars(CLUSTER_ID, hashes).isEmpty());
+    }
+
+    @Test
+    public void testEveryPillarIsChangedWithoutStoredHashes() {
+        Map<String, String> hashes = underTest.computeHashes(Map.of("discovery", new SaltPillarProperties("/discovery/init.sls", Map.of("platform", "AWS"))),
+                List.of(gateway("10.0.0.1")));
+
+        assertTrue(underTest.getUnchangedPillars(CLUSTER_ID, hashes).isEmpty());
+    }
+
+    @Test
+    public void testNothingIsComputedNorStoredWhenDisabled() {
+        ReflectionTestUtils.setField(underTest, "enabled", false);
+
+        Map<String, String> hashes = underTest.computeHashes(Map.of("discovery", new SaltPillarProperties("/discovery/init.sls", Map.of("platform", "AWS"))),
+                List.of());
+        underTest.storeHashes(cluster, hashes);
+
+        assertTrue(hashes.isEmpty());
+        assertTrue(underTest.getUnchangedPillars(CLUSTER_ID, hashes).isEmpty());
+        verify(clusterComponentConfigProvider, never()).store(any(ClusterComponent.class));
+    }
+
+    @Test
+    public void testInvalidateClearsTheStoredHashes() {
+        ClusterComponent component = storedComponent(Map.of("discovery", "hash"));
+
+        underTest.invalidate(cluster);
+
+        ArgumentCaptor<ClusterComponent> captor = ArgumentCaptor.forClass(ClusterComponent.class);
+        verify(clusterComponentConfigProvider).store(captor.capture());
+        assertEquals(component, captor.getValue());
+        assertEquals(Map.of(), captor.getValue().getAttributes().getMap());
+    }
+
+    private ClusterComponent storedComponent(Map<String, String> hashes) {
+        ClusterComponent component = new ClusterComponent(ComponentType.SALT_PILLAR_HASHES, new Json(hashes), cluster);
+        when(clusterComponentConfigProvider.getComponent(CLUSTER_ID, ComponentType.SALT_PILLAR_HASHES)).thenReturn(component);
+        return component;
+    }
+
+    private GatewayConfig gateway(String privateAddress) {
+        GatewayConfig gatewayConfig = mock(GatewayConfig.class);
+        when(gatewayConfig.getPrivateAddress()).thenReturn(privateAddress);
+        return gatewayConfig;
+    }
+}
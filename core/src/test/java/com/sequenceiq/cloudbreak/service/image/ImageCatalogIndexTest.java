@@ -0,0 +1,81 @@
+package com.sequenceiq.cloudbreak.service.image;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakImageCatalogV2;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakVersion;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.Image;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.Images;
+import com.sequenceiq.cloudbreak.cloud.model.catalog.Versions;
+import com.sequenceiq.cloudbreak.service.image.ImageCatalogIndex.ImageType;
+
+public class ImageCatalogIndexTest {
+
+    private Image awsBase;
+
+    private Image azureBase;
+
+    private Image multiCloudBase;
+
+    private Image hdp;
+
+    private ImageCatalogIndex underTest;
+
+    @Before
+    public void setUp() {
+        awsBase = image("base-1", "aws");
+        azureBase = image("base-2", "azure");
+        multiCloudBase = image("base-3", "aws", "gcp");
+        hdp = image("base-1", "aws");
+        List<CloudbreakVersion> cloudbreakVersions = List.of(
+                new CloudbreakVersion(List.of("2.4.0", "2.4.0"), List.of(), List.of("base-1", "base-2")),
+                new CloudbreakVersion(List.of("2.10.0"), List.of("base-3"), List.of("base-3")),
+                new CloudbreakVersion(List.of("2.9.0", "2.4.0"), List.of(), List.of("base-2")));
+        Images images = new Images(List.of(awsBase, azureBase, multiCloudBase), List.of(hdp), null, null, null);
+        underTest = new ImageCatalogIndex(new CloudbreakImageCatalogV2(images, new Versions(cloudbreakVersions)));
+    }
+
+    @Test
+    public void testVersionsAreSortedOnce() {
+        assertEquals(List.of("2.10.0", "2.9.0", "2.4.0"), underTest.getVersionsDescending());
+        assertEquals("2.10.0", underTest.getLatestCloudbreakVersion());
+    }
+
+    @Test
+    public void testCloudbreakVersionsAreLookedUpByExactVersion() {
+        assertEquals(2, underTest.getCloudbreakVersions("2.4.0").size());
+        assertEquals(List.of("base-3"), underTest.getCloudbreakVersions("2.10.0").get(0).getImageIds());
+        assertTrue(underTest.getCloudbreakVersions("2.4").isEmpty());
+    }
+
+    @Test
+    public void testImagesAreSelectedByIdAndPlatformInCatalogOrder() {
+        List<Image> images = underTest.getImages(ImageType.BASE, Set.of("AWS", "GCP"), Set.of("base-3", "base-2", "base-1"));
+
+        assertEquals(List.of(awsBase, multiCloudBase), images);
+        assertEquals(List.of(azureBase), underTest.getImages(ImageType.BASE, Set.of("Azure"), Set.of("base-2", "base-3")));
+        assertTrue(underTest.getImages(ImageType.HDF, Set.of("AWS"), Set.of("base-1")).isEmpty());
+    }
+
+    @Test
+    public void testBaseImagesArePreferredWhenFindingAnImageById() {
+        assertSame(awsBase, underTest.findImage("base-1").get());
+        assertTrue(underTest.findImage("unknown").isEmpty());
+    }
+
+    private Image image(String uuid, String... providers) {
+        Map<String, Map<String, String>> imageSetsByProvider = Set.of(providers).stream()
+                .collect(Collectors.toMap(provider -> provider, provider -> Map.of("default", "image-" + provider)));
+        return new Image("2019-12-16", null, "image", "centos7", uuid, null, null, imageSetsByProvider, null, "redhat7", null, null, null);
+    }
+}
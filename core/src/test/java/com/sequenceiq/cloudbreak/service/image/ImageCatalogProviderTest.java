@@ -2,6 +2,10 @@ package com.sequenceiq.cloudbreak.service.image;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
@@ -19,6 +23,7 @@ import java.util.stream.Stream;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Invocation.Builder;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status.Family;
 import javax.ws.rs.core.Response.StatusType;
@@ -39,6 +44,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sequenceiq.cloudbreak.TestUtil;
+import com.sequenceiq.cloudbreak.cache.common.CachedDocument;
 import com.sequenceiq.cloudbreak.client.ConfigKey;
 import com.sequenceiq.cloudbreak.client.RestClientUtil;
 import com.sequenceiq.cloudbreak.cloud.model.catalog.CloudbreakImageCatalogV2;
@@ -113,6 +119,8 @@ public class ImageCatalogProviderTest {
         modifiersField.setInt(field, field.getModifiers() & ~Modifier.FINAL);
 
         field.set(null, clientMap);
+
+        underTest.init();
     }
 
     @Test
@@ -278,6 +286,48 @@ public class ImageCatalogProviderTest {
         underTest.getImageCatalogV2(catalogUrl);
     }
 
+    @Test
+    public void testHttpImageCatalogNotModified() throws CloudbreakImageCatalogException {
+        String catalogUrl = "http";
+        CloudbreakImageCatalogV2 cachedCatalog = new CloudbreakImageCatalogV2(null, null);
+        CachedDocument<CloudbreakImageCatalogV2> cached = new CachedDocument<>(cachedCatalog, "\"etag\"", null);
+
+        when(clientMock.target(catalogUrl)).thenReturn(webTargetMock);
+        when(webTargetMock.request()).thenReturn(builderMock);
+        when(builderMock.get()).thenReturn(responseMock);
+        when(responseMock.getStatus()).thenReturn(Response.Status.NOT_MODIFIED.getStatusCode());
+
+        CachedDocument<CloudbreakImageCatalogV2> actual = underTest.loadImageCatalogV2(catalogUrl, cached);
+
+        assertSame(cachedCatalog, actual.getValue());
+        verify(builderMock).header(HttpHeaders.IF_NONE_MATCH, "\"etag\"");
+        verify(responseMock, never()).readEntity(String.class);
+    }
+
+    @Test
+    public void testHttpImageCatalogIsCachedUntilEvicted() throws CloudbreakImageCatalogException, IOException {
+        String path = getPath(CB_IMAGE_CATALOG_VALID_JSON);
+        String catalogUrl = "http";
+
+        when(clientMock.target(catalogUrl)).thenReturn(webTargetMock);
+        when(webTargetMock.request()).thenReturn(builderMock);
+        when(builderMock.get()).thenReturn(responseMock);
+        when(responseMock.getStatusInfo()).thenReturn(statusTypeMock);
+        when(statusTypeMock.getFamily()).thenReturn(Family.SUCCESSFUL);
+        when(responseMock.readEntity(String.class)).thenReturn(FileUtils.readFileToString(Paths.get(path, CB_IMAGE_CATALOG_V2_JSON).toFile()));
+
+        ReflectionTestUtils.setField(underTest, "enabledLinuxTypes", Collections.emptyList());
+        ReflectionTestUtils.setField(underTest, "ttlMinutes", 15L);
+        underTest.init();
+
+        CloudbreakImageCatalogV2 catalog = underTest.getImageCatalogV2(catalogUrl);
+        assertSame(catalog, underTest.getImageCatalogV2(catalogUrl));
+        underTest.evictImageCatalogCache(catalogUrl);
+        underTest.getImageCatalogV2(catalogUrl);
+
+        verify(builderMock, times(2)).get();
+    }
+
     @Test
     public void testImageCatalogWithEmptyCloudBreakVersions() {
         String path = getPath(CB_IMAGE_CATALOG_EMPTY_CLOUDBREAK_VERSIONS_JSON);
@@ -29,14 +29,6 @@ public class ImageCatalogVersionFilterTest {
 
     private List<CloudbreakVersion> versions;
 
-    @Test
-    public void getLatestCloudbreakVersion() {
-        List<String> list1 = generateVersionList(devVersion, unReleasedVersion);
-        List<String> list2 = generateVersionList(releasedVersion, extendedUnreleasedVersion);
-        versions = generateCloudBreakVersions(list1, list2);
-        assertEquals("2.8.0-rev.82", underTest.latestCloudbreakVersion(versions));
-    }
-
     @Test
     public void filterUnreleasedVersions() {
         List<String> list1 = generateVersionList(devVersion, unReleasedVersion);
@@ -0,0 +1,92 @@
+package com.sequenceiq.cloudbreak.structuredevent.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.sequenceiq.cloudbreak.domain.StructuredEventEntity;
+import com.sequenceiq.cloudbreak.structuredevent.event.StructuredEvent;
+import com.sequenceiq.cloudbreak.structuredevent.event.StructuredEventType;
+import com.sequenceiq.cloudbreak.structuredevent.event.StructuredNotificationEvent;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StructuredEventDBServiceTest {
+
+    private static final String STACKS = "stacks";
+
+    private static final Long STACK_ID = 1L;
+
+    @Mock
+    private ConversionService conversionService;
+
+    @Mock
+    private StructuredEventRepository structuredEventRepository;
+
+    @InjectMocks
+    private StructuredEventDBService underTest;
+
+    @Test
+    public void testFirstPageStartsWithTheNewestEvent() {
+        StructuredEventEntity event = event(3L, 300L);
+        when(structuredEventRepository.findByEventTypeAndResourceTypeAndResourceIdBefore(StructuredEventType.NOTIFICATION, STACKS, STACK_ID,
+                Long.MAX_VALUE, PageRequest.of(0, 2))).thenReturn(List.of(event));
+        StructuredNotificationEvent notification = convert(event);
+
+        Page<StructuredNotificationEvent> actual = underTest.getEventsLimitedWithTypeAndResourceIdBefore(StructuredNotificationEvent.class, STACKS,
+                STACK_ID, null, 2);
+
+        assertEquals(List.of(notification), actual.getContent());
+        assertEquals(1L, actual.getTotalElements());
+        verify(structuredEventRepository, never()).findByEventTypeAndResourceTypeAndResourceIdAndTimestampAndIdLessThanOrderByIdDesc(any(), any(),
+                any(), any(), any());
+        verify(structuredEventRepository, never()).countByEventTypeAndResourceTypeAndResourceIdAndTimestampLessThan(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    public void testFullPageIsCompletedWithTheEventsOfTheMillisecondOfItsLastEvent() {
+        StructuredEventEntity first = event(5L, 300L);
+        StructuredEventEntity second = event(4L, 200L);
+        StructuredEventEntity sameMillisecond = event(2L, 200L);
+        when(structuredEventRepository.findByEventTypeAndResourceTypeAndResourceIdBefore(StructuredEventType.NOTIFICATION, STACKS, STACK_ID,
+                400L, PageRequest.of(0, 2))).thenReturn(List.of(first, second));
+        when(structuredEventRepository.findByEventTypeAndResourceTypeAndResourceIdAndTimestampAndIdLessThanOrderByIdDesc(StructuredEventType.NOTIFICATION,
+                STACKS, STACK_ID, 200L, 4L)).thenReturn(List.of(sameMillisecond));
+        when(structuredEventRepository.countByEventTypeAndResourceTypeAndResourceIdAndTimestampLessThan(StructuredEventType.NOTIFICATION, STACKS,
+                STACK_ID, 400L)).thenReturn(10L);
+        List<StructuredNotificationEvent> notifications = List.of(convert(first), convert(second), convert(sameMillisecond));
+
+        Page<StructuredNotificationEvent> actual = underTest.getEventsLimitedWithTypeAndResourceIdBefore(StructuredNotificationEvent.class, STACKS,
+                STACK_ID, 400L, 2);
+
+        assertEquals(notifications, actual.getContent());
+        assertEquals(10L, actual.getTotalElements());
+    }
+
+    private StructuredEventEntity event(Long id, Long timestamp) {
+        StructuredEventEntity event = new StructuredEventEntity();
+        event.setId(id);
+        event.setTimestamp(timestamp);
+        return event;
+    }
+
+    private StructuredNotificationEvent convert(StructuredEventEntity event) {
+        StructuredNotificationEvent notification = mock(StructuredNotificationEvent.class);
+        when(conversionService.convert(event, StructuredEvent.class)).thenReturn(notification);
+        return notification;
+    }
+}
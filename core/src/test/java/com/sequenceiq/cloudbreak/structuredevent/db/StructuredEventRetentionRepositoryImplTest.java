@@ -0,0 +1,49 @@
+package com.sequenceiq.cloudbreak.structuredevent.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.hibernate.query.NativeQuery;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.sequenceiq.cloudbreak.domain.StructuredEventEntity;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StructuredEventRetentionRepositoryImplTest {
+
+    @InjectMocks
+    private StructuredEventRetentionRepositoryImpl underTest;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private NativeQuery<?> nativeQuery;
+
+    @Test
+    public void testBatchDeleteIsSynchronizedWithTheStructuredEventsOnly() {
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.unwrap(NativeQuery.class)).thenReturn(nativeQuery);
+        when(nativeQuery.executeUpdate()).thenReturn(42);
+
+        int deleted = underTest.deleteBatchOlderThan(1000L, 100);
+
+        assertEquals(42, deleted);
+        verify(nativeQuery).addSynchronizedEntityClass(StructuredEventEntity.class);
+        verify(nativeQuery).setParameter("before", 1000L);
+        verify(nativeQuery).setParameter("batchSize", 100);
+    }
+}
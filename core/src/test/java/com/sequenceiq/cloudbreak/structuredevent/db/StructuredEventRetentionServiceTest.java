@@ -0,0 +1,103 @@
+package com.sequenceiq.cloudbreak.structuredevent.db;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.ha.service.NodeService;
+import com.sequenceiq.flow.ha.NodeConfig;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StructuredEventRetentionServiceTest {
+
+    private static final long NOW = 1_600_000_000_000L;
+
+    private static final long HEARTBEAT_THRESHOLD = 60_000L;
+
+    private static final String NODE_ID = "node-1";
+
+    @Mock
+    private StructuredEventRepository structuredEventRepository;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private NodeConfig nodeConfig;
+
+    @Mock
+    private NodeService nodeService;
+
+    @InjectMocks
+    private StructuredEventRetentionService underTest;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(underTest, "batchSize", 100);
+        ReflectionTestUtils.setField(underTest, "heartbeatThreshold", HEARTBEAT_THRESHOLD);
+    }
+
+    @Test
+    public void testPruningIsDisabledWithoutRetention() {
+        ReflectionTestUtils.setField(underTest, "retentionDays", 0);
+
+        underTest.pruneExpiredEvents();
+
+        verify(structuredEventRepository, never()).deleteBatchOlderThan(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testEventsAreDeletedInBatchesUntilABatchIsNotFull() {
+        ReflectionTestUtils.setField(underTest, "retentionDays", 30);
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        long before = NOW - Duration.ofDays(30).toMillis();
+        when(structuredEventRepository.deleteBatchOlderThan(before, 100)).thenReturn(100, 100, 42);
+
+        underTest.pruneExpiredEvents();
+
+        verify(structuredEventRepository, times(3)).deleteBatchOlderThan(before, 100);
+    }
+
+    @Test
+    public void testEventsArePrunedByTheLeaderNode() {
+        ReflectionTestUtils.setField(underTest, "retentionDays", 30);
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(nodeConfig.isNodeIdSpecified()).thenReturn(true);
+        when(nodeConfig.getId()).thenReturn(NODE_ID);
+        when(nodeService.findLeaderId(NOW - HEARTBEAT_THRESHOLD)).thenReturn(Optional.of(NODE_ID));
+        long before = NOW - Duration.ofDays(30).toMillis();
+        when(structuredEventRepository.deleteBatchOlderThan(before, 100)).thenReturn(42);
+
+        underTest.pruneExpiredEvents();
+
+        verify(structuredEventRepository).deleteBatchOlderThan(before, 100);
+    }
+
+    @Test
+    public void testEventsAreNotPrunedByTheOtherNodes() {
+        ReflectionTestUtils.setField(underTest, "retentionDays", 30);
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(nodeConfig.isNodeIdSpecified()).thenReturn(true);
+        when(nodeConfig.getId()).thenReturn(NODE_ID);
+        when(nodeService.findLeaderId(NOW - HEARTBEAT_THRESHOLD)).thenReturn(Optional.of("node-0"));
+
+        underTest.pruneExpiredEvents();
+
+        verify(structuredEventRepository, never()).deleteBatchOlderThan(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,99 @@
+package com.sequenceiq.cloudbreak.structuredevent.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.conf.StructuredEventSenderConfig;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StructuredEventFileAppenderTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @InjectMocks
+    private StructuredEventFileAppender underTest;
+
+    @Mock
+    private StructuredEventSenderConfig structuredEventSenderConfig;
+
+    private File auditFile;
+
+    @Before
+    public void setUp() {
+        auditFile = new File(temporaryFolder.getRoot(), "audit.log");
+        when(structuredEventSenderConfig.isFilePathConfigured()).thenReturn(true);
+        when(structuredEventSenderConfig.getAuditFilePath()).thenReturn(auditFile.getAbsolutePath());
+        ReflectionTestUtils.setField(underTest, "queueCapacity", 1000);
+        ReflectionTestUtils.setField(underTest, "enqueueTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(underTest, "flushEvents", 10);
+        ReflectionTestUtils.setField(underTest, "flushIntervalMs", 50L);
+        ReflectionTestUtils.setField(underTest, "maxSizeMb", 100L);
+        ReflectionTestUtils.setField(underTest, "rotationIntervalMinutes", 60L);
+    }
+
+    @After
+    public void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    public void testEveryEventIsWrittenAsOneLineInOrder() throws IOException {
+        underTest.init();
+
+        IntStream.range(0, 25).forEach(i -> underTest.append(Map.of("id", i)));
+        underTest.shutdown();
+
+        List<String> lines = Files.readAllLines(auditFile.toPath());
+        List<String> expected = IntStream.range(0, 25).mapToObj(i -> "{\"id\":" + i + "}").collect(Collectors.toList());
+        assertEquals(expected, lines);
+    }
+
+    @Test
+    public void testRotatedSegmentsAreCompressed() throws IOException {
+        ReflectionTestUtils.setField(underTest, "maxSizeMb", 0L);
+        ReflectionTestUtils.setField(underTest, "flushEvents", 1);
+        ReflectionTestUtils.setField(underTest, "compressRotated", true);
+        underTest.init();
+
+        IntStream.range(0, 3).forEach(i -> underTest.append(Map.of("id", i)));
+        underTest.shutdown();
+
+        File[] segments = temporaryFolder.getRoot().listFiles((dir, name) -> name.startsWith("audit.log.") && name.endsWith(".gz"));
+        assertTrue(segments.length >= 1);
+        List<String> lines = new ArrayList<>();
+        Arrays.sort(segments);
+        for (File segment : segments) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(segment.toPath()))) {
+                lines.addAll(Arrays.asList(new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")));
+            }
+        }
+        lines.addAll(Files.readAllLines(auditFile.toPath()));
+        assertEquals(List.of("{\"id\":0}", "{\"id\":1}", "{\"id\":2}"), lines);
+    }
+}
@@ -0,0 +1,31 @@
+package com.sequenceiq.cloudbreak.structuredevent.kafka;
+
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.sequenceiq.cloudbreak.structuredevent.event.StructuredRestCallEvent;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncKafkaStructuredEventSenderTest {
+
+    @Mock
+    private KafkaStructuredEventPipeline kafkaStructuredEventPipeline;
+
+    @InjectMocks
+    private AsyncKafkaStructuredEventSender underTest;
+
+    @Test
+    public void checkEventIsPublishedToThePipeline() {
+        StructuredRestCallEvent structuredEvent = new StructuredRestCallEvent();
+        structuredEvent.setType("StructuredRestCallEvent");
+
+        underTest.storeStructuredEvent(structuredEvent);
+
+        verify(kafkaStructuredEventPipeline).publish(structuredEvent);
+    }
+}
@@ -0,0 +1,203 @@
+package com.sequenceiq.cloudbreak.structuredevent.kafka;
+
+import static com.sequenceiq.cloudbreak.common.anonymizer.AnonymizerUtil.REPLACEMENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import com.google.common.collect.ImmutableMap;
+import com.sequenceiq.cloudbreak.conf.StructuredEventSenderConfig;
+import com.sequenceiq.cloudbreak.structuredevent.event.StructuredRestCallEvent;
+import com.sequenceiq.cloudbreak.structuredevent.event.rest.RestCallDetails;
+import com.sequenceiq.cloudbreak.structuredevent.event.rest.RestRequestDetails;
+import com.sequenceiq.cloudbreak.structuredevent.event.rest.RestResponseDetails;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KafkaStructuredEventPipelineTest {
+
+    private static final long VERIFY_TIMEOUT_MS = 5000L;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private StructuredEventSenderConfig structuredEventSenderConfig;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @InjectMocks
+    private KafkaStructuredEventPipeline classIntest;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private File spillFile;
+
+    @Before
+    public void setUp() {
+        Metrics.addRegistry(meterRegistry);
+        spillFile = new File(temporaryFolder.getRoot(), "events.spill");
+        ReflectionTestUtils.setField(classIntest, "queueCapacity", 100);
+        ReflectionTestUtils.setField(classIntest, "spillPath", spillFile.getAbsolutePath());
+        ReflectionTestUtils.setField(classIntest, "spillReplayIntervalMs", 60000L);
+        ReflectionTestUtils.setField(classIntest, "spillMaxBytes", 1_000_000L);
+    }
+
+    @After
+    public void tearDown() {
+        classIntest.shutdown();
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    @Test
+    public void checkEventTypeBasedTopicDistribution() {
+        SettableListenableFuture<SendResult<String, String>> future = new SettableListenableFuture<>();
+        when(kafkaTemplate.send(eq("cbStructuredRestCallEvent"), anyString())).thenReturn(future);
+        when(structuredEventSenderConfig.isKafkaConfigured()).thenReturn(true);
+        classIntest.init();
+
+        classIntest.publish(createDummyStructuredRestEvent());
+
+        verify(kafkaTemplate, timeout(VERIFY_TIMEOUT_MS)).send(eq("cbStructuredRestCallEvent"), anyString());
+    }
+
+    @Test
+    public void checkFailedSendIsSpilledToDisk() {
+        SettableListenableFuture<SendResult<String, String>> future = new SettableListenableFuture<>();
+        future.setException(new IllegalStateException("broker is not available"));
+        when(kafkaTemplate.send(eq("cbStructuredRestCallEvent"), anyString())).thenReturn(future);
+        when(structuredEventSenderConfig.isKafkaConfigured()).thenReturn(true);
+        classIntest.init();
+
+        classIntest.publish(createDummyStructuredRestEvent());
+
+        verify(kafkaTemplate, timeout(VERIFY_TIMEOUT_MS)).send(eq("cbStructuredRestCallEvent"), anyString());
+        classIntest.shutdown();
+        assertTrue(spillFile.exists());
+    }
+
+    @Test
+    public void checkEventIsSpilledByThePipelineWhenTheQueueIsFull() throws Exception {
+        ReflectionTestUtils.setField(classIntest, "queueCapacity", 1);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(kafkaTemplate.send(eq("cbStructuredRestCallEvent"), anyString())).thenAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return new SettableListenableFuture<>();
+        });
+        when(structuredEventSenderConfig.isKafkaConfigured()).thenReturn(true);
+        classIntest.init();
+
+        classIntest.publish(createDummyStructuredRestEvent());
+        assertTrue(sending.await(VERIFY_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        classIntest.publish(createDummyStructuredRestEvent());
+        classIntest.publish(createDummyStructuredRestEvent());
+
+        assertFalse("The publishing thread should not write the spill file", spillFile.exists());
+        release.countDown();
+        classIntest.shutdown();
+        List<String> lines = Files.readAllLines(spillFile.toPath());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("cbStructuredRestCallEvent\t{"));
+        assertFalse("Spilled event should be sanitized", lines.get(0).contains("RequestBodyContent"));
+    }
+
+    @Test
+    public void checkReplayStopsAtTheFirstFailedSend() throws Exception {
+        File replayFile = new File(temporaryFolder.getRoot(), "events.spill.replay");
+        Files.write(replayFile.toPath(), List.of("cbStructuredRestCallEvent\t{\"id\":1}", "cbStructuredRestCallEvent\t{\"id\":2}",
+                "cbStructuredRestCallEvent\t{\"id\":3}"));
+        ReflectionTestUtils.setField(classIntest, "spillReplayIntervalMs", 10L);
+        when(kafkaTemplate.send(eq("cbStructuredRestCallEvent"), anyString())).thenThrow(new IllegalStateException("metadata is not available"));
+        when(structuredEventSenderConfig.isKafkaConfigured()).thenReturn(true);
+        classIntest.init();
+
+        verify(kafkaTemplate, timeout(VERIFY_TIMEOUT_MS)).send("cbStructuredRestCallEvent", "{\"id\":1}");
+        classIntest.shutdown();
+
+        verify(kafkaTemplate, never()).send("cbStructuredRestCallEvent", "{\"id\":2}");
+        assertEquals(3, Files.readAllLines(replayFile.toPath()).size());
+    }
+
+    @Test
+    public void checkOldestSpilledEventsAreDroppedAboveTheSizeLimit() throws Exception {
+        File replayFile = new File(temporaryFolder.getRoot(), "events.spill.replay");
+        Files.write(replayFile.toPath(), List.of("cbStructuredRestCallEvent\t{\"id\":1}", "cbStructuredRestCallEvent\t{\"id\":2}"));
+        ReflectionTestUtils.setField(classIntest, "spillMaxBytes", 2L);
+        SettableListenableFuture<SendResult<String, String>> future = new SettableListenableFuture<>();
+        future.setException(new IllegalStateException("broker is not available"));
+        when(kafkaTemplate.send(eq("cbStructuredRestCallEvent"), anyString())).thenReturn(future);
+        when(structuredEventSenderConfig.isKafkaConfigured()).thenReturn(true);
+        classIntest.init();
+
+        classIntest.publish(createDummyStructuredRestEvent());
+        verify(kafkaTemplate, timeout(VERIFY_TIMEOUT_MS)).send(eq("cbStructuredRestCallEvent"), anyString());
+        classIntest.shutdown();
+
+        assertEquals(2.0, meterRegistry.counter(KafkaStructuredEventPipeline.SPILL_EVICTED_COUNTER).count(), 0.0);
+        assertFalse(spillFile.exists());
+        List<String> lines = Files.readAllLines(replayFile.toPath());
+        assertEquals(1, lines.size());
+        assertFalse(lines.get(0).contains("\"id\":1"));
+    }
+
+    @Test
+    public void checkIfPropertiesGetFilteredWithCustomMapper() {
+        StructuredRestCallEvent restEvent = createDummyStructuredRestEvent();
+
+        classIntest.sanitizeSensitiveRestData(restEvent);
+        RestRequestDetails requestDetails = restEvent.getRestCall().getRestRequest();
+
+        assertTrue("Should be sanitized from Kafka event", requestDetails.getBody().contains(REPLACEMENT));
+        assertTrue("Should be empty because of ", requestDetails.getHeaders().isEmpty());
+        assertTrue("Should be left intact", requestDetails.getRequestUri().equals("/v3/clusters"));
+    }
+
+    private StructuredRestCallEvent createDummyStructuredRestEvent() {
+        RestRequestDetails requestDetails = new RestRequestDetails();
+        requestDetails.setBody("RequestBodyContent");
+        requestDetails.setRequestUri("/v3/clusters");
+        RestResponseDetails restResponseDetails = new RestResponseDetails();
+        restResponseDetails.setStatusCode(200);
+        restResponseDetails.setBody("BodyContent");
+        restResponseDetails.setHeaders(ImmutableMap.of("content-length", "89"));
+        RestCallDetails restCallDetails = new RestCallDetails();
+        restCallDetails.setRestRequest(requestDetails);
+        restCallDetails.setRestResponse(restResponseDetails);
+        StructuredRestCallEvent restEvent = new StructuredRestCallEvent();
+        restEvent.setRestCall(restCallDetails);
+        restEvent.setType("StructuredRestCallEvent");
+        return restEvent;
+    }
+}
@@ -0,0 +1,63 @@
+package com.sequenceiq.cloudbreak.structuredevent.rest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class ContentCaptureTest {
+
+    @Test
+    void testReadContentIsCapturedAndPassedThrough() throws IOException {
+        ContentCapture underTest = new ContentCapture();
+        InputStream stream = underTest.capture(new ByteArrayInputStream("{\"name\":\"cluster\"}".getBytes(UTF_8)));
+
+        byte[] read = stream.readAllBytes();
+
+        assertEquals("{\"name\":\"cluster\"}", new String(read, UTF_8));
+        assertEquals("{\"name\":\"cluster\"}\n", underTest.decodeAndRelease(UTF_8));
+    }
+
+    @Test
+    void testWrittenContentIsCapturedAndPassedThrough() throws IOException {
+        ContentCapture underTest = new ContentCapture();
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        OutputStream stream = underTest.capture(target);
+
+        stream.write("{\"id\":".getBytes(UTF_8));
+        stream.write('1');
+        stream.write('}');
+
+        assertEquals("{\"id\":1}", target.toString(UTF_8));
+        assertEquals("{\"id\":1}\n", underTest.decodeAndRelease(UTF_8));
+    }
+
+    @Test
+    void testEmptyContent() {
+        assertEquals("\n", new ContentCapture().decodeAndRelease(UTF_8));
+    }
+
+    @Test
+    void testContentOverTheLimitIsTruncatedButFullyPassedThrough() throws IOException {
+        ContentCapture underTest = new ContentCapture();
+        byte[] content = new byte[ContentCapture.MAX_CONTENT_LENGTH + 10];
+        Arrays.fill(content, (byte) 'a');
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        underTest.capture(target).write(content);
+
+        assertArrayEquals(content, target.toByteArray());
+        String captured = underTest.decodeAndRelease(UTF_8);
+        assertEquals(ContentCapture.MAX_CONTENT_LENGTH + "...more...\n".length(), captured.length());
+        assertTrue(captured.endsWith("a...more...\n"));
+    }
+}
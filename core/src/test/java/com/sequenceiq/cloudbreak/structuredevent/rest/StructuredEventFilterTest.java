@@ -6,8 +6,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doNothing;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -118,6 +120,22 @@ class StructuredEventFilterTest {
         headersMap.forEach((key, value) -> assertEquals(value.get(0), captorValue.getRestCall().getRestRequest().getHeaders().get(key)));
     }
 
+    @Test
+    void filterWithResponseCapturesTheRequestBodyReadByTheResource() throws IOException {
+        MultivaluedMap<String, String> headersMap = createRequestHeader();
+        ContainerRequest requestContext = createRequestContext(headersMap);
+        requestContext.setEntityStream(new ByteArrayInputStream("{\"name\":\"cluster\"}".getBytes(StandardCharsets.UTF_8)));
+        underTest.filter(requestContext);
+        requestContext.getEntityStream().readAllBytes();
+
+        ArgumentCaptor<StructuredRestCallEvent> structuredEventCaptor = ArgumentCaptor.forClass(StructuredRestCallEvent.class);
+        doNothing().when(structuredEventClient).sendStructuredEvent(structuredEventCaptor.capture());
+
+        underTest.filter(requestContext, new ContainerResponse(requestContext, Response.accepted().build()));
+
+        assertEquals("{\"name\":\"cluster\"}\n", structuredEventCaptor.getValue().getRestCall().getRestRequest().getBody());
+    }
+
     @Test
     public void testResourceIdParsingWhenValidJsonIsReturned() {
         Map<String, String> params = new HashMap<>();
@@ -4,7 +4,6 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.Set;
 
-import com.sequenceiq.cloudbreak.client.RestClientUtil;
 import com.sequenceiq.cloudbreak.message.CloudbreakMessagesService;
 import com.sequenceiq.cloudbreak.structuredevent.event.CloudbreakNotification;
 import com.sequenceiq.environment.credential.domain.Credential;
@@ -34,7 +33,7 @@ public abstract class AbstractCredentialService {
         notification.setEventTimestamp(new Date().getTime());
         notification.setEventMessage(messagesService.getMessage(resourceEvent.getMessage()));
         notification.setCloud(credential.getCloudPlatform());
-        notificationSender.send(new Notification<>(notification), Collections.emptyList(), RestClientUtil.get());
+        notificationSender.send(new Notification<>(notification), Collections.emptyList());
     }
 
     protected Set<String> getEnabledPlatforms() {
@@ -19,7 +19,7 @@ public interface EnvironmentFlowLogRepository extends CrudRepository<FlowLog, Lo
     int purgeArchivedEnvironmentLogs();
 
     @Query("SELECT DISTINCT fl.resourceId FROM FlowLog fl "
-            + "WHERE fl.stateStatus = 'PENDING' "
+            + "WHERE fl.finalized = false AND fl.stateStatus = 'PENDING' "
             + "AND fl.cloudbreakNodeId = :nodeId "
             + "AND fl.flowType = 'com.sequenceiq.environment.environment.flow.delete.config.EnvDeleteFlowConfig'")
     Set<Long> findPendingResourcesByNodeId(@Param("nodeId") String nodeId);
@@ -18,7 +18,6 @@ import java.util.Optional;
 import java.util.Set;
 
 import javax.ws.rs.BadRequestException;
-import javax.ws.rs.client.Client;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -118,7 +117,7 @@ class CredentialDeleteServiceTest {
 
         underTest.deleteMultiple(Set.of(cred.getName()), ACCOUNT_ID);
 
-        notificationSender.send(any(Notification.class), any(List.class), any(Client.class));
+        notificationSender.send(any(Notification.class), any(List.class));
     }
 
     private Credential createCredentialWithName(String name) {
@@ -1,5 +1,7 @@
 package com.sequenceiq.cloudbreak.ha.repository;
 
+import java.util.Optional;
+
 import javax.transaction.Transactional;
 import javax.transaction.Transactional.TxType;
 
@@ -11,4 +13,6 @@ import com.sequenceiq.cloudbreak.workspace.repository.EntityType;
 @EntityType(entityClass = Node.class)
 @Transactional(TxType.REQUIRED)
 public interface NodeRepository extends JpaRepository<Node, String> {
+
+    Optional<Node> findFirstByLastUpdatedGreaterThanEqualOrderByUuidAsc(long lastUpdated);
 }
@@ -27,6 +27,14 @@ public class NodeService {
         return repository.findAll();
     }
 
+    /**
+     * The node with the lowest id of the nodes that sent a heartbeat since the given time. Every node computes the same one from the node
+     * table, so it runs the scheduled jobs that have to run on a single node.
+     */
+    public Optional<String> findLeaderId(long aliveSince) {
+        return repository.findFirstByLastUpdatedGreaterThanEqualOrderByUuidAsc(aliveSince).map(Node::getUuid);
+    }
+
     public void deleteAll(Iterable<Node> nodes) {
         repository.deleteAll(nodes);
     }
@@ -59,6 +59,8 @@ public class RestartFlowService {
             LOGGER.debug("Cleaning orphan flowchainlogs");
             int purgedOrphanFLowChainLogs = flowChainLogService.purgeOrphanFLowChainLogs();
             LOGGER.debug("Deleted flowchainlog count: {}", purgedOrphanFLowChainLogs);
+            int purgedOrphanFlowChainSteps = flowChainLogService.purgeOrphanFlowChainSteps();
+            LOGGER.debug("Deleted flowchainstep count: {}", purgedOrphanFlowChainSteps);
             return null;
         });
     }
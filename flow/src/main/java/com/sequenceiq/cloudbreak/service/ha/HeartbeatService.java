@@ -35,6 +35,7 @@ import com.sequenceiq.flow.core.ApplicationFlowInformation;
 import com.sequenceiq.flow.core.Flow2Handler;
 import com.sequenceiq.flow.core.FlowLogService;
 import com.sequenceiq.flow.core.FlowRegister;
+import com.sequenceiq.flow.core.admission.FlowAdmissionService;
 import com.sequenceiq.flow.core.chain.FlowChains;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.StateStatus;
@@ -90,6 +91,9 @@ public class HeartbeatService {
     @Inject
     private ApplicationFlowInformation applicationFlowInformation;
 
+    @Inject
+    private FlowAdmissionService flowAdmissionService;
+
     @Scheduled(cron = "${cb.ha.heartbeat.rate:0/30 * * * * *}")
     public void heartbeat() {
         if (shouldRun()) {
@@ -183,6 +187,9 @@ public class HeartbeatService {
             }
             transactionService.required(() -> flowLogService.saveAll(updatedFlowLogs));
         }
+        if (!failedNodes.isEmpty()) {
+            flowAdmissionService.takeOverQueuedFlows(failedNodes.stream().map(Node::getUuid).collect(Collectors.toList()));
+        }
         return failedNodes;
     }
 
@@ -21,6 +21,7 @@ import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionEx
 import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionRuntimeExecutionException;
 import com.sequenceiq.cloudbreak.logger.LoggerContextKey;
 import com.sequenceiq.cloudbreak.logger.MDCBuilder;
+import com.sequenceiq.flow.core.admission.FlowAdmissionService;
 import com.sequenceiq.flow.core.chain.FlowChainHandler;
 import com.sequenceiq.flow.core.chain.FlowChains;
 import com.sequenceiq.flow.core.config.FlowConfiguration;
@@ -69,6 +70,9 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
     @Inject
     private ApplicationFlowInformation applicationFlowInformation;
 
+    @Inject
+    private FlowAdmissionService flowAdmissionService;
+
     @Override
     public void accept(Event<? extends Payload> event) {
         String key = (String) event.getKey();
@@ -78,16 +82,17 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         String flowTriggerUserCrn = getFlowTriggerUserCrn(event);
         FlowParameters flowParameters = new FlowParameters(flowId, flowTriggerUserCrn);
         Map<Object, Object> contextParams = getContextParams(event);
+        String admissionId = getAdmissionId(event);
         try {
-            handle(key, payload, flowParameters, flowChainId, contextParams);
+            handle(key, payload, flowParameters, flowChainId, contextParams, admissionId);
         } catch (TransactionExecutionException e) {
             LOGGER.error("Failed update last flow log status and save new flow log entry.", e);
             runningFlows.remove(flowId);
         }
     }
 
-    private void handle(String key, Payload payload, FlowParameters flowParameters, String flowChainId, Map<Object, Object> contextParams)
-            throws TransactionExecutionException {
+    private void handle(String key, Payload payload, FlowParameters flowParameters, String flowChainId, Map<Object, Object> contextParams,
+            String admissionId) throws TransactionExecutionException {
         switch (key) {
             case FLOW_CANCEL:
                 cancelRunningFlows(payload.getResourceId());
@@ -101,19 +106,13 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
                     LOGGER.debug("flow trigger arrived: key: {}, payload: {}", key, payload);
                     FlowConfiguration<?> flowConfig = flowConfigurationMap.get(key);
                     if (flowConfig != null && flowConfig.getFlowTriggerCondition().isFlowTriggerable(payload.getResourceId())) {
-                        if (!isFlowAcceptable(key, payload)) {
-                            LOGGER.info("Flow operation not allowed, other flow is running. Stack ID {}, event {}", payload.getResourceId(), key);
-                            return;
+                        if (admissionId == null) {
+                            startNewFlow(key, payload, flowParameters, flowChainId, contextParams, flowConfig);
+                        } else {
+                            startAdmittedFlow(key, payload, flowParameters, flowChainId, contextParams, flowConfig, admissionId);
                         }
-                        flowId = UUID.randomUUID().toString();
-                        flowParameters.setFlowId(flowId);
-                        Flow flow = flowConfig.createFlow(flowId, payload.getResourceId());
-                        flow.initialize(contextParams);
-                        flowLogService.save(flowParameters, flowChainId, key, payload, null, flowConfig.getClass(), flow.getCurrentState());
-                        acceptFlow(payload);
-                        logFlowId(flowId);
-                        runningFlows.put(flow, flowChainId);
-                        flow.sendEvent(key, flowParameters.getFlowTriggerUserCrn(), payload);
+                    } else if (admissionId != null) {
+                        dropAdmittedFlow(key, payload, flowChainId, admissionId);
                     }
                 } else {
                     handleFlowControlEvent(key, payload, flowParameters, flowChainId);
@@ -122,6 +121,73 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         }
     }
 
+    private void startNewFlow(String key, Payload payload, FlowParameters flowParameters, String flowChainId, Map<Object, Object> contextParams,
+            FlowConfiguration<?> flowConfig) {
+        if (!isFlowAcceptable(key, payload)) {
+            LOGGER.info("Flow operation not allowed, other flow is running or queued. Stack ID {}, event {}", payload.getResourceId(), key);
+            return;
+        }
+        flowParameters.setFlowId(UUID.randomUUID().toString());
+        if (flowAdmissionService.enqueueIfOverQuota(key, payload, flowParameters, flowChainId, contextParams, flowConfig.getClass())) {
+            acceptFlow(payload);
+            return;
+        }
+        Flow flow = createFlow(key, payload, flowParameters, flowChainId, contextParams, flowConfig);
+        acceptFlow(payload);
+        runFlow(key, payload, flowParameters, flowChainId, flow);
+    }
+
+    /**
+     * Starts a queued flow admitted by the flow admission. Its caller has been answered when it was queued, so if an other flow is running on the
+     * resource by now the flow is postponed and stays queued. The flow chain of a flow queued before a restart or on a failed node is not in
+     * memory, it is restored so that the rest of the chain is triggered when the flow finishes.
+     */
+    private void startAdmittedFlow(String key, Payload payload, FlowParameters flowParameters, String flowChainId, Map<Object, Object> contextParams,
+            FlowConfiguration<?> flowConfig, String admissionId) {
+        if (!applicationFlowInformation.getAllowedParallelFlows().contains(key) && payload instanceof Acceptable
+                && flowLogService.isOtherFlowRunning(payload.getResourceId())) {
+            LOGGER.info("Admitted flow is postponed, other flow is running. Stack ID {}, event {}", payload.getResourceId(), key);
+            flowAdmissionService.postponeAdmittedFlow(admissionId);
+            return;
+        }
+        flowParameters.setFlowId(UUID.randomUUID().toString());
+        if (flowAdmissionService.startAdmittedFlow(admissionId, flowParameters.getFlowId())) {
+            if (flowChainId != null && !flowChains.isFlowChainRegistered(flowChainId)) {
+                LOGGER.info("Restoring flow chain {} of admitted flow. Stack ID {}, event {}", flowChainId, payload.getResourceId(), key);
+                flowChainHandler.restoreFlowChain(flowChainId);
+            }
+            Flow flow = createFlow(key, payload, flowParameters, flowChainId, contextParams, flowConfig);
+            runFlow(key, payload, flowParameters, flowChainId, flow);
+        }
+    }
+
+    /**
+     * Drops a queued flow that is not triggerable any more by the time it is admitted. Its caller has been answered when it was queued, so the
+     * rest of its flow chain is removed as if the flow had failed.
+     */
+    private void dropAdmittedFlow(String key, Payload payload, String flowChainId, String admissionId) {
+        LOGGER.warn("Admitted flow is dropped, it is not triggerable any more. Stack ID {}, event {}, flow chain ID {}", payload.getResourceId(), key,
+                flowChainId);
+        flowAdmissionService.dropAdmittedFlow(admissionId);
+        if (flowChainId != null) {
+            flowChains.removeFullFlowChain(flowChainId);
+        }
+    }
+
+    private Flow createFlow(String key, Payload payload, FlowParameters flowParameters, String flowChainId, Map<Object, Object> contextParams,
+            FlowConfiguration<?> flowConfig) {
+        Flow flow = flowConfig.createFlow(flowParameters.getFlowId(), payload.getResourceId());
+        flow.initialize(contextParams);
+        flowLogService.save(flowParameters, flowChainId, key, payload, null, flowConfig.getClass(), flow.getCurrentState());
+        return flow;
+    }
+
+    private void runFlow(String key, Payload payload, FlowParameters flowParameters, String flowChainId, Flow flow) {
+        logFlowId(flow.getFlowId());
+        runningFlows.put(flow, flowChainId);
+        flow.sendEvent(key, flowParameters.getFlowTriggerUserCrn(), payload);
+    }
+
     private void handleFlowControlEvent(String key, Payload payload, FlowParameters flowParameters, String flowChainId)
             throws TransactionExecutionException {
         String flowId = flowParameters.getFlowId();
@@ -151,7 +217,8 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
     private boolean isFlowAcceptable(String key, Payload payload) {
         if (payload instanceof Acceptable && ((Acceptable) payload).accepted() != null) {
             Acceptable acceptable = (Acceptable) payload;
-            if (!applicationFlowInformation.getAllowedParallelFlows().contains(key) && flowLogService.isOtherFlowRunning(payload.getResourceId())) {
+            if (!applicationFlowInformation.getAllowedParallelFlows().contains(key) && (flowLogService.isOtherFlowRunning(payload.getResourceId())
+                    || flowAdmissionService.hasQueuedFlow(payload.getResourceId()))) {
                 acceptable.accepted().accept(Boolean.FALSE);
                 return false;
             }
@@ -181,7 +248,9 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
                 flow.stop();
                 flowLogService.cancel(stackId, id);
             }
+            flowAdmissionService.release(id);
         }
+        flowAdmissionService.removeQueuedFlows(stackId);
     }
 
     private void finalizeFlow(FlowParameters flowParameters, String flowChainId, Long stackId, Map<Object, Object> contextParams)
@@ -190,6 +259,7 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         LOGGER.debug("flow finalizing arrived: id: {}", flowId);
         flowLogService.close(stackId, flowId);
         Flow flow = runningFlows.remove(flowId);
+        flowAdmissionService.release(flowId);
         if (flowChainId != null) {
             if (flow.isFlowFailed()) {
                 flowChains.removeFullFlowChain(flowChainId);
@@ -213,6 +283,8 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
                     Payload payload = (Payload) JsonReader.jsonToJava(flowLog.getPayload());
                     Flow flow = flowConfig.get().createFlow(flowLog.getFlowId(), payload.getResourceId());
                     runningFlows.put(flow, flowLog.getFlowChainId());
+                    flowAdmissionService.registerRestartedFlow(flowLog.getFlowId(), flowLog.getFlowTriggerUserCrn(), flowLog.getFlowType(),
+                            payload.getResourceId());
                     if (flowLog.getFlowChainId() != null) {
                         flowChainHandler.restoreFlowChain(flowLog.getFlowChainId());
                     }
@@ -248,6 +320,10 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         return event.getHeaders().get(FlowConstants.FLOW_TRIGGER_USERCRN);
     }
 
+    private String getAdmissionId(Event<?> event) {
+        return event.getHeaders().get(FlowConstants.FLOW_ADMISSION_ID);
+    }
+
     private Map<Object, Object> getContextParams(Event<?> event) {
         Map<Object, Object> contextParams = event.getHeaders().get(FlowConstants.FLOW_CONTEXTPARAMS_ID);
         return contextParams == null ? Map.of() : contextParams;
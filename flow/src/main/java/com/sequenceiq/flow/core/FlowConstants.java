@@ -15,6 +15,8 @@ public class FlowConstants {
 
     public static final String FLOW_CONTEXTPARAMS_ID = "FLOW_CONTEXTPARAMS_ID";
 
+    public static final String FLOW_ADMISSION_ID = "FLOW_ADMISSION_ID";
+
     private FlowConstants() {
     }
 }
@@ -10,6 +10,7 @@ import com.sequenceiq.cloudbreak.common.event.Payload;
 import com.sequenceiq.cloudbreak.common.event.Selectable;
 import com.sequenceiq.cloudbreak.common.service.TransactionService;
 import com.sequenceiq.flow.domain.FlowChainLog;
+import com.sequenceiq.flow.domain.FlowChainStep;
 import com.sequenceiq.flow.domain.FlowLog;
 
 public interface FlowLogService {
@@ -26,6 +27,10 @@ public interface FlowLogService {
 
     void saveChain(String flowChainId, String parentFlowChainId, Queue<Selectable> chain, String flowTriggerUserCrn);
 
+    void markChainStepTriggered(String flowChainId, int stepIndex);
+
+    List<FlowChainStep> findPendingChainSteps(String flowChainId);
+
     void updateLastFlowLogStatus(FlowLog lastFlowLog, boolean failureEvent);
 
     boolean isOtherFlowRunning(Long stackId);
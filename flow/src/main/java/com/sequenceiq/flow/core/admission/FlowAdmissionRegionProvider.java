@@ -0,0 +1,12 @@
+package com.sequenceiq.flow.core.admission;
+
+import java.util.Optional;
+
+/**
+ * Provides the cloud region of the resource of a flow for the region quota of the flow admission. The flows of a service without a provider
+ * are not limited per region.
+ */
+public interface FlowAdmissionRegionProvider {
+
+    Optional<String> getRegion(Long resourceId);
+}
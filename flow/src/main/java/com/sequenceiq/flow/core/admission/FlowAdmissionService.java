@@ -0,0 +1,637 @@
+package com.sequenceiq.flow.core.admission;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import com.cedarsoftware.util.io.JsonReader;
+import com.cedarsoftware.util.io.JsonWriter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sequenceiq.cloudbreak.auth.altus.Crn;
+import com.sequenceiq.cloudbreak.auth.altus.CrnParseException;
+import com.sequenceiq.cloudbreak.common.event.Payload;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.flow.core.ApplicationFlowInformation;
+import com.sequenceiq.flow.core.FlowConstants;
+import com.sequenceiq.flow.core.FlowParameters;
+import com.sequenceiq.flow.core.FlowRegister;
+import com.sequenceiq.flow.domain.QueuedFlow;
+import com.sequenceiq.flow.ha.NodeConfig;
+import com.sequenceiq.flow.reactor.ErrorHandlerAwareReactorEventFactory;
+import com.sequenceiq.flow.repository.QueuedFlowRepository;
+
+import io.micrometer.core.instrument.Metrics;
+import reactor.bus.Event;
+import reactor.bus.EventBus;
+
+/**
+ * Limits the number of flows running on this node per account, per flow type and per cloud region. A new flow that would exceed a quota is not
+ * started, its trigger is stored in the queued flow table instead and it is admitted when the running flows leave room for it. The queue is fair
+ * across accounts: the flows are admitted round-robin, the first queued flow of every account comes before the second queued flow of any
+ * account, and a flow blocked by a quota does not hold back the flows behind it. The queue survives restarts, and the queued flows of a failed
+ * node are taken over together with its flows.
+ * <p>
+ * The queue of this node is kept in memory as well, so admission does not read the queued flow table. The queued flows are admitted on a single
+ * admission thread when a flow finishes, the releases arriving while an admission pass is pending are served by that pass, and by a poller that
+ * admits the flows whose reservation has expired. A queued flow is removed from the table when its flow is started, so it stays queued until
+ * then and a flow removed from the queue meanwhile is not started.
+ * <p>
+ * Admission is disabled by default. A quota that is not positive is unlimited, and so are the flow types without a quota, which are given by
+ * the simple name of the flow configuration, e.g. {@code StackUpscaleConfig=10,StackCreationFlowConfig=20}. Termination flows are never queued.
+ */
+@Service
+public class FlowAdmissionService {
+
+    static final String QUEUE_SIZE_GAUGE = "flow.admission.queue.size";
+
+    static final String QUEUED_COUNTER = "flow.admission.queued";
+
+    static final String DROPPED_COUNTER = "flow.admission.dropped";
+
+    static final String WAIT_TIMER = "flow.admission.wait";
+
+    static final String UNKNOWN_ACCOUNT = "unknown";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowAdmissionService.class);
+
+    private static final String ADMISSION_ID_PREFIX = "admission-";
+
+    private static final long RESERVATION_TIMEOUT_MILLIS = 30000L;
+
+    @Inject
+    private QueuedFlowRepository queuedFlowRepository;
+
+    @Inject
+    private FlowRegister runningFlows;
+
+    @Inject
+    private ApplicationFlowInformation applicationFlowInformation;
+
+    @Inject
+    private NodeConfig nodeConfig;
+
+    @Inject
+    private EventBus eventBus;
+
+    @Inject
+    private ErrorHandlerAwareReactorEventFactory eventFactory;
+
+    @Inject
+    private Clock clock;
+
+    @Inject
+    @Qualifier("JsonWriterOptions")
+    private Map<String, Object> writeOptions;
+
+    @Inject
+    private Optional<FlowAdmissionRegionProvider> regionProvider;
+
+    @Value("${cb.flow.admission.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cb.flow.admission.quota.account:0}")
+    private int accountQuota;
+
+    @Value("${cb.flow.admission.quota.region:0}")
+    private int regionQuota;
+
+    @Value("${cb.flow.admission.quota.flowtype:}")
+    private String flowTypeQuotaConfig;
+
+    private final Map<String, AdmittedFlow> admittedFlows = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    private final AtomicBoolean admissionRequested = new AtomicBoolean();
+
+    private final List<QueuedFlow> queuedFlows = new ArrayList<>();
+
+    private Map<String, Integer> flowTypeQuotas = Map.of();
+
+    private ExecutorService admissionExecutor;
+
+    private boolean queueLoaded;
+
+    private boolean queueDrained;
+
+    @PostConstruct
+    void init() {
+        flowTypeQuotas = parseFlowTypeQuotas(flowTypeQuotaConfig);
+        admissionExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("flow-admission-%d").setDaemon(true).build());
+        Metrics.gauge(QUEUE_SIZE_GAUGE, queueSize);
+        LOGGER.info("Flow admission is {}, quota per account: {}, per region: {}, per flow type: {}", enabled ? "enabled" : "disabled",
+                accountQuota, regionQuota, flowTypeQuotas);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        admissionExecutor.shutdownNow();
+    }
+
+    /**
+     * Queues the trigger of a new flow if starting it would exceed a quota, otherwise admits the flow under the id of the flow parameters.
+     * Returns whether the flow has been queued.
+     */
+    public boolean enqueueIfOverQuota(String key, Payload payload, FlowParameters flowParameters, String flowChainId,
+            Map<Object, Object> contextParams, Class<?> flowType) {
+        if (!enabled) {
+            return false;
+        }
+        AdmissionKey admissionKey = new AdmissionKey(getAccountId(flowParameters.getFlowTriggerUserCrn()), flowType.getSimpleName(),
+                getRegion(payload.getResourceId()));
+        if (applicationFlowInformation.getTerminationFlow().contains(flowType)) {
+            admittedFlows.put(flowParameters.getFlowId(), new AdmittedFlow(admissionKey, clock.getCurrentTimeMillis()));
+            return false;
+        }
+        synchronized (this) {
+            loadQueue();
+            if (countRunningAndAdmissibleFlows().fits(admissionKey)) {
+                admittedFlows.put(flowParameters.getFlowId(), new AdmittedFlow(admissionKey, clock.getCurrentTimeMillis()));
+                return false;
+            }
+            try {
+                queuedFlows.add(queuedFlowRepository.save(createQueuedFlow(key, payload, flowParameters, flowChainId, contextParams, admissionKey)));
+                queueSize.set(queuedFlows.size());
+                Metrics.counter(QUEUED_COUNTER).increment();
+                LOGGER.info("Flow {} of resource {} is over the quota of {}, it is queued behind {} flows", key, payload.getResourceId(), admissionKey,
+                        queuedFlows.size() - 1);
+                return true;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to queue flow {} of resource {}, it is started over the quota", key, payload.getResourceId(), e);
+                admittedFlows.put(flowParameters.getFlowId(), new AdmittedFlow(admissionKey, clock.getCurrentTimeMillis()));
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Removes a queued flow admitted by {@link #admitQueuedFlows()} from the queue and moves its reservation to the flow started for it. Returns
+     * false if the queued flow has been removed from the queue meanwhile, e.g. by the cancellation of the flows of its resource, or has already
+     * been started for an earlier admission whose reservation expired, then the flow must not be started.
+     */
+    public boolean startAdmittedFlow(String admissionId, String flowId) {
+        Optional<QueuedFlow> queuedFlow = takeFromQueue(admissionId);
+        admittedFlows.remove(admissionId);
+        if (queuedFlow.isEmpty() || queuedFlowRepository.deleteQueuedFlow(queuedFlow.get().getId()) == 0) {
+            LOGGER.info("Admitted flow {} has been removed from the queue meanwhile, it is not started", admissionId);
+            return false;
+        }
+        long now = clock.getCurrentTimeMillis();
+        admittedFlows.put(flowId, new AdmittedFlow(admissionKey(queuedFlow.get()), now));
+        Metrics.timer(WAIT_TIMER).record(now - queuedFlow.get().getCreated(), TimeUnit.MILLISECONDS);
+        LOGGER.info("Queued flow {} of resource {} is started as flow {} after waiting {} ms", queuedFlow.get().getFlowTriggerKey(),
+                queuedFlow.get().getResourceId(), flowId, now - queuedFlow.get().getCreated());
+        return true;
+    }
+
+    /**
+     * Releases the reservation of an admitted flow that cannot be started while an other flow of its resource is running. The flow stays queued
+     * and it is admitted again by a later admission pass.
+     */
+    public void postponeAdmittedFlow(String admissionId) {
+        admittedFlows.remove(admissionId);
+        LOGGER.info("Admitted flow {} is postponed, an other flow of its resource is running", admissionId);
+    }
+
+    /**
+     * Removes an admitted flow that is not triggerable any more from the queue and releases its reservation.
+     */
+    public void dropAdmittedFlow(String admissionId) {
+        takeFromQueue(admissionId).ifPresent(queuedFlow -> queuedFlowRepository.deleteQueuedFlow(queuedFlow.getId()));
+        admittedFlows.remove(admissionId);
+        Metrics.counter(DROPPED_COUNTER).increment();
+        if (queueSize.get() > 0) {
+            requestAdmission();
+        }
+    }
+
+    /**
+     * Whether a flow of the resource is waiting for admission on any node.
+     */
+    public boolean hasQueuedFlow(Long resourceId) {
+        return (enabled || !queueDrained) && queuedFlowRepository.existsByResourceId(resourceId);
+    }
+
+    /**
+     * Counts a flow restarted on this node against the quotas, restarted flows are never queued.
+     */
+    public void registerRestartedFlow(String flowId, String flowTriggerUserCrn, Class<?> flowType, Long resourceId) {
+        if (enabled) {
+            AdmissionKey admissionKey = new AdmissionKey(getAccountId(flowTriggerUserCrn), flowType.getSimpleName(), getRegion(resourceId));
+            admittedFlows.put(flowId, new AdmittedFlow(admissionKey, clock.getCurrentTimeMillis()));
+        }
+    }
+
+    /**
+     * Releases the slot of a finished flow and requests the admission of the queued flows that fit now.
+     */
+    public void release(String id) {
+        if (admittedFlows.remove(id) != null && queueSize.get() > 0) {
+            requestAdmission();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${cb.flow.admission.poll.interval.millis:5000}", fixedDelayString = "${cb.flow.admission.poll.interval.millis:5000}")
+    public void admitQueuedFlows() {
+        List<AdmittedQueuedFlow> admitted;
+        synchronized (this) {
+            if (enabled) {
+                admitted = admitQueuedFlowsOfThisNode();
+            } else if (!queueDrained) {
+                admitted = drainQueueOfThisNode();
+            } else {
+                admitted = List.of();
+            }
+        }
+        admitted.forEach(this::dispatch);
+    }
+
+    public void removeQueuedFlows(Long resourceId) {
+        int removed = queuedFlowRepository.deleteByResourceId(resourceId);
+        if (removed > 0) {
+            LOGGER.info("{} queued flows of resource {} have been removed from the admission queue", removed, resourceId);
+            synchronized (this) {
+                Iterator<QueuedFlow> iterator = queuedFlows.iterator();
+                while (iterator.hasNext()) {
+                    QueuedFlow queuedFlow = iterator.next();
+                    if (resourceId.equals(queuedFlow.getResourceId())) {
+                        admittedFlows.remove(admissionId(queuedFlow));
+                        iterator.remove();
+                    }
+                }
+                queueSize.set(queuedFlows.size());
+            }
+        }
+    }
+
+    /**
+     * Assigns the queued flows of the failed nodes to this node.
+     */
+    public void takeOverQueuedFlows(Collection<String> failedNodeIds) {
+        if (!failedNodeIds.isEmpty()) {
+            int reassigned = queuedFlowRepository.reassignQueuedFlows(failedNodeIds, nodeConfig.getId());
+            if (reassigned > 0) {
+                LOGGER.info("{} queued flows of the failed nodes {} have been taken over", reassigned, failedNodeIds);
+                synchronized (this) {
+                    queueLoaded = false;
+                    queueDrained = false;
+                }
+                requestAdmission();
+            }
+        }
+    }
+
+    /**
+     * The queued flows of every node, in the order they are going to be admitted on their node.
+     */
+    public List<QueuedFlowPosition> getQueuedFlows() {
+        Map<String, List<QueuedFlow>> queuedFlowsByNodeId = new LinkedHashMap<>();
+        for (QueuedFlow queuedFlow : queuedFlowRepository.findAllByOrderByCreatedAscIdAsc()) {
+            queuedFlowsByNodeId.computeIfAbsent(queuedFlow.getCloudbreakNodeId(), nodeId -> new ArrayList<>()).add(queuedFlow);
+        }
+        List<QueuedFlowPosition> positions = new ArrayList<>();
+        for (List<QueuedFlow> queue : queuedFlowsByNodeId.values()) {
+            List<QueuedFlow> fairQueue = fairOrder(queue);
+            for (int i = 0; i < fairQueue.size(); i++) {
+                positions.add(new QueuedFlowPosition(fairQueue.get(i), i + 1));
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Orders a queue ordered by creation round-robin across accounts, keeping the order of the flows of an account.
+     */
+    static List<QueuedFlow> fairOrder(List<QueuedFlow> queue) {
+        Map<String, Integer> queuedFlowsByAccount = new HashMap<>();
+        Map<QueuedFlow, Integer> rounds = new IdentityHashMap<>();
+        for (QueuedFlow queuedFlow : queue) {
+            rounds.put(queuedFlow, queuedFlowsByAccount.merge(queuedFlow.getAccountId(), 1, Integer::sum));
+        }
+        List<QueuedFlow> fairQueue = new ArrayList<>(queue);
+        fairQueue.sort(Comparator.comparing(rounds::get));
+        return fairQueue;
+    }
+
+    /**
+     * Runs an admission pass on the admission thread unless one is pending already.
+     */
+    private void requestAdmission() {
+        if (admissionRequested.compareAndSet(false, true)) {
+            try {
+                admissionExecutor.execute(() -> {
+                    admissionRequested.set(false);
+                    try {
+                        admitQueuedFlows();
+                    } catch (RuntimeException e) {
+                        LOGGER.error("Failed to admit the queued flows", e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                admissionRequested.set(false);
+                LOGGER.debug("Queued flows are not admitted, the admission is shut down");
+            }
+        }
+    }
+
+    private List<AdmittedQueuedFlow> admitQueuedFlowsOfThisNode() {
+        loadQueue();
+        List<AdmittedQueuedFlow> admitted = new ArrayList<>();
+        RunningFlowCounts counts = countRunningFlows();
+        for (QueuedFlow queuedFlow : fairOrder(queuedFlows)) {
+            AdmissionKey admissionKey = admissionKey(queuedFlow);
+            if (!admittedFlows.containsKey(admissionId(queuedFlow)) && counts.fits(admissionKey)) {
+                Optional<AdmittedQueuedFlow> admittedQueuedFlow = admit(queuedFlow, admissionKey);
+                if (admittedQueuedFlow.isPresent()) {
+                    admitted.add(admittedQueuedFlow.get());
+                    counts.add(admissionKey);
+                }
+            }
+        }
+        return admitted;
+    }
+
+    private List<AdmittedQueuedFlow> drainQueueOfThisNode() {
+        loadQueue();
+        if (queuedFlows.isEmpty()) {
+            queueDrained = true;
+            return List.of();
+        }
+        LOGGER.info("Flow admission is disabled, starting the {} queued flows", queuedFlows.size());
+        // forgets the expired reservations, so that the flows whose trigger was lost are admitted again
+        countRunningFlows();
+        List<AdmittedQueuedFlow> admitted = new ArrayList<>();
+        for (QueuedFlow queuedFlow : new ArrayList<>(queuedFlows)) {
+            if (!admittedFlows.containsKey(admissionId(queuedFlow))) {
+                admit(queuedFlow, admissionKey(queuedFlow)).ifPresent(admitted::add);
+            }
+        }
+        return admitted;
+    }
+
+    /**
+     * Reserves a slot for a queued flow and creates its trigger event, a queued flow that cannot be read is removed from the queue.
+     */
+    private Optional<AdmittedQueuedFlow> admit(QueuedFlow queuedFlow, AdmissionKey admissionKey) {
+        String admissionId = admissionId(queuedFlow);
+        try {
+            Payload payload = (Payload) JsonReader.jsonToJava(queuedFlow.getPayload());
+            Map<Object, Object> contextParams = queuedFlow.getContextParams() == null ? null
+                    : (Map<Object, Object>) JsonReader.jsonToJava(queuedFlow.getContextParams());
+            Map<String, Object> headers = new HashMap<>();
+            headers.put(FlowConstants.FLOW_CHAIN_ID, queuedFlow.getFlowChainId());
+            headers.put(FlowConstants.FLOW_TRIGGER_USERCRN, queuedFlow.getFlowTriggerUserCrn());
+            headers.put(FlowConstants.FLOW_ADMISSION_ID, admissionId);
+            if (!CollectionUtils.isEmpty(contextParams)) {
+                headers.put(FlowConstants.FLOW_CONTEXTPARAMS_ID, contextParams);
+            }
+            Event<Payload> event = eventFactory.createEventWithErrHandler(headers, payload);
+            admittedFlows.put(admissionId, new AdmittedFlow(admissionKey, clock.getCurrentTimeMillis()));
+            return Optional.of(new AdmittedQueuedFlow(queuedFlow, admissionId, event));
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to read queued flow {} of resource {}, it is removed from the queue", queuedFlow.getFlowTriggerKey(),
+                    queuedFlow.getResourceId(), e);
+            queuedFlows.remove(queuedFlow);
+            queueSize.set(queuedFlows.size());
+            queuedFlowRepository.deleteQueuedFlow(queuedFlow.getId());
+            return Optional.empty();
+        }
+    }
+
+    private void dispatch(AdmittedQueuedFlow admitted) {
+        QueuedFlow queuedFlow = admitted.queuedFlow;
+        try {
+            eventBus.notify(queuedFlow.getFlowTriggerKey(), admitted.event);
+            LOGGER.debug("Queued flow {} of resource {} is admitted", queuedFlow.getFlowTriggerKey(), queuedFlow.getResourceId());
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to admit queued flow {} of resource {}, it stays queued", queuedFlow.getFlowTriggerKey(), queuedFlow.getResourceId(), e);
+            admittedFlows.remove(admitted.admissionId);
+        }
+    }
+
+    /**
+     * Loads the queue of this node from the queued flow table on the first use and after taking over the queues of failed nodes.
+     */
+    private void loadQueue() {
+        if (!queueLoaded) {
+            queuedFlows.clear();
+            queuedFlows.addAll(findQueuedFlowsOfThisNode());
+            queueSize.set(queuedFlows.size());
+            queueLoaded = true;
+        }
+    }
+
+    private synchronized Optional<QueuedFlow> takeFromQueue(String admissionId) {
+        loadQueue();
+        Iterator<QueuedFlow> iterator = queuedFlows.iterator();
+        while (iterator.hasNext()) {
+            QueuedFlow queuedFlow = iterator.next();
+            if (admissionId.equals(admissionId(queuedFlow))) {
+                iterator.remove();
+                queueSize.set(queuedFlows.size());
+                return Optional.of(queuedFlow);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private QueuedFlow createQueuedFlow(String key, Payload payload, FlowParameters flowParameters, String flowChainId,
+            Map<Object, Object> contextParams, AdmissionKey admissionKey) {
+        QueuedFlow queuedFlow = new QueuedFlow();
+        queuedFlow.setResourceId(payload.getResourceId());
+        queuedFlow.setFlowTriggerKey(key);
+        queuedFlow.setPayload(JsonWriter.objectToJson(payload, writeOptions));
+        queuedFlow.setFlowChainId(flowChainId);
+        queuedFlow.setFlowTriggerUserCrn(flowParameters.getFlowTriggerUserCrn());
+        if (!CollectionUtils.isEmpty(contextParams)) {
+            queuedFlow.setContextParams(JsonWriter.objectToJson(contextParams, writeOptions));
+        }
+        queuedFlow.setAccountId(admissionKey.accountId);
+        queuedFlow.setFlowType(admissionKey.flowType);
+        queuedFlow.setRegion(admissionKey.region);
+        queuedFlow.setCloudbreakNodeId(nodeConfig.getId());
+        return queuedFlow;
+    }
+
+    private List<QueuedFlow> findQueuedFlowsOfThisNode() {
+        return nodeConfig.isNodeIdSpecified()
+                ? queuedFlowRepository.findAllByCloudbreakNodeIdOrderByCreatedAscIdAsc(nodeConfig.getId())
+                : queuedFlowRepository.findAllByCloudbreakNodeIdIsNullOrderByCreatedAscIdAsc();
+    }
+
+    /**
+     * Counts the admitted flows that are still running or whose reservation is recent enough for the flow to be starting, and forgets the
+     * others.
+     */
+    private RunningFlowCounts countRunningFlows() {
+        RunningFlowCounts counts = new RunningFlowCounts();
+        long now = clock.getCurrentTimeMillis();
+        Iterator<Entry<String, AdmittedFlow>> iterator = admittedFlows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<String, AdmittedFlow> admittedFlow = iterator.next();
+            if (runningFlows.get(admittedFlow.getKey()) != null || now - admittedFlow.getValue().admittedAt < RESERVATION_TIMEOUT_MILLIS) {
+                counts.add(admittedFlow.getValue().admissionKey);
+            } else {
+                iterator.remove();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the running flows together with the queued flows that fit next to them, which are going to be admitted by the pending admission
+     * pass, so that a new flow does not take their place.
+     */
+    private RunningFlowCounts countRunningAndAdmissibleFlows() {
+        RunningFlowCounts counts = countRunningFlows();
+        for (QueuedFlow queuedFlow : fairOrder(queuedFlows)) {
+            AdmissionKey admissionKey = admissionKey(queuedFlow);
+            if (!admittedFlows.containsKey(admissionId(queuedFlow)) && counts.fits(admissionKey)) {
+                counts.add(admissionKey);
+            }
+        }
+        return counts;
+    }
+
+    private String getAccountId(String flowTriggerUserCrn) {
+        if (flowTriggerUserCrn != null) {
+            try {
+                Crn crn = Crn.fromString(flowTriggerUserCrn);
+                if (crn != null) {
+                    return crn.getAccountId();
+                }
+            } catch (CrnParseException e) {
+                LOGGER.debug("Flow trigger user CRN {} cannot be parsed: {}", flowTriggerUserCrn, e.getMessage());
+            }
+        }
+        return UNKNOWN_ACCOUNT;
+    }
+
+    private String getRegion(Long resourceId) {
+        return regionQuota > 0 ? regionProvider.flatMap(provider -> provider.getRegion(resourceId)).orElse(null) : null;
+    }
+
+    private static String admissionId(QueuedFlow queuedFlow) {
+        return ADMISSION_ID_PREFIX + queuedFlow.getId();
+    }
+
+    private static AdmissionKey admissionKey(QueuedFlow queuedFlow) {
+        return new AdmissionKey(queuedFlow.getAccountId(), queuedFlow.getFlowType(), queuedFlow.getRegion());
+    }
+
+    private static Map<String, Integer> parseFlowTypeQuotas(String config) {
+        Map<String, Integer> quotas = new HashMap<>();
+        if (StringUtils.isNotBlank(config)) {
+            for (String quota : config.split(",")) {
+                String[] flowTypeAndQuota = quota.split("=");
+                if (flowTypeAndQuota.length != 2) {
+                    throw new IllegalArgumentException(String.format("Invalid flow type quota '%s', it should be like FlowConfigName=10", quota));
+                }
+                quotas.put(flowTypeAndQuota[0].trim(), Integer.valueOf(flowTypeAndQuota[1].trim()));
+            }
+        }
+        return quotas;
+    }
+
+    private static class AdmittedFlow {
+
+        private final AdmissionKey admissionKey;
+
+        private final long admittedAt;
+
+        AdmittedFlow(AdmissionKey admissionKey, long admittedAt) {
+            this.admissionKey = admissionKey;
+            this.admittedAt = admittedAt;
+        }
+    }
+
+    private static class AdmittedQueuedFlow {
+
+        private final QueuedFlow queuedFlow;
+
+        private final String admissionId;
+
+        private final Event<Payload> event;
+
+        AdmittedQueuedFlow(QueuedFlow queuedFlow, String admissionId, Event<Payload> event) {
+            this.queuedFlow = queuedFlow;
+            this.admissionId = admissionId;
+            this.event = event;
+        }
+    }
+
+    private static class AdmissionKey {
+
+        private final String accountId;
+
+        private final String flowType;
+
+        private final String region;
+
+        AdmissionKey(String accountId, String flowType, String region) {
+            this.accountId = accountId;
+            this.flowType = flowType;
+            this.region = region;
+        }
+
+        @Override
+        public String toString() {
+            return "account " + accountId + ", flow type " + flowType + (region == null ? "" : ", region " + region);
+        }
+    }
+
+    private class RunningFlowCounts {
+
+        private final Map<String, Integer> byAccount = new HashMap<>();
+
+        private final Map<String, Integer> byFlowType = new HashMap<>();
+
+        private final Map<String, Integer> byRegion = new HashMap<>();
+
+        boolean fits(AdmissionKey admissionKey) {
+            return isBelow(byAccount, admissionKey.accountId, accountQuota)
+                    && isBelow(byFlowType, admissionKey.flowType, flowTypeQuotas.getOrDefault(admissionKey.flowType, 0))
+                    && (admissionKey.region == null || isBelow(byRegion, admissionKey.region, regionQuota));
+        }
+
+        void add(AdmissionKey admissionKey) {
+            byAccount.merge(admissionKey.accountId, 1, Integer::sum);
+            byFlowType.merge(admissionKey.flowType, 1, Integer::sum);
+            if (admissionKey.region != null) {
+                byRegion.merge(admissionKey.region, 1, Integer::sum);
+            }
+        }
+
+        private boolean isBelow(Map<String, Integer> counts, String key, int quota) {
+            return quota <= 0 || counts.getOrDefault(key, 0) < quota;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.sequenceiq.flow.core.admission;
+
+import com.sequenceiq.flow.domain.QueuedFlow;
+
+/**
+ * A queued flow with its position in the admission queue of the node it is queued on, starting from 1.
+ */
+public class QueuedFlowPosition {
+
+    private final QueuedFlow queuedFlow;
+
+    private final int position;
+
+    public QueuedFlowPosition(QueuedFlow queuedFlow, int position) {
+        this.queuedFlow = queuedFlow;
+        this.position = position;
+    }
+
+    public QueuedFlow getQueuedFlow() {
+        return queuedFlow;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+}
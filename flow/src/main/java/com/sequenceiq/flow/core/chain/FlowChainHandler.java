@@ -1,9 +1,12 @@
 package com.sequenceiq.flow.core.chain;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -17,6 +20,7 @@ import com.sequenceiq.flow.core.Flow2Handler;
 import com.sequenceiq.flow.core.FlowConstants;
 import com.sequenceiq.flow.core.FlowLogService;
 import com.sequenceiq.flow.domain.FlowChainLog;
+import com.sequenceiq.flow.domain.FlowChainStep;
 
 import reactor.bus.Event;
 import reactor.fn.Consumer;
@@ -40,17 +44,31 @@ public class FlowChainHandler implements Consumer<Event<? extends Payload>> {
         String flowTriggerUserCrn = getFlowTriggerUserCrn(event);
         FlowEventChainFactory<Payload> flowEventChainFactory = flowChainConfigMap.get(key);
         String flowChainId = UUID.randomUUID().toString();
-        flowChains.putFlowChain(flowChainId, parentFlowChainId, flowEventChainFactory.createFlowTriggerEventQueue(event.getData()));
+        flowChains.saveFlowChain(flowChainId, parentFlowChainId, flowEventChainFactory.createFlowTriggerEventQueue(event.getData()), flowTriggerUserCrn);
         flowChains.triggerNextFlow(flowChainId, flowTriggerUserCrn, Map.of());
     }
 
+    /**
+     * Restores the remaining steps of a flow chain and of its parents. Only the pending steps are read, a chain logged before the steps were
+     * stored as rows is restored from its serialized queue and stored as rows from then on.
+     */
     public void restoreFlowChain(String flowChainId) {
         Optional<FlowChainLog> chainLog = flowLogService.findFirstByFlowChainIdOrderByCreatedDesc(flowChainId);
         if (chainLog.isPresent()) {
-            Queue<Selectable> chain = (Queue<Selectable>) JsonReader.jsonToJava(chainLog.get().getChain());
-            flowChains.putFlowChain(flowChainId, chainLog.get().getParentFlowChainId(), chain);
-            if (chainLog.get().getParentFlowChainId() != null) {
-                restoreFlowChain(chainLog.get().getParentFlowChainId());
+            String parentFlowChainId = chainLog.get().getParentFlowChainId();
+            if (chainLog.get().getChain() != null) {
+                Queue<Selectable> chain = (Queue<Selectable>) JsonReader.jsonToJava(chainLog.get().getChain());
+                flowChains.saveFlowChain(flowChainId, parentFlowChainId, chain, chainLog.get().getFlowTriggerUserCrn());
+            } else {
+                List<FlowChainStep> steps = flowLogService.findPendingChainSteps(flowChainId);
+                Queue<Selectable> chain = steps.stream()
+                        .map(step -> (Selectable) JsonReader.jsonToJava(step.getEvent()))
+                        .collect(Collectors.toCollection(ConcurrentLinkedQueue::new));
+                int nextStepIndex = steps.isEmpty() ? 0 : steps.get(0).getStepIndex();
+                flowChains.putFlowChain(flowChainId, parentFlowChainId, chain, nextStepIndex);
+            }
+            if (parentFlowChainId != null) {
+                restoreFlowChain(parentFlowChainId);
             }
         }
     }
@@ -32,17 +32,33 @@ public class FlowChains {
     @Inject
     private FlowLogService flowLogService;
 
-    private final Map<String, Queue<Selectable>> flowChainMap = new ConcurrentHashMap<>();
+    private final Map<String, FlowChainSteps> flowChainMap = new ConcurrentHashMap<>();
 
     private final Map<String, String> flowChainParentMap = new ConcurrentHashMap<>();
 
-    public void putFlowChain(String flowChainId, String parentFlowChainId, Queue<Selectable> flowChain) {
-        flowChainMap.put(flowChainId, flowChain);
+    /**
+     * Stores a new flow chain with a row for each of its steps and registers it. The chain is not written again as it advances, only its triggered
+     * steps are marked.
+     */
+    public void saveFlowChain(String flowChainId, String parentFlowChainId, Queue<Selectable> flowChain, String flowTriggerUserCrn) {
+        flowLogService.saveChain(flowChainId, parentFlowChainId, flowChain, flowTriggerUserCrn);
+        putFlowChain(flowChainId, parentFlowChainId, flowChain, 0);
+    }
+
+    /**
+     * Registers a flow chain whose first remaining step is at the given index of the chain.
+     */
+    public void putFlowChain(String flowChainId, String parentFlowChainId, Queue<Selectable> flowChain, int nextStepIndex) {
+        flowChainMap.put(flowChainId, new FlowChainSteps(flowChain, nextStepIndex));
         if (parentFlowChainId != null) {
             flowChainParentMap.put(flowChainId, parentFlowChainId);
         }
     }
 
+    public boolean isFlowChainRegistered(String flowChainId) {
+        return flowChainMap.containsKey(flowChainId);
+    }
+
     public void removeFlowChain(String flowChainId) {
         if (flowChainId != null) {
             flowChainMap.remove(flowChainId);
@@ -59,16 +75,21 @@ public class FlowChains {
     }
 
     public void triggerNextFlow(String flowChainId, String flowTriggerUserCrn, Map<Object, Object> contextParams) {
-        Queue<Selectable> queue = flowChainMap.get(flowChainId);
-        if (queue != null) {
-            Selectable selectable = queue.poll();
+        FlowChainSteps flowChainSteps = flowChainMap.get(flowChainId);
+        if (flowChainSteps != null) {
+            Selectable selectable;
+            int stepIndex;
+            synchronized (flowChainSteps) {
+                selectable = flowChainSteps.steps.poll();
+                stepIndex = selectable != null ? flowChainSteps.nextStepIndex++ : flowChainSteps.nextStepIndex;
+            }
             if (selectable != null) {
                 sendEvent(flowChainId, flowTriggerUserCrn, selectable, contextParams);
+                flowLogService.markChainStepTriggered(flowChainId, stepIndex);
             } else {
                 removeFlowChain(flowChainId);
                 triggerParentFlowChain(flowChainId, flowTriggerUserCrn, contextParams);
             }
-            flowLogService.saveChain(flowChainId, flowChainParentMap.get(flowChainId), queue, flowTriggerUserCrn);
         }
     }
 
@@ -89,4 +110,16 @@ public class FlowChains {
             triggerNextFlow(parentFlowChainId, flowTriggerUserCrn, contextParams);
         }
     }
+
+    private static class FlowChainSteps {
+
+        private final Queue<Selectable> steps;
+
+        private int nextStepIndex;
+
+        FlowChainSteps(Queue<Selectable> steps, int nextStepIndex) {
+            this.steps = steps;
+            this.nextStepIndex = nextStepIndex;
+        }
+    }
 }
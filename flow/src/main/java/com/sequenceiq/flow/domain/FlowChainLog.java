@@ -24,7 +24,10 @@ public class FlowChainLog {
 
     private String parentFlowChainId;
 
-    @Column(length = Integer.MAX_VALUE, columnDefinition = "TEXT", nullable = false)
+    /**
+     * The serialized remaining steps of the chain, only set on the logs written before the steps were stored as {@link FlowChainStep} rows.
+     */
+    @Column(length = Integer.MAX_VALUE, columnDefinition = "TEXT")
     private String chain;
 
     private String flowTriggerUserCrn;
@@ -33,10 +36,9 @@ public class FlowChainLog {
 
     }
 
-    public FlowChainLog(String flowChainId, String parentFlowChainId, String chain, String flowTriggerUserCrn) {
+    public FlowChainLog(String flowChainId, String parentFlowChainId, String flowTriggerUserCrn) {
         this.flowChainId = flowChainId;
         this.parentFlowChainId = parentFlowChainId;
-        this.chain = chain;
         this.flowTriggerUserCrn = flowTriggerUserCrn;
     }
 
@@ -0,0 +1,97 @@
+package com.sequenceiq.flow.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+
+/**
+ * A step of a flow chain: the serialized trigger event of a flow, its position in the chain and whether it is triggered already.
+ */
+@Entity
+public class FlowChainStep {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "flowchainstep_generator")
+    @SequenceGenerator(name = "flowchainstep_generator", sequenceName = "flowchainstep_id_seq", allocationSize = 1)
+    private Long id;
+
+    private Long created = new Date().getTime();
+
+    @Column(nullable = false)
+    private String flowChainId;
+
+    @Column(nullable = false)
+    private Integer stepIndex;
+
+    @Column(length = Integer.MAX_VALUE, columnDefinition = "TEXT", nullable = false)
+    private String event;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private FlowChainStepStatus status = FlowChainStepStatus.PENDING;
+
+    public FlowChainStep() {
+
+    }
+
+    public FlowChainStep(String flowChainId, Integer stepIndex, String event) {
+        this.flowChainId = flowChainId;
+        this.stepIndex = stepIndex;
+        this.event = event;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public void setCreated(Long created) {
+        this.created = created;
+    }
+
+    public String getFlowChainId() {
+        return flowChainId;
+    }
+
+    public void setFlowChainId(String flowChainId) {
+        this.flowChainId = flowChainId;
+    }
+
+    public Integer getStepIndex() {
+        return stepIndex;
+    }
+
+    public void setStepIndex(Integer stepIndex) {
+        this.stepIndex = stepIndex;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public void setEvent(String event) {
+        this.event = event;
+    }
+
+    public FlowChainStepStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(FlowChainStepStatus status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,5 @@
+package com.sequenceiq.flow.domain;
+
+public enum FlowChainStepStatus {
+    PENDING, TRIGGERED
+}
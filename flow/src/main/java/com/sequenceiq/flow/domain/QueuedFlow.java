@@ -0,0 +1,147 @@
+package com.sequenceiq.flow.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+
+/**
+ * A flow trigger waiting for admission because a concurrency quota of its account, flow type or region is reached: the serialized trigger event
+ * with its headers and the quota dimensions of the flow.
+ */
+@Entity
+public class QueuedFlow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "queuedflow_generator")
+    @SequenceGenerator(name = "queuedflow_generator", sequenceName = "queuedflow_id_seq", allocationSize = 1)
+    private Long id;
+
+    private Long created = new Date().getTime();
+
+    @Column(nullable = false)
+    private Long resourceId;
+
+    @Column(nullable = false)
+    private String flowTriggerKey;
+
+    @Column(length = Integer.MAX_VALUE, columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    private String flowChainId;
+
+    private String flowTriggerUserCrn;
+
+    @Column(length = Integer.MAX_VALUE, columnDefinition = "TEXT")
+    private String contextParams;
+
+    @Column(nullable = false)
+    private String accountId;
+
+    @Column(nullable = false)
+    private String flowType;
+
+    private String region;
+
+    private String cloudbreakNodeId;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public void setCreated(Long created) {
+        this.created = created;
+    }
+
+    public Long getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(Long resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public String getFlowTriggerKey() {
+        return flowTriggerKey;
+    }
+
+    public void setFlowTriggerKey(String flowTriggerKey) {
+        this.flowTriggerKey = flowTriggerKey;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getFlowChainId() {
+        return flowChainId;
+    }
+
+    public void setFlowChainId(String flowChainId) {
+        this.flowChainId = flowChainId;
+    }
+
+    public String getFlowTriggerUserCrn() {
+        return flowTriggerUserCrn;
+    }
+
+    public void setFlowTriggerUserCrn(String flowTriggerUserCrn) {
+        this.flowTriggerUserCrn = flowTriggerUserCrn;
+    }
+
+    public String getContextParams() {
+        return contextParams;
+    }
+
+    public void setContextParams(String contextParams) {
+        this.contextParams = contextParams;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getFlowType() {
+        return flowType;
+    }
+
+    public void setFlowType(String flowType) {
+        this.flowType = flowType;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public String getCloudbreakNodeId() {
+        return cloudbreakNodeId;
+    }
+
+    public void setCloudbreakNodeId(String cloudbreakNodeId) {
+        this.cloudbreakNodeId = cloudbreakNodeId;
+    }
+}
@@ -1,6 +1,7 @@
 package com.sequenceiq.flow.reactor.config;
 
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -10,8 +11,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerThreadPoolExecutor;
+import com.sequenceiq.cloudbreak.logger.concurrent.VirtualThreads;
 import com.sequenceiq.flow.reactor.handler.ConsumerNotFoundHandler;
 
+import io.micrometer.core.instrument.Metrics;
 import reactor.Environment;
 import reactor.bus.EventBus;
 import reactor.bus.spec.EventBusSpec;
@@ -22,6 +25,10 @@ import reactor.fn.timer.Timer;
 @Configuration
 public class EventBusConfig {
 
+    static final String QUEUE_DEPTH_GAUGE = "eventbus.queue.depth";
+
+    static final String ACTIVE_THREADS_GAUGE = "eventbus.threads.active";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(EventBusConfig.class);
 
     @Value("${cb.eventbus.threadpool.core.size:100}")
@@ -33,6 +40,12 @@ public class EventBusConfig {
     @Value("${cb.eventbus.threadpool.backlog.size:1000}")
     private int eventBusThreadPoolBacklogSize;
 
+    @Value("${cb.virtualthreads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${cb.virtualthreads.pool.size:10000}")
+    private int virtualThreadPoolSize;
+
     @Bean
     public Timer timer(Environment env) {
         return env.getTimer();
@@ -53,15 +66,22 @@ public class EventBusConfig {
                 .get();
     }
 
+    /**
+     * The handlers of the flows block on I/O, so with virtual threads enabled the pool is sized for thousands of them instead of the platform
+     * thread pool sizes.
+     */
     @Bean("eventBusThreadPoolExecutor")
     public MDCCleanerThreadPoolExecutor getPoolExecutor() {
-        return new MDCCleanerThreadPoolExecutor(eventBusThreadPoolCoreSize,
-                eventBusThreadPoolMaxSize,
+        boolean virtual = VirtualThreads.isUsable(virtualThreadsEnabled);
+        MDCCleanerThreadPoolExecutor executor = new MDCCleanerThreadPoolExecutor(virtual ? virtualThreadPoolSize : eventBusThreadPoolCoreSize,
+                virtual ? virtualThreadPoolSize : eventBusThreadPoolMaxSize,
                 0L,
                 TimeUnit.MILLISECONDS,
                 new LinkedBlockingQueue<>(eventBusThreadPoolBacklogSize),
-                new NamedDaemonThreadFactory("reactorDispatcher"),
+                virtual ? VirtualThreads.newThreadFactory("reactorDispatcher-") : new NamedDaemonThreadFactory("reactorDispatcher"),
                 (r, executor) -> LOGGER.error("Task has been rejected from 'reactorDispatcher' threadpool. Executor state: " + executor));
-
+        Metrics.gauge(QUEUE_DEPTH_GAUGE, executor, e -> e.getQueue().size());
+        Metrics.gauge(ACTIVE_THREADS_GAUGE, executor, ThreadPoolExecutor::getActiveCount);
+        return executor;
     }
 }
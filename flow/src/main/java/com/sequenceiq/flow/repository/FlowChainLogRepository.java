@@ -20,6 +20,9 @@ public interface FlowChainLogRepository extends CrudRepository<FlowChainLog, Lon
     Optional<FlowChainLog> findFirstByFlowChainIdOrderByCreatedDesc(String flowChainId);
 
     @Modifying
-    @Query("DELETE FROM FlowChainLog fch WHERE fch.flowChainId NOT IN ( SELECT DISTINCT fl.flowChainId FROM FlowLog fl )")
+    @Query("DELETE FROM FlowChainLog fch WHERE fch.flowChainId NOT IN ( SELECT DISTINCT fl.flowChainId FROM FlowLog fl ) "
+            + "AND fch.flowChainId NOT IN ( SELECT qf.flowChainId FROM QueuedFlow qf WHERE qf.flowChainId IS NOT NULL ) "
+            + "AND fch.flowChainId NOT IN ( SELECT qfc.parentFlowChainId FROM FlowChainLog qfc, QueuedFlow qf "
+            + "WHERE qfc.flowChainId = qf.flowChainId AND qfc.parentFlowChainId IS NOT NULL )")
     int purgeOrphanFLowChainLogs();
 }
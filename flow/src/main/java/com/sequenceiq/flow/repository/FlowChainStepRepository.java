@@ -0,0 +1,31 @@
+package com.sequenceiq.flow.repository;
+
+import java.util.List;
+
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.sequenceiq.flow.domain.FlowChainStep;
+import com.sequenceiq.flow.domain.FlowChainStepStatus;
+
+@Transactional(TxType.REQUIRED)
+public interface FlowChainStepRepository extends CrudRepository<FlowChainStep, Long> {
+
+    List<FlowChainStep> findByFlowChainIdAndStatusOrderByStepIndex(String flowChainId, FlowChainStepStatus status);
+
+    @Modifying
+    @Query("UPDATE FlowChainStep fcs SET fcs.status = :status WHERE fcs.flowChainId = :flowChainId AND fcs.stepIndex = :stepIndex")
+    int updateStatus(@Param("flowChainId") String flowChainId, @Param("stepIndex") Integer stepIndex, @Param("status") FlowChainStepStatus status);
+
+    @Modifying
+    @Query("DELETE FROM FlowChainStep fcs WHERE fcs.flowChainId NOT IN ( SELECT DISTINCT fl.flowChainId FROM FlowLog fl ) "
+            + "AND fcs.flowChainId NOT IN ( SELECT qf.flowChainId FROM QueuedFlow qf WHERE qf.flowChainId IS NOT NULL ) "
+            + "AND fcs.flowChainId NOT IN ( SELECT qfc.parentFlowChainId FROM FlowChainLog qfc, QueuedFlow qf "
+            + "WHERE qfc.flowChainId = qf.flowChainId AND qfc.parentFlowChainId IS NOT NULL )")
+    int purgeOrphanFlowChainSteps();
+}
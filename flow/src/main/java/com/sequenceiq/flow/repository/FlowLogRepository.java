@@ -1,5 +1,6 @@
 package com.sequenceiq.flow.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -23,20 +24,20 @@ public interface FlowLogRepository extends CrudRepository<FlowLog, Long> {
     Optional<FlowLog> findFirstByFlowIdOrderByCreatedDesc(String flowId);
 
     @Query("SELECT fl.flowId as flowId, fl.flowType as flowType FROM FlowLog fl "
-            + "WHERE fl.stateStatus = 'PENDING' AND fl.resourceId = :resourceId")
+            + "WHERE fl.finalized = false AND fl.stateStatus = 'PENDING' AND fl.resourceId = :resourceId")
     Set<FlowLogIdFlowAndType> findAllRunningFlowLogByResourceId(@Param("resourceId") Long resourceId);
 
-    @Query("SELECT DISTINCT fl.flowId, fl.resourceId, fl.cloudbreakNodeId FROM FlowLog fl WHERE fl.stateStatus = 'PENDING'")
+    @Query("SELECT DISTINCT fl.flowId, fl.resourceId, fl.cloudbreakNodeId FROM FlowLog fl WHERE fl.finalized = false AND fl.stateStatus = 'PENDING'")
     List<Object[]> findAllPending();
 
     @Modifying
     @Query("UPDATE FlowLog fl SET fl.finalized = true WHERE fl.flowId = :flowId")
     void finalizeByFlowId(@Param("flowId") String flowId);
 
-    @Query("SELECT fl FROM FlowLog fl WHERE fl.cloudbreakNodeId = :cloudbreakNodeId AND fl.stateStatus = 'PENDING'")
+    @Query("SELECT fl FROM FlowLog fl WHERE fl.cloudbreakNodeId = :cloudbreakNodeId AND fl.finalized = false AND fl.stateStatus = 'PENDING'")
     Set<FlowLog> findAllByCloudbreakNodeId(@Param("cloudbreakNodeId") String cloudbreakNodeId);
 
-    @Query("SELECT fl FROM FlowLog fl WHERE fl.cloudbreakNodeId IS NULL AND fl.stateStatus = 'PENDING'")
+    @Query("SELECT fl FROM FlowLog fl WHERE fl.cloudbreakNodeId IS NULL AND fl.finalized = false AND fl.stateStatus = 'PENDING'")
     Set<FlowLog> findAllUnassigned();
 
     @Modifying
@@ -51,4 +52,22 @@ public interface FlowLogRepository extends CrudRepository<FlowLog, Long> {
 
     @Query("SELECT COUNT(fl.id) > 0 FROM FlowLog fl WHERE fl.resourceId = :resourceId AND fl.stateStatus = :status")
     Boolean findAnyByStackIdAndStateStatus(@Param("resourceId") Long resourceId, @Param("status") StateStatus status);
+
+    @Query(value = "SELECT DISTINCT fl.flowid FROM flowlog fl WHERE fl.finalized = true AND fl.created < :before "
+            + "AND fl.currentstate IN ('FINISHED', 'CANCELLED', 'TERMINATED') "
+            + "AND EXISTS (SELECT 1 FROM flowlog o WHERE o.flowid = fl.flowid AND o.id < fl.id) LIMIT :batchSize", nativeQuery = true)
+    List<String> findFinishedFlowIdsToCompact(@Param("before") Long before, @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query(value = "UPDATE flowlog s SET flowchainid = COALESCE(s.flowchainid, f.flowchainid), flowtype = COALESCE(s.flowtype, f.flowtype), "
+            + "flowtriggerusercrn = COALESCE(s.flowtriggerusercrn, f.flowtriggerusercrn), resourcetype = COALESCE(s.resourcetype, f.resourcetype) "
+            + "FROM flowlog f WHERE s.flowid IN (:flowIds) AND f.flowid = s.flowid "
+            + "AND s.id = (SELECT max(m.id) FROM flowlog m WHERE m.flowid = s.flowid) "
+            + "AND f.id = (SELECT min(m.id) FROM flowlog m WHERE m.flowid = s.flowid)", nativeQuery = true)
+    int updateFlowSummaries(@Param("flowIds") Collection<String> flowIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM flowlog fl WHERE fl.flowid IN (:flowIds) AND fl.id < (SELECT max(m.id) FROM flowlog m WHERE m.flowid = fl.flowid)",
+            nativeQuery = true)
+    int deleteAllButLastFlowLogs(@Param("flowIds") Collection<String> flowIds);
 }
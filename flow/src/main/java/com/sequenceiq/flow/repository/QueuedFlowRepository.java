@@ -0,0 +1,38 @@
+package com.sequenceiq.flow.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.sequenceiq.flow.domain.QueuedFlow;
+
+@Transactional(TxType.REQUIRED)
+public interface QueuedFlowRepository extends CrudRepository<QueuedFlow, Long> {
+
+    List<QueuedFlow> findAllByOrderByCreatedAscIdAsc();
+
+    List<QueuedFlow> findAllByCloudbreakNodeIdOrderByCreatedAscIdAsc(String cloudbreakNodeId);
+
+    List<QueuedFlow> findAllByCloudbreakNodeIdIsNullOrderByCreatedAscIdAsc();
+
+    boolean existsByResourceId(Long resourceId);
+
+    @Modifying
+    @Query("DELETE FROM QueuedFlow qf WHERE qf.id = :id")
+    int deleteQueuedFlow(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM QueuedFlow qf WHERE qf.resourceId = :resourceId")
+    int deleteByResourceId(@Param("resourceId") Long resourceId);
+
+    @Modifying
+    @Query("UPDATE QueuedFlow qf SET qf.cloudbreakNodeId = :cloudbreakNodeId WHERE qf.cloudbreakNodeId IN (:failedNodeIds)")
+    int reassignQueuedFlows(@Param("failedNodeIds") Collection<String> failedNodeIds, @Param("cloudbreakNodeId") String cloudbreakNodeId);
+}
@@ -1,5 +1,6 @@
 package com.sequenceiq.flow.service.flowlog;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -8,7 +9,10 @@ import javax.inject.Inject;
 import org.springframework.stereotype.Service;
 
 import com.sequenceiq.flow.domain.FlowChainLog;
+import com.sequenceiq.flow.domain.FlowChainStep;
+import com.sequenceiq.flow.domain.FlowChainStepStatus;
 import com.sequenceiq.flow.repository.FlowChainLogRepository;
+import com.sequenceiq.flow.repository.FlowChainStepRepository;
 
 @Service
 public class FlowChainLogService {
@@ -16,6 +20,9 @@ public class FlowChainLogService {
     @Inject
     private FlowChainLogRepository repository;
 
+    @Inject
+    private FlowChainStepRepository stepRepository;
+
     public Optional<FlowChainLog> findFirstByFlowChainIdOrderByCreatedDesc(String flowChainId) {
         return repository.findFirstByFlowChainIdOrderByCreatedDesc(flowChainId);
     }
@@ -35,8 +42,31 @@ public class FlowChainLogService {
         return repository.purgeOrphanFLowChainLogs();
     }
 
+    public int purgeOrphanFlowChainSteps() {
+        return stepRepository.purgeOrphanFlowChainSteps();
+    }
+
     public FlowChainLog save(FlowChainLog chainLog) {
         return repository.save(chainLog);
     }
 
+    /**
+     * Stores the serialized trigger events of a chain as pending steps, indexed by their position in the chain.
+     */
+    public void saveSteps(String flowChainId, List<String> events) {
+        List<FlowChainStep> steps = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            steps.add(new FlowChainStep(flowChainId, i, events.get(i)));
+        }
+        stepRepository.saveAll(steps);
+    }
+
+    public void markStepTriggered(String flowChainId, int stepIndex) {
+        stepRepository.updateStatus(flowChainId, stepIndex, FlowChainStepStatus.TRIGGERED);
+    }
+
+    public List<FlowChainStep> findPendingSteps(String flowChainId) {
+        return stepRepository.findByFlowChainIdAndStatusOrderByStepIndex(flowChainId, FlowChainStepStatus.PENDING);
+    }
+
 }
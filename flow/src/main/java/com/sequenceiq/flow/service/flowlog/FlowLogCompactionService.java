@@ -0,0 +1,76 @@
+package com.sequenceiq.flow.service.flowlog;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.common.service.TransactionService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
+import com.sequenceiq.flow.repository.FlowLogRepository;
+
+/**
+ * Collapses the flows finished more than {@code cb.flowlog.compaction.retention.hours} ago into their last flow log, so the flow log table
+ * grows with the running flows and one summary row per finished flow instead of a row per state transition. The summary row keeps the chain,
+ * type and trigger user of the flow, so the flows of a chain and the orphan chain log purge work the same on compacted flows. The flows are
+ * compacted in batches of {@code cb.flowlog.compaction.batchSize}, each in its own transaction. Compaction is disabled if the retention is not
+ * positive.
+ */
+@Service
+public class FlowLogCompactionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowLogCompactionService.class);
+
+    @Inject
+    private FlowLogRepository flowLogRepository;
+
+    @Inject
+    private TransactionService transactionService;
+
+    @Inject
+    private Clock clock;
+
+    @Value("${cb.flowlog.compaction.retention.hours:0}")
+    private int retentionHours;
+
+    @Value("${cb.flowlog.compaction.batchSize:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${cb.flowlog.compaction.cron:0 45 2 * * *}")
+    public void compactFinishedFlows() {
+        if (retentionHours <= 0) {
+            return;
+        }
+        long before = clock.getCurrentTimeMillis() - Duration.ofHours(retentionHours).toMillis();
+        LOGGER.info("Compacting the flow logs of the flows finished more than {} hours ago", retentionHours);
+        long flows = 0;
+        long deleted = 0;
+        List<String> flowIds;
+        try {
+            do {
+                flowIds = flowLogRepository.findFinishedFlowIdsToCompact(before, batchSize);
+                if (!flowIds.isEmpty()) {
+                    deleted += compact(flowIds);
+                    flows += flowIds.size();
+                }
+            } while (flowIds.size() >= batchSize);
+        } catch (TransactionExecutionException e) {
+            LOGGER.warn("Flow log compaction failed", e.getCause());
+        }
+        LOGGER.info("{} finished flows have been compacted, {} flow logs have been deleted", flows, deleted);
+    }
+
+    private int compact(List<String> flowIds) throws TransactionExecutionException {
+        return transactionService.required(() -> {
+            flowLogRepository.updateFlowSummaries(flowIds);
+            return flowLogRepository.deleteAllButLastFlowLogs(flowIds);
+        });
+    }
+}
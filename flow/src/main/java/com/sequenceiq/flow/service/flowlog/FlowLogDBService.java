@@ -25,12 +25,14 @@ import com.sequenceiq.cloudbreak.common.exception.NotFoundException;
 import com.sequenceiq.cloudbreak.common.json.JsonUtil;
 import com.sequenceiq.cloudbreak.common.service.TransactionService;
 import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
+import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionRuntimeExecutionException;
 import com.sequenceiq.flow.core.ApplicationFlowInformation;
 import com.sequenceiq.flow.core.FlowLogService;
 import com.sequenceiq.flow.core.FlowParameters;
 import com.sequenceiq.flow.core.FlowState;
 import com.sequenceiq.flow.core.ResourceIdProvider;
 import com.sequenceiq.flow.domain.FlowChainLog;
+import com.sequenceiq.flow.domain.FlowChainStep;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.FlowLogIdFlowAndType;
 import com.sequenceiq.flow.domain.StateStatus;
@@ -113,10 +115,32 @@ public class FlowLogDBService implements FlowLogService {
         });
     }
 
+    /**
+     * Stores a new flow chain once, when it is created: a log of the chain and a row for each of its steps. Advancing the chain only marks the
+     * triggered step, see {@link #markChainStepTriggered(String, int)}.
+     */
+    @Override
     public void saveChain(String flowChainId, String parentFlowChainId, Queue<Selectable> chain, String flowTriggerUserCrn) {
-        String chainJson = JsonWriter.objectToJson(chain);
-        FlowChainLog chainLog = new FlowChainLog(flowChainId, parentFlowChainId, chainJson, flowTriggerUserCrn);
-        flowChainLogService.save(chainLog);
+        List<String> events = chain.stream().map(JsonWriter::objectToJson).collect(Collectors.toList());
+        try {
+            transactionService.required(() -> {
+                flowChainLogService.save(new FlowChainLog(flowChainId, parentFlowChainId, flowTriggerUserCrn));
+                flowChainLogService.saveSteps(flowChainId, events);
+                return null;
+            });
+        } catch (TransactionExecutionException e) {
+            throw new TransactionRuntimeExecutionException(e);
+        }
+    }
+
+    @Override
+    public void markChainStepTriggered(String flowChainId, int stepIndex) {
+        flowChainLogService.markStepTriggered(flowChainId, stepIndex);
+    }
+
+    @Override
+    public List<FlowChainStep> findPendingChainSteps(String flowChainId) {
+        return flowChainLogService.findPendingSteps(flowChainId);
     }
 
     public void updateLastFlowLogStatus(FlowLog lastFlowLog, boolean failureEvent) {
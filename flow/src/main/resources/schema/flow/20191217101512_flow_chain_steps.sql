@@ -0,0 +1,20 @@
+-- // flow chain steps
+-- Migration SQL that makes the change goes here.
+
+CREATE TABLE IF NOT EXISTS flowchainstep (
+  id bigserial NOT NULL,
+  created int8 NOT NULL DEFAULT (date_part('epoch'::text, now()) * 1000::double precision),
+  flowchainid varchar(255) NOT NULL,
+  stepindex int4 NOT NULL,
+  event text NOT NULL,
+  status varchar(255) NOT NULL,
+  CONSTRAINT flowchainstep_pkey PRIMARY KEY (id),
+  CONSTRAINT uk_flowchainstep_flowchainid_stepindex UNIQUE (flowchainid, stepindex)
+);
+
+ALTER TABLE IF EXISTS flowchainlog ALTER COLUMN "chain" DROP NOT NULL;
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+DROP TABLE IF EXISTS flowchainstep;
@@ -0,0 +1,18 @@
+-- // flowlog partial indexes
+-- Migration SQL that makes the change goes here.
+
+CREATE INDEX IF NOT EXISTS idx_flowlog_running_resourceid ON flowlog USING btree (resourceid) WHERE finalized = false AND statestatus = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_flowlog_running_cloudbreaknodeid ON flowlog USING btree (cloudbreaknodeid) WHERE finalized = false AND statestatus = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_flowlog_finished_created ON flowlog USING btree (created)
+    WHERE finalized = true AND currentstate IN ('FINISHED', 'CANCELLED', 'TERMINATED');
+DROP INDEX IF EXISTS idx_flowlog_finalized;
+DROP INDEX IF EXISTS idx_flowlog_statestatus;
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+CREATE INDEX IF NOT EXISTS idx_flowlog_statestatus ON flowlog USING btree (statestatus);
+CREATE INDEX IF NOT EXISTS idx_flowlog_finalized ON flowlog USING btree (finalized);
+DROP INDEX IF EXISTS idx_flowlog_finished_created;
+DROP INDEX IF EXISTS idx_flowlog_running_cloudbreaknodeid;
+DROP INDEX IF EXISTS idx_flowlog_running_resourceid;
@@ -0,0 +1,28 @@
+-- // queued flows waiting for admission
+-- Migration SQL that makes the change goes here.
+
+CREATE TABLE IF NOT EXISTS queuedflow (
+  id bigserial NOT NULL,
+  created int8 NOT NULL DEFAULT (date_part('epoch'::text, now()) * 1000::double precision),
+  resourceid int8 NOT NULL,
+  flowtriggerkey varchar(255) NOT NULL,
+  payload text NOT NULL,
+  flowchainid varchar(255),
+  flowtriggerusercrn varchar(255),
+  contextparams text,
+  accountid varchar(255) NOT NULL,
+  flowtype varchar(255) NOT NULL,
+  region varchar(255),
+  cloudbreaknodeid varchar(255),
+  CONSTRAINT queuedflow_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_queuedflow_cloudbreaknodeid_created ON queuedflow (cloudbreaknodeid, created);
+CREATE INDEX IF NOT EXISTS idx_queuedflow_resourceid ON queuedflow (resourceid);
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+DROP INDEX IF EXISTS idx_queuedflow_resourceid;
+DROP INDEX IF EXISTS idx_queuedflow_cloudbreaknodeid_created;
+DROP TABLE IF EXISTS queuedflow;
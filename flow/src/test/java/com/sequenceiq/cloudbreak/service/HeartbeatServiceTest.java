@@ -58,6 +58,7 @@ import com.sequenceiq.flow.core.ApplicationFlowInformation;
 import com.sequenceiq.flow.core.Flow2Handler;
 import com.sequenceiq.flow.core.FlowLogService;
 import com.sequenceiq.flow.core.FlowRegister;
+import com.sequenceiq.flow.core.admission.FlowAdmissionService;
 import com.sequenceiq.flow.core.config.FlowConfiguration;
 import com.sequenceiq.flow.core.helloworld.config.HelloWorldFlowConfig;
 import com.sequenceiq.flow.domain.FlowLog;
@@ -108,6 +109,9 @@ public class HeartbeatServiceTest {
     @Mock
     private ApplicationFlowInformation applicationFlowInformation;
 
+    @Mock
+    private FlowAdmissionService flowAdmissionService;
+
     @Captor
     private ArgumentCaptor<String> stringCaptor;
 
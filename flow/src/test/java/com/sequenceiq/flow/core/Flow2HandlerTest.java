@@ -29,6 +29,7 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -46,10 +47,12 @@ import com.google.common.collect.Lists;
 import com.sequenceiq.cloudbreak.common.event.Payload;
 import com.sequenceiq.cloudbreak.common.service.TransactionService;
 import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
+import com.sequenceiq.flow.core.admission.FlowAdmissionService;
 import com.sequenceiq.flow.core.chain.FlowChainHandler;
 import com.sequenceiq.flow.core.chain.FlowChains;
 import com.sequenceiq.flow.core.config.FlowConfiguration;
 import com.sequenceiq.flow.core.helloworld.config.HelloWorldFlowConfig;
+import com.sequenceiq.flow.core.helloworld.flowevents.HelloWorldFlowTriggerEvent;
 import com.sequenceiq.flow.core.restart.DefaultRestartAction;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.StateStatus;
@@ -57,6 +60,7 @@ import com.sequenceiq.flow.domain.StateStatus;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import reactor.bus.Event;
 import reactor.bus.Event.Headers;
+import reactor.rx.Promise;
 
 @SuppressFBWarnings("RV_RETURN_VALUE_IGNORED_NO_SIDE_EFFECT")
 public class Flow2HandlerTest {
@@ -130,6 +134,9 @@ public class Flow2HandlerTest {
     @Mock
     private ApplicationFlowInformation applicationFlowInformation;
 
+    @Mock
+    private FlowAdmissionService flowAdmissionService;
+
     private FlowState flowState;
 
     private Event<? extends Payload> dummyEvent;
@@ -195,6 +202,169 @@ public class Flow2HandlerTest {
         verify(flowLogService, never()).save(any(FlowParameters.class), anyString(), anyString(), any(Payload.class), anyMap(), any(), any(FlowState.class));
     }
 
+    @Test
+    public void testNewFlowOverQuotaIsQueued() {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowTriggerCondition.isFlowTriggerable(anyLong())).willReturn(true);
+        given(flowAdmissionService.enqueueIfOverQuota(eq("KEY"), eq(payload), any(FlowParameters.class), isNull(), anyMap(), any())).willReturn(true);
+        Event<Payload> event = new Event<>(payload);
+        event.setKey("KEY");
+        underTest.accept(event);
+        verify(flowConfig, never()).createFlow(anyString(), anyLong());
+        verify(runningFlows, never()).put(any(Flow.class), nullable(String.class));
+        verify(flowLogService, never()).save(any(FlowParameters.class), nullable(String.class), anyString(), any(Payload.class), any(), any(), any());
+    }
+
+    @Test
+    public void testAdmittedFlowIsStartedWithoutQuotaCheck() {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.createFlow(anyString(), anyLong())).willReturn(flow);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowTriggerCondition.isFlowTriggerable(anyLong())).willReturn(true);
+        given(flow.getCurrentState()).willReturn(flowState);
+        Event<Payload> event = new Event<>(payload);
+        event.setKey("KEY");
+        event.getHeaders().set(FlowConstants.FLOW_ADMISSION_ID, "admission-1");
+        given(flowAdmissionService.startAdmittedFlow(eq("admission-1"), anyString())).willReturn(true);
+        underTest.accept(event);
+        ArgumentCaptor<String> flowIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(flowAdmissionService, times(1)).startAdmittedFlow(eq("admission-1"), flowIdCaptor.capture());
+        verify(flowAdmissionService, never()).enqueueIfOverQuota(anyString(), any(), any(), any(), any(), any());
+        verify(flowConfig, times(1)).createFlow(flowIdCaptor.getValue(), STACK_ID);
+        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class));
+        verify(flow, times(1)).sendEvent(anyString(), isNull(), any());
+    }
+
+    @Test
+    public void testAdmittedMidChainFlowQueuedBeforeRestartRestoresItsFlowChain() throws TransactionExecutionException {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.createFlow(anyString(), anyLong())).willReturn(flow);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowTriggerCondition.isFlowTriggerable(anyLong())).willReturn(true);
+        given(flow.getCurrentState()).willReturn(flowState);
+        given(flowChains.isFlowChainRegistered(FLOW_CHAIN_ID)).willReturn(false);
+        given(flowAdmissionService.startAdmittedFlow(eq("admission-1"), anyString())).willReturn(true);
+        Event<Payload> event = new Event<>(payload);
+        event.setKey("KEY");
+        event.getHeaders().set(FlowConstants.FLOW_ADMISSION_ID, "admission-1");
+        event.getHeaders().set(Flow2Handler.FLOW_CHAIN_ID, FLOW_CHAIN_ID);
+        event.getHeaders().set(FlowConstants.FLOW_TRIGGER_USERCRN, FLOW_TRIGGER_USERCRN);
+
+        underTest.accept(event);
+
+        ArgumentCaptor<String> flowIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(flowAdmissionService, times(1)).startAdmittedFlow(eq("admission-1"), flowIdCaptor.capture());
+        InOrder inOrder = Mockito.inOrder(flowChainHandler, runningFlows);
+        inOrder.verify(flowChainHandler, times(1)).restoreFlowChain(FLOW_CHAIN_ID);
+        inOrder.verify(runningFlows, times(1)).put(flow, FLOW_CHAIN_ID);
+
+        given(runningFlows.remove(flowIdCaptor.getValue())).willReturn(flow);
+        Event<Payload> finalEvent = new Event<>(payload);
+        finalEvent.setKey(Flow2Handler.FLOW_FINAL);
+        finalEvent.getHeaders().set(Flow2Handler.FLOW_ID, flowIdCaptor.getValue());
+        finalEvent.getHeaders().set(Flow2Handler.FLOW_CHAIN_ID, FLOW_CHAIN_ID);
+        finalEvent.getHeaders().set(FlowConstants.FLOW_TRIGGER_USERCRN, FLOW_TRIGGER_USERCRN);
+
+        underTest.accept(finalEvent);
+
+        verify(flowChains, times(1)).triggerNextFlow(eq(FLOW_CHAIN_ID), eq(FLOW_TRIGGER_USERCRN), any());
+    }
+
+    @Test
+    public void testAdmittedFlowDoesNotRestoreTheFlowChainInMemory() {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.createFlow(anyString(), anyLong())).willReturn(flow);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowTriggerCondition.isFlowTriggerable(anyLong())).willReturn(true);
+        given(flow.getCurrentState()).willReturn(flowState);
+        given(flowChains.isFlowChainRegistered(FLOW_CHAIN_ID)).willReturn(true);
+        given(flowAdmissionService.startAdmittedFlow(eq("admission-1"), anyString())).willReturn(true);
+        Event<Payload> event = new Event<>(payload);
+        event.setKey("KEY");
+        event.getHeaders().set(FlowConstants.FLOW_ADMISSION_ID, "admission-1");
+        event.getHeaders().set(Flow2Handler.FLOW_CHAIN_ID, FLOW_CHAIN_ID);
+
+        underTest.accept(event);
+
+        verify(flowChainHandler, never()).restoreFlowChain(anyString());
+        verify(runningFlows, times(1)).put(flow, FLOW_CHAIN_ID);
+    }
+
+    @Test
+    public void testNewFlowIsRejectedWhenAFlowOfTheResourceIsQueued() {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowTriggerCondition.isFlowTriggerable(anyLong())).willReturn(true);
+        given(flowAdmissionService.hasQueuedFlow(STACK_ID)).willReturn(true);
+        Promise<Boolean> accepted = new Promise<>();
+        Event<Payload> event = new Event<>(new HelloWorldFlowTriggerEvent(STACK_ID, accepted));
+        event.setKey("KEY");
+        underTest.accept(event);
+        assertEquals(Boolean.FALSE, accepted.get());
+        verify(flowAdmissionService, never()).enqueueIfOverQuota(anyString(), any(), any(), any(), any(), any());
+        verify(runningFlows, never()).put(any(Flow.class), nullable(String.class));
+    }
+
+    @Test
+    public void testAdmittedFlowIsPostponedWhenOtherFlowIsRunning() {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowTriggerCondition.isFlowTriggerable(anyLong())).willReturn(true);
+        given(flowLogService.isOtherFlowRunning(STACK_ID)).willReturn(true);
+        Event<Payload> event = new Event<>(new HelloWorldFlowTriggerEvent(STACK_ID, null));
+        event.setKey("KEY");
+        event.getHeaders().set(FlowConstants.FLOW_ADMISSION_ID, "admission-1");
+        underTest.accept(event);
+        verify(flowAdmissionService, times(1)).postponeAdmittedFlow("admission-1");
+        verify(flowAdmissionService, never()).startAdmittedFlow(anyString(), anyString());
+        verify(flowAdmissionService, never()).dropAdmittedFlow(anyString());
+        verify(runningFlows, never()).put(any(Flow.class), nullable(String.class));
+    }
+
+    @Test
+    public void testAdmittedFlowRemovedFromTheQueueIsNotStarted() {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowTriggerCondition.isFlowTriggerable(anyLong())).willReturn(true);
+        given(flowAdmissionService.startAdmittedFlow(eq("admission-1"), anyString())).willReturn(false);
+        Event<Payload> event = new Event<>(payload);
+        event.setKey("KEY");
+        event.getHeaders().set(FlowConstants.FLOW_ADMISSION_ID, "admission-1");
+        underTest.accept(event);
+        verify(flowConfig, never()).createFlow(anyString(), anyLong());
+        verify(runningFlows, never()).put(any(Flow.class), nullable(String.class));
+    }
+
+    @Test
+    public void testAdmittedFlowIsDroppedWithItsFlowChainWhenNotTriggerable() {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowTriggerCondition.isFlowTriggerable(anyLong())).willReturn(false);
+        Event<Payload> event = new Event<>(payload);
+        event.setKey("KEY");
+        event.getHeaders().set(FlowConstants.FLOW_ADMISSION_ID, "admission-1");
+        event.getHeaders().set(Flow2Handler.FLOW_CHAIN_ID, FLOW_CHAIN_ID);
+        underTest.accept(event);
+        verify(flowAdmissionService, times(1)).dropAdmittedFlow("admission-1");
+        verify(flowChains, times(1)).removeFullFlowChain(FLOW_CHAIN_ID);
+        verify(runningFlows, never()).put(any(Flow.class), nullable(String.class));
+    }
+
+    @Test
+    public void testAdmittedFlowWithoutFlowChainIsDroppedWhenNotTriggerable() {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowTriggerCondition.isFlowTriggerable(anyLong())).willReturn(false);
+        Event<Payload> event = new Event<>(payload);
+        event.setKey("KEY");
+        event.getHeaders().set(FlowConstants.FLOW_ADMISSION_ID, "admission-1");
+        underTest.accept(event);
+        verify(flowAdmissionService, times(1)).dropAdmittedFlow("admission-1");
+        verify(flowChains, never()).removeFullFlowChain(anyString());
+        verify(runningFlows, never()).put(any(Flow.class), nullable(String.class));
+    }
+
     @Test
     public void testExistingFlow() {
         FlowLog lastFlowLog = new FlowLog();
@@ -0,0 +1,317 @@
+package com.sequenceiq.flow.core.admission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cedarsoftware.util.io.JsonWriter;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.flow.core.ApplicationFlowInformation;
+import com.sequenceiq.flow.core.Flow;
+import com.sequenceiq.flow.core.FlowConstants;
+import com.sequenceiq.flow.core.FlowParameters;
+import com.sequenceiq.flow.core.FlowRegister;
+import com.sequenceiq.flow.core.helloworld.HelloWorldSelectableEvent;
+import com.sequenceiq.flow.core.helloworld.config.HelloWorldFlowConfig;
+import com.sequenceiq.flow.domain.QueuedFlow;
+import com.sequenceiq.flow.ha.NodeConfig;
+import com.sequenceiq.flow.reactor.ErrorHandlerAwareReactorEventFactory;
+import com.sequenceiq.flow.repository.QueuedFlowRepository;
+
+import reactor.bus.Event;
+import reactor.bus.EventBus;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FlowAdmissionServiceTest {
+
+    private static final String ACCOUNT_1_USER = "crn:cdp:iam:us-west-1:account1:user:user1";
+
+    private static final String ACCOUNT_2_USER = "crn:cdp:iam:us-west-1:account2:user:user2";
+
+    private static final String KEY = "HELLOWORLD_TRIGGER_EVENT";
+
+    private static final long NOW = 1_000_000L;
+
+    @Mock
+    private QueuedFlowRepository queuedFlowRepository;
+
+    @Mock
+    private FlowRegister runningFlows;
+
+    @Mock
+    private ApplicationFlowInformation applicationFlowInformation;
+
+    @Mock
+    private NodeConfig nodeConfig;
+
+    @Mock
+    private EventBus eventBus;
+
+    @Mock
+    private ErrorHandlerAwareReactorEventFactory eventFactory;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private Flow flow;
+
+    @InjectMocks
+    private FlowAdmissionService underTest;
+
+    private final List<QueuedFlow> queue = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "accountQuota", 1);
+        ReflectionTestUtils.setField(underTest, "writeOptions", Map.of());
+        ReflectionTestUtils.setField(underTest, "regionProvider", Optional.empty());
+        underTest.init();
+    }
+
+    @After
+    public void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    public void testNothingIsQueuedWhenDisabled() {
+        ReflectionTestUtils.setField(underTest, "enabled", false);
+
+        assertFalse(enqueue("flow1", ACCOUNT_1_USER));
+        assertFalse(enqueue("flow2", ACCOUNT_1_USER));
+
+        verifyZeroInteractions(queuedFlowRepository);
+    }
+
+    @Test
+    public void testFlowOverTheAccountQuotaIsQueued() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(runningFlows.get("flow1")).thenReturn(flow);
+        mockQueue();
+
+        assertFalse(enqueue("flow1", ACCOUNT_1_USER));
+        assertTrue(enqueue("flow2", ACCOUNT_1_USER));
+        assertFalse(enqueue("flow3", ACCOUNT_2_USER));
+
+        assertEquals(1, queue.size());
+        QueuedFlow queuedFlow = queue.get(0);
+        assertEquals("account1", queuedFlow.getAccountId());
+        assertEquals(HelloWorldFlowConfig.class.getSimpleName(), queuedFlow.getFlowType());
+        assertEquals(KEY, queuedFlow.getFlowTriggerKey());
+        assertEquals(Long.valueOf(1L), queuedFlow.getResourceId());
+        assertNull(queuedFlow.getRegion());
+        verify(queuedFlowRepository, times(1)).findAllByCloudbreakNodeIdIsNullOrderByCreatedAscIdAsc();
+    }
+
+    @Test
+    public void testNewFlowDoesNotTakeTheSlotOfAnAdmissibleQueuedFlow() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        queue.add(queuedFlow(1L, "account1"));
+        mockQueue();
+
+        assertTrue(enqueue("flow2", ACCOUNT_1_USER));
+        assertFalse(enqueue("flow3", ACCOUNT_2_USER));
+
+        assertEquals(List.of(1L, 2L), queue.stream().map(QueuedFlow::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testTerminationFlowIsNotQueued() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        doReturn(List.of(HelloWorldFlowConfig.class)).when(applicationFlowInformation).getTerminationFlow();
+
+        assertFalse(enqueue("flow1", ACCOUNT_1_USER));
+        assertFalse(enqueue("flow2", ACCOUNT_1_USER));
+
+        verify(queuedFlowRepository, never()).save(any());
+    }
+
+    @Test
+    public void testFlowTypeQuota() {
+        ReflectionTestUtils.setField(underTest, "accountQuota", 0);
+        ReflectionTestUtils.setField(underTest, "flowTypeQuotaConfig", "HelloWorldFlowConfig=2, StackUpscaleConfig=10");
+        underTest.init();
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        mockQueue();
+
+        assertFalse(enqueue("flow1", ACCOUNT_1_USER));
+        assertFalse(enqueue("flow2", ACCOUNT_2_USER));
+        assertTrue(enqueue("flow3", ACCOUNT_2_USER));
+    }
+
+    @Test
+    public void testQueueIsOrderedRoundRobinAcrossAccounts() {
+        List<QueuedFlow> queue = List.of(queuedFlow(1L, "account1"), queuedFlow(2L, "account1"), queuedFlow(3L, "account1"),
+                queuedFlow(4L, "account2"), queuedFlow(5L, "account3"), queuedFlow(6L, "account2"));
+
+        List<QueuedFlow> fairQueue = FlowAdmissionService.fairOrder(queue);
+
+        assertEquals(List.of(1L, 4L, 5L, 2L, 6L, 3L), fairQueue.stream().map(QueuedFlow::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testQueuedFlowsAreAdmittedWithinTheQuotas() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(queuedFlowRepository.findAllByCloudbreakNodeIdIsNullOrderByCreatedAscIdAsc()).thenAnswer(invocation -> new ArrayList<>(queue));
+        mockEvents();
+        queue.addAll(List.of(queuedFlow(1L, "account1"), queuedFlow(2L, "account1"), queuedFlow(3L, "account2")));
+
+        underTest.admitQueuedFlows();
+        underTest.admitQueuedFlows();
+
+        ArgumentCaptor<Map<String, Object>> headersCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(eventFactory, times(2)).createEventWithErrHandler(headersCaptor.capture(), any(HelloWorldSelectableEvent.class));
+        assertEquals(List.of("admission-1", "admission-3"), headersCaptor.getAllValues().stream()
+                .map(headers -> headers.get(FlowConstants.FLOW_ADMISSION_ID)).collect(Collectors.toList()));
+        verify(eventBus, times(2)).notify(eq(KEY), any(Event.class));
+        verify(queuedFlowRepository, times(1)).findAllByCloudbreakNodeIdIsNullOrderByCreatedAscIdAsc();
+        verify(queuedFlowRepository, never()).deleteQueuedFlow(anyLong());
+    }
+
+    @Test
+    public void testReleasedFlowAdmitsTheNextQueuedFlow() {
+        ReflectionTestUtils.setField(underTest, "admissionExecutor", MoreExecutors.newDirectExecutorService());
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(runningFlows.get("flow1")).thenReturn(flow);
+        mockQueue();
+        mockEvents();
+        mockDelete();
+        assertFalse(enqueue("flow1", ACCOUNT_1_USER));
+        assertTrue(enqueue("flow2", ACCOUNT_1_USER));
+
+        underTest.release("flow1");
+
+        ArgumentCaptor<Map<String, Object>> headersCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(eventFactory).createEventWithErrHandler(headersCaptor.capture(), any(HelloWorldSelectableEvent.class));
+        assertEquals(ACCOUNT_1_USER, headersCaptor.getValue().get(FlowConstants.FLOW_TRIGGER_USERCRN));
+        verify(eventBus).notify(eq(KEY), any(Event.class));
+        assertEquals(1, queue.size());
+        assertTrue(underTest.startAdmittedFlow("admission-1", "flow2"));
+        assertTrue(queue.isEmpty());
+        assertFalse(underTest.startAdmittedFlow("admission-1", "flow3"));
+    }
+
+    @Test
+    public void testAdmittedFlowRemovedFromTheQueueIsNotStarted() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(queuedFlowRepository.findAllByCloudbreakNodeIdIsNullOrderByCreatedAscIdAsc()).thenAnswer(invocation -> new ArrayList<>(queue));
+        when(queuedFlowRepository.deleteByResourceId(1L)).thenReturn(1);
+        mockEvents();
+        queue.add(queuedFlow(1L, "account1"));
+        underTest.admitQueuedFlows();
+
+        underTest.removeQueuedFlows(1L);
+
+        assertFalse(underTest.startAdmittedFlow("admission-1", "flow1"));
+        verify(queuedFlowRepository, never()).deleteQueuedFlow(anyLong());
+    }
+
+    @Test
+    public void testDroppedFlowIsRemovedFromTheQueue() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(queuedFlowRepository.findAllByCloudbreakNodeIdIsNullOrderByCreatedAscIdAsc()).thenAnswer(invocation -> new ArrayList<>(queue));
+        mockEvents();
+        mockDelete();
+        queue.add(queuedFlow(1L, "account1"));
+        underTest.admitQueuedFlows();
+
+        underTest.dropAdmittedFlow("admission-1");
+
+        assertTrue(queue.isEmpty());
+        assertFalse(underTest.startAdmittedFlow("admission-1", "flow1"));
+    }
+
+    @Test
+    public void testPostponedFlowIsAdmittedAgain() {
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(queuedFlowRepository.findAllByCloudbreakNodeIdIsNullOrderByCreatedAscIdAsc()).thenAnswer(invocation -> new ArrayList<>(queue));
+        mockEvents();
+        queue.add(queuedFlow(1L, "account1"));
+        underTest.admitQueuedFlows();
+
+        underTest.postponeAdmittedFlow("admission-1");
+        underTest.admitQueuedFlows();
+
+        verify(eventBus, times(2)).notify(eq(KEY), any(Event.class));
+        verify(queuedFlowRepository, never()).deleteQueuedFlow(anyLong());
+    }
+
+    @Test
+    public void testQueuedFlowOfTheResourceIsNotLookedUpOnceTheQueueIsDrained() {
+        when(queuedFlowRepository.existsByResourceId(1L)).thenReturn(true);
+        when(queuedFlowRepository.findAllByCloudbreakNodeIdIsNullOrderByCreatedAscIdAsc()).thenReturn(new ArrayList<>());
+
+        assertTrue(underTest.hasQueuedFlow(1L));
+        ReflectionTestUtils.setField(underTest, "enabled", false);
+        underTest.admitQueuedFlows();
+
+        assertFalse(underTest.hasQueuedFlow(1L));
+        verify(queuedFlowRepository, times(1)).existsByResourceId(1L);
+    }
+
+    private boolean enqueue(String flowId, String userCrn) {
+        return underTest.enqueueIfOverQuota(KEY, new HelloWorldSelectableEvent(1L), new FlowParameters(flowId, userCrn), null, Map.of(),
+                HelloWorldFlowConfig.class);
+    }
+
+    private void mockQueue() {
+        when(queuedFlowRepository.findAllByCloudbreakNodeIdIsNullOrderByCreatedAscIdAsc()).thenAnswer(invocation -> new ArrayList<>(queue));
+        when(queuedFlowRepository.save(any(QueuedFlow.class))).thenAnswer(invocation -> {
+            QueuedFlow queuedFlow = invocation.getArgument(0);
+            queuedFlow.setId((long) queue.size() + 1);
+            queue.add(queuedFlow);
+            return queuedFlow;
+        });
+    }
+
+    private void mockEvents() {
+        when(eventFactory.createEventWithErrHandler(anyMap(), any())).thenAnswer(invocation -> new Event<>(invocation.getArgument(1)));
+    }
+
+    private void mockDelete() {
+        when(queuedFlowRepository.deleteQueuedFlow(anyLong()))
+                .thenAnswer(invocation -> queue.removeIf(queuedFlow -> queuedFlow.getId().equals(invocation.getArgument(0))) ? 1 : 0);
+    }
+
+    private QueuedFlow queuedFlow(Long id, String accountId) {
+        QueuedFlow queuedFlow = new QueuedFlow();
+        queuedFlow.setId(id);
+        queuedFlow.setCreated(NOW - id);
+        queuedFlow.setAccountId(accountId);
+        queuedFlow.setFlowType(HelloWorldFlowConfig.class.getSimpleName());
+        queuedFlow.setFlowTriggerKey(KEY);
+        queuedFlow.setResourceId(id);
+        queuedFlow.setPayload(JsonWriter.objectToJson(new HelloWorldSelectableEvent(id)));
+        return queuedFlow;
+    }
+}
@@ -0,0 +1,93 @@
+package com.sequenceiq.flow.core.chain;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.cedarsoftware.util.io.JsonWriter;
+import com.sequenceiq.cloudbreak.common.event.Selectable;
+import com.sequenceiq.flow.core.FlowLogService;
+import com.sequenceiq.flow.core.helloworld.HelloWorldSelectableEvent;
+import com.sequenceiq.flow.domain.FlowChainLog;
+import com.sequenceiq.flow.domain.FlowChainStep;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FlowChainHandlerTest {
+
+    private static final String FLOW_CHAIN_ID = "flowChainId";
+
+    private static final String PARENT_FLOW_CHAIN_ID = "parentFlowChainId";
+
+    private static final String FLOW_TRIGGER_USERCRN = "flowTriggerUserCrn";
+
+    @InjectMocks
+    private FlowChainHandler underTest;
+
+    @Mock
+    private FlowChains flowChains;
+
+    @Mock
+    private FlowLogService flowLogService;
+
+    @Test
+    public void testRestoreReadsOnlyThePendingStepsOfTheChainAndItsParent() {
+        when(flowLogService.findFirstByFlowChainIdOrderByCreatedDesc(FLOW_CHAIN_ID))
+                .thenReturn(Optional.of(new FlowChainLog(FLOW_CHAIN_ID, PARENT_FLOW_CHAIN_ID, FLOW_TRIGGER_USERCRN)));
+        when(flowLogService.findFirstByFlowChainIdOrderByCreatedDesc(PARENT_FLOW_CHAIN_ID))
+                .thenReturn(Optional.of(new FlowChainLog(PARENT_FLOW_CHAIN_ID, null, FLOW_TRIGGER_USERCRN)));
+        when(flowLogService.findPendingChainSteps(FLOW_CHAIN_ID)).thenReturn(List.of(step(FLOW_CHAIN_ID, 3, "FOURTH"), step(FLOW_CHAIN_ID, 4, "FIFTH")));
+        when(flowLogService.findPendingChainSteps(PARENT_FLOW_CHAIN_ID)).thenReturn(List.of());
+
+        underTest.restoreFlowChain(FLOW_CHAIN_ID);
+
+        ArgumentCaptor<Queue<Selectable>> captor = ArgumentCaptor.forClass(Queue.class);
+        verify(flowChains).putFlowChain(eq(FLOW_CHAIN_ID), eq(PARENT_FLOW_CHAIN_ID), captor.capture(), eq(3));
+        assertEquals(List.of("FOURTH", "FIFTH"), selectors(captor.getValue()));
+        verify(flowChains).putFlowChain(eq(PARENT_FLOW_CHAIN_ID), eq(null), any(), eq(0));
+        verify(flowChains, never()).saveFlowChain(any(), any(), any(), any());
+    }
+
+    @Test
+    public void testRestoreStoresTheStepsOfAChainLoggedAsASerializedQueue() {
+        Queue<Selectable> chain = new ConcurrentLinkedQueue<>();
+        chain.add(new HelloWorldSelectableEvent(1L, "SECOND"));
+        FlowChainLog chainLog = new FlowChainLog(FLOW_CHAIN_ID, null, FLOW_TRIGGER_USERCRN);
+        chainLog.setChain(JsonWriter.objectToJson(chain));
+        when(flowLogService.findFirstByFlowChainIdOrderByCreatedDesc(FLOW_CHAIN_ID)).thenReturn(Optional.of(chainLog));
+
+        underTest.restoreFlowChain(FLOW_CHAIN_ID);
+
+        ArgumentCaptor<Queue<Selectable>> captor = ArgumentCaptor.forClass(Queue.class);
+        verify(flowChains).saveFlowChain(eq(FLOW_CHAIN_ID), eq(null), captor.capture(), eq(FLOW_TRIGGER_USERCRN));
+        assertEquals(List.of("SECOND"), selectors(captor.getValue()));
+        verify(flowLogService, never()).findPendingChainSteps(any());
+        verify(flowChains, never()).putFlowChain(any(), any(), any(), anyInt());
+    }
+
+    private FlowChainStep step(String flowChainId, int stepIndex, String selector) {
+        return new FlowChainStep(flowChainId, stepIndex, JsonWriter.objectToJson(new HelloWorldSelectableEvent(1L, selector)));
+    }
+
+    private List<String> selectors(Queue<Selectable> chain) {
+        List<String> selectors = new ArrayList<>();
+        chain.forEach(selectable -> selectors.add(selectable.selector()));
+        return selectors;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sequenceiq.flow.core.chain;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.sequenceiq.cloudbreak.common.event.Selectable;
+import com.sequenceiq.flow.core.FlowLogService;
+import com.sequenceiq.flow.core.helloworld.HelloWorldSelectableEvent;
+import com.sequenceiq.flow.reactor.ErrorHandlerAwareReactorEventFactory;
+
+import reactor.bus.Event;
+import reactor.bus.EventBus;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FlowChainsTest {
+
+    private static final String FLOW_CHAIN_ID = "flowChainId";
+
+    private static final String PARENT_FLOW_CHAIN_ID = "parentFlowChainId";
+
+    private static final String FLOW_TRIGGER_USERCRN = "flowTriggerUserCrn";
+
+    @InjectMocks
+    private FlowChains underTest;
+
+    @Mock
+    private EventBus eventBus;
+
+    @Mock
+    private ErrorHandlerAwareReactorEventFactory eventFactory;
+
+    @Mock
+    private FlowLogService flowLogService;
+
+    @Test
+    public void testChainIsSavedOnceAndItsStepsAreMarkedAsTheyAreTriggered() {
+        Queue<Selectable> chain = chain("FIRST", "SECOND");
+
+        underTest.saveFlowChain(FLOW_CHAIN_ID, null, chain, FLOW_TRIGGER_USERCRN);
+        underTest.triggerNextFlow(FLOW_CHAIN_ID, FLOW_TRIGGER_USERCRN, Map.of());
+        underTest.triggerNextFlow(FLOW_CHAIN_ID, FLOW_TRIGGER_USERCRN, Map.of());
+        underTest.triggerNextFlow(FLOW_CHAIN_ID, FLOW_TRIGGER_USERCRN, Map.of());
+
+        verify(flowLogService, times(1)).saveChain(eq(FLOW_CHAIN_ID), isNull(), eq(chain), eq(FLOW_TRIGGER_USERCRN));
+        InOrder inOrder = inOrder(eventBus, flowLogService);
+        inOrder.verify(eventBus).notify(eq("FIRST"), nullable(Event.class));
+        inOrder.verify(flowLogService).markChainStepTriggered(FLOW_CHAIN_ID, 0);
+        inOrder.verify(eventBus).notify(eq("SECOND"), nullable(Event.class));
+        inOrder.verify(flowLogService).markChainStepTriggered(FLOW_CHAIN_ID, 1);
+        verify(flowLogService, times(2)).markChainStepTriggered(anyString(), anyInt());
+    }
+
+    @Test
+    public void testRestoredChainContinuesFromItsNextStepAndTriggersItsParent() {
+        underTest.putFlowChain(PARENT_FLOW_CHAIN_ID, null, chain("PARENT"), 2);
+        underTest.putFlowChain(FLOW_CHAIN_ID, PARENT_FLOW_CHAIN_ID, chain("LAST"), 5);
+
+        underTest.triggerNextFlow(FLOW_CHAIN_ID, FLOW_TRIGGER_USERCRN, Map.of());
+        underTest.triggerNextFlow(FLOW_CHAIN_ID, FLOW_TRIGGER_USERCRN, Map.of());
+
+        verify(flowLogService).markChainStepTriggered(FLOW_CHAIN_ID, 5);
+        verify(flowLogService).markChainStepTriggered(PARENT_FLOW_CHAIN_ID, 2);
+        verify(eventBus).notify(eq("PARENT"), nullable(Event.class));
+        verify(flowLogService, never()).saveChain(anyString(), any(), any(), any());
+    }
+
+    @Test
+    public void testRemovedChainIsNotTriggered() {
+        underTest.putFlowChain(FLOW_CHAIN_ID, null, chain("FIRST"), 0);
+
+        underTest.removeFullFlowChain(FLOW_CHAIN_ID);
+        underTest.triggerNextFlow(FLOW_CHAIN_ID, FLOW_TRIGGER_USERCRN, Map.of());
+
+        verify(eventBus, never()).notify(any(), nullable(Event.class));
+        verify(flowLogService, never()).markChainStepTriggered(anyString(), anyInt());
+    }
+
+    private Queue<Selectable> chain(String... selectors) {
+        Queue<Selectable> chain = new ConcurrentLinkedQueue<>();
+        for (String selector : selectors) {
+            chain.add(new HelloWorldSelectableEvent(1L, selector));
+        }
+        return chain;
+    }
+}
@@ -0,0 +1,88 @@
+package com.sequenceiq.flow.service.flowlog;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.common.service.TransactionService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
+import com.sequenceiq.flow.repository.FlowLogRepository;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FlowLogCompactionServiceTest {
+
+    private static final long NOW = 1_600_000_000_000L;
+
+    @Mock
+    private FlowLogRepository flowLogRepository;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private Clock clock;
+
+    @InjectMocks
+    private FlowLogCompactionService underTest;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(underTest, "batchSize", 2);
+    }
+
+    @Test
+    public void testCompactionIsDisabledWithoutRetention() {
+        ReflectionTestUtils.setField(underTest, "retentionHours", 0);
+
+        underTest.compactFinishedFlows();
+
+        verify(flowLogRepository, never()).findFinishedFlowIdsToCompact(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testFlowsAreCompactedInBatchesUntilABatchIsNotFull() throws TransactionExecutionException {
+        ReflectionTestUtils.setField(underTest, "retentionHours", 24);
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        doAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get()).when(transactionService).required(any());
+        long before = NOW - Duration.ofHours(24).toMillis();
+        when(flowLogRepository.findFinishedFlowIdsToCompact(before, 2)).thenReturn(List.of("flow1", "flow2"), List.of("flow3"));
+
+        underTest.compactFinishedFlows();
+
+        verify(flowLogRepository, times(2)).findFinishedFlowIdsToCompact(before, 2);
+        verify(flowLogRepository).updateFlowSummaries(List.of("flow1", "flow2"));
+        verify(flowLogRepository).deleteAllButLastFlowLogs(List.of("flow1", "flow2"));
+        verify(flowLogRepository).updateFlowSummaries(List.of("flow3"));
+        verify(flowLogRepository).deleteAllButLastFlowLogs(List.of("flow3"));
+    }
+
+    @Test
+    public void testCompactionStopsWhenABatchFails() throws TransactionExecutionException {
+        ReflectionTestUtils.setField(underTest, "retentionHours", 24);
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(transactionService.required(any())).thenThrow(new TransactionExecutionException("failed", new IllegalStateException("failed")));
+        when(flowLogRepository.findFinishedFlowIdsToCompact(anyLong(), anyInt())).thenReturn(List.of("flow1", "flow2"));
+
+        underTest.compactFinishedFlows();
+
+        verify(flowLogRepository, times(1)).findFinishedFlowIdsToCompact(anyLong(), anyInt());
+    }
+}
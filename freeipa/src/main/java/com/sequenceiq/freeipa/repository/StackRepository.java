@@ -31,6 +31,10 @@ public interface StackRepository extends BaseJpaRepository<Stack, Long> {
     @Query("SELECT s FROM Stack s WHERE s.terminated = -1 and s.stackStatus.status not in (:statuses)")
     List<Stack> findAllRunningAndStatusNotIn(@Param("statuses") Collection<Status> statuses);
 
+    @CheckPermission(action = ResourceAction.READ)
+    @Query("SELECT s FROM Stack s WHERE s.id IN (:ids) AND s.terminated = -1 and s.stackStatus.status not in (:statuses)")
+    List<Stack> findAllRunningByIdInAndStatusNotIn(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<Status> statuses);
+
     @CheckPermission(action = ResourceAction.READ)
     @Query("SELECT s FROM Stack s LEFT JOIN FETCH s.instanceGroups ig LEFT JOIN FETCH ig.instanceMetaData WHERE s.id= :id ")
     Optional<Stack> findOneWithLists(@Param("id") Long id);
@@ -2,6 +2,7 @@ package com.sequenceiq.freeipa.service.image;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -10,6 +11,7 @@ import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
@@ -21,13 +23,13 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sequenceiq.cloudbreak.cache.common.CachedDocument;
+import com.sequenceiq.cloudbreak.cache.common.RevalidatingDocumentCache;
 import com.sequenceiq.cloudbreak.client.RestClientUtil;
 import com.sequenceiq.cloudbreak.util.FileReaderUtils;
 import com.sequenceiq.freeipa.api.model.image.Image;
@@ -48,26 +50,52 @@ public class ImageCatalogProvider {
     @Inject
     private ObjectMapper objectMapper;
 
-    @Cacheable(cacheNames = "imageCatalogCache", key = "#catalogUrl")
-    public ImageCatalog getImageCatalog(String catalogUrl)  {
-        ImageCatalog catalog;
+    @Value("${cb.image.catalog.cache.ttl:15}")
+    private long ttlMinutes;
+
+    @Value("${cb.image.catalog.cache.maxStale:60}")
+    private long maxStaleMinutes;
+
+    private RevalidatingDocumentCache<ImageCatalog> imageCatalogCache;
+
+    @PostConstruct
+    public void init() {
+        Duration refreshAfter = ttlMinutes == 0L ? Duration.ofSeconds(1L) : Duration.ofMinutes(ttlMinutes);
+        imageCatalogCache = new RevalidatingDocumentCache<>(refreshAfter, Duration.ofMinutes(maxStaleMinutes), this::loadImageCatalog);
+    }
+
+    public ImageCatalog getImageCatalog(String catalogUrl) {
         if (catalogUrl == null) {
             LOGGER.info("No image catalog was defined!");
             return null;
         }
+        return imageCatalogCache.get(catalogUrl);
+    }
 
+    public void evictImageCatalogCache(String catalogUrl) {
+        imageCatalogCache.invalidate(catalogUrl);
+    }
+
+    /**
+     * Loads the image catalog, or revalidates the cached one with a conditional request if the catalog is served over http.
+     */
+    CachedDocument<ImageCatalog> loadImageCatalog(String catalogUrl, CachedDocument<ImageCatalog> cached) {
+        CachedDocument<ImageCatalog> document;
         try {
             long started = System.currentTimeMillis();
-            String content;
             if (catalogUrl.startsWith("http")) {
                 Client client = RestClientUtil.get();
                 WebTarget target = client.target(catalogUrl);
-                Response response = target.request().get();
-                content = readResponse(target, response);
+                Response response = cached == null ? target.request().get() : cached.withValidators(target.request()).get();
+                if (cached != null && cached.isNotModified(response)) {
+                    response.close();
+                    LOGGER.debug("ImageCatalog was not modified at '{}' since it was cached.", catalogUrl);
+                    return cached.revalidated();
+                }
+                document = CachedDocument.of(parseImageCatalog(readResponse(target, response)), response);
             } else {
-                content = readCatalogFromFile(catalogUrl);
+                document = CachedDocument.of(parseImageCatalog(readCatalogFromFile(catalogUrl)));
             }
-            catalog = filterImagesByOsType(objectMapper.readValue(content, ImageCatalog.class));
             long timeOfParse = System.currentTimeMillis() - started;
             LOGGER.debug("ImageCatalog was fetched and parsed from '{}' and took '{}' ms.", catalogUrl, timeOfParse);
         } catch (RuntimeException e) {
@@ -77,11 +105,11 @@ public class ImageCatalogProvider {
         } catch (IOException e) {
             throw new ImageCatalogException(String.format("Failed to read image catalog from file: '%s'", catalogUrl), e);
         }
-        return catalog;
+        return document;
     }
 
-    @CacheEvict(value = "imageCatalogCache", key = "#catalogUrl")
-    public void evictImageCatalogCache(String catalogUrl) {
+    private ImageCatalog parseImageCatalog(String content) throws IOException {
+        return filterImagesByOsType(objectMapper.readValue(content, ImageCatalog.class));
     }
 
     private ImageCatalog filterImagesByOsType(ImageCatalog catalog) {
@@ -18,6 +18,12 @@ import com.sequenceiq.freeipa.repository.StackRepository;
 @Service
 public class StackService {
 
+    private static final List<Status> NOT_AUTO_SYNCED_STATUSES = List.of(
+            Status.CREATE_IN_PROGRESS,
+            Status.CREATE_FAILED,
+            Status.REQUESTED,
+            Status.UPDATE_IN_PROGRESS);
+
     @Inject
     private StackRepository stackRepository;
 
@@ -26,11 +32,11 @@ public class StackService {
     }
 
     public List<Stack> findAllForAutoSync() {
-        return stackRepository.findAllRunningAndStatusNotIn(List.of(
-                Status.CREATE_IN_PROGRESS,
-                Status.CREATE_FAILED,
-                Status.REQUESTED,
-                Status.UPDATE_IN_PROGRESS));
+        return stackRepository.findAllRunningAndStatusNotIn(NOT_AUTO_SYNCED_STATUSES);
+    }
+
+    public List<Stack> findAllForAutoSyncByIds(Collection<Long> ids) {
+        return stackRepository.findAllRunningByIdInAndStatusNotIn(ids, NOT_AUTO_SYNCED_STATUSES);
     }
 
     public Stack getByIdWithListsInTransaction(Long id) {
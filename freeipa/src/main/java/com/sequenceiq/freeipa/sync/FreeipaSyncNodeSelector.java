@@ -0,0 +1,90 @@
+package com.sequenceiq.freeipa.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.ha.domain.Node;
+import com.sequenceiq.cloudbreak.ha.service.NodeService;
+import com.sequenceiq.flow.ha.NodeConfig;
+import com.sequenceiq.freeipa.entity.Stack;
+
+/**
+ * Shards the auto synced stacks across the freeipa nodes that have a recent heartbeat, so every stack is synced by a single node.
+ * Stacks are assigned with rendezvous hashing on their CRN: when a node joins or leaves only the stacks of that node move.
+ */
+@Component
+public class FreeipaSyncNodeSelector {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FreeipaSyncNodeSelector.class);
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    @Value("${cb.ha.heartbeat.threshold:60000}")
+    private long heartbeatThresholdRate;
+
+    @Inject
+    private NodeConfig nodeConfig;
+
+    @Inject
+    private NodeService nodeService;
+
+    @Inject
+    private Clock clock;
+
+    /**
+     * Returns the filter of the stacks to be synced by this node, based on the nodes active right now. Every stack is accepted when the node id
+     * is not configured, as there is no heartbeat to shard on.
+     */
+    public Predicate<Stack> ownedByThisNode() {
+        if (!nodeConfig.isNodeIdSpecified()) {
+            return stack -> true;
+        }
+        String nodeId = nodeConfig.getId();
+        List<String> activeNodeIds = getActiveNodeIds(nodeId);
+        LOGGER.debug(":::Auto sync updater::: stacks are sharded across the active nodes: {}", activeNodeIds);
+        return stack -> nodeId.equals(selectNode(stack.getResourceCrn(), activeNodeIds));
+    }
+
+    static String selectNode(String key, Collection<String> nodeIds) {
+        return nodeIds.stream()
+                .max(Comparator.<String>comparingLong(nodeId -> HASH_FUNCTION.newHasher()
+                        .putString(nodeId, StandardCharsets.UTF_8)
+                        .putString(key, StandardCharsets.UTF_8)
+                        .hash().asLong())
+                        .thenComparing(Comparator.naturalOrder()))
+                .orElse(null);
+    }
+
+    private List<String> getActiveNodeIds(String nodeId) {
+        Set<String> activeNodeIds = new TreeSet<>();
+        activeNodeIds.add(nodeId);
+        try {
+            long heartbeatThreshold = clock.getCurrentTimeMillis() - heartbeatThresholdRate;
+            for (Node node : nodeService.findAll()) {
+                if (node.getLastUpdated() >= heartbeatThreshold) {
+                    activeNodeIds.add(node.getUuid());
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn(":::Auto sync updater::: failed to query the active nodes, every stack is synced by this node: {}", e.getMessage());
+            return List.of(nodeId);
+        }
+        return new ArrayList<>(activeNodeIds);
+    }
+}
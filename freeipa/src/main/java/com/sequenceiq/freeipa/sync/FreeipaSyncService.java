@@ -2,12 +2,17 @@ package com.sequenceiq.freeipa.sync;
 
 import static com.sequenceiq.cloudbreak.util.Benchmark.checkedMeasure;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -21,6 +26,7 @@ import org.springframework.stereotype.Component;
 import com.sequenceiq.cloudbreak.auth.ThreadBasedUserCrnProvider;
 import com.sequenceiq.cloudbreak.auth.altus.Crn;
 import com.sequenceiq.cloudbreak.auth.security.InternalCrnBuilder;
+import com.sequenceiq.cloudbreak.common.service.Clock;
 import com.sequenceiq.cloudbreak.logger.MDCBuilder;
 import com.sequenceiq.cloudbreak.logger.MdcContext;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.DetailedStackStatus;
@@ -32,9 +38,21 @@ import com.sequenceiq.freeipa.service.stack.StackService;
 import com.sequenceiq.freeipa.service.stack.StackUpdater;
 import com.sequenceiq.freeipa.service.stack.instance.InstanceMetaDataService;
 
+import io.micrometer.core.instrument.Metrics;
+
 @Component
 public class FreeipaSyncService {
 
+    static final String SYNC_TIMER = "freeipa.autosync.stack.duration";
+
+    static final String LAG_TIMER = "freeipa.autosync.lag";
+
+    static final String SKIPPED_COUNTER = "freeipa.autosync.skipped";
+
+    static final String TIMEOUT_COUNTER = "freeipa.autosync.timeout";
+
+    static final String RUNNING_GAUGE = "freeipa.autosync.running";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(FreeipaSyncService.class);
 
     @Inject
@@ -43,6 +61,9 @@ public class FreeipaSyncService {
     @Inject
     private ProviderChecker providerChecker;
 
+    @Inject
+    private ProviderBatchChecker providerBatchChecker;
+
     @Inject
     private StackService stackService;
 
@@ -58,35 +79,135 @@ public class FreeipaSyncService {
     @Inject
     private StackUpdater stackUpdater;
 
+    @Inject
+    private FreeipaSyncNodeSelector nodeSelector;
+
+    @Inject
+    private Clock clock;
+
     @Value("${freeipa.autosync.enabled:true}")
     private boolean enabled;
 
     @Value("${freeipa.autosync.update.status:false}")
     private boolean updateStatus;
 
+    @Value("${freeipa.autosync.interval-millis:60000}")
+    private long intervalMillis;
+
+    @Value("${freeipa.autosync.jitter:0.1}")
+    private double jitter;
+
+    @Value("${freeipa.autosync.stack-timeout-millis:300000}")
+    private long stackTimeoutMillis;
+
+    private final Map<Long, Long> nextSyncByStackId = new ConcurrentHashMap<>();
+
+    private final Map<Long, RunningSync> runningSyncsByStackId = new ConcurrentHashMap<>();
+
+    private long nextRefreshAt;
+
     @PostConstruct
     void logEnablement() {
         LOGGER.info("Auto sync is {}", enabled ? "enabled" : "disabled");
         LOGGER.info("Status update is {} by auto sync ", updateStatus ? "enabled" : "disabled");
+        Metrics.gauge(RUNNING_GAUGE, runningSyncsByStackId, Map::size);
     }
 
+    /**
+     * Dispatches the sync of the stacks owned by this node that are due. A stack is synced again one interval (with jitter) after its sync was
+     * dispatched, a stack whose previous sync is still running is skipped for that interval, so a slow environment does not delay the others.
+     * The first sync of the stacks is spread over the first interval, so the nodes do not sync every stack at the same time after a restart.
+     * <p>
+     * The stacks owned by this node and the active nodes are reloaded once per interval only, on the ticks in between the due times are checked
+     * in memory and only the stacks that are due are loaded.
+     */
     public void sync() {
         if (!enabled) {
             return;
         }
-        checkedMeasure(() -> {
-            var list = new ArrayList<Future>();
-            List<Stack> allRunning = stackService.findAllForAutoSync();
-            for (Stack stack : allRunning) {
-                list.add(executorService.submit(() -> {
+        long now = clock.getCurrentTimeMillis();
+        cancelTimedOutSyncs(now);
+        Map<Long, Stack> ownedStacks = now >= nextRefreshAt ? refreshOwnedStacks(now) : null;
+        Map<Long, Long> dueSyncs = nextSyncByStackId.entrySet().stream()
+                .filter(entry -> entry.getValue() <= now)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        if (dueSyncs.isEmpty()) {
+            return;
+        }
+        List<Stack> dueStacks = ownedStacks != null
+                ? dueSyncs.keySet().stream().map(ownedStacks::get).collect(Collectors.toList())
+                : stackService.findAllForAutoSyncByIds(dueSyncs.keySet());
+        // a due stack that is not returned is not synced now, e.g. it is being updated, it is checked again one interval later
+        dueSyncs.keySet().forEach(stackId -> nextSyncByStackId.replace(stackId, now + nextDelay()));
+        int dispatched = 0;
+        for (Stack stack : dueStacks) {
+            if (runningSyncsByStackId.containsKey(stack.getId())) {
+                LOGGER.info(":::Auto sync updater::: the previous sync of stack {} is still running, skipped", stack.getResourceCrn());
+                Metrics.counter(SKIPPED_COUNTER).increment();
+            } else {
+                Metrics.timer(LAG_TIMER).record(now - dueSyncs.get(stack.getId()), TimeUnit.MILLISECONDS);
+                dispatch(stack);
+                dispatched++;
+            }
+        }
+        LOGGER.debug(":::Auto sync updater::: {} of {} due stacks dispatched, {} running", dispatched, dueSyncs.size(), runningSyncsByStackId.size());
+    }
+
+    /**
+     * Reloads the stacks owned by this node, schedules the first sync of the new ones and forgets the ones that are not owned any more.
+     */
+    private Map<Long, Stack> refreshOwnedStacks(long now) {
+        Predicate<Stack> ownedByThisNode = nodeSelector.ownedByThisNode();
+        List<Stack> stacks = stackService.findAllForAutoSync().stream().filter(ownedByThisNode).collect(Collectors.toList());
+        Map<Long, Stack> stacksById = stacks.stream().collect(Collectors.toMap(Stack::getId, Function.identity()));
+        nextSyncByStackId.keySet().retainAll(stacksById.keySet());
+        stacksById.keySet().forEach(stackId -> nextSyncByStackId.computeIfAbsent(stackId, id -> now + ThreadLocalRandom.current().nextLong(intervalMillis)));
+        providerBatchChecker.setStacks(stacks);
+        nextRefreshAt = now + intervalMillis;
+        LOGGER.debug(":::Auto sync updater::: {} owned stacks reloaded", stacks.size());
+        return stacksById;
+    }
+
+    private long nextDelay() {
+        long maxJitter = (long) (intervalMillis * jitter);
+        return maxJitter > 0 ? intervalMillis + ThreadLocalRandom.current().nextLong(-maxJitter, maxJitter + 1) : intervalMillis;
+    }
+
+    private void dispatch(Stack stack) {
+        RunningSync runningSync = new RunningSync();
+        runningSyncsByStackId.put(stack.getId(), runningSync);
+        try {
+            runningSync.future = executorService.submit(() -> {
+                runningSync.startedAt = clock.getCurrentTimeMillis();
+                try {
                     prepareMdcContextWithStack(stack);
                     syncAStack(stack);
+                } finally {
                     MDCBuilder.cleanupMdc();
-                }));
+                    Metrics.timer(SYNC_TIMER).record(clock.getCurrentTimeMillis() - runningSync.startedAt, TimeUnit.MILLISECONDS);
+                    runningSyncsByStackId.remove(stack.getId(), runningSync);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn(":::Auto sync updater::: the sync of stack {} is rejected: {}", stack.getResourceCrn(), e.getMessage());
+            runningSyncsByStackId.remove(stack.getId(), runningSync);
+        }
+    }
+
+    /**
+     * Interrupts the syncs running longer than the timeout. An interrupted sync is still considered running until its thread returns, so a
+     * stack whose sync ignores the interruption is not dispatched again in parallel.
+     */
+    private void cancelTimedOutSyncs(long now) {
+        runningSyncsByStackId.forEach((stackId, runningSync) -> {
+            long startedAt = runningSync.startedAt;
+            if (startedAt > 0 && now - startedAt > stackTimeoutMillis && !runningSync.cancelled) {
+                LOGGER.warn(":::Auto sync updater::: the sync of stack {} timed out after {}ms, cancelling it", stackId, now - startedAt);
+                runningSync.cancelled = true;
+                runningSync.future.cancel(true);
+                Metrics.counter(TIMEOUT_COUNTER).increment();
             }
-            waitForFinish(list);
-            return null;
-        }, LOGGER, ":::Auto sync measure::: full sync in {}ms");
+        });
     }
 
     private void prepareMdcContextWithStack(Stack stack) {
@@ -98,17 +219,6 @@ public class FreeipaSyncService {
                 .buildMdc();
     }
 
-    private void waitForFinish(ArrayList<Future> list) {
-        LOGGER.info(":::Auto sync updater::: wait for finish: {}", list.size());
-        list.forEach(l -> {
-            try {
-                l.get();
-            } catch (InterruptedException | ExecutionException e) {
-                LOGGER.error(":::Auto sync updater::: " + e.getMessage(), e);
-            }
-        });
-    }
-
     private void syncAStack(Stack stack) {
         try {
             checkedMeasure(() -> {
@@ -165,4 +275,13 @@ public class FreeipaSyncService {
         }
         return result.getStatus();
     }
+
+    private static class RunningSync {
+
+        private volatile long startedAt;
+
+        private volatile boolean cancelled;
+
+        private volatile Future<?> future;
+    }
 }
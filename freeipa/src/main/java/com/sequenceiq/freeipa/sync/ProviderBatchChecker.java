@@ -0,0 +1,227 @@
+package com.sequenceiq.freeipa.sync;
+
+import static com.sequenceiq.cloudbreak.util.Benchmark.checkedMeasure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sequenceiq.cloudbreak.cloud.context.CloudContext;
+import com.sequenceiq.cloudbreak.cloud.handler.InstanceStateQuery;
+import com.sequenceiq.cloudbreak.cloud.model.CloudInstance;
+import com.sequenceiq.cloudbreak.cloud.model.CloudVmInstanceStatus;
+import com.sequenceiq.freeipa.converter.cloud.CredentialToCloudCredentialConverter;
+import com.sequenceiq.freeipa.converter.cloud.InstanceMetaDataToCloudInstanceConverter;
+import com.sequenceiq.freeipa.dto.Credential;
+import com.sequenceiq.freeipa.entity.InstanceMetaData;
+import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.service.CredentialService;
+import com.sequenceiq.freeipa.service.stack.instance.InstanceMetaDataService;
+
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Checks the instances of the stacks synced by this node on the provider in batches instead of stack by stack. The stacks are grouped by cloud
+ * platform, region and credential, and the instances of every stack of a group are checked with one batch call, which is reused by the syncs of
+ * the other stacks of the group until it gets older than the max age. A stack whose instances are not all covered by the batch, for example
+ * because it was created after the batch was taken, is checked on its own.
+ */
+@Component
+public class ProviderBatchChecker {
+
+    static final String BATCH_COUNTER = "freeipa.autosync.provider.batch";
+
+    static final String FALLBACK_COUNTER = "freeipa.autosync.provider.batch.fallback";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProviderBatchChecker.class);
+
+    @Inject
+    private InstanceStateQuery instanceStateQuery;
+
+    @Inject
+    private CredentialService credentialService;
+
+    @Inject
+    private CredentialToCloudCredentialConverter credentialConverter;
+
+    @Inject
+    private InstanceMetaDataToCloudInstanceConverter metadataConverter;
+
+    @Inject
+    private InstanceMetaDataService instanceMetaDataService;
+
+    @Value("${freeipa.autosync.batch-provider-check.enabled:false}")
+    private boolean enabled;
+
+    @Value("${freeipa.autosync.batch-provider-check.max-age-millis:30000}")
+    private long maxAgeMillis;
+
+    private volatile List<Stack> stacks = List.of();
+
+    private Cache<String, Credential> credentialsByEnvironmentCrn;
+
+    private Cache<BatchKey, Batch> batches;
+
+    @PostConstruct
+    void init() {
+        LOGGER.info("Batch provider check is {} by auto sync", enabled ? "enabled" : "disabled");
+        credentialsByEnvironmentCrn = Caffeine.newBuilder().expireAfterWrite(maxAgeMillis, TimeUnit.MILLISECONDS).build();
+        batches = Caffeine.newBuilder().expireAfterWrite(maxAgeMillis, TimeUnit.MILLISECONDS).build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the stacks synced by this node, the batches cover the instances of these stacks.
+     */
+    public void setStacks(List<Stack> stacks) {
+        this.stacks = List.copyOf(stacks);
+    }
+
+    /**
+     * The credential of the environment of the stack, kept for the max age so the batches do not fetch it for every stack of the group.
+     */
+    public Credential getCredential(Stack stack) {
+        return credentialsByEnvironmentCrn.get(stack.getEnvironmentCrn(), credentialService::getCredentialByEnvCrn);
+    }
+
+    /**
+     * Returns the statuses of the instances from the batch of the group of the stack, or empty if the provider does not support batch checks,
+     * the batch does not cover every instance or the batch check failed, in which case the stack has to be checked on its own.
+     */
+    public Optional<List<CloudVmInstanceStatus>> getStatuses(Stack stack, CloudContext cloudContext, Credential credential,
+            List<CloudInstance> instances) {
+        if (!enabled || !instanceStateQuery.isBatchCheckSupported(cloudContext)) {
+            return Optional.empty();
+        }
+        BatchKey key = new BatchKey(stack.getCloudPlatform(), stack.getRegion(), credential.getCrn());
+        try {
+            Batch batch = batches.get(key, k -> checkBatch(k, stack, cloudContext, credential));
+            if (batch.covers(instances)) {
+                return Optional.of(batch.getStatuses(instances));
+            }
+            LOGGER.debug(":::Auto sync updater::: the batch of {} does not cover every instance of the stack", key);
+        } catch (RuntimeException e) {
+            LOGGER.info(":::Auto sync updater::: the batch check of {} failed: {}", key, e.getMessage(), e);
+        }
+        Metrics.counter(FALLBACK_COUNTER).increment();
+        return Optional.empty();
+    }
+
+    private Batch checkBatch(BatchKey key, Stack stack, CloudContext cloudContext, Credential credential) {
+        List<CloudInstance> instances = new ArrayList<>(getCheckableInstances(stack));
+        for (Stack other : stacks) {
+            if (!other.getId().equals(stack.getId()) && key.equals(getBatchKey(other))) {
+                instances.addAll(getCheckableInstances(other));
+            }
+        }
+        List<CloudVmInstanceStatus> statuses = checkedMeasure(() ->
+                instanceStateQuery.getCloudVmInstanceStatusesInBatch(credentialConverter.convert(credential), cloudContext, instances), LOGGER,
+                ":::Auto sync measure::: get instance statuses in batch in {}ms");
+        LOGGER.info(":::Auto sync updater::: {} of {} instances of {} are found by the batch check", statuses.size(), instances.size(), key);
+        Metrics.counter(BATCH_COUNTER).increment();
+        return new Batch(instances, statuses);
+    }
+
+    private BatchKey getBatchKey(Stack stack) {
+        try {
+            return new BatchKey(stack.getCloudPlatform(), stack.getRegion(), getCredential(stack).getCrn());
+        } catch (RuntimeException e) {
+            LOGGER.info(":::Auto sync updater::: the credential of stack {} is not available, it is left out from the batch: {}", stack.getResourceCrn(),
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private List<CloudInstance> getCheckableInstances(Stack stack) {
+        Set<InstanceMetaData> checkableInstances = instanceMetaDataService.findNotTerminatedForStack(stack.getId()).stream()
+                .filter(i -> !i.isDeletedOnProvider())
+                .collect(Collectors.toSet());
+        return metadataConverter.convert(checkableInstances);
+    }
+
+    private static class BatchKey {
+
+        private final String cloudPlatform;
+
+        private final String region;
+
+        private final String credentialCrn;
+
+        BatchKey(String cloudPlatform, String region, String credentialCrn) {
+            this.cloudPlatform = cloudPlatform;
+            this.region = region;
+            this.credentialCrn = credentialCrn;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey batchKey = (BatchKey) o;
+            return Objects.equals(cloudPlatform, batchKey.cloudPlatform)
+                    && Objects.equals(region, batchKey.region)
+                    && Objects.equals(credentialCrn, batchKey.credentialCrn);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cloudPlatform, region, credentialCrn);
+        }
+
+        @Override
+        public String toString() {
+            return cloudPlatform + "/" + region + "/" + credentialCrn;
+        }
+    }
+
+    private static class Batch {
+
+        private final Set<String> checkedInstanceIds;
+
+        private final Map<String, CloudVmInstanceStatus> statusesByInstanceId;
+
+        Batch(List<CloudInstance> instances, List<CloudVmInstanceStatus> statuses) {
+            checkedInstanceIds = instances.stream().map(CloudInstance::getInstanceId).filter(Objects::nonNull).collect(Collectors.toSet());
+            statusesByInstanceId = statuses.stream()
+                    .collect(Collectors.toMap(s -> s.getCloudInstance().getInstanceId(), Function.identity(), (first, second) -> first));
+        }
+
+        boolean covers(List<CloudInstance> instances) {
+            return instances.stream().map(CloudInstance::getInstanceId).filter(Objects::nonNull).allMatch(checkedInstanceIds::contains);
+        }
+
+        List<CloudVmInstanceStatus> getStatuses(List<CloudInstance> instances) {
+            List<CloudVmInstanceStatus> statuses = new ArrayList<>();
+            for (CloudInstance instance : instances) {
+                CloudVmInstanceStatus status = instance.getInstanceId() == null ? null : statusesByInstanceId.get(instance.getInstanceId());
+                if (status != null) {
+                    statuses.add(new CloudVmInstanceStatus(instance, status.getStatus(), status.getStatusReason()));
+                }
+            }
+            return statuses;
+        }
+    }
+}
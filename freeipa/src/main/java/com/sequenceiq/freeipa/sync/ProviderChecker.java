@@ -28,6 +28,7 @@ import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.instance.Instanc
 import com.sequenceiq.freeipa.converter.cloud.CredentialToCloudCredentialConverter;
 import com.sequenceiq.freeipa.converter.cloud.InstanceMetaDataToCloudInstanceConverter;
 import com.sequenceiq.freeipa.converter.cloud.StackToCloudStackConverter;
+import com.sequenceiq.freeipa.dto.Credential;
 import com.sequenceiq.freeipa.entity.InstanceMetaData;
 import com.sequenceiq.freeipa.entity.Stack;
 import com.sequenceiq.freeipa.service.CredentialService;
@@ -64,6 +65,9 @@ public class ProviderChecker {
     @Inject
     private StackUpdater stackUpdater;
 
+    @Inject
+    private ProviderBatchChecker providerBatchChecker;
+
     @Value("${freeipa.autosync.update.status:false}")
     private boolean updateStatus;
 
@@ -148,8 +152,20 @@ public class ProviderChecker {
         Location location = location(region(stack.getRegion()), availabilityZone(stack.getAvailabilityZone()));
         CloudContext cloudContext = new CloudContext(stack.getId(), stack.getName(), stack.getCloudPlatform(), stack.getCloudPlatform(),
                 location, stack.getOwner(), stack.getOwner(), stack.getAccountId());
-        CloudCredential cloudCredential = credentialConverter.convert(credentialService.getCredentialByEnvCrn(stack.getEnvironmentCrn()));
         List<CloudInstance> instances = metadataConverter.convert(notTerminatedForStack);
+        if (providerBatchChecker.isEnabled()) {
+            Credential credential = providerBatchChecker.getCredential(stack);
+            Optional<List<CloudVmInstanceStatus>> statuses = providerBatchChecker.getStatuses(stack, cloudContext, credential, instances);
+            if (statuses.isPresent()) {
+                return statuses.get();
+            }
+            return checkStatus(cloudContext, credentialConverter.convert(credential), instances);
+        }
+        CloudCredential cloudCredential = credentialConverter.convert(credentialService.getCredentialByEnvCrn(stack.getEnvironmentCrn()));
+        return checkStatus(cloudContext, cloudCredential, instances);
+    }
+
+    private List<CloudVmInstanceStatus> checkStatus(CloudContext cloudContext, CloudCredential cloudCredential, List<CloudInstance> instances) {
         try {
             return checkedMeasure(() -> instanceStateQuery.getCloudVmInstanceStatuses(cloudCredential, cloudContext, instances), LOGGER,
                     ":::Auto sync measure::: get instance statuses in {}ms");
@@ -13,7 +13,7 @@ public class Scheduler {
     @Inject
     private FreeipaSyncService freeipaSyncService;
 
-    @Scheduled(fixedDelay = 60000)
+    @Scheduled(fixedDelayString = "${freeipa.autosync.dispatch.fixed-delay-millis:5000}")
     public void sch() {
         freeipaSyncService.sync();
     }
@@ -9,6 +9,7 @@ import java.util.stream.Collectors;
 
 import org.assertj.core.util.Lists;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -49,6 +50,11 @@ public class ImageCatalogProviderTest {
     @Spy
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Before
+    public void setUp() {
+        underTest.init();
+    }
+
     @Test
     public void testReadImageCatalogFromFile() {
 
@@ -0,0 +1,103 @@
+package com.sequenceiq.freeipa.sync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.ha.domain.Node;
+import com.sequenceiq.cloudbreak.ha.service.NodeService;
+import com.sequenceiq.flow.ha.NodeConfig;
+import com.sequenceiq.freeipa.entity.Stack;
+
+@ExtendWith(MockitoExtension.class)
+class FreeipaSyncNodeSelectorTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private static final long HEARTBEAT_THRESHOLD = 60_000L;
+
+    @Mock
+    private NodeConfig nodeConfig;
+
+    @Mock
+    private NodeService nodeService;
+
+    @Mock
+    private Clock clock;
+
+    @InjectMocks
+    private FreeipaSyncNodeSelector underTest;
+
+    private List<Stack> stacks;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "heartbeatThresholdRate", HEARTBEAT_THRESHOLD);
+        stacks = IntStream.range(0, 100).mapToObj(this::stack).collect(Collectors.toList());
+    }
+
+    @Test
+    void testEveryStackIsOwnedWithoutNodeId() {
+        when(nodeConfig.isNodeIdSpecified()).thenReturn(false);
+
+        assertTrue(stacks.stream().allMatch(underTest.ownedByThisNode()));
+        verifyNoInteractions(nodeService);
+    }
+
+    @Test
+    void testStacksAreShardedAcrossTheActiveNodes() {
+        when(nodeConfig.isNodeIdSpecified()).thenReturn(true);
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(nodeService.findAll()).thenReturn(List.of(node("node-1", NOW), node("node-2", NOW - 1000L), node("stale", NOW - HEARTBEAT_THRESHOLD - 1)));
+
+        when(nodeConfig.getId()).thenReturn("node-1");
+        Predicate<Stack> ownedByNode1 = underTest.ownedByThisNode();
+        when(nodeConfig.getId()).thenReturn("node-2");
+        Predicate<Stack> ownedByNode2 = underTest.ownedByThisNode();
+
+        long ownedByNode1Count = stacks.stream().filter(ownedByNode1).count();
+        assertTrue(ownedByNode1Count > 0 && ownedByNode1Count < stacks.size());
+        assertTrue(stacks.stream().allMatch(stack -> ownedByNode1.test(stack) != ownedByNode2.test(stack)));
+    }
+
+    @Test
+    void testOnlyTheStacksOfTheLeavingNodeMove() {
+        List<String> before = List.of("node-1", "node-2", "node-3");
+        List<String> after = List.of("node-1", "node-3");
+
+        for (Stack stack : stacks) {
+            String ownerBefore = FreeipaSyncNodeSelector.selectNode(stack.getResourceCrn(), before);
+            if (!"node-2".equals(ownerBefore)) {
+                assertEquals(ownerBefore, FreeipaSyncNodeSelector.selectNode(stack.getResourceCrn(), after));
+            }
+        }
+    }
+
+    private Stack stack(int id) {
+        Stack stack = new Stack();
+        stack.setId((long) id);
+        stack.setResourceCrn("crn:cdp:freeipa:us-west-1:tenant:freeipa:" + id);
+        return stack;
+    }
+
+    private Node node(String uuid, long lastUpdated) {
+        Node node = new Node(uuid);
+        node.setLastUpdated(lastUpdated);
+        return node;
+    }
+}
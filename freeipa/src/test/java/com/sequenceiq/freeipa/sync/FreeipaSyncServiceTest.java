@@ -0,0 +1,202 @@
+package com.sequenceiq.freeipa.sync;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.service.stack.StackService;
+import com.sequenceiq.freeipa.service.stack.instance.InstanceMetaDataService;
+
+@ExtendWith(MockitoExtension.class)
+class FreeipaSyncServiceTest {
+
+    private static final long INTERVAL = 60_000L;
+
+    private static final long TIMEOUT = 300_000L;
+
+    private static final long START = 1_000_000L;
+
+    private static final long TICK = 5_000L;
+
+    private final AtomicLong now = new AtomicLong(START);
+
+    private Predicate<Stack> ownedByThisNode = s -> true;
+
+    @Mock
+    private StackService stackService;
+
+    @Mock
+    private InstanceMetaDataService instanceMetaDataService;
+
+    @Mock
+    private ThreadPoolExecutor executorService;
+
+    @Mock
+    private FreeipaSyncNodeSelector nodeSelector;
+
+    @Mock
+    private ProviderBatchChecker providerBatchChecker;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private Future<?> future;
+
+    @InjectMocks
+    private FreeipaSyncService underTest;
+
+    private Stack stack;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "intervalMillis", INTERVAL);
+        ReflectionTestUtils.setField(underTest, "jitter", 0.0d);
+        ReflectionTestUtils.setField(underTest, "stackTimeoutMillis", TIMEOUT);
+        stack = new Stack();
+        stack.setId(1L);
+        stack.setResourceCrn("crn");
+        when(clock.getCurrentTimeMillis()).thenAnswer(invocation -> now.get());
+        when(nodeSelector.ownedByThisNode()).thenAnswer(invocation -> ownedByThisNode);
+        when(stackService.findAllForAutoSync()).thenReturn(List.of(stack));
+        scheduleFirstSync(START);
+    }
+
+    @Test
+    void testStackIsSyncedOncePerInterval() {
+        doReturn(future).when(executorService).submit(any(Runnable.class));
+
+        underTest.sync();
+        now.addAndGet(INTERVAL);
+        underTest.sync();
+        runSubmittedSync();
+        underTest.sync();
+        now.addAndGet(INTERVAL - 1);
+        underTest.sync();
+
+        verify(executorService, times(1)).submit(any(Runnable.class));
+        now.addAndGet(1);
+        underTest.sync();
+        verify(executorService, times(2)).submit(any(Runnable.class));
+    }
+
+    @Test
+    void testStackIsSkippedWhileItsSyncIsRunning() {
+        doReturn(future).when(executorService).submit(any(Runnable.class));
+
+        now.addAndGet(INTERVAL);
+        underTest.sync();
+        now.addAndGet(INTERVAL);
+        underTest.sync();
+
+        verify(executorService, times(1)).submit(any(Runnable.class));
+        runSubmittedSync();
+        now.addAndGet(INTERVAL);
+        underTest.sync();
+        verify(executorService, times(2)).submit(any(Runnable.class));
+    }
+
+    @Test
+    void testTimedOutSyncIsCancelledAndNotDispatchedAgainUntilItReturns() throws InterruptedException {
+        doReturn(future).when(executorService).submit(any(Runnable.class));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(instanceMetaDataService.findNotTerminatedForStack(1L)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Set.of();
+        });
+        now.addAndGet(INTERVAL);
+        underTest.sync();
+        Thread syncThread = new Thread(getSubmittedSync());
+        syncThread.start();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        now.addAndGet(TIMEOUT);
+        underTest.sync();
+        verify(future, never()).cancel(true);
+        now.addAndGet(1);
+        underTest.sync();
+        underTest.sync();
+
+        verify(future, times(1)).cancel(true);
+        verify(executorService, times(1)).submit(any(Runnable.class));
+        release.countDown();
+        syncThread.join(TimeUnit.SECONDS.toMillis(10));
+        now.addAndGet(INTERVAL);
+        underTest.sync();
+        verify(executorService, times(2)).submit(any(Runnable.class));
+    }
+
+    @Test
+    void testOnlyTheStacksOfThisNodeAreSynced() {
+        ownedByThisNode = s -> false;
+
+        now.addAndGet(INTERVAL);
+        underTest.sync();
+
+        verify(executorService, never()).submit(any(Runnable.class));
+    }
+
+    @Test
+    void testOwnedStacksAreReloadedOncePerIntervalAndOnlyTheDueStackIsLoadedInBetween() {
+        doReturn(future).when(executorService).submit(any(Runnable.class));
+        scheduleFirstSync(START + INTERVAL / 2);
+        when(stackService.findAllForAutoSyncByIds(Set.of(1L))).thenReturn(List.of(stack));
+
+        for (long tick = 0; tick < INTERVAL; tick += TICK) {
+            underTest.sync();
+            now.addAndGet(TICK);
+        }
+
+        verify(nodeSelector, times(1)).ownedByThisNode();
+        verify(stackService, times(1)).findAllForAutoSync();
+        verify(stackService, times(1)).findAllForAutoSyncByIds(Set.of(1L));
+        verify(executorService, times(1)).submit(any(Runnable.class));
+        underTest.sync();
+        verify(nodeSelector, times(2)).ownedByThisNode();
+        verify(stackService, times(2)).findAllForAutoSync();
+    }
+
+    private void scheduleFirstSync(long at) {
+        Map<Long, Long> nextSyncByStackId = (Map<Long, Long>) ReflectionTestUtils.getField(underTest, "nextSyncByStackId");
+        nextSyncByStackId.put(1L, at);
+    }
+
+    private void runSubmittedSync() {
+        getSubmittedSync().run();
+    }
+
+    private Runnable getSubmittedSync() {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, atLeastOnce()).submit(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,150 @@
+package com.sequenceiq.freeipa.sync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.cloud.context.CloudContext;
+import com.sequenceiq.cloudbreak.cloud.handler.InstanceStateQuery;
+import com.sequenceiq.cloudbreak.cloud.model.CloudInstance;
+import com.sequenceiq.cloudbreak.cloud.model.CloudVmInstanceStatus;
+import com.sequenceiq.cloudbreak.cloud.model.InstanceStatus;
+import com.sequenceiq.freeipa.converter.cloud.CredentialToCloudCredentialConverter;
+import com.sequenceiq.freeipa.converter.cloud.InstanceMetaDataToCloudInstanceConverter;
+import com.sequenceiq.freeipa.dto.Credential;
+import com.sequenceiq.freeipa.entity.InstanceMetaData;
+import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.service.CredentialService;
+import com.sequenceiq.freeipa.service.stack.instance.InstanceMetaDataService;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderBatchCheckerTest {
+
+    private static final String REGION = "region";
+
+    private static final String AWS = "AWS";
+
+    @Mock
+    private InstanceStateQuery instanceStateQuery;
+
+    @Mock
+    private CredentialService credentialService;
+
+    @Mock
+    private CredentialToCloudCredentialConverter credentialConverter;
+
+    @Mock
+    private InstanceMetaDataToCloudInstanceConverter metadataConverter;
+
+    @Mock
+    private InstanceMetaDataService instanceMetaDataService;
+
+    @Mock
+    private CloudContext cloudContext;
+
+    @InjectMocks
+    private ProviderBatchChecker underTest;
+
+    private final Credential credential = new Credential(AWS, "credential", "{}", "credential-crn");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "maxAgeMillis", 60_000L);
+        underTest.init();
+    }
+
+    @Test
+    void testStacksOfTheSameCredentialAndRegionAreCheckedInOneBatch() {
+        Stack stack1 = stack(1L, "env1", REGION);
+        Stack stack2 = stack(2L, "env2", REGION);
+        Stack stack3 = stack(3L, "env3", "other-region");
+        underTest.setStacks(List.of(stack1, stack2, stack3));
+        mockInstances(stack1, "i-1");
+        mockInstances(stack2, "i-2", "i-3");
+        when(instanceStateQuery.isBatchCheckSupported(cloudContext)).thenReturn(true);
+        when(credentialService.getCredentialByEnvCrn(any())).thenReturn(credential);
+        when(metadataConverter.convert(anySet())).thenAnswer(invocation -> invocation.<Set<InstanceMetaData>>getArgument(0).stream()
+                .map(i -> new CloudInstance(i.getInstanceId(), null, null))
+                .collect(Collectors.toList()));
+        when(instanceStateQuery.getCloudVmInstanceStatusesInBatch(any(), eq(cloudContext), any())).thenAnswer(invocation ->
+                invocation.<List<CloudInstance>>getArgument(2).stream()
+                        .filter(i -> !"i-3".equals(i.getInstanceId()))
+                        .map(i -> new CloudVmInstanceStatus(i, InstanceStatus.STARTED))
+                        .collect(Collectors.toList()));
+
+        Optional<List<CloudVmInstanceStatus>> statuses1 = underTest.getStatuses(stack1, cloudContext, credential, instances("i-1"));
+        Optional<List<CloudVmInstanceStatus>> statuses2 = underTest.getStatuses(stack2, cloudContext, credential, instances("i-2", "i-3"));
+
+        ArgumentCaptor<List<CloudInstance>> captor = ArgumentCaptor.forClass(List.class);
+        verify(instanceStateQuery, times(1)).getCloudVmInstanceStatusesInBatch(any(), eq(cloudContext), captor.capture());
+        assertEquals(Set.of("i-1", "i-2", "i-3"), captor.getValue().stream().map(CloudInstance::getInstanceId).collect(Collectors.toSet()));
+        verify(instanceMetaDataService, never()).findNotTerminatedForStack(3L);
+        assertEquals(List.of("i-1"), statuses1.get().stream().map(s -> s.getCloudInstance().getInstanceId()).collect(Collectors.toList()));
+        assertEquals(List.of("i-2"), statuses2.get().stream().map(s -> s.getCloudInstance().getInstanceId()).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testStackWithInstancesMissingFromTheBatchIsCheckedOnItsOwn() {
+        Stack stack1 = stack(1L, "env1", REGION);
+        underTest.setStacks(List.of(stack1));
+        mockInstances(stack1, "i-1");
+        when(instanceStateQuery.isBatchCheckSupported(cloudContext)).thenReturn(true);
+        when(metadataConverter.convert(anySet())).thenReturn(instances("i-1"));
+        when(instanceStateQuery.getCloudVmInstanceStatusesInBatch(any(), eq(cloudContext), any())).thenReturn(List.of());
+
+        assertTrue(underTest.getStatuses(stack1, cloudContext, credential, instances("i-1")).get().isEmpty());
+        assertTrue(underTest.getStatuses(stack1, cloudContext, credential, instances("i-1", "i-new")).isEmpty());
+    }
+
+    @Test
+    void testBatchIsNotUsedWhenTheProviderDoesNotSupportIt() {
+        Stack stack1 = stack(1L, "env1", REGION);
+        when(instanceStateQuery.isBatchCheckSupported(cloudContext)).thenReturn(false);
+
+        assertTrue(underTest.getStatuses(stack1, cloudContext, credential, instances("i-1")).isEmpty());
+        verify(instanceStateQuery, never()).getCloudVmInstanceStatusesInBatch(any(), any(), any());
+    }
+
+    private Stack stack(Long id, String environmentCrn, String region) {
+        Stack stack = new Stack();
+        stack.setId(id);
+        stack.setEnvironmentCrn(environmentCrn);
+        stack.setRegion(region);
+        stack.setCloudPlatform(AWS);
+        return stack;
+    }
+
+    private void mockInstances(Stack stack, String... instanceIds) {
+        Set<InstanceMetaData> instances = Set.of(instanceIds).stream().map(instanceId -> {
+            InstanceMetaData instanceMetaData = new InstanceMetaData();
+            instanceMetaData.setInstanceId(instanceId);
+            return instanceMetaData;
+        }).collect(Collectors.toSet());
+        when(instanceMetaDataService.findNotTerminatedForStack(stack.getId())).thenReturn(instances);
+    }
+
+    private List<CloudInstance> instances(String... instanceIds) {
+        return Set.of(instanceIds).stream().map(instanceId -> new CloudInstance(instanceId, null, null)).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,182 @@
+package com.sequenceiq.it.cloudbreak.performance;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically scrapes the prometheus endpoint of core and keeps the flow engine, database and heap related values of every scrape.
+ */
+public class CoreMetricsSampler {
+
+    static final String ACTIVE_FLOWS = "cloudbreak_activeflow";
+
+    static final String EVENT_BUS_QUEUE_DEPTH = "eventbus_queue_depth";
+
+    static final String EVENT_BUS_ACTIVE_THREADS = "eventbus_threads_active";
+
+    static final String DB_STATEMENTS = "hibernate_statements_total";
+
+    static final String HEAP_USED = "jvm_memory_used_bytes";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoreMetricsSampler.class);
+
+    private static final int TIMEOUT_MILLIS = 5000;
+
+    private final String metricsUrl;
+
+    private final long intervalMillis;
+
+    private final List<Sample> samples = new ArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public CoreMetricsSampler(String metricsUrl, long intervalMillis) {
+        this.metricsUrl = metricsUrl;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleWithFixedDelay(this::sample, 0L, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sample();
+    }
+
+    public synchronized List<Sample> getSamples() {
+        return new ArrayList<>(samples);
+    }
+
+    private void sample() {
+        try {
+            Map<String, Double> metrics = scrape();
+            Sample sample = new Sample(System.currentTimeMillis(),
+                    metrics.getOrDefault(ACTIVE_FLOWS, Double.NaN),
+                    metrics.getOrDefault(EVENT_BUS_QUEUE_DEPTH, Double.NaN),
+                    metrics.getOrDefault(EVENT_BUS_ACTIVE_THREADS, Double.NaN),
+                    metrics.getOrDefault(DB_STATEMENTS, Double.NaN),
+                    metrics.getOrDefault(HEAP_USED, Double.NaN));
+            synchronized (this) {
+                samples.add(sample);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to scrape the metrics of core from {}: {}", metricsUrl, e.getMessage());
+        }
+    }
+
+    private Map<String, Double> scrape() throws IOException {
+        Map<String, Double> metrics = new HashMap<>();
+        URLConnection connection = new URL(metricsUrl).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                parseLine(line, metrics);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Sums the series of the sampled metrics in a line of the prometheus text format, only the prepared statements and the heap areas are
+     * taken into account.
+     */
+    private static void parseLine(String line, Map<String, Double> metrics) {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return;
+        }
+        int valueStart = line.lastIndexOf(' ');
+        int labelsStart = line.indexOf('{');
+        String name = labelsStart > 0 && labelsStart < valueStart ? line.substring(0, labelsStart) : line.substring(0, valueStart);
+        String labels = labelsStart > 0 && labelsStart < valueStart ? line.substring(labelsStart, valueStart) : "";
+        boolean sampled;
+        switch (name) {
+            case ACTIVE_FLOWS:
+            case EVENT_BUS_QUEUE_DEPTH:
+            case EVENT_BUS_ACTIVE_THREADS:
+                sampled = true;
+                break;
+            case DB_STATEMENTS:
+                sampled = labels.contains("status=\"prepared\"");
+                break;
+            case HEAP_USED:
+                sampled = labels.contains("area=\"heap\"");
+                break;
+            default:
+                sampled = false;
+        }
+        if (sampled) {
+            metrics.merge(name, Double.parseDouble(line.substring(valueStart + 1)), Double::sum);
+        }
+    }
+
+    public static class Sample {
+
+        private final long timestamp;
+
+        private final double activeFlows;
+
+        private final double eventBusQueueDepth;
+
+        private final double eventBusActiveThreads;
+
+        private final double dbStatements;
+
+        private final double heapUsedBytes;
+
+        Sample(long timestamp, double activeFlows, double eventBusQueueDepth, double eventBusActiveThreads, double dbStatements, double heapUsedBytes) {
+            this.timestamp = timestamp;
+            this.activeFlows = activeFlows;
+            this.eventBusQueueDepth = eventBusQueueDepth;
+            this.eventBusActiveThreads = eventBusActiveThreads;
+            this.dbStatements = dbStatements;
+            this.heapUsedBytes = heapUsedBytes;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public double getActiveFlows() {
+            return activeFlows;
+        }
+
+        public double getEventBusQueueDepth() {
+            return eventBusQueueDepth;
+        }
+
+        public double getEventBusActiveThreads() {
+            return eventBusActiveThreads;
+        }
+
+        public double getDbStatements() {
+            return dbStatements;
+        }
+
+        public double getHeapUsedBytes() {
+            return heapUsedBytes;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.sequenceiq.it.cloudbreak.performance;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sequenceiq.it.cloudbreak.performance.CoreMetricsSampler.Sample;
+
+/**
+ * Summary of a scale test run: the end to end flow latency percentiles of the stacks and the peak and average of the values sampled from core.
+ */
+public class ScaleTestReport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScaleTestReport.class);
+
+    private static final double P50 = 0.5;
+
+    private static final double P90 = 0.9;
+
+    private static final double P99 = 0.99;
+
+    private final int stackCount;
+
+    private final int nodeCount;
+
+    private final int availableStackCount;
+
+    private final long latencyP50Millis;
+
+    private final long latencyP90Millis;
+
+    private final long latencyP99Millis;
+
+    private final long latencyMaxMillis;
+
+    private final double maxActiveFlows;
+
+    private final double averageActiveFlows;
+
+    private final double maxEventBusQueueDepth;
+
+    private final double averageEventBusQueueDepth;
+
+    private final double maxEventBusActiveThreads;
+
+    private final double dbStatements;
+
+    private final double maxHeapUsedBytes;
+
+    private final List<Sample> samples;
+
+    public ScaleTestReport(int stackCount, int nodeCount, List<Long> latenciesMillis, List<Sample> samples) {
+        this.stackCount = stackCount;
+        this.nodeCount = nodeCount;
+        this.samples = samples;
+        List<Long> sortedLatencies = new ArrayList<>(latenciesMillis);
+        Collections.sort(sortedLatencies);
+        availableStackCount = sortedLatencies.size();
+        latencyP50Millis = percentile(sortedLatencies, P50);
+        latencyP90Millis = percentile(sortedLatencies, P90);
+        latencyP99Millis = percentile(sortedLatencies, P99);
+        latencyMaxMillis = sortedLatencies.isEmpty() ? 0L : sortedLatencies.get(sortedLatencies.size() - 1);
+        maxActiveFlows = max(Sample::getActiveFlows);
+        averageActiveFlows = average(Sample::getActiveFlows);
+        maxEventBusQueueDepth = max(Sample::getEventBusQueueDepth);
+        averageEventBusQueueDepth = average(Sample::getEventBusQueueDepth);
+        maxEventBusActiveThreads = max(Sample::getEventBusActiveThreads);
+        dbStatements = max(Sample::getDbStatements) - min(Sample::getDbStatements);
+        maxHeapUsedBytes = max(Sample::getHeapUsedBytes);
+    }
+
+    /**
+     * Nearest rank percentile of the sorted values.
+     */
+    private static long percentile(List<Long> sortedValues, double percentile) {
+        if (sortedValues.isEmpty()) {
+            return 0L;
+        }
+        int rank = (int) Math.ceil(percentile * sortedValues.size());
+        return sortedValues.get(Math.max(rank, 1) - 1);
+    }
+
+    public void write(String outputDirectory, String fileName) {
+        File file = new File(outputDirectory, fileName);
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, this);
+            LOGGER.info("Scale test report is written to {}", file.getAbsolutePath());
+        } catch (IOException e) {
+            LOGGER.error("Scale test report writing is failed", e);
+        }
+    }
+
+    public String print() {
+        return String.format("%d of %d stacks with %d nodes are available, flow latency p50: %d ms, p90: %d ms, p99: %d ms, max: %d ms, "
+                        + "active flows max: %.0f avg: %.1f, event bus queue depth max: %.0f avg: %.1f, event bus active threads max: %.0f, "
+                        + "DB statements: %.0f, heap max: %.0f bytes",
+                availableStackCount, stackCount, nodeCount, latencyP50Millis, latencyP90Millis, latencyP99Millis, latencyMaxMillis,
+                maxActiveFlows, averageActiveFlows, maxEventBusQueueDepth, averageEventBusQueueDepth, maxEventBusActiveThreads, dbStatements,
+                maxHeapUsedBytes);
+    }
+
+    private double max(ToDoubleFunction<Sample> value) {
+        return samples.stream().mapToDouble(value).filter(v -> !Double.isNaN(v)).max().orElse(Double.NaN);
+    }
+
+    private double min(ToDoubleFunction<Sample> value) {
+        return samples.stream().mapToDouble(value).filter(v -> !Double.isNaN(v)).min().orElse(Double.NaN);
+    }
+
+    private double average(ToDoubleFunction<Sample> value) {
+        return samples.stream().mapToDouble(value).filter(v -> !Double.isNaN(v)).average().orElse(Double.NaN);
+    }
+
+    public int getStackCount() {
+        return stackCount;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getAvailableStackCount() {
+        return availableStackCount;
+    }
+
+    public long getLatencyP50Millis() {
+        return latencyP50Millis;
+    }
+
+    public long getLatencyP90Millis() {
+        return latencyP90Millis;
+    }
+
+    public long getLatencyP99Millis() {
+        return latencyP99Millis;
+    }
+
+    public long getLatencyMaxMillis() {
+        return latencyMaxMillis;
+    }
+
+    public double getMaxActiveFlows() {
+        return maxActiveFlows;
+    }
+
+    public double getAverageActiveFlows() {
+        return averageActiveFlows;
+    }
+
+    public double getMaxEventBusQueueDepth() {
+        return maxEventBusQueueDepth;
+    }
+
+    public double getAverageEventBusQueueDepth() {
+        return averageEventBusQueueDepth;
+    }
+
+    public double getMaxEventBusActiveThreads() {
+        return maxEventBusActiveThreads;
+    }
+
+    public double getDbStatements() {
+        return dbStatements;
+    }
+
+    public double getMaxHeapUsedBytes() {
+        return maxHeapUsedBytes;
+    }
+
+    public List<Sample> getSamples() {
+        return samples;
+    }
+}
@@ -0,0 +1,126 @@
+package com.sequenceiq.it.cloudbreak.testcase.scale;
+
+import static com.sequenceiq.it.cloudbreak.cloud.HostGroupType.MASTER;
+import static com.sequenceiq.it.cloudbreak.cloud.HostGroupType.WORKER;
+import static com.sequenceiq.it.cloudbreak.context.RunningParameter.key;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.testng.ITestContext;
+import org.testng.annotations.Test;
+
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
+import com.sequenceiq.it.TestParameter;
+import com.sequenceiq.it.cloudbreak.CloudbreakTest;
+import com.sequenceiq.it.cloudbreak.client.BlueprintTestClient;
+import com.sequenceiq.it.cloudbreak.client.StackTestClient;
+import com.sequenceiq.it.cloudbreak.context.Description;
+import com.sequenceiq.it.cloudbreak.context.MockedTestContext;
+import com.sequenceiq.it.cloudbreak.dto.ClouderaManagerTestDto;
+import com.sequenceiq.it.cloudbreak.dto.ClusterTestDto;
+import com.sequenceiq.it.cloudbreak.dto.InstanceGroupTestDto;
+import com.sequenceiq.it.cloudbreak.dto.blueprint.BlueprintTestDto;
+import com.sequenceiq.it.cloudbreak.dto.stack.StackTestDto;
+import com.sequenceiq.it.cloudbreak.log.Log;
+import com.sequenceiq.it.cloudbreak.performance.CoreMetricsSampler;
+import com.sequenceiq.it.cloudbreak.performance.ScaleTestReport;
+import com.sequenceiq.it.cloudbreak.testcase.mock.clouderamanager.AbstractClouderaManagerTest;
+
+/**
+ * Provisions many mock stacks at the same time through the flow engine of a running core and reports where it saturates. The stack and node
+ * counts come from the parameters of the test suite, see testsuites/v4/mock/scale.yaml.
+ */
+public class ScaleTest extends AbstractClouderaManagerTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScaleTest.class);
+
+    private static final String METRICS_PATH = "/metrics";
+
+    private static final String REPORT_FILE_NAME = "scale-test-report.json";
+
+    @Inject
+    private BlueprintTestClient blueprintTestClient;
+
+    @Inject
+    private StackTestClient stackTestClient;
+
+    @Inject
+    private TestParameter testParameter;
+
+    @Value("${integrationtest.outputdir:.}")
+    private String outputDirectory;
+
+    @Test(dataProvider = TEST_CONTEXT_WITH_MOCK)
+    @Description(
+            given = "a running cloudbreak with the mock cloud",
+            when = "many stacks with many nodes are created at the same time",
+            then = "every stack should be available and the flow latency, flow engine, database and heap figures should be reported")
+    public void testConcurrentStackCreation(MockedTestContext testContext, ITestContext testNgContext) {
+        ScaleTestParameters params = new ScaleTestParameters(testNgContext.getCurrentXmlTest().getAllParameters());
+        String blueprintName = testContext.get(BlueprintTestDto.class).getRequest().getName();
+        CoreMetricsSampler sampler = new CoreMetricsSampler(testParameter.get(CloudbreakTest.CLOUDBREAK_SERVER_INTERNAL_ROOT) + METRICS_PATH,
+                params.getSampleIntervalMillis());
+        List<String> stacks = new ArrayList<>();
+        sampler.start();
+        try {
+            for (int i = 0; i < params.getStackCount(); i++) {
+                String cm = resourcePropertyProvider().getName();
+                String cluster = resourcePropertyProvider().getName();
+                String stack = resourcePropertyProvider().getName();
+                testContext
+                        .given(cm, ClouderaManagerTestDto.class)
+                        .given(cluster, ClusterTestDto.class)
+                        .withValidateBlueprint(Boolean.FALSE)
+                        .withBlueprintName(blueprintName)
+                        .withClouderaManager(cm)
+                        .given(stack, StackTestDto.class)
+                        .withCluster(cluster)
+                        .withInstanceGroupsEntity(List.of(
+                                InstanceGroupTestDto.withHostGroup(testContext, MASTER, 1),
+                                InstanceGroupTestDto.withHostGroup(testContext, WORKER, Math.max(params.getNodeCount() - 1, 1))))
+                        .when(stackTestClient.createV4(), key(stack));
+                stacks.add(stack);
+            }
+            for (String stack : stacks) {
+                testContext.given(stack, StackTestDto.class)
+                        .await(STACK_AVAILABLE, key(stack));
+            }
+        } finally {
+            sampler.stop();
+        }
+
+        ScaleTestReport report = new ScaleTestReport(params.getStackCount(), params.getNodeCount(), getFlowLatencies(testContext, stacks),
+                sampler.getSamples());
+        report.write(outputDirectory, REPORT_FILE_NAME);
+        Log.log(LOGGER, report.print());
+        testContext.given(stacks.get(0), StackTestDto.class)
+                .validate();
+    }
+
+    /**
+     * The latency of the stacks that became available, from the creation of the stack until the creation of its cluster finished, as
+     * recorded by core.
+     */
+    private List<Long> getFlowLatencies(MockedTestContext testContext, List<String> stacks) {
+        List<Long> latencies = new ArrayList<>();
+        for (String stack : stacks) {
+            StackTestDto stackTestDto = testContext.get(stack);
+            StackV4Response response = stackTestDto.getResponse();
+            if (response != null && response.getCreated() != null && response.getCluster() != null && response.getCluster().getCreationFinished() != null) {
+                latencies.add(response.getCluster().getCreationFinished() - response.getCreated());
+            }
+        }
+        return latencies;
+    }
+
+    @Override
+    protected BlueprintTestClient blueprintTestClient() {
+        return blueprintTestClient;
+    }
+}
@@ -0,0 +1,61 @@
+package com.sequenceiq.it.cloudbreak.testcase.scale;
+
+import java.util.Map;
+
+class ScaleTestParameters {
+
+    private static final String STACK_COUNT = "stackCount";
+
+    private static final String NODE_COUNT = "nodeCount";
+
+    private static final String SAMPLE_INTERVAL_MILLIS = "sampleIntervalMillis";
+
+    private static final int DEFAULT_STACK_COUNT = 100;
+
+    private static final int DEFAULT_NODE_COUNT = 10;
+
+    private static final long DEFAULT_SAMPLE_INTERVAL_MILLIS = 1000L;
+
+    private int stackCount;
+
+    private int nodeCount;
+
+    private long sampleIntervalMillis;
+
+    private ScaleTestParameters() {
+    }
+
+    ScaleTestParameters(Map<String, String> allParameters) {
+        String stackCount = allParameters.get(STACK_COUNT);
+        String nodeCount = allParameters.get(NODE_COUNT);
+        String sampleIntervalMillis = allParameters.get(SAMPLE_INTERVAL_MILLIS);
+
+        setStackCount(stackCount == null ? DEFAULT_STACK_COUNT : Integer.parseInt(stackCount));
+        setNodeCount(nodeCount == null ? DEFAULT_NODE_COUNT : Integer.parseInt(nodeCount));
+        setSampleIntervalMillis(sampleIntervalMillis == null ? DEFAULT_SAMPLE_INTERVAL_MILLIS : Long.parseLong(sampleIntervalMillis));
+    }
+
+    public int getStackCount() {
+        return stackCount;
+    }
+
+    public void setStackCount(int stackCount) {
+        this.stackCount = stackCount;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public void setNodeCount(int nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    public long getSampleIntervalMillis() {
+        return sampleIntervalMillis;
+    }
+
+    public void setSampleIntervalMillis(long sampleIntervalMillis) {
+        this.sampleIntervalMillis = sampleIntervalMillis;
+    }
+}
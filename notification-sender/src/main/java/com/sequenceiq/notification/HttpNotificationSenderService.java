@@ -2,31 +2,24 @@ package com.sequenceiq.notification;
 
 import java.util.List;
 
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.Entity;
-import javax.ws.rs.core.HttpHeaders;
-import javax.ws.rs.core.MediaType;
+import javax.inject.Inject;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 public class HttpNotificationSenderService implements NotificationSender {
-    private static final Logger LOGGER = LoggerFactory.getLogger(HttpNotificationSenderService.class);
 
+    @Inject
+    private NotificationDispatcher notificationDispatcher;
+
+    /**
+     * Queues the notification for every endpoint and returns immediately. The notifications are delivered by {@link NotificationDispatcher}
+     * with its own pooled client.
+     */
     @Override
-    public <T> void send(Notification<T> notification, List<String> endpoints, Client restClient) {
+    public <T> void send(Notification<T> notification, List<String> endpoints) {
         for (String endpoint : endpoints) {
-            try {
-                restClient
-                        .target(endpoint)
-                        .request()
-                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
-                        .post(Entity.json(notification.getNotification()), String.class);
-            } catch (Exception ex) {
-                LOGGER.info("Could not send notification to the specified endpoint: '{}' Cause: {}", endpoint, ex.getMessage());
-            }
+            notificationDispatcher.dispatch(endpoint, notification);
         }
     }
 }
@@ -0,0 +1,231 @@
+package com.sequenceiq.notification;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sequenceiq.cloudbreak.client.CertificateTrustManager;
+import com.sequenceiq.cloudbreak.common.json.JsonUtil;
+
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Delivers the notifications to the notification endpoints in the background, so the flows emitting them never wait for a consumer.
+ * Every endpoint has its own bounded queue, drained in order by at most one delivery task at a time. A delivery task sends up to
+ * {@code notification.delivery.batchSize} queued notifications over the pooled connections of the endpoint, and a failed notification is retried
+ * with exponential backoff before it is written to the dead letter log. Notifications that do not fit into the queue go to the dead letter log too.
+ */
+@Component
+public class NotificationDispatcher {
+
+    static final String DEAD_LETTER_COUNTER = "notification.delivery.deadletter";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final Logger DEAD_LETTER_LOGGER = LoggerFactory.getLogger("com.sequenceiq.notification.deadletter");
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5L;
+
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
+    private final Map<String, EndpointQueue> endpointQueues = new ConcurrentHashMap<>();
+
+    @Value("${notification.delivery.queueCapacity:1000}")
+    private int queueCapacity;
+
+    @Value("${notification.delivery.batchSize:50}")
+    private int batchSize;
+
+    @Value("${notification.delivery.threads:4}")
+    private int threads;
+
+    @Value("${notification.delivery.maxAttempts:5}")
+    private int maxAttempts;
+
+    @Value("${notification.delivery.initialBackoffMs:500}")
+    private long initialBackoffMs;
+
+    @Value("${notification.delivery.maxBackoffMs:30000}")
+    private long maxBackoffMs;
+
+    @Value("${notification.delivery.connectTimeoutMs:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${notification.delivery.readTimeoutMs:5000}")
+    private int readTimeoutMs;
+
+    @Value("${notification.delivery.maxConnectionsPerEndpoint:4}")
+    private int maxConnectionsPerEndpoint;
+
+    private ScheduledThreadPoolExecutor deliveryExecutor;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    private Client client;
+
+    @PostConstruct
+    public void init() {
+        deliveryExecutor = new ScheduledThreadPoolExecutor(threads,
+                new ThreadFactoryBuilder().setNameFormat("notification-delivery-%d").setDaemon(true).build());
+        // the retries waiting for their backoff are not awaited at shutdown, their notifications are dead-lettered instead
+        deliveryExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        connectionManager = new PoolingHttpClientConnectionManager(RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new SSLConnectionSocketFactory(CertificateTrustManager.sslContext(), CertificateTrustManager.hostnameVerifier()))
+                .build());
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerEndpoint);
+        connectionManager.setMaxTotal(maxConnectionsPerEndpoint * threads);
+        ClientConfig config = new ClientConfig();
+        config.connectorProvider(new ApacheConnectorProvider());
+        config.property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager);
+        config.property(ClientProperties.FOLLOW_REDIRECTS, false);
+        config.property(ClientProperties.CONNECT_TIMEOUT, connectTimeoutMs);
+        config.property(ClientProperties.READ_TIMEOUT, readTimeoutMs);
+        client = ClientBuilder.newClient(config);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveryExecutor.shutdown();
+        try {
+            if (!deliveryExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                deliveryExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deliveryExecutor.shutdownNow();
+        }
+        endpointQueues.values().forEach(endpointQueue -> {
+            endpointQueue.inFlight.forEach(notification -> deadLetter(endpointQueue.endpoint, notification, "shutdown"));
+            endpointQueue.queue.forEach(notification -> deadLetter(endpointQueue.endpoint, notification, "shutdown"));
+        });
+        client.close();
+    }
+
+    /**
+     * Queues the notification for the endpoint without blocking.
+     */
+    public void dispatch(String endpoint, Notification<?> notification) {
+        if (deliveryExecutor.isShutdown()) {
+            deadLetter(endpoint, notification, "shutdown");
+            return;
+        }
+        EndpointQueue endpointQueue = endpointQueues.computeIfAbsent(endpoint, key -> new EndpointQueue(key, queueCapacity));
+        if (endpointQueue.queue.offer(notification)) {
+            scheduleDelivery(endpointQueue, 0L);
+        } else {
+            deadLetter(endpoint, notification, "delivery queue is full");
+        }
+    }
+
+    private void scheduleDelivery(EndpointQueue endpointQueue, long delayMs) {
+        if (delayMs > 0L || endpointQueue.scheduled.compareAndSet(false, true)) {
+            try {
+                deliveryExecutor.schedule(() -> deliver(endpointQueue), delayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Delivery to '{}' is not scheduled, the dispatcher is shut down", endpointQueue.endpoint);
+            }
+        }
+    }
+
+    private void deliver(EndpointQueue endpointQueue) {
+        if (endpointQueue.inFlight.isEmpty()) {
+            endpointQueue.queue.drainTo(endpointQueue.inFlight, batchSize);
+        }
+        while (!endpointQueue.inFlight.isEmpty()) {
+            Notification<?> notification = endpointQueue.inFlight.peek();
+            try {
+                post(endpointQueue.endpoint, notification);
+                endpointQueue.inFlight.poll();
+                endpointQueue.failedAttempts = 0;
+            } catch (RuntimeException e) {
+                endpointQueue.failedAttempts++;
+                if (endpointQueue.failedAttempts >= maxAttempts) {
+                    deadLetter(endpointQueue.endpoint, endpointQueue.inFlight.poll(), e.getMessage());
+                    endpointQueue.failedAttempts = 0;
+                } else {
+                    long backoff = getBackoff(endpointQueue.failedAttempts);
+                    LOGGER.info("Could not send notification to the specified endpoint: '{}', retrying in {} ms. Cause: {}",
+                            endpointQueue.endpoint, backoff, e.getMessage());
+                    scheduleDelivery(endpointQueue, backoff);
+                    return;
+                }
+            }
+        }
+        endpointQueue.scheduled.set(false);
+        if (!endpointQueue.queue.isEmpty()) {
+            scheduleDelivery(endpointQueue, 0L);
+        }
+    }
+
+    private void post(String endpoint, Notification<?> notification) {
+        client.target(endpoint)
+                .request()
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .post(Entity.json(notification.getNotification()), String.class);
+    }
+
+    private long getBackoff(int failedAttempts) {
+        return Math.min(maxBackoffMs, initialBackoffMs << Math.min(failedAttempts - 1, MAX_BACKOFF_SHIFT));
+    }
+
+    private void deadLetter(String endpoint, Notification<?> notification, String reason) {
+        Metrics.counter(DEAD_LETTER_COUNTER).increment();
+        try {
+            DEAD_LETTER_LOGGER.warn("Notification could not be delivered to '{}' ({}): {}", endpoint, reason,
+                    JsonUtil.writeValueAsString(notification.getNotification()));
+        } catch (JsonProcessingException e) {
+            DEAD_LETTER_LOGGER.warn("Notification could not be delivered to '{}' ({}): {}", endpoint, reason, notification.getNotification());
+        }
+    }
+
+    private static class EndpointQueue {
+
+        private final String endpoint;
+
+        private final BlockingQueue<Notification<?>> queue;
+
+        // read by the shutdown thread while a delivery task may still be running
+        private final Deque<Notification<?>> inFlight = new ConcurrentLinkedDeque<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private int failedAttempts;
+
+        EndpointQueue(String endpoint, int capacity) {
+            this.endpoint = endpoint;
+            queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
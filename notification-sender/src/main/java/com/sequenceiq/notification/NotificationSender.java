@@ -2,8 +2,6 @@ package com.sequenceiq.notification;
 
 import java.util.List;
 
-import javax.ws.rs.client.Client;
-
 public interface NotificationSender {
-    <T> void send(Notification<T> notification, List<String> endpoints, Client restClient);
+    <T> void send(Notification<T> notification, List<String> endpoints);
 }
@@ -12,7 +12,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.google.common.collect.Lists;
-import com.sequenceiq.cloudbreak.client.RestClientUtil;
 import com.sequenceiq.cloudbreak.event.ResourceEvent;
 import com.sequenceiq.cloudbreak.structuredevent.event.CloudbreakNotification;
 
@@ -29,7 +28,7 @@ public class NotificationService {
     private String notificationUrls;
 
     public void send(Notification<CloudbreakNotification> notification) {
-        notificationSender.send(notification, getNotificationUrls(), RestClientUtil.get());
+        notificationSender.send(notification, getNotificationUrls());
     }
 
     public void send(ResourceEvent resourceEvent) {
@@ -47,15 +46,13 @@ public class NotificationService {
     public void send(ResourceEvent resourceEvent, Collection<?> messageArgs, Object payload) {
         notificationSender.send(
                 notificationAssemblingService.createNotification(resourceEvent, messageArgs, payload),
-                getNotificationUrls(),
-                RestClientUtil.get());
+                getNotificationUrls());
     }
 
     public void send(ResourceEvent resourceEvent, Collection<?> messageArgs, Object payload, String userId) {
         notificationSender.send(
                 notificationAssemblingService.createNotification(resourceEvent, messageArgs, payload, userId),
-                getNotificationUrls(),
-                RestClientUtil.get());
+                getNotificationUrls());
     }
 
     private List<String> getNotificationUrls() {
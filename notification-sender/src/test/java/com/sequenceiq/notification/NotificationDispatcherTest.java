@@ -0,0 +1,133 @@
+package com.sequenceiq.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class NotificationDispatcherTest {
+
+    private static final int OK = 200;
+
+    private static final int SERVER_ERROR = 500;
+
+    private static final long INITIAL_BACKOFF_MS = 50L;
+
+    private static final long TIMEOUT_MS = 10_000L;
+
+    private final List<Long> requestTimes = new CopyOnWriteArrayList<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final NotificationDispatcher underTest = new NotificationDispatcher();
+
+    private HttpServer server;
+
+    private String endpoint;
+
+    private volatile IntUnaryOperator statusByAttempt = attempt -> OK;
+
+    @Before
+    public void setUp() throws IOException {
+        Metrics.addRegistry(meterRegistry);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/notify", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            requestTimes.add(System.nanoTime());
+            exchange.sendResponseHeaders(statusByAttempt.applyAsInt(requestTimes.size()), -1);
+            exchange.close();
+        });
+        server.start();
+        endpoint = "http://localhost:" + server.getAddress().getPort() + "/notify";
+        ReflectionTestUtils.setField(underTest, "queueCapacity", 10);
+        ReflectionTestUtils.setField(underTest, "batchSize", 10);
+        ReflectionTestUtils.setField(underTest, "threads", 1);
+        ReflectionTestUtils.setField(underTest, "maxAttempts", 3);
+        ReflectionTestUtils.setField(underTest, "initialBackoffMs", INITIAL_BACKOFF_MS);
+        ReflectionTestUtils.setField(underTest, "maxBackoffMs", 1000L);
+        ReflectionTestUtils.setField(underTest, "connectTimeoutMs", 1000);
+        ReflectionTestUtils.setField(underTest, "readTimeoutMs", 1000);
+        ReflectionTestUtils.setField(underTest, "maxConnectionsPerEndpoint", 1);
+        underTest.init();
+    }
+
+    @After
+    public void tearDown() {
+        underTest.shutdown();
+        server.stop(0);
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    @Test
+    public void testFailedNotificationIsRetriedWithBackoffUntilDelivered() {
+        statusByAttempt = attempt -> attempt < 3 ? SERVER_ERROR : OK;
+
+        underTest.dispatch(endpoint, new Notification<>(Map.of("event", "1")));
+
+        awaitUntil(() -> requestTimes.size() == 3);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(requestTimes.get(1) - requestTimes.get(0)) >= INITIAL_BACKOFF_MS);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(requestTimes.get(2) - requestTimes.get(1)) >= 2 * INITIAL_BACKOFF_MS);
+        assertEquals(0.0, deadLetters(), 0.0);
+    }
+
+    @Test
+    public void testNotificationIsDeadLetteredAfterTheLastAttemptAndTheNextOneIsDelivered() {
+        statusByAttempt = attempt -> attempt <= 3 ? SERVER_ERROR : OK;
+
+        underTest.dispatch(endpoint, new Notification<>(Map.of("event", "1")));
+        underTest.dispatch(endpoint, new Notification<>(Map.of("event", "2")));
+
+        awaitUntil(() -> requestTimes.size() == 4);
+        assertEquals(1.0, deadLetters(), 0.0);
+    }
+
+    @Test
+    public void testQueuedAndInFlightNotificationsAreDeadLetteredOnShutdown() {
+        statusByAttempt = attempt -> SERVER_ERROR;
+        ReflectionTestUtils.setField(underTest, "initialBackoffMs", TIMEOUT_MS);
+
+        underTest.dispatch(endpoint, new Notification<>(Map.of("event", "1")));
+        awaitUntil(() -> requestTimes.size() == 1);
+        underTest.dispatch(endpoint, new Notification<>(Map.of("event", "2")));
+        underTest.shutdown();
+
+        assertEquals(2.0, deadLetters(), 0.0);
+        underTest.dispatch(endpoint, new Notification<>(Map.of("event", "3")));
+        assertEquals(3.0, deadLetters(), 0.0);
+        assertEquals(1, requestTimes.size());
+    }
+
+    private double deadLetters() {
+        return meterRegistry.counter(NotificationDispatcher.DEAD_LETTER_COUNTER).count();
+    }
+
+    private void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Condition was not met in time", System.currentTimeMillis() < deadline);
+            try {
+                Thread.sleep(10L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
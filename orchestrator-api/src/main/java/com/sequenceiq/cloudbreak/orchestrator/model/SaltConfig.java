@@ -1,13 +1,17 @@
 package com.sequenceiq.cloudbreak.orchestrator.model;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class SaltConfig {
     private final Map<String, SaltPillarProperties> servicePillarConfig;
 
     private final Map<String, Map<String, String>> grainsProperties;
 
+    private Set<String> unchangedServicePillars = new HashSet<>();
+
     public SaltConfig() {
         servicePillarConfig = new HashMap<>();
         grainsProperties = new HashMap<>();
@@ -29,4 +33,15 @@ public class SaltConfig {
     public Map<String, Map<String, String>> getGrainsProperties() {
         return grainsProperties;
     }
+
+    /**
+     * Keys of the service pillars that are already on the gateways with the same content, so they do not have to be saved again.
+     */
+    public Set<String> getUnchangedServicePillars() {
+        return unchangedServicePillars;
+    }
+
+    public void setUnchangedServicePillars(Set<String> unchangedServicePillars) {
+        this.unchangedServicePillars = unchangedServicePillars;
+    }
 }
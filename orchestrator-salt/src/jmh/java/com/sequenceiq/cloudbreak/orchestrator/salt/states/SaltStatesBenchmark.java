@@ -0,0 +1,99 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.states;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.Multimap;
+import com.sequenceiq.cloudbreak.common.json.JsonUtil;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltClientType;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.target.Glob;
+import com.sequenceiq.cloudbreak.orchestrator.salt.domain.RunnerInfo;
+import com.sequenceiq.cloudbreak.orchestrator.salt.domain.StateType;
+import com.sequenceiq.cloudbreak.util.FileReaderUtils;
+
+/**
+ * Measures the processing of the highstate job info returned by the Salt master, which is polled until the highstate finishes on every node.
+ * The minions of the recorded response of a 4 node cluster are replicated up to {@code minionCount}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaltStatesBenchmark {
+
+    private static final String JID = "20191219123937838303";
+
+    @Param({"4", "200"})
+    private int minionCount;
+
+    private String responseText;
+
+    private Map<String, List<Map<String, Object>>> response;
+
+    private SaltConnector saltConnector;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode responseJson = (ObjectNode) objectMapper.readTree(FileReaderUtils.readFileFromClasspath("jid_real_response.json"));
+        replicateMinions((ObjectNode) responseJson.get("return").get(0).get("data"));
+        responseText = objectMapper.writeValueAsString(responseJson);
+        response = JsonUtil.readValue(responseText, HashMap.class);
+
+        saltConnector = mock(SaltConnector.class, withSettings().stubOnly());
+        when(saltConnector.run("jobs.lookup_jid", SaltClientType.RUNNER, Map.class, "jid", JID)).thenReturn(response);
+    }
+
+    @Benchmark
+    public Map<?, ?> readResponse() throws IOException {
+        return JsonUtil.readValue(responseText, HashMap.class);
+    }
+
+    @Benchmark
+    public Map<String, List<RunnerInfo>> getHighStates() {
+        return JidInfoResponseTransformer.getHighStates(response);
+    }
+
+    @Benchmark
+    public Multimap<String, String> jidInfo() {
+        return SaltStates.jidInfo(saltConnector, JID, Glob.ALL, StateType.HIGH);
+    }
+
+    private void replicateMinions(ObjectNode minions) {
+        Map<String, JsonNode> recordedMinions = new HashMap<>();
+        minions.fields().forEachRemaining(minion -> recordedMinions.put(minion.getKey(), minion.getValue()));
+        for (int copy = 1; minions.size() < minionCount; copy++) {
+            for (Map.Entry<String, JsonNode> minion : recordedMinions.entrySet()) {
+                if (minions.size() < minionCount) {
+                    minions.set(copy + "-" + minion.getKey(), minion.getValue().deepCopy());
+                }
+            }
+        }
+    }
+}
@@ -287,10 +287,15 @@ public class SaltOrchestrator implements HostOrchestrator {
             Callable<Boolean> saltPillarRunner = runner(hostSave, exitCriteria, exitModel);
             saltPillarRunner.call();
 
+            Set<String> unchangedPillars = saltConfig.getUnchangedServicePillars();
+            LOGGER.debug("Saving {} service pillars, {} unchanged pillars are skipped: {}",
+                    saltConfig.getServicePillarConfig().size() - unchangedPillars.size(), unchangedPillars.size(), unchangedPillars);
             for (Entry<String, SaltPillarProperties> propertiesEntry : saltConfig.getServicePillarConfig().entrySet()) {
-                OrchestratorBootstrap pillarSave = new PillarSave(sc, gatewayTargetIpAddresses, propertiesEntry.getValue());
-                saltPillarRunner = runner(pillarSave, exitCriteria, exitModel);
-                saltPillarRunner.call();
+                if (!unchangedPillars.contains(propertiesEntry.getKey())) {
+                    OrchestratorBootstrap pillarSave = new PillarSave(sc, gatewayTargetIpAddresses, propertiesEntry.getValue());
+                    saltPillarRunner = runner(pillarSave, exitCriteria, exitModel);
+                    saltPillarRunner.call();
+                }
             }
 
             setAdMemberRoleIfNeeded(allNodes, saltConfig, exitModel, sc, allNodeHostname);
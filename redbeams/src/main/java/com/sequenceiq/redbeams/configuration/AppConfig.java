@@ -17,6 +17,7 @@ import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import com.sequenceiq.cloudbreak.concurrent.MDCCleanerTaskDecorator;
+import com.sequenceiq.cloudbreak.logger.concurrent.VirtualThreads;
 
 @Configuration
 @EnableRetry
@@ -41,6 +42,12 @@ public class AppConfig implements ResourceLoaderAware {
     @Value("${redbeams.threadpool.capacity.size:}")
     private int queueCapacity;
 
+    @Value("${cb.virtualthreads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${cb.virtualthreads.pool.size:10000}")
+    private int virtualThreadPoolSize;
+
     @Value("${redbeams.intermediate.threadpool.core.size:}")
     private int intermediateCorePoolSize;
 
@@ -101,6 +108,10 @@ public class AppConfig implements ResourceLoaderAware {
         executor.setCorePoolSize(corePoolSize);
         executor.setQueueCapacity(queueCapacity);
         executor.setThreadNamePrefix("resourceBuilderExecutor-");
+        if (VirtualThreads.isUsable(virtualThreadsEnabled)) {
+            executor.setCorePoolSize(virtualThreadPoolSize);
+            executor.setThreadFactory(VirtualThreads.newThreadFactory("resourceBuilderExecutor-"));
+        }
         executor.setTaskDecorator(new MDCCleanerTaskDecorator());
         executor.initialize();
         return executor;
@@ -22,7 +22,7 @@ public interface RedbeamsFlowLogRepository extends FlowLogRepository {
     int purgeDeletedDbStacksLogs();
 
     @Query("SELECT DISTINCT fl.resourceId FROM FlowLog fl "
-            + "WHERE fl.stateStatus = 'PENDING' "
+            + "WHERE fl.finalized = false AND fl.stateStatus = 'PENDING' "
             + "AND fl.cloudbreakNodeId = :nodeId "
             + "AND fl.flowType = :terminationFlowClass")
     Set<Long> findTerminatingResourcesByNodeId(
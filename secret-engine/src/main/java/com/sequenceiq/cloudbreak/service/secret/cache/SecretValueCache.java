@@ -0,0 +1,152 @@
+package com.sequenceiq.cloudbreak.service.secret.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
+import com.sequenceiq.cloudbreak.service.secret.SecretOperationException;
+
+/**
+ * Read-through cache of secret values in front of the secret engines. The values are kept AES-GCM encrypted with a key that is generated
+ * when the cache is created and never leaves the process, so a heap dump does not reveal them.
+ * <p>
+ * Every invalidation bumps a generation counter, and a value loaded from the engine is only stored if no invalidation happened while it was
+ * being loaded. This way a read racing with a put or delete of the same secret never brings back the value that was just invalidated.
+ */
+@Component
+public class SecretValueCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SecretValueCache.class);
+
+    private static final String KEY_ALGORITHM = "AES";
+
+    private static final String CIPHER_TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int KEY_SIZE_BITS = 256;
+
+    private static final int IV_LENGTH_BYTES = 12;
+
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final MetricService metricService;
+
+    private final boolean enabled;
+
+    private final Cache<String, byte[]> cache;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final SecretKey encryptionKey;
+
+    public SecretValueCache(MetricService metricService,
+            @Value("${secret.cache.enabled:true}") boolean enabled,
+            @Value("${secret.cache.maxEntries:10000}") long maxEntries,
+            @Value("${secret.cache.ttlSeconds:300}") long ttlSeconds) {
+        this.metricService = metricService;
+        this.enabled = enabled;
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+        encryptionKey = generateKey();
+        LOGGER.info("Secret value cache is {}, max entries: {}, ttl: {} seconds", enabled ? "enabled" : "disabled", maxEntries, ttlSeconds);
+    }
+
+    /**
+     * Returns the value of the secret from the cache, or loads it with the given loader and caches it. Null values are not cached.
+     *
+     * @param secret Key-value secret in the secret engine
+     * @param loader Reads the value of the secret from the secret engine
+     * @return the value of the secret
+     */
+    public String get(String secret, Function<String, String> loader) {
+        if (!enabled) {
+            return loader.apply(secret);
+        }
+        byte[] encrypted = cache.getIfPresent(secret);
+        if (encrypted != null) {
+            metricService.incrementMetricCounter(MetricType.SECRET_CACHE_HIT);
+            return decrypt(encrypted);
+        }
+        metricService.incrementMetricCounter(MetricType.SECRET_CACHE_MISS);
+        long loadGeneration = generation.get();
+        String value = loader.apply(secret);
+        if (value != null) {
+            byte[] loaded = encrypt(value);
+            cache.asMap().compute(secret, (key, current) -> generation.get() == loadGeneration ? loaded : current);
+        }
+        return value;
+    }
+
+    public void invalidate(String secret) {
+        if (secret != null) {
+            generation.incrementAndGet();
+            cache.invalidate(secret);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private byte[] encrypt(String value) {
+        try {
+            byte[] iv = new byte[IV_LENGTH_BYTES];
+            secureRandom.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] cipherText = cipher.doFinal(value.getBytes(UTF_8));
+            return ByteBuffer.allocate(iv.length + cipherText.length).put(iv).put(cipherText).array();
+        } catch (GeneralSecurityException e) {
+            throw new SecretOperationException("Failed to encrypt the secret value for caching", e);
+        }
+    }
+
+    private String decrypt(byte[] encrypted) {
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_LENGTH_BITS, encrypted, 0, IV_LENGTH_BYTES));
+            return new String(cipher.doFinal(encrypted, IV_LENGTH_BYTES, encrypted.length - IV_LENGTH_BYTES), UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new SecretOperationException("Failed to decrypt the cached secret value", e);
+        }
+    }
+
+    private static SecretKey generateKey() {
+        try {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance(KEY_ALGORITHM);
+            keyGenerator.init(KEY_SIZE_BITS);
+            return keyGenerator.generateKey();
+        } catch (NoSuchAlgorithmException e) {
+            throw new SecretOperationException("Failed to generate the secret value cache key", e);
+        }
+    }
+}
@@ -1,63 +1,95 @@
 package com.sequenceiq.cloudbreak.service.secret.service;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sequenceiq.cloudbreak.logger.MDCBuilder;
+import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerThreadPoolExecutor;
 import com.sequenceiq.cloudbreak.service.secret.domain.AccountIdAwareResource;
 import com.sequenceiq.cloudbreak.service.secret.domain.Secret;
 import com.sequenceiq.cloudbreak.service.secret.SecretOperationException;
-import com.sequenceiq.cloudbreak.service.secret.SecretValue;
 import com.sequenceiq.cloudbreak.service.secret.domain.SecretProxy;
 
+/**
+ * Stores and deletes the {@link com.sequenceiq.cloudbreak.service.secret.SecretValue} fields of the entities passed to a repository call.
+ * The secrets of all the entities are written to the secret store in parallel, at most {@code secret.write.parallelism} at a time.
+ * If any of the writes fails, the secrets that were already written are deleted and the entities are left untouched.
+ */
 @Service
 public class SecretAspectService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SecretAspectService.class);
 
+    private static final ExecutorService DIRECT_EXECUTOR = MoreExecutors.newDirectExecutorService();
+
     private SecretService secretService;
 
+    private final int writeParallelism;
+
+    private ExecutorService executorService;
+
     @Inject
-    public SecretAspectService(SecretService secretService) {
+    public SecretAspectService(SecretService secretService, @Value("${secret.write.parallelism:8}") int writeParallelism) {
         this.secretService = secretService;
+        this.writeParallelism = writeParallelism;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (writeParallelism > 1) {
+            executorService = new MDCCleanerThreadPoolExecutor(writeParallelism, writeParallelism, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder().setNameFormat("secret-write-%d").setDaemon(true).build(), new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
     }
 
     public Object proceedSave(ProceedingJoinPoint proceedingJoinPoint) {
         Collection<Object> entities = convertFirstArgToCollection(proceedingJoinPoint);
-        for (Object entity : entities) {
-            try {
-                for (Field field : entity.getClass().getDeclaredFields()) {
-                    if (field.isAnnotationPresent(SecretValue.class)) {
-                        LOGGER.debug("Found SecretValue annotation on {}", field);
-                        field.setAccessible(true);
-                        Secret value = (Secret) field.get(entity);
-                        if (value != null && value.getRaw() != null && value.getSecret() == null) {
-                            String accountId = findAccountId(entity);
-                            String path = String.format("%s/%s/%s/%s-%s", accountId,
-                                    entity.getClass().getSimpleName().toLowerCase(), field.getName().toLowerCase(),
-                                    UUID.randomUUID().toString(), Long.toHexString(System.currentTimeMillis()));
-                            String secret = secretService.put(path, value.getRaw());
-                            LOGGER.debug("Field: '{}' is saved at path: {}", field.getName(), path);
-                            field.set(entity, new SecretProxy(secretService, secret));
-                        }
-                    }
-                }
-            } catch (IllegalArgumentException e) {
-                LOGGER.error("Given entity isn't instance of TenantAwareResource. Secret is not deleted!", e);
-                throw new SecretOperationException(e);
-            } catch (Exception e) {
-                LOGGER.warn("Looks like something went wrong with Secret store. Secret is not deleted!", e);
-                throw new SecretOperationException(e);
-            }
+        try {
+            saveSecrets(entities, (entity, field) -> String.format("%s/%s/%s/%s-%s", findAccountId(entity),
+                    entity.getClass().getSimpleName().toLowerCase(), field.getName().toLowerCase(),
+                    UUID.randomUUID().toString(), Long.toHexString(System.currentTimeMillis())));
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Given entity isn't instance of TenantAwareResource. Secret is not deleted!", e);
+            throw new SecretOperationException(e);
+        } catch (Exception e) {
+            LOGGER.warn("Looks like something went wrong with Secret store. Secret is not deleted!", e);
+            throw new SecretOperationException(e);
         }
 
         Object proceed;
@@ -76,28 +108,14 @@ public class SecretAspectService {
 
     public Object proceedDelete(ProceedingJoinPoint proceedingJoinPoint) {
         Collection<Object> entities = convertFirstArgToCollection(proceedingJoinPoint);
-        for (Object entity : entities) {
-            try {
-                for (Field field : entity.getClass().getDeclaredFields()) {
-                    if (field.isAnnotationPresent(SecretValue.class)) {
-                        LOGGER.debug("Found SecretValue annotation on {}", field);
-                        field.setAccessible(true);
-                        Secret path = (Secret) field.get(entity);
-                        if (path != null && path.getSecret() != null) {
-                            secretService.delete(path.getSecret());
-                            LOGGER.debug("Secret deleted at path: {}", path);
-                        } else {
-                            LOGGER.debug("Secret is null for field: {}.{}", field.getDeclaringClass(), field.getName());
-                        }
-                    }
-                }
-            } catch (IllegalArgumentException e) {
-                LOGGER.error("Given entity isn't instance of TenantAwareResource. Secret is not deleted!", e);
-                throw new SecretOperationException(e);
-            } catch (Exception e) {
-                LOGGER.warn("Looks like something went wrong with Secret store. Secret is not deleted!", e);
-                throw new SecretOperationException(e);
-            }
+        try {
+            deleteSecrets(entities);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Given entity isn't instance of TenantAwareResource. Secret is not deleted!", e);
+            throw new SecretOperationException(e);
+        } catch (Exception e) {
+            LOGGER.warn("Looks like something went wrong with Secret store. Secret is not deleted!", e);
+            throw new SecretOperationException(e);
         }
 
         Object proceed;
@@ -122,6 +140,142 @@ public class SecretAspectService {
         return arg instanceof Collection ? (Collection<Object>) arg : Collections.singleton(arg);
     }
 
+    /**
+     * Stores the raw values of the {@link com.sequenceiq.cloudbreak.service.secret.SecretValue} fields of the entities at the paths given by
+     * the path resolver, and replaces the values with {@link SecretProxy} instances. If any of the writes fails, none of the values is replaced.
+     */
+    public void saveSecrets(Collection<Object> entities, BiFunction<Object, Field, String> pathResolver) throws Exception {
+        List<PendingSecret> pendingSecrets = new ArrayList<>();
+        for (Object entity : entities) {
+            for (SecretFieldAccessor accessor : SecretFieldAccessor.forClass(entity.getClass())) {
+                LOGGER.debug("Found SecretValue annotation on {}", accessor.getField());
+                Secret value = accessor.get(entity);
+                if (value != null && value.getRaw() != null && value.getSecret() == null) {
+                    String path = pathResolver.apply(entity, accessor.getField());
+                    pendingSecrets.add(new PendingSecret(entity, accessor, path, value.getRaw()));
+                }
+            }
+        }
+        List<String> secrets = putAll(pendingSecrets);
+        for (int i = 0; i < pendingSecrets.size(); i++) {
+            PendingSecret pendingSecret = pendingSecrets.get(i);
+            LOGGER.debug("Field: '{}' is saved at path: {}", pendingSecret.accessor.getField().getName(), pendingSecret.path);
+            pendingSecret.accessor.set(pendingSecret.entity, new SecretProxy(secretService, secrets.get(i)));
+        }
+    }
+
+    /**
+     * Deletes the stored secrets of the {@link com.sequenceiq.cloudbreak.service.secret.SecretValue} fields of the entities.
+     */
+    public void deleteSecrets(Collection<Object> entities) throws Exception {
+        List<String> secrets = new ArrayList<>();
+        for (Object entity : entities) {
+            for (SecretFieldAccessor accessor : SecretFieldAccessor.forClass(entity.getClass())) {
+                LOGGER.debug("Found SecretValue annotation on {}", accessor.getField());
+                Secret path = accessor.get(entity);
+                if (path != null && path.getSecret() != null) {
+                    secrets.add(path.getSecret());
+                } else {
+                    LOGGER.debug("Secret is null for field: {}.{}", accessor.getField().getDeclaringClass(), accessor.getField().getName());
+                }
+            }
+        }
+        deleteAll(secrets);
+    }
+
+    private List<String> putAll(List<PendingSecret> pendingSecrets) throws Exception {
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<String>> futures = submitAll(pendingSecrets.stream()
+                .map(pendingSecret -> (Callable<String>) () -> {
+                    if (failed.get()) {
+                        return null;
+                    }
+                    try {
+                        return secretService.put(pendingSecret.path, pendingSecret.raw);
+                    } catch (Exception e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                })
+                .collect(Collectors.toList()));
+        List<String> secrets = new ArrayList<>(futures.size());
+        Exception failure = null;
+        for (Future<String> future : futures) {
+            try {
+                secrets.add(getResult(future));
+            } catch (Exception e) {
+                failure = failure == null ? e : failure;
+                secrets.add(null);
+            }
+        }
+        if (failure != null) {
+            rollback(secrets, failure);
+        }
+        return secrets;
+    }
+
+    private void rollback(List<String> secrets, Exception failure) throws Exception {
+        List<String> written = secrets.stream().filter(Objects::nonNull).collect(Collectors.toList());
+        LOGGER.warn("Failed to store every secret, deleting the {} secrets that were already stored", written.size());
+        for (String secret : written) {
+            try {
+                secretService.delete(secret);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to delete secret during rollback", e);
+                failure.addSuppressed(e);
+            }
+        }
+        throw failure;
+    }
+
+    private void deleteAll(List<String> secrets) throws Exception {
+        List<Future<Void>> futures = submitAll(secrets.stream()
+                .map(secret -> (Callable<Void>) () -> {
+                    secretService.delete(secret);
+                    LOGGER.debug("Secret deleted at path: {}", secret);
+                    return null;
+                })
+                .collect(Collectors.toList()));
+        Exception failure = null;
+        for (Future<Void> future : futures) {
+            try {
+                getResult(future);
+            } catch (Exception e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private <T> List<Future<T>> submitAll(List<Callable<T>> tasks) {
+        if (executorService == null || tasks.size() < 2) {
+            return tasks.stream().map(DIRECT_EXECUTOR::submit).collect(Collectors.toList());
+        }
+        Map<String, String> mdcContext = MDCBuilder.getMdcContextMap();
+        return tasks.stream()
+                .map(task -> executorService.submit(() -> {
+                    MDCBuilder.buildMdcContextFromMap(mdcContext);
+                    return task.call();
+                }))
+                .collect(Collectors.toList());
+    }
+
+    private <T> T getResult(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     private String findAccountId(Object entity) {
         return Optional.ofNullable(entity)
                 .filter(e -> e instanceof AccountIdAwareResource)
@@ -132,4 +286,22 @@ public class SecretAspectService {
                     return "undefined";
                 });
     }
+
+    private static class PendingSecret {
+
+        private final Object entity;
+
+        private final SecretFieldAccessor accessor;
+
+        private final String path;
+
+        private final String raw;
+
+        PendingSecret(Object entity, SecretFieldAccessor accessor, String path, String raw) {
+            this.entity = entity;
+            this.accessor = accessor;
+            this.path = path;
+            this.raw = raw;
+        }
+    }
 }
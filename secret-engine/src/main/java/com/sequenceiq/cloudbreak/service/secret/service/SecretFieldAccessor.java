@@ -0,0 +1,70 @@
+package com.sequenceiq.cloudbreak.service.secret.service;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.sequenceiq.cloudbreak.service.secret.SecretOperationException;
+import com.sequenceiq.cloudbreak.service.secret.SecretValue;
+import com.sequenceiq.cloudbreak.service.secret.domain.Secret;
+
+/**
+ * Reads and writes a {@link SecretValue} annotated field. The accessors of a class are resolved only once, the annotation scan and the access
+ * checks are not repeated on every repository call. The field is made accessible when it is resolved, so final fields can be written as well.
+ */
+class SecretFieldAccessor {
+
+    private static final ClassValue<List<SecretFieldAccessor>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected List<SecretFieldAccessor> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private final Field field;
+
+    private SecretFieldAccessor(Field field) {
+        this.field = field;
+    }
+
+    static List<SecretFieldAccessor> forClass(Class<?> type) {
+        return ACCESSORS.get(type);
+    }
+
+    Secret get(Object entity) {
+        try {
+            return (Secret) field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new SecretOperationException(e);
+        }
+    }
+
+    void set(Object entity, Secret secret) {
+        try {
+            field.set(entity, secret);
+        } catch (IllegalAccessException e) {
+            throw new SecretOperationException(e);
+        }
+    }
+
+    Field getField() {
+        return field;
+    }
+
+    private static List<SecretFieldAccessor> resolve(Class<?> type) {
+        List<SecretFieldAccessor> accessors = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(SecretValue.class)) {
+                try {
+                    field.setAccessible(true);
+                } catch (InaccessibleObjectException | SecurityException e) {
+                    throw new SecretOperationException(String.format("Cannot access SecretValue field %s.%s", type.getName(), field.getName()), e);
+                }
+                accessors.add(new SecretFieldAccessor(field));
+            }
+        }
+        return accessors.isEmpty() ? Collections.emptyList() : List.copyOf(accessors);
+    }
+}
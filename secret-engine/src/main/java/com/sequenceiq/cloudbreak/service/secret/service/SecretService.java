@@ -20,6 +20,7 @@ import com.google.gson.Gson;
 import com.sequenceiq.cloudbreak.common.metrics.MetricService;
 import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
 import com.sequenceiq.cloudbreak.service.secret.SecretEngine;
+import com.sequenceiq.cloudbreak.service.secret.cache.SecretValueCache;
 import com.sequenceiq.cloudbreak.service.secret.conf.VaultConfig;
 import com.sequenceiq.cloudbreak.service.secret.model.SecretResponse;
 import com.sequenceiq.cloudbreak.service.secret.vault.VaultKvV1Engine;
@@ -43,10 +44,14 @@ public class SecretService {
 
     private VaultRetryService vaultRetryService;
 
-    public SecretService(MetricService metricService, List<SecretEngine> engines, VaultRetryService vaultRetryService) {
+    private final SecretValueCache secretValueCache;
+
+    public SecretService(MetricService metricService, List<SecretEngine> engines, VaultRetryService vaultRetryService,
+            SecretValueCache secretValueCache) {
         this.metricService = metricService;
         this.engines = engines;
         this.vaultRetryService = vaultRetryService;
+        this.secretValueCache = secretValueCache;
     }
 
     @PostConstruct
@@ -78,13 +83,14 @@ public class SecretService {
         duration = System.currentTimeMillis() - start;
         metricService.submit(MetricType.VAULT_WRITE, duration);
         LOGGER.trace("Secret write took {} ms", duration);
+        secretValueCache.invalidate(secret);
         metricService.incrementMetricCounter(() -> "secret.write." + convertSecretToMetric(secret));
         return secret;
     }
 
     /**
      * Fetches the secret from Secret's store. If the secret is not found then null is returned.
-     * If the secret is null then null is returned.
+     * If the secret is null then null is returned. The values are served from the {@link SecretValueCache} if they were read before.
      *
      * @param secret Key-value secret in Secret
      * @return Secret content or null if the secret secret is not found.
@@ -94,8 +100,12 @@ public class SecretService {
             return null;
         }
         metricService.incrementMetricCounter(() -> "secret.read." + convertSecretToMetric(secret));
-        long start = System.currentTimeMillis();
+        String response = secretValueCache.get(secret, this::readFromEngine);
+        return "null".equals(response) ? null : response;
+    }
 
+    private String readFromEngine(String secret) {
+        long start = System.currentTimeMillis();
         String response = vaultRetryService.tryReadingVault(() -> {
             return getFirstEngineStream(secret)
                     .map(e -> e.get(secret))
@@ -105,7 +115,7 @@ public class SecretService {
         long duration = System.currentTimeMillis() - start;
         metricService.submit(MetricType.VAULT_READ, duration);
         LOGGER.trace("Secret read took {} ms", duration);
-        return "null".equals(response) ? null : response;
+        return response;
     }
 
     /**
@@ -138,9 +148,13 @@ public class SecretService {
     public void delete(String secret) {
         metricService.incrementMetricCounter(() -> "secret.delete." + convertSecretToMetric(secret));
         long start = System.currentTimeMillis();
-        engines.stream()
-                .filter(e -> e.isSecret(secret))
-                .forEach(e -> e.delete(secret));
+        try {
+            engines.stream()
+                    .filter(e -> e.isSecret(secret))
+                    .forEach(e -> e.delete(secret));
+        } finally {
+            secretValueCache.invalidate(secret);
+        }
         long duration = System.currentTimeMillis() - start;
         metricService.submit(MetricType.VAULT_WRITE, duration);
         LOGGER.trace("Secret delete took {} ms", duration);
@@ -153,7 +167,11 @@ public class SecretService {
     public void cleanup(String pathPrefix) {
         metricService.incrementMetricCounter(() -> "secret.cleanup." + pathPrefix);
         long start = System.currentTimeMillis();
-        persistentEngine.cleanup(pathPrefix);
+        try {
+            persistentEngine.cleanup(pathPrefix);
+        } finally {
+            secretValueCache.invalidateAll();
+        }
         long duration = System.currentTimeMillis() - start;
         metricService.submit(MetricType.VAULT_WRITE, duration);
         LOGGER.trace("Secret cleanup took {} ms", duration);
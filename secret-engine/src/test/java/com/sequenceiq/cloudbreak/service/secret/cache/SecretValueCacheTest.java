@@ -0,0 +1,79 @@
+package com.sequenceiq.cloudbreak.service.secret.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
+
+class SecretValueCacheTest {
+
+    private final MetricService metricService = mock(MetricService.class);
+
+    private final SecretValueCache underTest = new SecretValueCache(metricService, true, 100L, 60L);
+
+    @Test
+    void testValueIsLoadedOnceAndHitsAreCounted() {
+        AtomicInteger loads = new AtomicInteger();
+
+        Function<String, String> loader = key -> {
+            loads.incrementAndGet();
+            return "value";
+        };
+
+        assertEquals("value", underTest.get("secret", loader));
+        assertEquals("value", underTest.get("secret", loader));
+
+        assertEquals(1, loads.get());
+        verify(metricService, times(1)).incrementMetricCounter(MetricType.SECRET_CACHE_MISS);
+        verify(metricService, times(1)).incrementMetricCounter(MetricType.SECRET_CACHE_HIT);
+    }
+
+    @Test
+    void testNullValueIsNotCached() {
+        assertNull(underTest.get("secret", key -> null));
+        assertEquals("value", underTest.get("secret", key -> "value"));
+
+        assertEquals(1L, underTest.size());
+    }
+
+    @Test
+    void testInvalidatedValueIsLoadedAgain() {
+        underTest.get("secret", key -> "value");
+        underTest.get("other", key -> "other");
+
+        underTest.invalidate("secret");
+
+        assertEquals("newValue", underTest.get("secret", key -> "newValue"));
+        assertEquals("other", underTest.get("other", key -> "newOther"));
+    }
+
+    @Test
+    void testValueLoadedDuringInvalidationIsNotCached() {
+        assertEquals("stale", underTest.get("secret", key -> {
+            underTest.invalidate(key);
+            return "stale";
+        }));
+
+        assertEquals(0L, underTest.size());
+        assertEquals("fresh", underTest.get("secret", key -> "fresh"));
+    }
+
+    @Test
+    void testDisabledCacheAlwaysLoads() {
+        SecretValueCache disabled = new SecretValueCache(metricService, false, 100L, 60L);
+
+        disabled.get("secret", key -> "value");
+
+        assertEquals("newValue", disabled.get("secret", key -> "newValue"));
+        assertEquals(0L, disabled.size());
+    }
+}
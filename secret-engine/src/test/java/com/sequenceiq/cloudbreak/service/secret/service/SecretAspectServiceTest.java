@@ -0,0 +1,126 @@
+package com.sequenceiq.cloudbreak.service.secret.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sequenceiq.cloudbreak.service.secret.SecretOperationException;
+import com.sequenceiq.cloudbreak.service.secret.SecretValue;
+import com.sequenceiq.cloudbreak.service.secret.domain.AccountIdAwareResource;
+import com.sequenceiq.cloudbreak.service.secret.domain.Secret;
+import com.sequenceiq.cloudbreak.service.secret.domain.SecretProxy;
+
+class SecretAspectServiceTest {
+
+    private final SecretService secretService = mock(SecretService.class);
+
+    private final ProceedingJoinPoint proceedingJoinPoint = mock(ProceedingJoinPoint.class);
+
+    private final SecretAspectService underTest = new SecretAspectService(secretService, 4);
+
+    @BeforeEach
+    void setUp() {
+        underTest.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    void testSaveStoresEverySecretOfEveryEntity() throws Throwable {
+        DummyEntity first = new DummyEntity(new Secret("first-password"), new Secret("first-key"));
+        DummyEntity second = new DummyEntity(new Secret("second-password"), null);
+        when(proceedingJoinPoint.getArgs()).thenReturn(new Object[] {List.of(first, second)});
+        when(secretService.put(startsWith("account/dummyentity/password/"), anyString())).thenAnswer(i -> "stored-" + i.getArgument(1));
+        when(secretService.put(startsWith("account/dummyentity/key/"), anyString())).thenAnswer(i -> "stored-" + i.getArgument(1));
+
+        underTest.proceedSave(proceedingJoinPoint);
+
+        assertProxy("stored-first-password", first.password);
+        assertProxy("stored-first-key", first.key);
+        assertProxy("stored-second-password", second.password);
+        assertNull(second.key);
+        verify(proceedingJoinPoint).proceed();
+    }
+
+    @Test
+    void testSaveDeletesStoredSecretsWhenAWriteFails() throws Throwable {
+        Secret firstPassword = new Secret("first-password");
+        Secret secondPassword = new Secret("second-password");
+        DummyEntity first = new DummyEntity(firstPassword, null);
+        DummyEntity second = new DummyEntity(secondPassword, null);
+        when(proceedingJoinPoint.getArgs()).thenReturn(new Object[] {List.of(first, second)});
+        when(secretService.put(anyString(), anyString())).thenAnswer(i -> {
+            if ("second-password".equals(i.getArgument(1))) {
+                throw new IllegalStateException("vault is sealed");
+            }
+            return "stored-" + i.getArgument(1);
+        });
+
+        SecretAspectService sequential = new SecretAspectService(secretService, 1);
+        sequential.init();
+
+        assertThrows(SecretOperationException.class, () -> sequential.proceedSave(proceedingJoinPoint));
+
+        verify(secretService, times(1)).delete("stored-first-password");
+        verify(proceedingJoinPoint, never()).proceed();
+        assertSame(firstPassword, first.password);
+        assertSame(secondPassword, second.password);
+    }
+
+    @Test
+    void testDeleteRemovesEveryStoredSecret() throws Throwable {
+        DummyEntity first = new DummyEntity(new Secret(null, "first-secret"), new Secret(null, "second-secret"));
+        DummyEntity second = new DummyEntity(new Secret("raw-only"), null);
+        when(proceedingJoinPoint.getArgs()).thenReturn(new Object[] {List.of(first, second)});
+
+        underTest.proceedDelete(proceedingJoinPoint);
+
+        verify(secretService).delete("first-secret");
+        verify(secretService).delete("second-secret");
+        verify(secretService, times(2)).delete(anyString());
+        verify(proceedingJoinPoint).proceed();
+    }
+
+    private void assertProxy(String expectedSecret, Secret actual) {
+        assertTrue(actual instanceof SecretProxy);
+        assertEquals(expectedSecret, actual.getSecret());
+    }
+
+    private static class DummyEntity implements AccountIdAwareResource {
+
+        @SecretValue
+        private Secret password;
+
+        @SecretValue
+        private Secret key;
+
+        DummyEntity(Secret password, Secret key) {
+            this.password = password;
+            this.key = key;
+        }
+
+        @Override
+        public String getAccountId() {
+            return "account";
+        }
+    }
+}
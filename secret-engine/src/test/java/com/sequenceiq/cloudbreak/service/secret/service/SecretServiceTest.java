@@ -28,6 +28,7 @@ import com.sequenceiq.cloudbreak.common.metrics.MetricService;
 import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
 import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
 import com.sequenceiq.cloudbreak.service.secret.SecretEngine;
+import com.sequenceiq.cloudbreak.service.secret.cache.SecretValueCache;
 
 @RunWith(MockitoJUnitRunner.class)
 public class SecretServiceTest {
@@ -41,8 +42,10 @@ public class SecretServiceTest {
 
     private final VaultRetryService vaultRetryService = Mockito.mock(VaultRetryService.class);
 
+    private final SecretValueCache secretValueCache = new SecretValueCache(Mockito.mock(MetricService.class), true, 100L, 60L);
+
     @InjectMocks
-    private final SecretService underTest = new SecretService(metricService, List.of(persistentEngine), vaultRetryService);
+    private final SecretService underTest = new SecretService(metricService, List.of(persistentEngine), vaultRetryService, secretValueCache);
 
     @Before
     public void setup() {
@@ -117,6 +120,41 @@ public class SecretServiceTest {
         Assert.assertEquals("value", result);
     }
 
+    @Test
+    public void testGetSecretIsReadFromEngineOnlyOnce() {
+        when(persistentEngine.get("secret")).thenReturn("value");
+
+        Assert.assertEquals("value", underTest.get("secret"));
+        Assert.assertEquals("value", underTest.get("secret"));
+
+        verify(persistentEngine, times(1)).get("secret");
+        verify(metricService, times(1)).submit(eq(MetricType.VAULT_READ), anyDouble());
+    }
+
+    @Test
+    public void testDeleteInvalidatesCachedSecret() {
+        when(persistentEngine.get("secret")).thenReturn("value", "newValue");
+
+        Assert.assertEquals("value", underTest.get("secret"));
+        underTest.delete("secret");
+
+        Assert.assertEquals("newValue", underTest.get("secret"));
+        verify(persistentEngine, times(2)).get("secret");
+    }
+
+    @Test
+    public void testPutInvalidatesCachedSecret() throws Exception {
+        when(persistentEngine.get("secret")).thenReturn("value", "newValue");
+        when(persistentEngine.isExists("key")).thenReturn(false);
+        when(persistentEngine.put("key", "newValue")).thenReturn("secret");
+
+        Assert.assertEquals("value", underTest.get("secret"));
+        underTest.put("key", "newValue");
+
+        Assert.assertEquals("newValue", underTest.get("secret"));
+        verify(persistentEngine, times(2)).get("secret");
+    }
+
     @Test
     public void testDeleteNullSecret() {
         when(persistentEngine.isSecret(any())).thenReturn(false);
@@ -22,4 +22,6 @@ public interface CloudbreakEventService {
     List<StructuredNotificationEvent> cloudbreakEventsForStack(Long stackId);
 
     Page<StructuredNotificationEvent> cloudbreakEventsForStack(Long stackId, Pageable pageable);
+
+    Page<StructuredNotificationEvent> cloudbreakEventsForStackBefore(Long stackId, Long before, int pageSize);
 }
@@ -0,0 +1,150 @@
+package com.sequenceiq.cloudbreak.cmtemplate;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cloudera.api.swagger.model.ApiClusterTemplate;
+import com.sequenceiq.cloudbreak.TestUtil;
+import com.sequenceiq.cloudbreak.api.endpoint.v4.database.base.DatabaseType;
+import com.sequenceiq.cloudbreak.cloud.model.ClouderaManagerRepo;
+import com.sequenceiq.cloudbreak.cmtemplate.configproviders.hdfs.HdfsVolumeConfigProvider;
+import com.sequenceiq.cloudbreak.cmtemplate.configproviders.hive.HiveMetastoreConfigProvider;
+import com.sequenceiq.cloudbreak.cmtemplate.configproviders.kafka.KafkaVolumeConfigProvider;
+import com.sequenceiq.cloudbreak.cmtemplate.configproviders.yarn.YarnVolumeConfigProvider;
+import com.sequenceiq.cloudbreak.cmtemplate.configproviders.zookeeper.ZooKeeperVolumeConfigProvider;
+import com.sequenceiq.cloudbreak.template.TemplatePreparationObject;
+import com.sequenceiq.cloudbreak.template.TemplateProcessor;
+import com.sequenceiq.cloudbreak.template.model.GeneralClusterConfigs;
+import com.sequenceiq.cloudbreak.template.views.BlueprintView;
+import com.sequenceiq.cloudbreak.template.views.HostgroupView;
+import com.sequenceiq.cloudbreak.util.FileReaderUtils;
+import com.sequenceiq.common.api.type.InstanceGroupType;
+
+/**
+ * Measures the end-to-end cluster template generation of {@link CentralCmTemplateUpdater} for the given template, cluster size and config provider
+ * parallelism, once with a cold parse cache (every call parses the text) and once with a warm one (the text is parsed only once).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CentralCmTemplateUpdaterBenchmark {
+
+    private static final long PARSE_CACHE_SIZE = 100L;
+
+    private static final long PARSE_CACHE_EXPIRY_MINUTES = 60L;
+
+    @Param({"input/clouderamanager-knox-multi-gateway.bp", "input/cdp-data-mart.bp"})
+    private String templatePath;
+
+    @Param({"10", "1000"})
+    private int workerCount;
+
+    @Param({"1", "4"})
+    private int configProviderParallelism;
+
+    private CentralCmTemplateUpdater underTest;
+
+    private CmTemplateParseCache parseCache;
+
+    private CmTemplateConfigProviderExecutor configProviderExecutor;
+
+    private TemplatePreparationObject source;
+
+    private Map<String, List<Map<String, String>>> hostGroupMappings;
+
+    private ClouderaManagerRepo clouderaManagerRepo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String templateText = FileReaderUtils.readFileFromClasspath(templatePath);
+        CmTemplateProcessor parsed = new CmTemplateProcessor(templateText);
+        hostGroupMappings = parsed.getHostTemplateNames().stream()
+                .collect(Collectors.toMap(name -> name, name -> hosts(name, name.startsWith("master") || name.startsWith("gateway") ? 1 : workerCount)));
+        Set<HostgroupView> hostgroupViews = hostGroupMappings.entrySet().stream()
+                .map(entry -> new HostgroupView(entry.getKey(), 2, InstanceGroupType.CORE,
+                        entry.getValue().stream().map(host -> host.get("fqdn")).collect(Collectors.toSet())))
+                .collect(Collectors.toSet());
+        GeneralClusterConfigs generalClusterConfigs = new GeneralClusterConfigs();
+        generalClusterConfigs.setClusterName("benchmark");
+        generalClusterConfigs.setPassword("Admin123!");
+        source = TemplatePreparationObject.Builder.builder()
+                .withBlueprintView(new BlueprintView(templateText, "7.0.2", "CDH", parsed))
+                .withHostgroupViews(hostgroupViews)
+                .withGeneralClusterConfigs(generalClusterConfigs)
+                .withRdsConfigs(Set.of(TestUtil.rdsConfig(DatabaseType.HIVE)))
+                .build();
+        clouderaManagerRepo = new ClouderaManagerRepo();
+        clouderaManagerRepo.setVersion("7.0.2");
+
+        configProviderExecutor = new CmTemplateConfigProviderExecutor();
+        ReflectionTestUtils.setField(configProviderExecutor, "parallelism", configProviderParallelism);
+        configProviderExecutor.init();
+        CmTemplateComponentConfigProviderProcessor componentConfigProviderProcessor = new CmTemplateComponentConfigProviderProcessor();
+        ReflectionTestUtils.setField(componentConfigProviderProcessor, "providers", List.of(new HiveMetastoreConfigProvider()));
+        ReflectionTestUtils.setField(componentConfigProviderProcessor, "cmTemplateConfigProviderExecutor", configProviderExecutor);
+        CmTemplateConfigInjectorProcessor configInjectorProcessor = new CmTemplateConfigInjectorProcessor();
+        ReflectionTestUtils.setField(configInjectorProcessor, "injectors", List.of());
+        CmHostGroupRoleConfigProviderProcessor hostGroupRoleConfigProviderProcessor = new CmHostGroupRoleConfigProviderProcessor();
+        ReflectionTestUtils.setField(hostGroupRoleConfigProviderProcessor, "providers", List.of(new HdfsVolumeConfigProvider(),
+                new YarnVolumeConfigProvider(), new KafkaVolumeConfigProvider(), new ZooKeeperVolumeConfigProvider()));
+        ReflectionTestUtils.setField(hostGroupRoleConfigProviderProcessor, "cmTemplateConfigProviderExecutor", configProviderExecutor);
+        parseCache = new CmTemplateParseCache(PARSE_CACHE_SIZE, PARSE_CACHE_EXPIRY_MINUTES);
+
+        underTest = new CentralCmTemplateUpdater();
+        ReflectionTestUtils.setField(underTest, "templateProcessor", new TemplateProcessor());
+        ReflectionTestUtils.setField(underTest, "cmTemplateProcessorFactory", new CmTemplateProcessorFactory(parseCache));
+        ReflectionTestUtils.setField(underTest, "cmTemplateComponentConfigProviderProcessor", componentConfigProviderProcessor);
+        ReflectionTestUtils.setField(underTest, "cmTemplateConfigInjectorProcessor", configInjectorProcessor);
+        ReflectionTestUtils.setField(underTest, "cmHostGroupRoleConfigProviderProcessor", hostGroupRoleConfigProviderProcessor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        configProviderExecutor.shutdown();
+    }
+
+    @Benchmark
+    public ApiClusterTemplate generateWithWarmParseCache() {
+        return underTest.getCmTemplate(source, hostGroupMappings, clouderaManagerRepo, null, null);
+    }
+
+    @Benchmark
+    public ApiClusterTemplate generateWithColdParseCache() {
+        parseCache.invalidateAll();
+        return underTest.getCmTemplate(source, hostGroupMappings, clouderaManagerRepo, null, null);
+    }
+
+    private static List<Map<String, String>> hosts(String hostGroup, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    Map<String, String> host = new HashMap<>();
+                    host.put("fqdn", hostGroup + i + ".example.com");
+                    return host;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,63 @@
+package com.sequenceiq.cloudbreak.cmtemplate;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sequenceiq.cloudbreak.template.model.ServiceComponent;
+import com.sequenceiq.cloudbreak.util.FileReaderUtils;
+
+/**
+ * Measures the parsing of a cluster template into a {@link CmTemplateProcessor} and the host group lookups done on the parsed template while a
+ * cluster is validated and created, on the templates of {@link CentralCmTemplateUpdaterBenchmark}; the second one is the largest test fixture.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CmTemplateProcessorBenchmark {
+
+    @Param({"input/cdp-data-mart.bp", "input/clouderamanager-knox-multi-gateway.bp"})
+    private String templatePath;
+
+    private String templateText;
+
+    private CmTemplateProcessor parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        templateText = FileReaderUtils.readFileFromClasspath(templatePath);
+        parsed = new CmTemplateProcessor(templateText);
+    }
+
+    @Benchmark
+    public CmTemplateProcessor parse() {
+        return new CmTemplateProcessor(templateText);
+    }
+
+    @Benchmark
+    public Map<String, Set<ServiceComponent>> getServiceComponentsByHostGroup() {
+        return parsed.getServiceComponentsByHostGroup();
+    }
+
+    @Benchmark
+    public Map<String, Set<String>> getComponentsByHostGroup() {
+        return parsed.getComponentsByHostGroup();
+    }
+}
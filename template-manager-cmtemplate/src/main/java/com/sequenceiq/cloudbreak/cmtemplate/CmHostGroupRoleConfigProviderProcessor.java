@@ -35,6 +35,9 @@ public class CmHostGroupRoleConfigProviderProcessor {
     @Inject
     private List<CmHostGroupRoleConfigProvider> providers;
 
+    @Inject
+    private CmTemplateConfigProviderExecutor cmTemplateConfigProviderExecutor;
+
     public void process(CmTemplateProcessor templateProcessor, TemplatePreparationObject source) {
         if (!getHostTemplates(templateProcessor).isEmpty()) {
             updateConfigsInTemplate(templateProcessor, generateConfigs(templateProcessor, source));
@@ -53,22 +56,20 @@ public class CmHostGroupRoleConfigProviderProcessor {
         List<ApiClusterTemplateHostTemplate> hostTemplates = getHostTemplates(templateProcessor);
         Map<String, ServiceComponent> serviceComponents = templateProcessor.mapRoleRefsToServiceComponents();
 
+        List<Map<Pair<String, String>, List<ApiClusterTemplateConfig>>> configsByProvider = cmTemplateConfigProviderExecutor.computeAll(providers,
+                provider -> generateConfigs(provider, hostTemplates, hostGroups, serviceComponents, source));
+
         for (ApiClusterTemplateHostTemplate hostTemplate : hostTemplates) {
             String hostGroupName = hostTemplate.getRefName();
             List<String> roleConfigGroups = ofNullable(hostTemplate.getRoleConfigGroupsRefNames()).orElseGet(List::of);
-            HostgroupView hostgroupView = hostGroups.get(hostGroupName);
 
             for (String roleConfigGroup : roleConfigGroups) {
-                for (CmHostGroupRoleConfigProvider provider : providers) {
-                    ServiceComponent serviceComponent = serviceComponents.get(roleConfigGroup);
-
-                    if (serviceComponent != null
-                            && Objects.equals(provider.getServiceType(), serviceComponent.getService())
-                            && provider.getRoleTypes().contains(serviceComponent.getComponent())) {
-
+                for (Map<Pair<String, String>, List<ApiClusterTemplateConfig>> providerConfigs : configsByProvider) {
+                    List<ApiClusterTemplateConfig> configs = providerConfigs.get(Pair.of(hostGroupName, roleConfigGroup));
+                    if (configs != null) {
                         configsByRoleConfigGroup.computeIfAbsent(roleConfigGroup, __ -> new HashMap<>())
                                 .computeIfAbsent(hostGroupName, __ -> new ArrayList<>())
-                                .addAll(provider.getRoleConfigs(serviceComponent.getComponent(), hostgroupView, source));
+                                .addAll(configs);
                     }
                 }
             }
@@ -76,6 +77,30 @@ public class CmHostGroupRoleConfigProviderProcessor {
         return configsByRoleConfigGroup;
     }
 
+    private Map<Pair<String, String>, List<ApiClusterTemplateConfig>> generateConfigs(CmHostGroupRoleConfigProvider provider,
+            List<ApiClusterTemplateHostTemplate> hostTemplates, Map<String, HostgroupView> hostGroups, Map<String, ServiceComponent> serviceComponents,
+            TemplatePreparationObject source) {
+        Map<Pair<String, String>, List<ApiClusterTemplateConfig>> configsByHostGroupAndRoleConfigGroup = new HashMap<>();
+        for (ApiClusterTemplateHostTemplate hostTemplate : hostTemplates) {
+            String hostGroupName = hostTemplate.getRefName();
+            List<String> roleConfigGroups = ofNullable(hostTemplate.getRoleConfigGroupsRefNames()).orElseGet(List::of);
+            HostgroupView hostgroupView = hostGroups.get(hostGroupName);
+
+            for (String roleConfigGroup : roleConfigGroups) {
+                ServiceComponent serviceComponent = serviceComponents.get(roleConfigGroup);
+
+                if (serviceComponent != null
+                        && Objects.equals(provider.getServiceType(), serviceComponent.getService())
+                        && provider.getRoleTypes().contains(serviceComponent.getComponent())) {
+
+                    configsByHostGroupAndRoleConfigGroup.put(Pair.of(hostGroupName, roleConfigGroup),
+                            provider.getRoleConfigs(serviceComponent.getComponent(), hostgroupView, source));
+                }
+            }
+        }
+        return configsByHostGroupAndRoleConfigGroup;
+    }
+
     private void updateConfigsInTemplate(CmTemplateProcessor templateProcessor, Map<String, Map<String, List<ApiClusterTemplateConfig>>> newConfigsByRCG) {
         List<ApiClusterTemplateHostTemplate> hostTemplates = getHostTemplates(templateProcessor);
         Map<String, ApiClusterTemplateService> serviceByRCG = templateProcessor.getTemplate().getServices().stream()
@@ -2,6 +2,7 @@ package com.sequenceiq.cloudbreak.cmtemplate;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.cloudera.api.swagger.model.ApiClusterTemplateConfig;
 import com.cloudera.api.swagger.model.ApiClusterTemplateService;
@@ -19,6 +20,21 @@ public interface CmTemplateComponentConfigProvider {
 
     List<String> getRoleTypes();
 
+    /**
+     * Service types whose state in the template is inspected while generating the configs.
+     * Providers writing any of these services are run before this one, see {@link CmTemplateComponentConfigProviderProcessor}.
+     */
+    default Set<String> getReadServiceTypes() {
+        return Set.of(getServiceType());
+    }
+
+    /**
+     * Service types which are added to the template or configured by this provider.
+     */
+    default Set<String> getWriteServiceTypes() {
+        return Set.of(getServiceType());
+    }
+
     default boolean isConfigurationNeeded(CmTemplateProcessor cmTemplateProcessor, TemplatePreparationObject source) {
         return false;
     }
@@ -1,6 +1,13 @@
 package com.sequenceiq.cloudbreak.cmtemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -8,8 +15,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.cloudera.api.swagger.model.ApiClusterTemplateConfig;
+import com.cloudera.api.swagger.model.ApiClusterTemplateVariable;
 import com.sequenceiq.cloudbreak.template.TemplatePreparationObject;
 
+/**
+ * Runs the component config providers in stages. A provider is placed into the stage after the last earlier provider it conflicts with,
+ * where two providers conflict if one of them writes a service type the other one reads or writes. Within a stage the configs are generated
+ * in parallel and merged into the template in the order of the providers, so the outcome does not depend on the scheduling.
+ */
 @Component
 public class CmTemplateComponentConfigProviderProcessor {
 
@@ -18,20 +32,98 @@ public class CmTemplateComponentConfigProviderProcessor {
     @Inject
     private List<CmTemplateComponentConfigProvider> providers;
 
+    @Inject
+    private CmTemplateConfigProviderExecutor cmTemplateConfigProviderExecutor;
+
     public CmTemplateProcessor process(CmTemplateProcessor cmTemplateProcessor, TemplatePreparationObject template) {
-        for (CmTemplateComponentConfigProvider provider : providers) {
-            cmTemplateProcessor.extendTemplateWithAdditionalServices(provider.getAdditionalServices(cmTemplateProcessor, template));
-            if (provider.isConfigurationNeeded(cmTemplateProcessor, template)) {
-                LOGGER.info("{} is configuring", provider.getClass().getSimpleName());
-                cmTemplateProcessor.addServiceConfigs(provider.getServiceType(), provider.getRoleTypes(),
-                        provider.getServiceConfigs(cmTemplateProcessor, template));
-                cmTemplateProcessor.addVariables(provider.getServiceConfigVariables(template));
-                cmTemplateProcessor.addRoleConfigs(provider.getServiceType(), provider.getRoleConfigs(cmTemplateProcessor, template));
-                cmTemplateProcessor.addVariables(provider.getRoleConfigVariables(cmTemplateProcessor, template));
-            } else {
-                LOGGER.info("No need for configure the {}", provider.getClass().getSimpleName());
+        for (List<CmTemplateComponentConfigProvider> stage : getStages()) {
+            for (CmTemplateComponentConfigProvider provider : stage) {
+                cmTemplateProcessor.extendTemplateWithAdditionalServices(provider.getAdditionalServices(cmTemplateProcessor, template));
             }
+            List<GeneratedConfigs> generatedConfigs = cmTemplateConfigProviderExecutor.computeAll(stage,
+                    provider -> generateConfigs(provider, cmTemplateProcessor, template));
+            generatedConfigs.stream()
+                    .filter(Objects::nonNull)
+                    .forEach(configs -> configs.mergeInto(cmTemplateProcessor));
         }
         return cmTemplateProcessor;
     }
+
+    List<List<CmTemplateComponentConfigProvider>> getStages() {
+        List<List<CmTemplateComponentConfigProvider>> stages = new ArrayList<>();
+        List<Integer> stageIndexes = new ArrayList<>(providers.size());
+        for (int i = 0; i < providers.size(); i++) {
+            CmTemplateComponentConfigProvider provider = providers.get(i);
+            int stageIndex = 0;
+            for (int j = 0; j < i; j++) {
+                if (stageIndexes.get(j) >= stageIndex && isConflicting(providers.get(j), provider)) {
+                    stageIndex = stageIndexes.get(j) + 1;
+                }
+            }
+            stageIndexes.add(stageIndex);
+            if (stages.size() == stageIndex) {
+                stages.add(new ArrayList<>());
+            }
+            stages.get(stageIndex).add(provider);
+        }
+        LOGGER.debug("{} component config providers are scheduled into {} stages", providers.size(), stages.size());
+        return stages;
+    }
+
+    private boolean isConflicting(CmTemplateComponentConfigProvider earlier, CmTemplateComponentConfigProvider later) {
+        Set<String> earlierWrites = normalize(earlier.getWriteServiceTypes());
+        Set<String> laterWrites = normalize(later.getWriteServiceTypes());
+        return !Collections.disjoint(earlierWrites, laterWrites)
+                || !Collections.disjoint(earlierWrites, normalize(later.getReadServiceTypes()))
+                || !Collections.disjoint(laterWrites, normalize(earlier.getReadServiceTypes()));
+    }
+
+    private Set<String> normalize(Set<String> serviceTypes) {
+        return serviceTypes.stream().map(serviceType -> serviceType.toUpperCase(Locale.ROOT)).collect(Collectors.toSet());
+    }
+
+    private GeneratedConfigs generateConfigs(CmTemplateComponentConfigProvider provider, CmTemplateProcessor cmTemplateProcessor,
+            TemplatePreparationObject template) {
+        if (provider.isConfigurationNeeded(cmTemplateProcessor, template)) {
+            LOGGER.info("{} is configuring", provider.getClass().getSimpleName());
+            return new GeneratedConfigs(provider,
+                    provider.getServiceConfigs(cmTemplateProcessor, template),
+                    provider.getServiceConfigVariables(template),
+                    provider.getRoleConfigs(cmTemplateProcessor, template),
+                    provider.getRoleConfigVariables(cmTemplateProcessor, template));
+        } else {
+            LOGGER.info("No need for configure the {}", provider.getClass().getSimpleName());
+            return null;
+        }
+    }
+
+    private static class GeneratedConfigs {
+
+        private final CmTemplateComponentConfigProvider provider;
+
+        private final List<ApiClusterTemplateConfig> serviceConfigs;
+
+        private final List<ApiClusterTemplateVariable> serviceConfigVariables;
+
+        private final Map<String, List<ApiClusterTemplateConfig>> roleConfigs;
+
+        private final List<ApiClusterTemplateVariable> roleConfigVariables;
+
+        GeneratedConfigs(CmTemplateComponentConfigProvider provider, List<ApiClusterTemplateConfig> serviceConfigs,
+                List<ApiClusterTemplateVariable> serviceConfigVariables, Map<String, List<ApiClusterTemplateConfig>> roleConfigs,
+                List<ApiClusterTemplateVariable> roleConfigVariables) {
+            this.provider = provider;
+            this.serviceConfigs = serviceConfigs;
+            this.serviceConfigVariables = serviceConfigVariables;
+            this.roleConfigs = roleConfigs;
+            this.roleConfigVariables = roleConfigVariables;
+        }
+
+        void mergeInto(CmTemplateProcessor cmTemplateProcessor) {
+            cmTemplateProcessor.addServiceConfigs(provider.getServiceType(), provider.getRoleTypes(), serviceConfigs);
+            cmTemplateProcessor.addVariables(serviceConfigVariables);
+            cmTemplateProcessor.addRoleConfigs(provider.getServiceType(), roleConfigs);
+            cmTemplateProcessor.addVariables(roleConfigVariables);
+        }
+    }
 }
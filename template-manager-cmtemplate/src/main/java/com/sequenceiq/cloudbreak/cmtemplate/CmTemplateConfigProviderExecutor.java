@@ -0,0 +1,111 @@
+package com.sequenceiq.cloudbreak.cmtemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sequenceiq.cloudbreak.logger.MDCBuilder;
+import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerThreadPoolExecutor;
+import com.sequenceiq.cloudbreak.template.BlueprintProcessingException;
+
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Runs the config generation of independent config providers, in parallel if {@code cb.cmtemplate.configprovider.parallelism} is greater than one,
+ * and records the generation time of every provider in the {@value #PROVIDER_TIMER} timer.
+ * The results are always returned in the order of the providers, so merging them back into the template stays deterministic.
+ */
+@Component
+public class CmTemplateConfigProviderExecutor {
+
+    static final String PROVIDER_TIMER = "cmtemplate.configprovider.generation";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CmTemplateConfigProviderExecutor.class);
+
+    @Value("${cb.cmtemplate.configprovider.parallelism:4}")
+    private int parallelism;
+
+    private ExecutorService executorService;
+
+    @PostConstruct
+    public void init() {
+        if (parallelism > 1) {
+            executorService = new MDCCleanerThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder().setNameFormat("cmtemplate-config-%d").setDaemon(true).build(), new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    public <P, R> List<R> computeAll(List<P> providers, Function<P, R> computation) {
+        if (executorService == null || providers.size() < 2) {
+            return providers.stream()
+                    .map(provider -> timed(provider, computation))
+                    .collect(Collectors.toList());
+        }
+        Map<String, String> mdcContext = MDCBuilder.getMdcContextMap();
+        List<Future<R>> futures = providers.stream()
+                .map(provider -> executorService.submit(() -> {
+                    MDCBuilder.buildMdcContextFromMap(mdcContext);
+                    return timed(provider, computation);
+                }))
+                .collect(Collectors.toList());
+        List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(getResult(future));
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    private <R> R getResult(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlueprintProcessingException("Interrupted while generating cluster template configs.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new BlueprintProcessingException("Failed to generate cluster template configs.", e.getCause());
+        }
+    }
+
+    private <P, R> R timed(P provider, Function<P, R> computation) {
+        long start = System.nanoTime();
+        try {
+            return computation.apply(provider);
+        } finally {
+            long duration = System.nanoTime() - start;
+            String providerName = provider.getClass().getSimpleName();
+            Metrics.timer(PROVIDER_TIMER, "provider", providerName).record(duration, TimeUnit.NANOSECONDS);
+            LOGGER.debug("{} generated its configs under {} ms", providerName, TimeUnit.NANOSECONDS.toMillis(duration));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sequenceiq.cloudbreak.cmtemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cloudera.api.swagger.model.ApiClusterTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hashing;
+import com.sequenceiq.cloudbreak.common.json.JsonUtil;
+import com.sequenceiq.cloudbreak.template.BlueprintProcessingException;
+
+/**
+ * Keeps the parsed JSON tree of recently seen cluster templates, keyed by the SHA-256 hash of the template text.
+ * The cached tree is never handed out: every caller gets its own {@link ApiClusterTemplate} bound from the tree,
+ * so the processors are free to mutate their copy while the text itself is tokenized only once.
+ */
+@Component
+public class CmTemplateParseCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CmTemplateParseCache.class);
+
+    private final Cache<String, JsonNode> parsedTemplates;
+
+    public CmTemplateParseCache(@Value("${cb.cmtemplate.parsecache.maxEntries:200}") long maxEntries,
+            @Value("${cb.cmtemplate.parsecache.expireAfterAccessMinutes:60}") long expireAfterAccessMinutes) {
+        parsedTemplates = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+    }
+
+    public ApiClusterTemplate getTemplate(@Nonnull String cmTemplateText) {
+        String key = Hashing.sha256().hashString(cmTemplateText, StandardCharsets.UTF_8).toString();
+        JsonNode templateTree = parsedTemplates.get(key, k -> parse(cmTemplateText));
+        try {
+            return JsonUtil.treeToValue(templateTree, ApiClusterTemplate.class);
+        } catch (JsonProcessingException e) {
+            throw new BlueprintProcessingException("Failed to parse blueprint text.", e);
+        }
+    }
+
+    public long size() {
+        return parsedTemplates.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        parsedTemplates.invalidateAll();
+    }
+
+    private JsonNode parse(String cmTemplateText) {
+        try {
+            // duplicate keys are accepted, the last one wins, as when the text was bound to the template directly
+            JsonNode templateTree = JsonUtil.readTreeAllowingDuplicateKeys(cmTemplateText);
+            if (templateTree == null || !templateTree.isObject()) {
+                throw new BlueprintProcessingException("Failed to parse blueprint text, it is not a JSON object.");
+            }
+            // bind once so that an invalid template is never cached
+            JsonUtil.treeToValue(templateTree, ApiClusterTemplate.class);
+            LOGGER.debug("Cluster template parsed and cached, cache stats: {}", parsedTemplates.stats());
+            return templateTree;
+        } catch (IOException e) {
+            throw new BlueprintProcessingException("Failed to parse blueprint text.", e);
+        }
+    }
+}
@@ -76,6 +76,10 @@ public class CmTemplateProcessor implements BlueprintTextProcessor {
         }
     }
 
+    CmTemplateProcessor(@Nonnull ApiClusterTemplate cmTemplate) {
+        this.cmTemplate = cmTemplate;
+    }
+
     @Override
     public ClusterManagerType getClusterManagerType() {
         return ClusterManagerType.CLOUDERA_MANAGER;
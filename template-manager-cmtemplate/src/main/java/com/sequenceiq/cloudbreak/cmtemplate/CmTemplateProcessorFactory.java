@@ -4,7 +4,14 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class CmTemplateProcessorFactory {
+
+    private final CmTemplateParseCache cmTemplateParseCache;
+
+    public CmTemplateProcessorFactory(CmTemplateParseCache cmTemplateParseCache) {
+        this.cmTemplateParseCache = cmTemplateParseCache;
+    }
+
     public CmTemplateProcessor get(String cmTemplateText) {
-        return new CmTemplateProcessor(cmTemplateText);
+        return new CmTemplateProcessor(cmTemplateParseCache.getTemplate(cmTemplateText));
     }
 }
@@ -95,6 +95,11 @@ public class CoreConfigProvider extends AbstractRoleConfigProvider {
         return List.of(STORAGEOPERATIONS);
     }
 
+    @Override
+    public Set<String> getReadServiceTypes() {
+        return Set.of(CORE_SETTINGS, HDFS);
+    }
+
     @Override
     public boolean isConfigurationNeeded(CmTemplateProcessor cmTemplateProcessor, TemplatePreparationObject source) {
         return !cmTemplateProcessor.isRoleTypePresentInService(HDFS, Lists.newArrayList(NAMENODE))
@@ -37,6 +37,11 @@ public class RangerCloudStorageServiceConfigProvider implements CmTemplateCompon
         return List.of(RangerRoles.RANGER_ADMIN);
     }
 
+    @Override
+    public Set<String> getReadServiceTypes() {
+        return Set.of(RangerRoles.RANGER, HdfsRoles.HDFS);
+    }
+
     @Override
     public boolean isConfigurationNeeded(CmTemplateProcessor cmTemplateProcessor, TemplatePreparationObject source) {
         return cmTemplateProcessor.isRoleTypePresentInService(getServiceType(), getRoleTypes());
@@ -4,6 +4,7 @@ import static com.sequenceiq.cloudbreak.cmtemplate.configproviders.ConfigUtils.c
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import org.springframework.stereotype.Component;
 
@@ -40,6 +41,11 @@ public class YarnConfigProvider implements CmTemplateComponentConfigProvider {
         return List.of(YarnRoles.YARN);
     }
 
+    @Override
+    public Set<String> getReadServiceTypes() {
+        return Set.of(YarnRoles.YARN, HiveRoles.HIVELLAP);
+    }
+
     @Override
     public boolean isConfigurationNeeded(CmTemplateProcessor cmTemplateProcessor, TemplatePreparationObject source) {
         return Objects.nonNull(source.getGatewayView())
@@ -3,6 +3,7 @@ package com.sequenceiq.cloudbreak.cmtemplate.configproviders.yarn;
 import static com.sequenceiq.cloudbreak.cmtemplate.configproviders.ConfigUtils.config;
 
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.stereotype.Component;
 
@@ -42,6 +43,11 @@ public class YarnResourceManagerRoleConfigProvider extends AbstractRoleConfigPro
         return List.of(YarnRoles.RESOURCEMANAGER);
     }
 
+    @Override
+    public Set<String> getReadServiceTypes() {
+        return Set.of(YarnRoles.YARN, HiveRoles.HIVELLAP);
+    }
+
     @Override
     public boolean isConfigurationNeeded(CmTemplateProcessor cmTemplateProcessor, TemplatePreparationObject source) {
         return cmTemplateProcessor.getServiceByType(HiveRoles.HIVELLAP).isPresent()
@@ -107,6 +107,8 @@ public class CentralCmTemplateUpdaterTest {
         ReflectionTestUtils.setField(cmTemplateComponentConfigProviderProcessor, "providers", cmTemplateComponentConfigProviders);
         ReflectionTestUtils.setField(cmTemplateConfigInjectorProcessor, "injectors", List.of());
         ReflectionTestUtils.setField(cmHostGroupRoleConfigProviderProcessor, "providers", List.of());
+        ReflectionTestUtils.setField(cmTemplateComponentConfigProviderProcessor, "cmTemplateConfigProviderExecutor", new CmTemplateConfigProviderExecutor());
+        ReflectionTestUtils.setField(cmHostGroupRoleConfigProviderProcessor, "cmTemplateConfigProviderExecutor", new CmTemplateConfigProviderExecutor());
     }
 
     private static Set<HostgroupView> toHostgroupViews(Map<String, List<Map<String, String>>> hostgroupMappings) {
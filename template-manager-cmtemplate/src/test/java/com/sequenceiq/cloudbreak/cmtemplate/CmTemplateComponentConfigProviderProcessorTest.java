@@ -0,0 +1,120 @@
+package com.sequenceiq.cloudbreak.cmtemplate;
+
+import static com.sequenceiq.cloudbreak.cmtemplate.configproviders.ConfigUtils.config;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cloudera.api.swagger.model.ApiClusterTemplateConfig;
+import com.cloudera.api.swagger.model.ApiClusterTemplateService;
+import com.sequenceiq.cloudbreak.template.TemplatePreparationObject;
+import com.sequenceiq.cloudbreak.util.FileReaderUtils;
+
+class CmTemplateComponentConfigProviderProcessorTest {
+
+    private final CmTemplateComponentConfigProviderProcessor underTest = new CmTemplateComponentConfigProviderProcessor();
+
+    private final CmTemplateConfigProviderExecutor executor = new CmTemplateConfigProviderExecutor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(executor, "parallelism", 4);
+        executor.init();
+        ReflectionTestUtils.setField(underTest, "cmTemplateConfigProviderExecutor", executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testIndependentProvidersShareAStage() {
+        TestProvider hdfs = new TestProvider("HDFS", Set.of("HDFS"), "hdfs_config");
+        TestProvider yarn = new TestProvider("YARN", Set.of("YARN"), "yarn_config");
+        TestProvider hive = new TestProvider("HIVE", Set.of("HIVE"), "hive_config");
+        ReflectionTestUtils.setField(underTest, "providers", List.of(hdfs, yarn, hive));
+
+        assertEquals(List.of(List.of(hdfs, yarn, hive)), underTest.getStages());
+    }
+
+    @Test
+    void testReaderIsScheduledAfterWriterAndWritersKeepTheirOrder() {
+        TestProvider hdfs = new TestProvider("HDFS", Set.of("HDFS"), "hdfs_config");
+        TestProvider ranger = new TestProvider("RANGER", Set.of("RANGER", "HDFS"), "ranger_config");
+        TestProvider yarn = new TestProvider("YARN", Set.of("YARN"), "yarn_config");
+        TestProvider otherHdfs = new TestProvider("HDFS", Set.of("HDFS"), "other_hdfs_config");
+        ReflectionTestUtils.setField(underTest, "providers", List.of(hdfs, ranger, yarn, otherHdfs));
+
+        assertEquals(List.of(List.of(hdfs, yarn), List.of(ranger, otherHdfs)), underTest.getStages());
+    }
+
+    @Test
+    void testConfigsAreMergedInProviderOrder() {
+        TestProvider first = new TestProvider("HDFS", Set.of("HDFS"), "same_config", "first");
+        TestProvider yarn = new TestProvider("YARN", Set.of("YARN"), "yarn_config");
+        TestProvider second = new TestProvider("HDFS", Set.of("HDFS"), "same_config", "second");
+        ReflectionTestUtils.setField(underTest, "providers", List.of(first, yarn, second));
+        CmTemplateProcessor processor = new CmTemplateProcessor(FileReaderUtils.readFileFromClasspathQuietly("input/clouderamanager.bp"));
+
+        underTest.process(processor, TemplatePreparationObject.Builder.builder().build());
+
+        ApiClusterTemplateService hdfs = processor.getServiceByType("HDFS").get();
+        assertEquals(List.of(config("same_config", "first")), hdfs.getServiceConfigs());
+        ApiClusterTemplateService yarnService = processor.getServiceByType("YARN").get();
+        assertEquals(List.of(config("yarn_config", "value")), yarnService.getServiceConfigs());
+    }
+
+    private static class TestProvider implements CmTemplateComponentConfigProvider {
+
+        private final String serviceType;
+
+        private final Set<String> readServiceTypes;
+
+        private final String configName;
+
+        private final String configValue;
+
+        TestProvider(String serviceType, Set<String> readServiceTypes, String configName) {
+            this(serviceType, readServiceTypes, configName, "value");
+        }
+
+        TestProvider(String serviceType, Set<String> readServiceTypes, String configName, String configValue) {
+            this.serviceType = serviceType;
+            this.readServiceTypes = readServiceTypes;
+            this.configName = configName;
+            this.configValue = configValue;
+        }
+
+        @Override
+        public String getServiceType() {
+            return serviceType;
+        }
+
+        @Override
+        public List<String> getRoleTypes() {
+            return List.of();
+        }
+
+        @Override
+        public Set<String> getReadServiceTypes() {
+            return readServiceTypes;
+        }
+
+        @Override
+        public boolean isConfigurationNeeded(CmTemplateProcessor cmTemplateProcessor, TemplatePreparationObject source) {
+            return cmTemplateProcessor.getServiceByType(serviceType).isPresent();
+        }
+
+        @Override
+        public List<ApiClusterTemplateConfig> getServiceConfigs(CmTemplateProcessor templateProcessor, TemplatePreparationObject source) {
+            return List.of(config(configName, configValue));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.sequenceiq.cloudbreak.cmtemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.cloudera.api.swagger.model.ApiClusterTemplate;
+import com.sequenceiq.cloudbreak.common.json.JsonUtil;
+import com.sequenceiq.cloudbreak.template.BlueprintProcessingException;
+import com.sequenceiq.cloudbreak.util.FileReaderUtils;
+
+class CmTemplateParseCacheTest {
+
+    private final CmTemplateParseCache underTest = new CmTemplateParseCache(10, 1);
+
+    @Test
+    void testSameTextIsParsedOnceAndGivesIndependentCopies() throws Exception {
+        String templateText = FileReaderUtils.readFileFromClasspath("input/clouderamanager.bp");
+
+        ApiClusterTemplate first = underTest.getTemplate(templateText);
+        first.setCdhVersion("modified");
+        first.getServices().clear();
+        ApiClusterTemplate second = underTest.getTemplate(templateText);
+
+        assertEquals(1L, underTest.size());
+        assertNotSame(first, second);
+        assertEquals(JsonUtil.readValue(templateText, ApiClusterTemplate.class), second);
+    }
+
+    @Test
+    void testDifferentTextsAreCachedSeparately() throws Exception {
+        underTest.getTemplate(FileReaderUtils.readFileFromClasspath("input/clouderamanager.bp"));
+        underTest.getTemplate(FileReaderUtils.readFileFromClasspath("input/kafka.bp"));
+
+        assertEquals(2L, underTest.size());
+    }
+
+    @Test
+    void testDuplicateKeysAreAcceptedAndTheLastOneWins() throws Exception {
+        String templateText = "{\"cdhVersion\": \"7.0.0\", \"displayName\": \"first\", \"displayName\": \"second\"}";
+
+        ApiClusterTemplate template = underTest.getTemplate(templateText);
+
+        assertEquals("second", template.getDisplayName());
+        assertEquals(JsonUtil.readValue(templateText, ApiClusterTemplate.class), template);
+    }
+
+    @Test
+    void testInvalidTextIsRejectedAndNotCached() {
+        assertThrows(BlueprintProcessingException.class, () -> underTest.getTemplate("[1, 2]"));
+        assertThrows(BlueprintProcessingException.class, () -> underTest.getTemplate("not a json"));
+
+        assertEquals(0L, underTest.size());
+    }
+}
@@ -31,7 +31,7 @@ public class CmTemplateValidatorTest {
 
     @Spy
     @SuppressFBWarnings(value = "URF_UNREAD_FIELD", justification = "Injected by Mockito")
-    private CmTemplateProcessorFactory templateProcessorFactory = new CmTemplateProcessorFactory();
+    private CmTemplateProcessorFactory templateProcessorFactory = new CmTemplateProcessorFactory(new CmTemplateParseCache(10, 1));
 
     @Test
     public void validWithZeroComputeNodesWhenCardinalityUnspecified() {
@@ -22,6 +22,7 @@ import com.cloudera.api.swagger.model.ApiClusterTemplateConfig;
 import com.cloudera.api.swagger.model.ApiClusterTemplateRoleConfigGroup;
 import com.sequenceiq.cloudbreak.cmtemplate.CmHostGroupRoleConfigProvider;
 import com.sequenceiq.cloudbreak.cmtemplate.CmHostGroupRoleConfigProviderProcessor;
+import com.sequenceiq.cloudbreak.cmtemplate.CmTemplateConfigProviderExecutor;
 import com.sequenceiq.cloudbreak.cmtemplate.CmTemplateProcessor;
 import com.sequenceiq.cloudbreak.cmtemplate.configproviders.hdfs.HdfsVolumeConfigProvider;
 import com.sequenceiq.cloudbreak.cmtemplate.configproviders.yarn.YarnVolumeConfigProvider;
@@ -44,6 +45,9 @@ public class CmHostGroupRoleConfigProviderProcessorTest {
             new HdfsVolumeConfigProvider(), new YarnVolumeConfigProvider()
     ));
 
+    @Spy
+    private final CmTemplateConfigProviderExecutor cmTemplateConfigProviderExecutor = new CmTemplateConfigProviderExecutor();
+
     private TemplatePreparationObject templatePreparator;
 
     private CmTemplateProcessor templateProcessor;
@@ -7,6 +7,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.ContextConfiguration;
 
+import com.sequenceiq.cloudbreak.cmtemplate.CmTemplateParseCache;
 import com.sequenceiq.cloudbreak.cmtemplate.CmTemplateProcessorFactory;
 import com.sequenceiq.cloudbreak.cmtemplate.generator.configuration.CmTemplateGeneratorConfigurationResolver;
 import com.sequenceiq.cloudbreak.cmtemplate.generator.dependencies.ServiceDependencyMatrixService;
@@ -48,7 +49,7 @@ public class CentralTemplateGeneratorContext {
 
         @Bean
         public CmTemplateProcessorFactory cmTemplateProcessorFactory() {
-            return new CmTemplateProcessorFactory();
+            return new CmTemplateProcessorFactory(new CmTemplateParseCache(10, 1));
         }
     }
 
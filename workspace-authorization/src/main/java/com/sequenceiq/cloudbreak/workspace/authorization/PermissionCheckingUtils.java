@@ -3,7 +3,6 @@ package com.sequenceiq.cloudbreak.workspace.authorization;
 import static java.lang.String.format;
 
 import java.util.Collections;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -25,6 +24,7 @@ import com.sequenceiq.authorization.resource.ResourceAction;
 import com.sequenceiq.authorization.service.CommonPermissionCheckingUtils;
 import com.sequenceiq.cloudbreak.workspace.model.Workspace;
 import com.sequenceiq.cloudbreak.workspace.model.WorkspaceAwareResource;
+import com.sequenceiq.cloudbreak.workspace.model.WorkspaceIdAwareResource;
 
 @Component
 public class PermissionCheckingUtils extends CommonPermissionCheckingUtils {
@@ -40,14 +40,11 @@ public class PermissionCheckingUtils extends CommonPermissionCheckingUtils {
         if (workspaceIds.isEmpty()) {
             return;
         }
-        List<Long> idsWithFailedCheck = workspaceIds.stream()
-                .filter(workspaceId -> !umsWorkspaceAuthorizationService.hasRightOfUserForResource(userCrn, resource, action))
-                .collect(Collectors.toList());
-        if (!idsWithFailedCheck.isEmpty()) {
+        // the right is checked on account level, so its decision is the same for every workspace of the returned resources
+        if (!umsWorkspaceAuthorizationService.hasRightOfUserForResource(userCrn, resource, action)) {
             throw new AccessDeniedException(format("You have no [%s] permission to these workspaces: %s.", action.name(),
-                    Joiner.on(",").join(idsWithFailedCheck)));
+                    Joiner.on(",").join(workspaceIds)));
         }
-
     }
 
     private Iterable<?> targetToIterable(Object target) {
@@ -56,16 +53,16 @@ public class PermissionCheckingUtils extends CommonPermissionCheckingUtils {
 
     private Set<Long> collectWorkspaceIds(Iterable<?> target) {
         return StreamSupport.stream(target.spliterator(), false)
+                .map(resource -> resource instanceof Optional ? ((Optional<?>) resource).orElse(null) : resource)
                 .map(resource -> {
-                    if (resource instanceof Optional && ((Optional<?>) resource).isPresent()) {
-                        return (WorkspaceAwareResource) ((Optional<?>) resource).get();
-                    } else if (resource instanceof WorkspaceAwareResource) {
-                        return (WorkspaceAwareResource) resource;
+                    if (resource instanceof WorkspaceAwareResource) {
+                        return getWorkspaceId((WorkspaceAwareResource) resource);
+                    } else if (resource instanceof WorkspaceIdAwareResource) {
+                        return getWorkspaceId((WorkspaceIdAwareResource) resource);
                     }
                     return null;
                 })
                 .filter(Objects::nonNull)
-                .map(this::getWorkspaceId)
                 .collect(Collectors.toSet());
     }
 
@@ -96,6 +93,14 @@ public class PermissionCheckingUtils extends CommonPermissionCheckingUtils {
         return workspaceId;
     }
 
+    private Long getWorkspaceId(WorkspaceIdAwareResource workspaceIdAwareResource) {
+        Long workspaceId = workspaceIdAwareResource.getWorkspaceId();
+        if (workspaceId == null) {
+            throw new IllegalArgumentException("WorkspaceId cannot be null!");
+        }
+        return workspaceId;
+    }
+
     private String getWorkspaceCrn(WorkspaceAwareResource workspaceResource) {
         Workspace workspace = workspaceResource.getWorkspace();
         if (workspace == null) {
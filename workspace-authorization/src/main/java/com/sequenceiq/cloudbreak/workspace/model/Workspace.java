@@ -3,6 +3,7 @@ package com.sequenceiq.cloudbreak.workspace.model;
 import java.io.Serializable;
 import java.util.Objects;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -14,6 +15,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
 
 @Entity
+@Cacheable
 public class Workspace implements TenantAwareResource, Serializable {
 
     @Id
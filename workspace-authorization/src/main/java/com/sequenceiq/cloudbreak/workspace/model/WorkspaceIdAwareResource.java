@@ -0,0 +1,10 @@
+package com.sequenceiq.cloudbreak.workspace.model;
+
+/**
+ * A projection of a workspace aware resource. It carries the id of the workspace instead of the workspace, so the permission checks of the
+ * repository methods returning it work like the ones returning the entity.
+ */
+public interface WorkspaceIdAwareResource {
+
+    Long getWorkspaceId();
+}
@@ -1,6 +1,11 @@
 package com.sequenceiq.cloudbreak.workspace.authorization;
 
 import static java.lang.String.format;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
@@ -11,11 +16,20 @@ import org.junit.rules.ExpectedException;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.access.AccessDeniedException;
+
+import com.sequenceiq.authorization.resource.AuthorizationResource;
+import com.sequenceiq.authorization.resource.ResourceAction;
+import com.sequenceiq.cloudbreak.workspace.model.WorkspaceIdAwareResource;
 
 public class PermissionCheckingUtilsTest {
 
     private static final String INDEX_NAME = "someIndexNameValue";
 
+    private static final String USER_CRN = "crn:cdp:iam:us-west-1:1234:user:userId";
+
+    private static final Long WORKSPACE_ID = 1L;
+
     @Rule
     public ExpectedException thrown = ExpectedException.none();
 
@@ -28,6 +42,12 @@ public class PermissionCheckingUtilsTest {
     @Mock
     private MethodSignature methodSignature;
 
+    @Mock
+    private UmsWorkspaceAuthorizationService umsWorkspaceAuthorizationService;
+
+    @Mock
+    private WorkspaceIdAwareResource projection;
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
@@ -65,4 +85,31 @@ public class PermissionCheckingUtilsTest {
         underTest.validateIndex(index, length, INDEX_NAME);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testCheckPermissionsByTargetWhenTheProjectionOfAnUnreadableResourceIsReturnedThenAccessDeniedExceptionComes() {
+        when(projection.getWorkspaceId()).thenReturn(WORKSPACE_ID);
+
+        thrown.expect(AccessDeniedException.class);
+        thrown.expectMessage(format("You have no [%s] permission to these workspaces: %s", ResourceAction.READ.name(), WORKSPACE_ID));
+
+        underTest.checkPermissionsByTarget(Optional.of(projection), USER_CRN, AuthorizationResource.DATAHUB, ResourceAction.READ);
+    }
+
+    @Test
+    public void testCheckPermissionsByTargetWhenTheProjectionsOfReadableResourcesAreReturnedThenTheRightIsChecked() {
+        when(projection.getWorkspaceId()).thenReturn(WORKSPACE_ID);
+        when(umsWorkspaceAuthorizationService.hasRightOfUserForResource(USER_CRN, AuthorizationResource.DATAHUB, ResourceAction.READ)).thenReturn(true);
+
+        underTest.checkPermissionsByTarget(List.of(projection), USER_CRN, AuthorizationResource.DATAHUB, ResourceAction.READ);
+
+        verify(umsWorkspaceAuthorizationService).hasRightOfUserForResource(USER_CRN, AuthorizationResource.DATAHUB, ResourceAction.READ);
+    }
+
+    @Test
+    public void testCheckPermissionsByTargetWhenTheProjectionHasNoWorkspaceIdThenIllegalArgumentExceptionComes() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("WorkspaceId cannot be null!");
+
+        underTest.checkPermissionsByTarget(projection, USER_CRN, AuthorizationResource.DATAHUB, ResourceAction.READ);
+    }
+}